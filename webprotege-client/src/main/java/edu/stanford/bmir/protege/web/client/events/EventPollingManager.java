@@ -1,8 +1,11 @@
 package edu.stanford.bmir.protege.web.client.events;
 
+import com.google.gwt.core.client.Duration;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.*;
 import com.google.gwt.user.client.Timer;
 import com.google.web.bindery.event.shared.EventBus;
+import edu.stanford.bmir.protege.web.client.dispatch.DispatchErrorMessageDisplay;
 import edu.stanford.bmir.protege.web.client.dispatch.DispatchServiceCallback;
 import edu.stanford.bmir.protege.web.client.dispatch.DispatchServiceManager;
 import edu.stanford.bmir.protege.web.client.user.LoggedInUserProvider;
@@ -16,6 +19,7 @@ import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -25,12 +29,38 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Stanford University<br>
  * Bio-Medical Informatics Research Group<br>
  * Date: 20/03/2013
+ * <p>
+ *     Retrieves project events from the server.  By default, a long-poll request is used to wait for events to be
+ *     posted to the project and the events are then retrieved.  If the long-poll endpoint is unavailable then
+ *     events are retrieved by polling at a fixed interval.
+ * </p>
  */
 @ProjectSingleton
 public class EventPollingManager {
 
+    /**
+     * The URL, relative to the module base URL, of the long-poll endpoint
+     */
+    private static final String PROJECT_EVENTS_URL = "events";
+
     private final DispatchServiceManager dispatchServiceManager;
 
+    private final DispatchErrorMessageDisplay errorDisplay;
+
+    private boolean started = false;
+
+    private boolean longPollingAvailable = true;
+
+    @Nullable
+    private Request pendingLongPoll;
+
+    private final Timer longPollTimer = new Timer() {
+        @Override
+        public void run() {
+            awaitProjectEvents();
+        }
+    };
+
     private int pollingPeriodInMS;
 
     private Timer pollingTimer;
@@ -48,6 +78,7 @@ public class EventPollingManager {
                                ProjectId projectId,
                                EventBus eventBus,
                                DispatchServiceManager dispatchServiceManager,
+                               DispatchErrorMessageDisplay errorDisplay,
                                LoggedInUserProvider loggedInUserProvider) {
         this.eventBus = eventBus;
         this.loggedInUserProvider = loggedInUserProvider;
@@ -63,18 +94,120 @@ public class EventPollingManager {
             }
         };
         this.dispatchServiceManager = dispatchServiceManager;
-
+        this.errorDisplay = checkNotNull(errorDisplay);
     }
 
     public void start() {
-        if(pollingTimer.isRunning()) {
+        if(started) {
             return;
         }
-        pollingTimer.scheduleRepeating(pollingPeriodInMS);
+        started = true;
+        if(longPollingAvailable) {
+            awaitProjectEvents();
+        }
+        else {
+            startPolling();
+        }
     }
 
     public void stop() {
+        started = false;
         pollingTimer.cancel();
+        longPollTimer.cancel();
+        if(pendingLongPoll != null) {
+            pendingLongPoll.cancel();
+            pendingLongPoll = null;
+        }
+    }
+
+    private void startPolling() {
+        if(pollingTimer.isRunning()) {
+            return;
+        }
+        pollingTimer.scheduleRepeating(pollingPeriodInMS);
+    }
+
+    private void fallBackToPolling(String reason) {
+        GWT.log("[Event Polling Manager] Long-poll for project events unavailable (" + reason + ").  Falling back to polling.");
+        longPollingAvailable = false;
+        if(started) {
+            startPolling();
+        }
+    }
+
+    /**
+     * Waits, using a long-poll request, for events from the next tag to be posted to the project.
+     */
+    private void awaitProjectEvents() {
+        if(!started) {
+            return;
+        }
+        final EventTag awaitedTag = nextTag;
+        final double requestStartTime = Duration.currentTimeMillis();
+        String url = GWT.getModuleBaseURL() + PROJECT_EVENTS_URL
+                + "?projectId=" + URL.encodeQueryString(projectId.getId())
+                + "&since=" + awaitedTag.getOrdinal();
+        RequestBuilder requestBuilder = new RequestBuilder(RequestBuilder.GET, url);
+        try {
+            pendingLongPoll = requestBuilder.sendRequest(null, new RequestCallback() {
+                @Override
+                public void onResponseReceived(Request request, Response response) {
+                    pendingLongPoll = null;
+                    if(!started) {
+                        return;
+                    }
+                    int statusCode = response.getStatusCode();
+                    if(statusCode == Response.SC_OK) {
+                        retrieveAwaitedProjectEvents(awaitedTag);
+                    }
+                    else if(statusCode == Response.SC_NO_CONTENT) {
+                        // No events were posted.  Wait again, but don't spin if the server responded straight away.
+                        boolean respondedImmediately = Duration.currentTimeMillis() - requestStartTime < pollingPeriodInMS;
+                        scheduleAwaitProjectEvents(respondedImmediately);
+                    }
+                    else {
+                        fallBackToPolling("status " + statusCode);
+                    }
+                }
+
+                @Override
+                public void onError(Request request, Throwable exception) {
+                    pendingLongPoll = null;
+                    fallBackToPolling(exception.getMessage());
+                }
+            });
+        } catch (RequestException e) {
+            fallBackToPolling(e.getMessage());
+        }
+    }
+
+    private void scheduleAwaitProjectEvents(boolean delay) {
+        if(!started) {
+            return;
+        }
+        if(delay) {
+            longPollTimer.schedule(pollingPeriodInMS);
+        }
+        else {
+            awaitProjectEvents();
+        }
+    }
+
+    private void retrieveAwaitedProjectEvents(EventTag awaitedTag) {
+        GWT.log("[Event Polling Manager] Retrieving project events for " + projectId + " from " + nextTag);
+        dispatchServiceManager.execute(new GetProjectEventsAction(nextTag, projectId),
+                                       new DispatchServiceCallback<GetProjectEventsResult>(errorDisplay) {
+                                           @Override
+                                           public void handleSuccess(GetProjectEventsResult result) {
+                                               dispatchEvents(result.getEvents());
+                                           }
+
+                                           @Override
+                                           public void handleFinally() {
+                                               // If the next tag did not move on then wait a while before trying again
+                                               scheduleAwaitProjectEvents(nextTag.equals(awaitedTag));
+                                           }
+                                       });
     }
 
 
@@ -87,6 +220,10 @@ public class EventPollingManager {
 
     public void dispatchEvents(EventList<?> eventList) {
         if(eventList.isEmpty()) {
+            if(nextTag.equals(eventList.getStartTag()) && !eventList.getStartTag().equals(eventList.getEndTag())) {
+                // Any events between these tags have expired
+                nextTag = eventList.getEndTag();
+            }
             return;
         }
         GWT.log("[Event Polling Manager] Retrieved " + eventList.getEvents().size() + " events from server. From " + eventList.getStartTag() + " to " + eventList.getEndTag());
@@ -18,7 +18,6 @@ import edu.stanford.bmir.protege.web.shared.pagination.Page;
 import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.client.selection.SelectionModel;
-import edu.stanford.protege.gwt.graphtree.shared.Path;
 import edu.stanford.protege.gwt.graphtree.shared.graph.GraphNode;
 import org.semanticweb.owlapi.model.OWLEntity;
 
@@ -189,13 +188,10 @@ public class HierarchyFieldPresenter {
                                                                        entity,
                                                                        id),
                                      result -> {
-                                         List<EntityNode> data = result.getPaths()
+                                         List<EntityNode> data = result.getDirectParents()
                                                  .stream()
-                                                 .map(Path::getLastPredecessor)
-                                                 .filter(Optional::isPresent)
-                                                 .map(Optional::get)
-                                                 .distinct()
                                                  .map(GraphNode::getUserObject)
+                                                 .distinct()
                                                  .collect(toList());
                                          Page<EntityNode> page = new Page<>(1, 1, data, data.size());
                                          consumer.consumeListData(page);
@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.client.project;
 import com.google.auto.factory.AutoFactory;
 import com.google.auto.factory.Provided;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.AcceptsOneWidget;
 import com.google.web.bindery.event.shared.EventBus;
 import edu.stanford.bmir.protege.web.client.app.PermissionScreener;
@@ -22,6 +23,7 @@ import edu.stanford.bmir.protege.web.shared.tag.GetProjectTagsAction;
 import edu.stanford.bmir.protege.web.shared.tag.ProjectTagsChangedEvent;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -34,6 +36,11 @@ import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PRO
  */
 public class ProjectPresenter implements HasDispose, HasProjectId {
 
+    /**
+     * The delay between requests to load a project that the server is still loading
+     */
+    private static final int PROJECT_LOADING_RETRY_DELAY_MS = 1000;
+
     private final ProjectId projectId;
 
     private final ProjectView view;
@@ -54,6 +61,10 @@ public class ProjectPresenter implements HasDispose, HasProjectId {
 
     private final ProjectTagsStyleManager projectTagsStyleManager;
 
+    @Nullable
+    private Timer projectLoadingTimer = null;
+
+    private boolean disposed = false;
 
     @AutoFactory
     @Inject
@@ -99,8 +110,32 @@ public class ProjectPresenter implements HasDispose, HasProjectId {
     private void displayProject(@Nonnull AcceptsOneWidget container,
                                 @Nonnull EventBus eventBus,
                                 @Nonnull ProjectViewPlace place) {
+        if(disposed) {
+            return;
+        }
         dispatchServiceManager.execute(new LoadProjectAction(projectId),
-                                       result -> handleProjectLoaded(container, eventBus, place));
+                                       result -> {
+                                           if(result.isLoaded()) {
+                                               handleProjectLoaded(container, eventBus, place);
+                                           }
+                                           else {
+                                               scheduleDisplayProject(container, eventBus, place);
+                                           }
+                                       });
+    }
+
+    private void scheduleDisplayProject(@Nonnull AcceptsOneWidget container,
+                                        @Nonnull EventBus eventBus,
+                                        @Nonnull ProjectViewPlace place) {
+        GWT.log("[ProjectPresenter] Project is still being loaded.  Retrying.");
+        projectLoadingTimer = new Timer() {
+            @Override
+            public void run() {
+                projectLoadingTimer = null;
+                displayProject(container, eventBus, place);
+            }
+        };
+        projectLoadingTimer.schedule(PROJECT_LOADING_RETRY_DELAY_MS);
     }
 
     private void handleProjectLoaded(@Nonnull AcceptsOneWidget container, @Nonnull EventBus eventBus, @Nonnull ProjectViewPlace place) {
@@ -117,6 +152,11 @@ public class ProjectPresenter implements HasDispose, HasProjectId {
 
     @Override
     public void dispose() {
+        disposed = true;
+        if(projectLoadingTimer != null) {
+            projectLoadingTimer.cancel();
+            projectLoadingTimer = null;
+        }
         topBarPresenter.dispose();
         linkBarPresenter.dispose();
         perspectivePresenter.dispose();
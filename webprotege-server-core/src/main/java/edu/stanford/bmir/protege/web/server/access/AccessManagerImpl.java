@@ -1,23 +1,31 @@
 package edu.stanford.bmir.protege.web.server.access;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.shared.access.ActionId;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.access.RoleId;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.mongodb.morphia.Datastore;
-import org.mongodb.morphia.query.CountOptions;
 import org.mongodb.morphia.query.Query;
 import org.mongodb.morphia.query.UpdateOperations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static edu.stanford.bmir.protege.web.server.access.RoleAssignment.*;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
@@ -26,13 +34,44 @@ import static java.util.stream.Collectors.toSet;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 7 Jan 2017
+ *
+ * The action closures of subjects on resources are cached in process.  Cached action closures are invalidated
+ * when roles are assigned, or rebuilt, through this access manager.  Role assignments that are made by other
+ * processes become visible when cached action closures expire.
  */
 public class AccessManagerImpl implements AccessManager {
 
+    private static final Logger logger = LoggerFactory.getLogger(AccessManagerImpl.class);
+
+    private static final int MAX_CACHED_ACTION_CLOSURES = 10_000;
+
+    private static final long CACHED_ACTION_CLOSURE_EXPIRY_SECONDS = 60;
+
+    private static final int METRICS_LOGGING_INTERVAL = 10_000;
+
     private final RoleOracle roleOracle;
 
     private final Datastore datastore;
 
+    private final Cache<ActionClosureKey, ImmutableSet<String>> actionClosureCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_ACTION_CLOSURES)
+            .expireAfterWrite(CACHED_ACTION_CLOSURE_EXPIRY_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * Incremented, under the cache lock, whenever cached action closures are invalidated.  An action closure
+     * is only cached if no invalidation happened while it was being queried.
+     */
+    private long cacheGeneration = 0;
+
+    private final Object cacheLock = new Object();
+
+    private final LongAdder cacheHitCount = new LongAdder();
+
+    private final LongAdder cacheMissCount = new LongAdder();
+
+    private final LongAdder cacheInvalidationCount = new LongAdder();
+
     /**
      * Constructs an {@link AccessManager} that is backed by MongoDb.
      *
@@ -61,6 +100,7 @@ public class AccessManagerImpl implements AccessManager {
                                                        actionClosure);
         datastore.delete(withUserAndTarget(subject, resource));
         datastore.save(assignment);
+        invalidateCachedActionClosures(userName, projectId);
     }
 
     private List<String> getActionClosure(@Nonnull Collection<RoleId> roleIds) {
@@ -135,20 +175,95 @@ public class AccessManagerImpl implements AccessManager {
     @Nonnull
     @Override
     public Set<ActionId> getActionClosure(@Nonnull Subject subject, @Nonnull Resource resource) {
-        Query<RoleAssignment> query = withUserOrAnyUserAndTarget(subject,
-                                                                 resource);
-        return query.asList()
+        return getCachedActionClosure(subject, resource)
                     .stream()
-                    .flatMap(ra -> ra.getActionClosure().stream())
                     .map(ActionId::new)
                     .collect(toSet());
     }
 
     @Override
     public boolean hasPermission(@Nonnull Subject subject, @Nonnull Resource resource, @Nonnull ActionId actionId) {
-        Query<RoleAssignment> query = withUserOrAnyUserAndTarget(subject, resource)
-                .field(ACTION_CLOSURE).equal(actionId.getId());
-        return query.count(new CountOptions().limit(1)) == 1;
+        return getCachedActionClosure(subject, resource).contains(actionId.getId());
+    }
+
+    @Nonnull
+    private ImmutableSet<String> getCachedActionClosure(@Nonnull Subject subject, @Nonnull Resource resource) {
+        ActionClosureKey key = new ActionClosureKey(toUserName(subject), toProjectId(resource));
+        ImmutableSet<String> cachedActionClosure = actionClosureCache.getIfPresent(key);
+        if (cachedActionClosure != null) {
+            cacheHitCount.increment();
+            return cachedActionClosure;
+        }
+        cacheMissCount.increment();
+        long generation;
+        synchronized (cacheLock) {
+            generation = cacheGeneration;
+        }
+        ImmutableSet<String> actionClosure = withUserOrAnyUserAndTarget(subject, resource)
+                .asList()
+                .stream()
+                .flatMap(ra -> ra.getActionClosure().stream())
+                .collect(toImmutableSet());
+        synchronized (cacheLock) {
+            if (generation == cacheGeneration) {
+                actionClosureCache.put(key, actionClosure);
+            }
+        }
+        logMetricsIfNecessary();
+        return actionClosure;
+    }
+
+    /**
+     * Invalidates the cached action closures that depend upon the role assignment for the specified user
+     * name and project id.
+     *
+     * @param userName  The user name.  A null user name denotes any signed in user, whose role assignments
+     *                  contribute to the action closure of every signed in user.
+     * @param projectId The project id.  A null project id denotes the application.
+     */
+    private void invalidateCachedActionClosures(@Nullable String userName, @Nullable String projectId) {
+        synchronized (cacheLock) {
+            cacheGeneration++;
+            if (userName != null) {
+                actionClosureCache.invalidate(new ActionClosureKey(userName, projectId));
+            }
+            else {
+                actionClosureCache.asMap().keySet().removeIf(key -> Objects.equals(key.projectId, projectId));
+            }
+        }
+        cacheInvalidationCount.increment();
+    }
+
+    private void invalidateAllCachedActionClosures() {
+        synchronized (cacheLock) {
+            cacheGeneration++;
+            actionClosureCache.invalidateAll();
+        }
+        cacheInvalidationCount.increment();
+    }
+
+    /**
+     * Gets a snapshot of the activity of the permission cache.
+     */
+    @Nonnull
+    public PermissionCacheMetrics getPermissionCacheMetrics() {
+        return PermissionCacheMetrics.get(cacheHitCount.sum(),
+                                          cacheMissCount.sum(),
+                                          cacheInvalidationCount.sum(),
+                                          actionClosureCache.estimatedSize());
+    }
+
+    private void logMetricsIfNecessary() {
+        if (cacheMissCount.sum() % METRICS_LOGGING_INTERVAL != 0) {
+            return;
+        }
+        PermissionCacheMetrics metrics = getPermissionCacheMetrics();
+        logger.info("Permission cache: {} hits, {} misses (hit rate {}), {} invalidations, {} cached action closures",
+                    metrics.getHitCount(),
+                    metrics.getMissCount(),
+                    String.format("%.3f", metrics.getHitRate()),
+                    metrics.getInvalidationCount(),
+                    metrics.getSize());
     }
 
     @Override
@@ -210,7 +325,7 @@ public class AccessManagerImpl implements AccessManager {
                          .set(RoleAssignment.ROLE_CLOSURE, roleClosure);
                  datastore.update(roleAssignment, updateOperations);
              });
-
+        invalidateAllCachedActionClosures();
     }
 
     /**
@@ -230,4 +345,39 @@ public class AccessManagerImpl implements AccessManager {
         return resource.getProjectId().map(ProjectId::getId).orElse(null);
     }
 
+    /**
+     * Identifies the cached action closure of a subject on a resource.
+     */
+    private static final class ActionClosureKey {
+
+        @Nullable
+        private final String userName;
+
+        @Nullable
+        private final String projectId;
+
+        private ActionClosureKey(@Nullable String userName, @Nullable String projectId) {
+            this.userName = userName;
+            this.projectId = projectId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userName, projectId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ActionClosureKey)) {
+                return false;
+            }
+            ActionClosureKey other = (ActionClosureKey) obj;
+            return Objects.equals(this.userName, other.userName)
+                    && Objects.equals(this.projectId, other.projectId);
+        }
+    }
+
 }
@@ -0,0 +1,52 @@
+package edu.stanford.bmir.protege.web.server.access;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * A snapshot of the activity of the permission cache in an {@link AccessManagerImpl}.
+ */
+@AutoValue
+public abstract class PermissionCacheMetrics {
+
+    @Nonnull
+    public static PermissionCacheMetrics get(long hitCount,
+                                             long missCount,
+                                             long invalidationCount,
+                                             long size) {
+        return new AutoValue_PermissionCacheMetrics(hitCount, missCount, invalidationCount, size);
+    }
+
+    /**
+     * The number of permission lookups that were answered from the cache.
+     */
+    public abstract long getHitCount();
+
+    /**
+     * The number of permission lookups that required a query against the role assignments.
+     */
+    public abstract long getMissCount();
+
+    /**
+     * The number of times that cached action closures have been invalidated because role assignments changed.
+     */
+    public abstract long getInvalidationCount();
+
+    /**
+     * The (approximate) number of action closures that are currently cached.
+     */
+    public abstract long getSize();
+
+    /**
+     * Gets the proportion of lookups that were answered from the cache.
+     * @return The hit rate, or 1.0 if there have been no lookups.
+     */
+    public double getHitRate() {
+        long lookupCount = getHitCount() + getMissCount();
+        return lookupCount == 0 ? 1.0 : (double) getHitCount() / lookupCount;
+    }
+}
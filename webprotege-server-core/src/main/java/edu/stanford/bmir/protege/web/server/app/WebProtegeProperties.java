@@ -115,4 +115,92 @@ public class WebProtegeProperties implements Serializable {
     public Optional<String> getDBHost() {
         return getOptionalString(MONGO_DB_HOST);
     }
+
+    public int getRevisionSnapshotInterval() {
+        return Integer.parseInt(getRequiredString(REVISION_SNAPSHOT_INTERVAL));
+    }
+
+    public long getRevisionSnapshotBytes() {
+        return Long.parseLong(getRequiredString(REVISION_SNAPSHOT_BYTES));
+    }
+
+    public int getRevisionSnapshotRetained() {
+        return Integer.parseInt(getRequiredString(REVISION_SNAPSHOT_RETAINED));
+    }
+
+    public boolean isRevisionStoreLazyLoading() {
+        return Boolean.parseBoolean(getRequiredString(REVISION_STORE_LAZY_LOADING));
+    }
+
+    public int getRevisionStoreCacheSize() {
+        return Integer.parseInt(getRequiredString(REVISION_STORE_CACHE_SIZE));
+    }
+
+    public long getRevisionWriterMaxLatency() {
+        return Long.parseLong(getRequiredString(REVISION_WRITER_MAX_LATENCY));
+    }
+
+    public int getRevisionWriterMaxBatchSize() {
+        return Integer.parseInt(getRequiredString(REVISION_WRITER_MAX_BATCH_SIZE));
+    }
+
+    public boolean isRevisionWriterAwaitDurability() {
+        return Boolean.parseBoolean(getRequiredString(REVISION_WRITER_AWAIT_DURABILITY));
+    }
+
+    public long getProjectCacheIdleTimeout() {
+        return Long.parseLong(getRequiredString(PROJECT_CACHE_IDLE_TIMEOUT));
+    }
+
+    public int getProjectCacheMaxProjects() {
+        return Integer.parseInt(getRequiredString(PROJECT_CACHE_MAX_PROJECTS));
+    }
+
+    public long getProjectCacheHeapBudgetMb() {
+        return Long.parseLong(getRequiredString(PROJECT_CACHE_HEAP_BUDGET_MB));
+    }
+
+    public long getProjectCacheLoadWait() {
+        return Long.parseLong(getRequiredString(PROJECT_CACHE_LOAD_WAIT));
+    }
+
+    public int getProjectWarmUpMaxProjects() {
+        return Integer.parseInt(getRequiredString(PROJECT_WARM_UP_MAX_PROJECTS));
+    }
+
+    public int getProjectWarmUpThreads() {
+        return Integer.parseInt(getRequiredString(PROJECT_WARM_UP_THREADS));
+    }
+
+    public long getProjectWarmUpRetainTime() {
+        return Long.parseLong(getRequiredString(PROJECT_WARM_UP_RETAIN_TIME));
+    }
+
+    public boolean isProjectLockedReads() {
+        return Boolean.parseBoolean(getRequiredString(PROJECT_LOCKED_READS));
+    }
+
+    public int getWebhookMaxInFlight() {
+        return Integer.parseInt(getRequiredString(WEBHOOK_MAX_IN_FLIGHT));
+    }
+
+    public int getWebhookMaxQueued() {
+        return Integer.parseInt(getRequiredString(WEBHOOK_MAX_QUEUED));
+    }
+
+    public long getWebhookTimeout() {
+        return Long.parseLong(getRequiredString(WEBHOOK_TIMEOUT));
+    }
+
+    public int getWebhookMaxAttempts() {
+        return Integer.parseInt(getRequiredString(WEBHOOK_MAX_ATTEMPTS));
+    }
+
+    public long getWebhookRetryDelay() {
+        return Long.parseLong(getRequiredString(WEBHOOK_RETRY_DELAY));
+    }
+
+    public int getDispatchResultCacheMaxSize() {
+        return Integer.parseInt(getRequiredString(DISPATCH_RESULT_CACHE_MAX_SIZE));
+    }
 }
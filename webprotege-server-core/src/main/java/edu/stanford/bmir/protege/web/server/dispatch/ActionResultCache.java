@@ -0,0 +1,234 @@
+package edu.stanford.bmir.protege.web.server.dispatch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.access.AccessManager;
+import edu.stanford.bmir.protege.web.shared.access.ActionId;
+import edu.stanford.bmir.protege.web.shared.dispatch.Action;
+import edu.stanford.bmir.protege.web.shared.dispatch.Result;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.bmir.protege.web.server.access.ProjectResource.forProject;
+import static edu.stanford.bmir.protege.web.server.access.Subject.forUser;
+
+/**
+ * agent
+ * 2026-10-17
+ * <p>
+ * Caches the results of actions that are executed by {@link CacheableActionHandler}s.  A result is keyed by the
+ * action, the revision of the project that the action was executed against and the action closure (the
+ * permissions) of the user that executed the action.  Users with the same permissions therefore share results, and
+ * results for earlier revisions are never returned once a later revision has been committed - they simply fall out
+ * of the cache.  Changes to the project settings, which are not versioned, invalidate the cached results for the
+ * project.  Results that are computed whilst the project dictionaries are being built, and that may therefore
+ * render entities with local names, are not cached.
+ * </p>
+ */
+@ApplicationSingleton
+public class ActionResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActionResultCache.class);
+
+    private static final int METRICS_LOGGING_INTERVAL = 10_000;
+
+    @Nonnull
+    private final AccessManager accessManager;
+
+    private final boolean enabled;
+
+    private final Cache<ResultKey, Result> cache;
+
+    /**
+     * Per-project generations.  A generation is incremented whenever the cached results for a project are
+     * invalidated, so that results computed before the invalidation are never returned after it.
+     */
+    private final Map<ProjectId, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Map<String, ActionCounters> counters = new ConcurrentHashMap<>();
+
+    private final LongAdder missCount = new LongAdder();
+
+    @Inject
+    public ActionResultCache(@Nonnull ActionResultCacheSettings settings,
+                             @Nonnull AccessManager accessManager) {
+        this.accessManager = checkNotNull(accessManager);
+        this.enabled = settings.getMaxSize() > 0;
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(settings.getMaxSize())
+                             .build();
+    }
+
+    /**
+     * Determines whether results are cached.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the result of an action, executing the action if its result is not cached.
+     * @param projectId The project that the action is executed against.
+     * @param action The action.
+     * @param userId The user that executes the action.
+     * @param revisionNumber The last committed revision of the project when the action is executed.  If the
+     *                       project may have changed whilst the action was executed then {@code cacheable} must
+     *                       return false.
+     * @param executor Executes the action.
+     * @param cacheable Determines, once the action has been executed, whether its result may be cached.  A result
+     *                  that depends upon state that is not captured by the revision, such as dictionaries that
+     *                  were still being built when it was computed, or changes that were published whilst it was
+     *                  computed, must not be cached.
+     * @return The result of the action.
+     */
+    @SuppressWarnings("unchecked")
+    public <R extends Result> R getResult(@Nonnull ProjectId projectId,
+                                          @Nonnull Action<R> action,
+                                          @Nonnull UserId userId,
+                                          @Nonnull RevisionNumber revisionNumber,
+                                          @Nonnull Supplier<R> executor,
+                                          @Nonnull BooleanSupplier cacheable) {
+        if (!enabled) {
+            return executor.get();
+        }
+        ImmutableSet<ActionId> actionClosure = ImmutableSet.copyOf(accessManager.getActionClosure(forUser(userId),
+                                                                                                  forProject(projectId)));
+        long generation = getGeneration(projectId).get();
+        ResultKey key = new ResultKey(projectId, action, revisionNumber, actionClosure, generation);
+        ActionCounters actionCounters = counters.computeIfAbsent(action.getClass().getSimpleName(),
+                                                                 name -> new ActionCounters());
+        Result cachedResult = cache.getIfPresent(key);
+        if (cachedResult != null) {
+            actionCounters.hitCount.increment();
+            return (R) cachedResult;
+        }
+        actionCounters.missCount.increment();
+        missCount.increment();
+        // Executed outside of the cache so that slow actions do not block the loading of other results
+        R result = executor.get();
+        if (result != null && cacheable.getAsBoolean()) {
+            cache.put(key, result);
+        }
+        logMetricsIfNecessary();
+        return result;
+    }
+
+    private AtomicLong getGeneration(@Nonnull ProjectId projectId) {
+        return generations.computeIfAbsent(projectId, id -> new AtomicLong());
+    }
+
+    /**
+     * Invalidates the cached results for the specified project.
+     * @param projectId The project.
+     */
+    public void invalidate(@Nonnull ProjectId projectId) {
+        if (!enabled) {
+            return;
+        }
+        getGeneration(projectId).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.projectId.equals(projectId));
+    }
+
+    /**
+     * Gets a snapshot of the activity of the cache, keyed by the simple name of the action class.
+     */
+    @Nonnull
+    public ImmutableMap<String, ActionResultCacheMetrics> getMetrics() {
+        ImmutableMap.Builder<String, ActionResultCacheMetrics> builder = ImmutableMap.builder();
+        counters.forEach((actionName, actionCounters) -> builder.put(actionName,
+                                                                     ActionResultCacheMetrics.get(
+                                                                             actionCounters.hitCount.sum(),
+                                                                             actionCounters.missCount.sum())));
+        return builder.build();
+    }
+
+    /**
+     * Gets the (approximate) number of cached results.
+     */
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    private void logMetricsIfNecessary() {
+        if (missCount.sum() % METRICS_LOGGING_INTERVAL != 0) {
+            return;
+        }
+        getMetrics().forEach((actionName, metrics) ->
+                                     logger.info("Action result cache: {} {} hits, {} misses (hit rate {})",
+                                                 actionName,
+                                                 metrics.getHitCount(),
+                                                 metrics.getMissCount(),
+                                                 String.format("%.3f", metrics.getHitRate())));
+        logger.info("Action result cache: {} cached results", getSize());
+    }
+
+    private static final class ActionCounters {
+
+        private final LongAdder hitCount = new LongAdder();
+
+        private final LongAdder missCount = new LongAdder();
+    }
+
+    private static final class ResultKey {
+
+        private final ProjectId projectId;
+
+        private final Action<?> action;
+
+        private final RevisionNumber revisionNumber;
+
+        private final ImmutableSet<ActionId> actionClosure;
+
+        private final long generation;
+
+        private ResultKey(ProjectId projectId,
+                          Action<?> action,
+                          RevisionNumber revisionNumber,
+                          ImmutableSet<ActionId> actionClosure,
+                          long generation) {
+            this.projectId = projectId;
+            this.action = action;
+            this.revisionNumber = revisionNumber;
+            this.actionClosure = actionClosure;
+            this.generation = generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectId, action, revisionNumber, actionClosure, generation);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof ResultKey)) {
+                return false;
+            }
+            ResultKey other = (ResultKey) obj;
+            return this.generation == other.generation
+                    && this.projectId.equals(other.projectId)
+                    && this.action.equals(other.action)
+                    && this.revisionNumber.equals(other.revisionNumber)
+                    && this.actionClosure.equals(other.actionClosure);
+        }
+    }
+}
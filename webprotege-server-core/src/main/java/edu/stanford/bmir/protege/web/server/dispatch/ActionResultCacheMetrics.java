@@ -0,0 +1,40 @@
+package edu.stanford.bmir.protege.web.server.dispatch;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * A snapshot of the activity of an {@link ActionResultCache} for one type of action.
+ */
+@AutoValue
+public abstract class ActionResultCacheMetrics {
+
+    @Nonnull
+    public static ActionResultCacheMetrics get(long hitCount,
+                                               long missCount) {
+        return new AutoValue_ActionResultCacheMetrics(hitCount, missCount);
+    }
+
+    /**
+     * The number of actions whose results were answered from the cache.
+     */
+    public abstract long getHitCount();
+
+    /**
+     * The number of actions that had to be executed.
+     */
+    public abstract long getMissCount();
+
+    /**
+     * Gets the proportion of actions whose results were answered from the cache.
+     * @return The hit rate, or 0.0 if there have been no actions.
+     */
+    public double getHitRate() {
+        long lookupCount = getHitCount() + getMissCount();
+        return lookupCount == 0 ? 0.0 : (double) getHitCount() / lookupCount;
+    }
+}
@@ -0,0 +1,28 @@
+package edu.stanford.bmir.protege.web.server.dispatch;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Settings for the server side cache of the results of read-only project actions.
+ */
+@AutoValue
+public abstract class ActionResultCacheSettings {
+
+    @Nonnull
+    public static ActionResultCacheSettings get(int maxSize) {
+        checkArgument(maxSize >= 0, "maxSize must not be negative");
+        return new AutoValue_ActionResultCacheSettings(maxSize);
+    }
+
+    /**
+     * Gets the maximum number of action results that are cached.  A value of zero disables the cache.
+     */
+    public abstract int getMaxSize();
+}
@@ -0,0 +1,33 @@
+package edu.stanford.bmir.protege.web.server.dispatch;
+
+import edu.stanford.bmir.protege.web.shared.dispatch.Action;
+import edu.stanford.bmir.protege.web.shared.dispatch.Result;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * A marker interface for project action handlers whose results may be cached by the dispatch service.  The result
+ * of a cacheable action must depend only upon the action, the state of the project at the last committed revision,
+ * the project settings and the permissions of the user that executes the action.  In particular, the result must
+ * not depend upon the identity of the user, the time, or any other state (watches, comments etc.) that can change
+ * without a new revision being committed.  The handler must not apply changes to the project.
+ *
+ * @see ActionResultCache
+ */
+public interface CacheableActionHandler<A extends Action<R>, R extends Result> {
+
+    /**
+     * Called each time that a result is returned for an action, whether the result was computed by this handler or
+     * taken from the cache.  Handlers that log what users browse should log it here rather than when the action is
+     * executed, so that results that are served from the cache are logged too.
+     * @param action The action.
+     * @param result The result of the action.
+     * @param executionContext The context that the action was executed in.
+     */
+    default void logResult(@Nonnull A action, @Nonnull R result, @Nonnull ExecutionContext executionContext) {
+
+    }
+}
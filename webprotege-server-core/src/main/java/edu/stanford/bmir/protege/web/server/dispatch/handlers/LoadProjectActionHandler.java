@@ -8,6 +8,7 @@ import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.dispatch.RequestContext;
 import edu.stanford.bmir.protege.web.server.dispatch.RequestValidator;
 import edu.stanford.bmir.protege.web.server.dispatch.validators.ProjectPermissionValidator;
+import edu.stanford.bmir.protege.web.server.project.ProjectCacheSettings;
 import edu.stanford.bmir.protege.web.server.project.ProjectDetailsManager;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
 import edu.stanford.bmir.protege.web.server.tag.TagsManager;
@@ -23,7 +24,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PROJECT;
 
@@ -49,15 +52,20 @@ public class LoadProjectActionHandler implements ApplicationActionHandler<LoadPr
     @Nonnull
     private final UserActivityManager userActivityManager;
 
+    @Nonnull
+    private final ProjectCacheSettings projectCacheSettings;
+
     @Inject
     public LoadProjectActionHandler(@Nonnull ProjectDetailsManager projectDetailsManager,
                                     @Nonnull ProjectManager projectManager,
                                     @Nonnull AccessManager accessManager,
-                                    @Nonnull UserActivityManager userActivityManager) {
+                                    @Nonnull UserActivityManager userActivityManager,
+                                    @Nonnull ProjectCacheSettings projectCacheSettings) {
         this.projectDetailsManager = projectDetailsManager;
         this.accessManager = accessManager;
         this.projectManager = projectManager;
         this.userActivityManager = userActivityManager;
+        this.projectCacheSettings = projectCacheSettings;
     }
 
     @Nonnull
@@ -80,7 +88,30 @@ public class LoadProjectActionHandler implements ApplicationActionHandler<LoadPr
         logger.info("{} is being loaded due to request by {}",
                     action.getProjectId(),
                     executionContext.getUserId());
-        projectManager.getProject(action.getProjectId(), executionContext.getUserId());
+        final ProjectId projectId = action.getProjectId();
+        var projectFuture = projectManager.getProjectAsync(projectId, executionContext.getUserId());
+        try {
+            // Large projects can take minutes to load.  Rather than tying up the request thread
+            // we tell the client that the project is loading and let it ask again.
+            projectFuture.get(projectCacheSettings.getLoadWaitTime(), TimeUnit.MILLISECONDS);
+        } catch(TimeoutException e) {
+            logger.info("{} is still loading after {} ms.  Request by {}",
+                        projectId,
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS),
+                        executionContext.getUserId());
+            return LoadProjectResult.loading(projectId,
+                                             executionContext.getUserId(),
+                                             projectDetailsManager.getProjectDetails(projectId));
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch(ExecutionException e) {
+            var cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
         stopwatch.stop();
         logger.info("{} was loaded in {} ms due to request by {}",
                     action.getProjectId(),
@@ -89,7 +120,6 @@ public class LoadProjectActionHandler implements ApplicationActionHandler<LoadPr
         MemoryMonitor memoryMonitor = new MemoryMonitor(logger);
         memoryMonitor.monitorMemoryUsage();
         memoryMonitor.logMemoryUsage();
-        final ProjectId projectId = action.getProjectId();
         ProjectDetails projectDetails = projectDetailsManager.getProjectDetails(projectId);
         if (!executionContext.getUserId().isGuest()) {
             userActivityManager.addRecentProject(executionContext.getUserId(), action.getProjectId(), System.currentTimeMillis());
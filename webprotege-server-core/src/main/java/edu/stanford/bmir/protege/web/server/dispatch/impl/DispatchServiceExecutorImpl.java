@@ -3,7 +3,9 @@ package edu.stanford.bmir.protege.web.server.dispatch.impl;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.app.UserInSessionFactory;
 import edu.stanford.bmir.protege.web.server.dispatch.*;
+import edu.stanford.bmir.protege.web.server.project.ProjectChangeLock;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
+import edu.stanford.bmir.protege.web.server.shortform.MultiLingualDictionary;
 import edu.stanford.bmir.protege.web.shared.dispatch.*;
 import edu.stanford.bmir.protege.web.shared.permissions.PermissionDeniedException;
 import edu.stanford.bmir.protege.web.shared.project.HasProjectId;
@@ -37,13 +39,18 @@ public class DispatchServiceExecutorImpl implements DispatchServiceExecutor {
     @Nonnull
     private final UserInSessionFactory userInSessionFactory;
 
+    @Nonnull
+    private final ActionResultCache resultCache;
+
     @Inject
     public DispatchServiceExecutorImpl(@Nonnull ApplicationActionHandlerRegistry handlerRegistry,
                                        @Nonnull ProjectManager projectManager,
-                                       @Nonnull UserInSessionFactory userInSessionFactory) {
+                                       @Nonnull UserInSessionFactory userInSessionFactory,
+                                       @Nonnull ActionResultCache resultCache) {
         this.handlerRegistry = checkNotNull(handlerRegistry);
         this.projectManager = checkNotNull(projectManager);
         this.userInSessionFactory = userInSessionFactory;
+        this.resultCache = checkNotNull(resultCache);
     }
 
     /**
@@ -111,18 +118,23 @@ public class DispatchServiceExecutorImpl implements DispatchServiceExecutor {
 
     private <A extends Action<R>, R extends Result> DispatchServiceResultContainer execAction(A action, RequestContext requestContext, ExecutionContext executionContext) {
         final ActionHandler<A, R> actionHandler;
+        final ProjectChangeLock projectChangeLock;
+        final ProjectId projectId;
         final Thread thread = Thread.currentThread();
         String threadName = thread.getName();
         if (action instanceof ProjectAction) {
             ProjectAction projectAction = (ProjectAction) action;
-            ProjectId projectId = projectAction.getProjectId();
+            projectId = projectAction.getProjectId();
             setTemporaryThreadName(thread, action, projectId);
             ProjectActionHandlerRegistry actionHanderRegistry = projectManager.getActionHandlerRegistry(projectId);
             actionHandler = actionHanderRegistry.getActionHandler(action);
+            projectChangeLock = projectManager.getProjectChangeLock(projectId);
         }
         else {
             setTemporaryThreadName(thread, action, null);
             actionHandler = handlerRegistry.getActionHandler(action);
+            projectChangeLock = null;
+            projectId = null;
         }
 
         RequestValidator validator = actionHandler.getRequestValidator(action, requestContext);
@@ -133,7 +145,19 @@ public class DispatchServiceExecutorImpl implements DispatchServiceExecutor {
         }
 
         try {
-            R result = actionHandler.execute(action, executionContext);
+            R result;
+            if (projectChangeLock != null) {
+                // Project actions read the project as of the last committed revision (if locked reads are
+                // enabled).  Actions that apply changes step outside of the read to do so.
+                result = projectChangeLock.read(() -> executeProjectAction(projectId,
+                                                                           action,
+                                                                           actionHandler,
+                                                                           projectChangeLock,
+                                                                           executionContext));
+            }
+            else {
+                result = actionHandler.execute(action, executionContext);
+            }
             return new DispatchServiceResultContainer(result);
         } catch (PermissionDeniedException e) {
             throw e;
@@ -145,6 +169,48 @@ public class DispatchServiceExecutorImpl implements DispatchServiceExecutor {
         }
     }
 
+    private <A extends Action<R>, R extends Result> R executeProjectAction(@Nonnull ProjectId projectId,
+                                                                          @Nonnull A action,
+                                                                          @Nonnull ActionHandler<A, R> actionHandler,
+                                                                          @Nonnull ProjectChangeLock projectChangeLock,
+                                                                          @Nonnull ExecutionContext executionContext) {
+        if (!(actionHandler instanceof CacheableActionHandler)) {
+            return actionHandler.execute(action, executionContext);
+        }
+        R result = getCacheableResult(projectId, action, actionHandler, projectChangeLock, executionContext);
+        // Logged here, rather than by the handler when it executes the action, so that cache hits are logged too
+        @SuppressWarnings("unchecked")
+        CacheableActionHandler<A, R> cacheableActionHandler = (CacheableActionHandler<A, R>) actionHandler;
+        cacheableActionHandler.logResult(action, result, executionContext);
+        return result;
+    }
+
+    private <A extends Action<R>, R extends Result> R getCacheableResult(@Nonnull ProjectId projectId,
+                                                                        @Nonnull A action,
+                                                                        @Nonnull ActionHandler<A, R> actionHandler,
+                                                                        @Nonnull ProjectChangeLock projectChangeLock,
+                                                                        @Nonnull ExecutionContext executionContext) {
+        if (!resultCache.isEnabled()) {
+            return actionHandler.execute(action, executionContext);
+        }
+        // Whilst dictionaries are being built short forms fall back to local names.  Results that are computed in
+        // this state are not cached, otherwise they would be served with local names for the whole revision.
+        MultiLingualDictionary dictionary = projectManager.getDictionary(projectId);
+        long loadedStamp = dictionary.getLoadedStamp();
+        // A result can only be tied to the committed revision if no changes were published whilst it was computed.
+        // This is always the case with locked reads.  Without them, results that overlap a publication are not
+        // cached because they may contain changes that were half way through being published.
+        long publicationStamp = projectChangeLock.getPublicationStamp();
+        return resultCache.getResult(projectId,
+                                     action,
+                                     executionContext.getUserId(),
+                                     projectChangeLock.getCommittedRevision(),
+                                     () -> actionHandler.execute(action, executionContext),
+                                     () -> loadedStamp != -1
+                                             && dictionary.getLoadedStamp() == loadedStamp
+                                             && projectChangeLock.isUnpublishedSince(publicationStamp));
+    }
+
     private PermissionDeniedException getPermissionDeniedException(@Nonnull UserId userId,
                                                                    @Nonnull RequestValidationResult validationResult) {
         if (validationResult.getInvalidException().isPresent()) {
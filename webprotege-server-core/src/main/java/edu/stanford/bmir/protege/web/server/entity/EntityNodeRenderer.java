@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.server.entity;
 
+import com.google.common.collect.ImmutableMap;
 import edu.stanford.bmir.protege.web.server.issues.EntityDiscussionThreadRepository;
 import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
 import edu.stanford.bmir.protege.web.server.mansyntax.render.DeprecatedEntityChecker;
@@ -12,6 +13,8 @@ import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -73,4 +76,35 @@ public class EntityNodeRenderer {
                 discussionThreadRepository.getOpenCommentsCount(projectId, entity),
                 tagsManager.getTags(entity));
     }
+
+    /**
+     * Renders the nodes for the specified entities.  Watches, open comment counts and tags are retrieved
+     * for all of the entities at once, rather than for each entity in turn, so this should be used in
+     * preference to {@link #render(OWLEntity)} when rendering lists of entities.
+     * @param entities The entities to be rendered.
+     * @return A map from entity to the node for that entity.  The iteration order of the map is the iteration
+     * order of the specified entities.
+     */
+    @Nonnull
+    public ImmutableMap<OWLEntity, EntityNode> renderAll(@Nonnull Collection<? extends OWLEntity> entities) {
+        if(entities.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        var languages = languageManager.getLanguages();
+        var watches = watchManager.getDirectWatches(entities);
+        var openCommentCounts = discussionThreadRepository.getOpenCommentsCounts(projectId, entities);
+        var tags = tagsManager.getTags(entities);
+        var nodes = new LinkedHashMap<OWLEntity, EntityNode>();
+        for(OWLEntity entity : entities) {
+            nodes.computeIfAbsent(entity, e -> EntityNode.get(
+                    e,
+                    dictionaryManager.getShortForm(e, languages),
+                    dictionaryManager.getShortForms(e),
+                    deprecatedEntityChecker.isDeprecated(e),
+                    watches.get(e),
+                    openCommentCounts.getOrDefault(e, 0),
+                    tags.get(e)));
+        }
+        return ImmutableMap.copyOf(nodes);
+    }
 }
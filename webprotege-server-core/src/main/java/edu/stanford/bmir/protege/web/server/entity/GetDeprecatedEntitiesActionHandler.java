@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.entity;
 
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
+import edu.stanford.bmir.protege.web.server.dispatch.CacheableActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.inject.project.RootOntology;
 import edu.stanford.bmir.protege.web.server.mansyntax.render.DeprecatedEntityChecker;
@@ -20,7 +21,7 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.Optional;
 
-import static edu.stanford.bmir.protege.web.server.pagination.PageCollector.toPageNumber;
+import static edu.stanford.bmir.protege.web.server.pagination.SortedPageCollector.toSortedPage;
 import static edu.stanford.bmir.protege.web.server.util.ProtegeStreams.entityStream;
 import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PROJECT;
 
@@ -29,7 +30,7 @@ import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PRO
  * Stanford Center for Biomedical Informatics Research
  * 16 Jun 2017
  */
-public class GetDeprecatedEntitiesActionHandler extends AbstractProjectActionHandler<GetDeprecatedEntitiesAction, GetDeprecatedEntitiesResult> {
+public class GetDeprecatedEntitiesActionHandler extends AbstractProjectActionHandler<GetDeprecatedEntitiesAction, GetDeprecatedEntitiesResult> implements CacheableActionHandler<GetDeprecatedEntitiesAction, GetDeprecatedEntitiesResult> {
 
     @Nonnull
     @RootOntology
@@ -73,10 +74,10 @@ public class GetDeprecatedEntitiesActionHandler extends AbstractProjectActionHan
                                                           rootOntology,
                                                           Imports.INCLUDED)
                 .filter(deprecatedEntityChecker::isDeprecated)
-                .map(renderingManager::getRendering)
-                .sorted()
-                .collect(toPageNumber(pageRequest.getPageNumber())
-                                 .forPageSize(pageRequest.getPageSize()));
+                .collect(toSortedPage(pageRequest.getPageNumber(),
+                                      pageRequest.getPageSize(),
+                                      renderingManager::getShortForm))
+                .map(pg -> pg.transform(renderingManager::getRendering));
         return new GetDeprecatedEntitiesResult(page.orElse(Page.emptyPage()));
     }
 
@@ -26,6 +26,7 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -97,7 +98,7 @@ public class LookupEntitiesActionHandler extends AbstractProjectActionHandler<Lo
         EntityNameMatcher matcher = new EntityNameMatcher(entityLookupRequest.getSearchString());
         Set<OWLEntity> addedEntities = new HashSet<>();
         List<SearchString> searchStrings = SearchString.parseMultiWordSearchString(entityLookupRequest.getSearchString());
-        return dictionaryManager.getShortFormsContaining(searchStrings,
+        List<OWLEntityDataMatch> matches = dictionaryManager.getShortFormsContaining(searchStrings,
                                                          entityLookupRequest.getSearchedEntityTypes(),
                                                          languageManager.getLanguages())
                                 // This is arbitrary and possibly leads to bad completion results.  We need to
@@ -126,14 +127,18 @@ public class LookupEntitiesActionHandler extends AbstractProjectActionHandler<Lo
                                     return new OWLEntityDataMatch(match.getLanguage(), ed, result);
                                 })
                                 .limit(entityLookupRequest.getSearchLimit())
-                                .map(this::toEntityLookupResult)
                                 .collect(toList());
-
+        Map<OWLEntity, EntityNode> entityNodes = entityNodeRenderer.renderAll(matches.stream()
+                                                                                     .map(match -> match.getEntityData().getEntity())
+                                                                                     .collect(toList()));
+        return matches.stream()
+                      .map(match -> toEntityLookupResult(match, entityNodes.get(match.getEntityData().getEntity())))
+                      .collect(toList());
     }
 
-    private EntityLookupResult toEntityLookupResult(OWLEntityDataMatch match) {
+    private EntityLookupResult toEntityLookupResult(OWLEntityDataMatch match, EntityNode entityNode) {
         return EntityLookupResult.get(match.getDictionaryLanguage(),
-                                      entityNodeRenderer.render(match.getEntityData().getEntity()),
+                                      entityNode,
                                       match.getMatchResult(),
                                       placeUrl.getEntityUrl(projectId, match.getEntityData().getEntity()));
     }
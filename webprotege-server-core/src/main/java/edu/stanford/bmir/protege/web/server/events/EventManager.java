@@ -12,8 +12,10 @@ import edu.stanford.bmir.protege.web.shared.event.EventTag;
 import edu.stanford.bmir.protege.web.shared.event.WebProtegeEvent;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +37,11 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
 
     private static final int EVENT_LIST_SIZE_LIMIT = 200;
 
+    /**
+     * The number of event buckets that space is initially allocated for.  This must be a power of two.
+     */
+    private static final int INITIAL_EVENT_BUCKET_CAPACITY = 1024;
+
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
     private final Lock readLock = lock.readLock();
@@ -42,8 +49,14 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
     private final Lock writeLock = lock.writeLock();
 
 
-
-    private final Queue<EventBucket> eventQueue = new LinkedList<>();
+    /**
+     * A ring buffer of event buckets.  The bucket with the tag that has ordinal n is held at index
+     * n mod the length of the buffer, which is always a power of two.  The retained buckets are the buckets with
+     * ordinals from {@link #oldestOrdinal} to the ordinal of {@link #currentTag} inclusive.  Buckets are only
+     * discarded once they have expired, so the buffer grows if more buckets than it can hold are live.
+     */
+    @SuppressWarnings("unchecked")
+    private EventBucket<E>[] eventBuckets = new EventBucket[INITIAL_EVENT_BUCKET_CAPACITY];
 
     private final EventLifeTime eventLifeTime;
 
@@ -52,6 +65,13 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
 
     private EventTag currentTag = EventTag.getFirst();
 
+    private int oldestOrdinal = currentTag.getOrdinal() + 1;
+
+    /**
+     * Requests that are waiting for events to be posted
+     */
+    private final List<EventWaiter> eventWaiters = new ArrayList<>();
+
     private ScheduledExecutorService purgeSweepService = Executors.newSingleThreadScheduledExecutor(runnable -> {
         Thread thread = Executors.defaultThreadFactory().newThread(runnable);
         thread.setName(thread.getName().replace("thread", "event-purge-thread"));
@@ -65,7 +85,7 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
     public EventManager(EventLifeTime eventLifeTime) {
         this.eventLifeTime = checkNotNull(eventLifeTime);
         final long eventLifeTimeInMilliseconds = eventLifeTime.getEventLifeTimeInMilliseconds();
-        purgeSweepService.scheduleAtFixedRate(new PurgeExpiredEventsTask(writeLock, eventQueue),
+        purgeSweepService.scheduleAtFixedRate(this::removeExpiredEvents,
                 eventLifeTimeInMilliseconds,
                 eventLifeTimeInMilliseconds,
                 TimeUnit.MILLISECONDS);
@@ -100,11 +120,20 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
             // Just don't bother
             return currentTag;
         }
+        final EventTag postedTag;
+        final List<EventWaiter> readyWaiters;
         try {
             writeLock.lock();
             currentTag = currentTag.next();
-            EventBucket<E> e = new EventBucket<>(System.currentTimeMillis(), checkNotNull(events, "events must not be null"), currentTag, eventLifeTime);
-            eventQueue.add(e);
+            postedTag = currentTag;
+            int ordinal = postedTag.getOrdinal();
+            EventBucket<E> e = new EventBucket<>(System.currentTimeMillis(), checkNotNull(events, "events must not be null"), postedTag, eventLifeTime);
+            if(ordinal - oldestOrdinal >= eventBuckets.length) {
+                // Every slot holds a live bucket.  Don't overwrite them, or clients would miss events.
+                growEventBuckets();
+            }
+            eventBuckets[toIndex(ordinal)] = e;
+            readyWaiters = removeReadyEventWaiters();
         }
         finally {
             writeLock.unlock();
@@ -112,7 +141,8 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
         for(E event : new LinkedHashSet<>(events)) {
             eventBus.fireEvent(event.asGWTEvent());
         }
-        return currentTag;
+        readyWaiters.forEach(waiter -> waiter.future.complete(postedTag));
+        return postedTag;
     }
 
     /**
@@ -130,10 +160,8 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
         try {
             readLock.lock();
             curTag = currentTag;
-            for (EventBucket bucket : eventQueue) {
-                if(bucket.getTag().isGreaterOrEqualTo(fromTag)) {
-                    resultList.addAll(bucket.getEvents());
-                }
+            for(int ordinal = Math.max(fromTag.getOrdinal(), oldestOrdinal); ordinal <= curTag.getOrdinal(); ordinal++) {
+                resultList.addAll(eventBuckets[toIndex(ordinal)].getEvents());
             }
         }
         finally {
@@ -158,6 +186,100 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
         }
     }
 
+    /**
+     * Waits for events with a tag greater or equal to the specified tag to be posted to this manager.
+     * No thread is blocked while waiting.  A caller that gives up waiting should cancel the returned
+     * future (or complete it, for example with {@link CompletableFuture#orTimeout(long, TimeUnit)}).
+     * @param fromTag The tag that denotes the point after which events will be waited for.  Not {@code null}.
+     * @return A future that is completed with the current tag once events with a tag greater or equal to the
+     * specified tag have been posted.  The future is completed immediately if such events have already been posted.
+     */
+    @Nonnull
+    public CompletableFuture<EventTag> awaitEventsFromTag(@Nonnull EventTag fromTag) {
+        checkNotNull(fromTag, "tag must not be null");
+        try {
+            writeLock.lock();
+            if(currentTag.isGreaterOrEqualTo(fromTag)) {
+                return CompletableFuture.completedFuture(currentTag);
+            }
+            var future = new CompletableFuture<EventTag>();
+            eventWaiters.add(new EventWaiter(fromTag, future));
+            return future;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int toIndex(int ordinal) {
+        return ordinal & (eventBuckets.length - 1);
+    }
+
+    /**
+     * Doubles the size of the ring buffer.  The write lock must be held.
+     */
+    private void growEventBuckets() {
+        @SuppressWarnings("unchecked")
+        EventBucket<E>[] grownEventBuckets = new EventBucket[eventBuckets.length * 2];
+        for(int ordinal = oldestOrdinal; ordinal <= currentTag.getOrdinal() - 1; ordinal++) {
+            grownEventBuckets[ordinal & (grownEventBuckets.length - 1)] = eventBuckets[toIndex(ordinal)];
+        }
+        eventBuckets = grownEventBuckets;
+    }
+
+    /**
+     * Gets the number of buckets that the ring buffer can hold without growing.
+     */
+    int getEventBucketCapacity() {
+        try {
+            readLock.lock();
+            return eventBuckets.length;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the waiters that are ready to be notified of posted events, along with any waiters that have
+     * given up waiting.  The write lock must be held.
+     * @return The waiters that are ready to be notified
+     */
+    private List<EventWaiter> removeReadyEventWaiters() {
+        List<EventWaiter> readyWaiters = new ArrayList<>();
+        for(Iterator<EventWaiter> it = eventWaiters.iterator(); it.hasNext(); ) {
+            EventWaiter waiter = it.next();
+            if(waiter.future.isDone()) {
+                it.remove();
+            }
+            else if(currentTag.isGreaterOrEqualTo(waiter.fromTag)) {
+                it.remove();
+                readyWaiters.add(waiter);
+            }
+        }
+        return readyWaiters;
+    }
+
+    void removeExpiredEvents() {
+        try {
+            writeLock.lock();
+            while (oldestOrdinal <= currentTag.getOrdinal()) {
+                int index = toIndex(oldestOrdinal);
+                if (eventBuckets[index].isExpired()) {
+                    eventBuckets[index] = null;
+                    oldestOrdinal++;
+                }
+                else {
+                    break;
+                }
+            }
+            eventWaiters.removeIf(waiter -> waiter.future.isDone());
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
 
     public <T extends EventHandler> HandlerRegistration addHandler(Event.Type<T> type, T handler) {
         final HandlerRegistration handlerRegistration = eventBus.addHandler(type, handler);
@@ -244,41 +366,15 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private static class PurgeExpiredEventsTask extends TimerTask {
-
-        private final Lock writeLock;
+    private static class EventWaiter {
 
-        private final Queue<EventBucket> queue;
+        private final EventTag fromTag;
 
-        public PurgeExpiredEventsTask(Lock writeLock, Queue<EventBucket> queue) {
-            this.writeLock = writeLock;
-            this.queue = queue;
-        }
-
-        @Override
-        public void run() {
-            removeExpiredEvents();
-        }
+        private final CompletableFuture<EventTag> future;
 
-        private void removeExpiredEvents() {
-            try {
-                writeLock.lock();
-                while (true) {
-                    if (queue.isEmpty()) {
-                        break;
-                    }
-                    EventBucket bucket = queue.peek();
-                    if (bucket.isExpired()) {
-                        queue.poll();
-                    }
-                    else {
-                        break;
-                    }
-                }
-            }
-            finally {
-                writeLock.unlock();
-            }
+        private EventWaiter(EventTag fromTag, CompletableFuture<EventTag> future) {
+            this.fromTag = checkNotNull(fromTag);
+            this.future = checkNotNull(future);
         }
     }
 
@@ -289,6 +385,16 @@ public class EventManager<E extends WebProtegeEvent<?>> implements HasDispose, H
             purgeSweepService = null;
         }
         removeRegisteredHandlersFromEventBus();
+        List<EventWaiter> waiters;
+        try {
+            writeLock.lock();
+            waiters = new ArrayList<>(eventWaiters);
+            eventWaiters.clear();
+        }
+        finally {
+            writeLock.unlock();
+        }
+        waiters.forEach(waiter -> waiter.future.cancel(false));
     }
 
     private void removeRegisteredHandlersFromEventBus() {
@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.frame;
 
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
+import edu.stanford.bmir.protege.web.server.dispatch.CacheableActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
@@ -26,7 +27,7 @@ import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PRO
  * Bio-Medical Informatics Research Group<br>
  * Date: 23/04/2013
  */
-public class GetAnnotationPropertyFrameActionHandler extends AbstractProjectActionHandler<GetAnnotationPropertyFrameAction, GetAnnotationPropertyFrameResult> {
+public class GetAnnotationPropertyFrameActionHandler extends AbstractProjectActionHandler<GetAnnotationPropertyFrameAction, GetAnnotationPropertyFrameResult> implements CacheableActionHandler<GetAnnotationPropertyFrameAction, GetAnnotationPropertyFrameResult> {
 
     private Logger logger = LoggerFactory.getLogger(GetAnnotationPropertyFrameActionHandler.class);
 
@@ -57,13 +58,19 @@ public class GetAnnotationPropertyFrameActionHandler extends AbstractProjectActi
         AnnotationPropertyFrameTranslator translator = translatorProvider.get();
         OWLAnnotationPropertyData annotationPropertyData = renderingManager.getAnnotationPropertyData(action.getSubject());
         AnnotationPropertyFrame frame = translator.getFrame(annotationPropertyData);
+        return new GetAnnotationPropertyFrameResult(frame);
+    }
+
+    @Override
+    public void logResult(@Nonnull GetAnnotationPropertyFrameAction action,
+                          @Nonnull GetAnnotationPropertyFrameResult result,
+                          @Nonnull ExecutionContext executionContext) {
         logger.info(BROWSING,
                      "{} {} retrieved AnnotationProperty frame for {} ({})",
                     action.getProjectId(),
                     executionContext.getUserId(),
                     action.getSubject(),
-                    frame.getSubject().getBrowserText());
-        return new GetAnnotationPropertyFrameResult(frame);
+                    result.getFrame().getSubject().getBrowserText());
     }
 
     @Nonnull
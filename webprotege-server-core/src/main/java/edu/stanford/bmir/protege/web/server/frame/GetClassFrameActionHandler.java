@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.frame;
 
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
+import edu.stanford.bmir.protege.web.server.dispatch.CacheableActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
@@ -23,7 +24,7 @@ import static edu.stanford.bmir.protege.web.server.logging.Markers.BROWSING;
  * Bio-Medical Informatics Research Group<br>
  * Date: 20/02/2013
  */
-public class GetClassFrameActionHandler extends AbstractProjectActionHandler<GetClassFrameAction, GetClassFrameResult> {
+public class GetClassFrameActionHandler extends AbstractProjectActionHandler<GetClassFrameAction, GetClassFrameResult> implements CacheableActionHandler<GetClassFrameAction, GetClassFrameResult> {
 
     private static final Logger logger = LoggerFactory.getLogger(GetClassFrameActionHandler.class);
 
@@ -65,12 +66,18 @@ public class GetClassFrameActionHandler extends AbstractProjectActionHandler<Get
         var subjectData = renderingManager.getClassData(subject);
         var translator = translatorProvider.get();
         var classFrame = translator.getFrame(subjectData);
+        return new GetClassFrameResult(classFrame);
+    }
+
+    @Override
+    public void logResult(@Nonnull GetClassFrameAction action,
+                          @Nonnull GetClassFrameResult result,
+                          @Nonnull ExecutionContext executionContext) {
         logger.info(BROWSING,
                     "{} {} retrieved Class frame for {} ({})",
                     action.getProjectId(),
                     executionContext.getUserId(),
-                    subject,
-                    classFrame.getSubject().getBrowserText());
-        return new GetClassFrameResult(classFrame);
+                    action.getSubject(),
+                    result.getFrame().getSubject().getBrowserText());
     }
 }
@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.frame;
 
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
+import edu.stanford.bmir.protege.web.server.dispatch.CacheableActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
@@ -26,7 +27,7 @@ import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_CHA
  * Bio-Medical Informatics Research Group<br>
  * Date: 23/04/2013
  */
-public class GetDataPropertyFrameActionHandler extends AbstractProjectActionHandler<GetDataPropertyFrameAction, GetDataPropertyFrameResult> {
+public class GetDataPropertyFrameActionHandler extends AbstractProjectActionHandler<GetDataPropertyFrameAction, GetDataPropertyFrameResult> implements CacheableActionHandler<GetDataPropertyFrameAction, GetDataPropertyFrameResult> {
 
     private static final Logger logger = LoggerFactory.getLogger(GetDataPropertyFrameActionHandler.class);
 
@@ -57,6 +58,13 @@ public class GetDataPropertyFrameActionHandler extends AbstractProjectActionHand
         DataPropertyFrameTranslator translator = translatorProvider.get();
         OWLDataPropertyData dataPropertyData = renderingManager.getDataPropertyData(action.getSubject());
         DataPropertyFrame frame = translator.getFrame(dataPropertyData);
+        return new GetDataPropertyFrameResult(frame);
+    }
+
+    @Override
+    public void logResult(@Nonnull GetDataPropertyFrameAction action,
+                          @Nonnull GetDataPropertyFrameResult result,
+                          @Nonnull ExecutionContext executionContext) {
         String displayName = renderingManager.getShortForm(action.getSubject());
         logger.info(BROWSING,
                     "{} {} retrieved DataProperty frame for {} ({})",
@@ -64,7 +72,6 @@ public class GetDataPropertyFrameActionHandler extends AbstractProjectActionHand
                     executionContext.getUserId(),
                     action.getSubject(),
                     displayName);
-        return new GetDataPropertyFrameResult(frame);
     }
 
     @Nonnull
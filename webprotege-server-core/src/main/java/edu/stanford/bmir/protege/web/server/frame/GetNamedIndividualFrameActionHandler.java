@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.frame;
 
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
+import edu.stanford.bmir.protege.web.server.dispatch.CacheableActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
@@ -25,7 +26,7 @@ import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PRO
  * Bio-Medical Informatics Research Group<br>
  * Date: 20/02/2013
  */
-public class GetNamedIndividualFrameActionHandler extends AbstractProjectActionHandler<GetNamedIndividualFrameAction, GetNamedIndividualFrameResult> {
+public class GetNamedIndividualFrameActionHandler extends AbstractProjectActionHandler<GetNamedIndividualFrameAction, GetNamedIndividualFrameResult> implements CacheableActionHandler<GetNamedIndividualFrameAction, GetNamedIndividualFrameResult> {
 
     private static Logger logger = LoggerFactory.getLogger(GetNamedIndividualFrameActionHandler.class);
 
@@ -66,13 +67,19 @@ public class GetNamedIndividualFrameActionHandler extends AbstractProjectActionH
                                                  @Nonnull ExecutionContext executionContext) {
         OWLNamedIndividualData individualData = renderingManager.getIndividualData(action.getSubject());
         NamedIndividualFrame frame = translator.getFrame(individualData);
+        return new GetNamedIndividualFrameResult(frame);
+
+    }
+
+    @Override
+    public void logResult(@Nonnull GetNamedIndividualFrameAction action,
+                          @Nonnull GetNamedIndividualFrameResult result,
+                          @Nonnull ExecutionContext executionContext) {
         logger.info(BROWSING,
                      "{} {} retrieved NamedIndividual frame for {} ({})",
                     action.getProjectId(),
                     executionContext.getUserId(),
                     action.getSubject(),
-                    frame.getSubject().getBrowserText());
-        return new GetNamedIndividualFrameResult(frame);
-
+                    result.getFrame().getSubject().getBrowserText());
     }
 }
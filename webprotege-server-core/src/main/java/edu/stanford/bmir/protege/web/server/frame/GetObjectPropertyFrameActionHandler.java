@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.frame;
 
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
+import edu.stanford.bmir.protege.web.server.dispatch.CacheableActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
@@ -26,7 +27,7 @@ import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PRO
  * Bio-Medical Informatics Research Group<br>
  * Date: 23/04/2013
  */
-public class GetObjectPropertyFrameActionHandler extends AbstractProjectActionHandler<GetObjectPropertyFrameAction, GetObjectPropertyFrameResult> {
+public class GetObjectPropertyFrameActionHandler extends AbstractProjectActionHandler<GetObjectPropertyFrameAction, GetObjectPropertyFrameResult> implements CacheableActionHandler<GetObjectPropertyFrameAction, GetObjectPropertyFrameResult> {
 
     private static Logger logger = LoggerFactory.getLogger(GetObjectPropertyFrameAction.class);
 
@@ -56,13 +57,19 @@ public class GetObjectPropertyFrameActionHandler extends AbstractProjectActionHa
         ObjectPropertyFrameTranslator translator = translatorProvider.get();
         OWLObjectPropertyData objectPropertyData = rm.getObjectPropertyData(action.getSubject());
         ObjectPropertyFrame f = translator.getFrame(objectPropertyData);
+        return new GetObjectPropertyFrameResult(f);
+    }
+
+    @Override
+    public void logResult(@Nonnull GetObjectPropertyFrameAction action,
+                          @Nonnull GetObjectPropertyFrameResult result,
+                          @Nonnull ExecutionContext executionContext) {
         logger.info(BROWSING,
                      "{} {} retrieved ObjectProperty frame for {} ({})",
                      action.getProjectId(),
                      executionContext.getUserId(),
                      action.getSubject(),
-                     f.getSubject().getBrowserText());
-        return new GetObjectPropertyFrameResult(f);
+                     result.getFrame().getSubject().getBrowserText());
     }
 
     @Nonnull
@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.hierarchy;
 
 
+import edu.stanford.bmir.protege.web.shared.hierarchy.PathToRootIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +9,13 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Author: Matthew Horridge<br>
@@ -87,39 +95,14 @@ public abstract class AbstractHierarchyProvider<N> implements HierarchyProvider<
      * @return A <code>Set</code> of <code>List</code>s of <code>N</code>s
      */
     public Set<List<N>> getPathsToRoot(N obj) {
-        return setOfPaths(obj, new HashSet<>());
-    }
-
-
-    private Set<List<N>> setOfPaths(N obj, Set<N> processed) {
-        if (getRoots().contains(obj)) {
-            return getSingleSetOfLists(obj);
-        }
-        Set<List<N>> paths = new HashSet<>();
-        for (N par : getParents(obj)) {
-            if (!processed.contains(par)) {
-                processed.add(par);
-                paths.addAll(append(obj, setOfPaths(par, processed)));
-            }
-        }
-        return paths;
-    }
-
-
-    private Set<List<N>> getSingleSetOfLists(N obj) {
-        Set<List<N>> set = new HashSet<>();
-        List<N> list = new ArrayList<>();
-        list.add(obj);
-        set.add(list);
-        return set;
+        return streamPathsToRoot(obj).collect(toSet());
     }
 
-
-    private Set<List<N>> append(N obj, Set<List<N>> setOfPaths) {
-        for (List<N> path : setOfPaths) {
-            path.add(obj);
-        }
-        return setOfPaths;
+    @Override
+    public Stream<List<N>> streamPathsToRoot(N obj) {
+        Set<N> roots = getRoots();
+        PathToRootIterator<N> iterator = new PathToRootIterator<>(obj, this::getParents, roots::contains);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, ORDERED | NONNULL), false);
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////
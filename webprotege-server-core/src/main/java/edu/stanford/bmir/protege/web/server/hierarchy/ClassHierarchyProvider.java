@@ -52,6 +52,12 @@ public class ClassHierarchyProvider extends AbstractHierarchyProvider<OWLClass>
 
     private final Set<OWLClass> nodesToUpdate = new HashSet<>();
 
+    /**
+     * Holds the parents of each class, as given by {@link #getParents(OWLClass)}, so that ancestors and
+     * descendants can be found without extracting parents and children from axioms at each level.
+     */
+    private final HierarchyClosureIndex<OWLClass> closureIndex = new HierarchyClosureIndex<>();
+
     @Inject
     public ClassHierarchyProvider(ProjectId projectId, @Nonnull @RootOntology OWLOntology rootOntology,
                                   @Nonnull @ClassHierarchyRoot OWLClass rootCls) {
@@ -65,6 +71,7 @@ public class ClassHierarchyProvider extends AbstractHierarchyProvider<OWLClass>
         });
         nodesToUpdate.clear();
         rebuildImplicitRoots();
+        rebuildClosureIndex();
         fireHierarchyChanged();
     }
 
@@ -85,6 +92,27 @@ public class ClassHierarchyProvider extends AbstractHierarchyProvider<OWLClass>
         logger.info("{} Rebuilt class hierarchy in {} ms", projectId, stopwatch.elapsed(MILLISECONDS));
     }
 
+    private void rebuildClosureIndex() {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        closureIndex.clear();
+        for (OWLOntology ont : rootOntology.getImportsClosure()) {
+            for (OWLClass cls : ont.getClassesInSignature()) {
+                updateClosureIndex(cls);
+            }
+        }
+        logger.info("{} Built class hierarchy closure index in {} ms ({} classes)",
+                    projectId,
+                    stopwatch.elapsed(MILLISECONDS),
+                    closureIndex.getNodeCount());
+    }
+
+    private void updateClosureIndex(OWLClass cls) {
+        if (cls.equals(root)) {
+            return;
+        }
+        closureIndex.setParents(cls, getParents(cls));
+    }
+
     public void dispose() {
     }
 
@@ -111,6 +139,8 @@ public class ClassHierarchyProvider extends AbstractHierarchyProvider<OWLClass>
         oldTerminalElements.stream()
                            .filter(cls -> !rootFinder.getTerminalElements().contains(cls))
                            .forEach(this::registerNodeChanged);
+        // The changed nodes are the nodes whose parents may have changed
+        nodesToUpdate.forEach(this::updateClosureIndex);
         notifyNodeChanges();
     }
 
@@ -234,6 +264,24 @@ public class ClassHierarchyProvider extends AbstractHierarchyProvider<OWLClass>
     }
 
 
+    /**
+     * Gets the ancestors of the specified class from the closure index.
+     * @return A read-only set of ancestors
+     */
+    @Override
+    public Set<OWLClass> getAncestors(OWLClass object) {
+        return closureIndex.getAncestors(object);
+    }
+
+    /**
+     * Gets the descendants of the specified class from the closure index.
+     * @return A read-only set of descendants
+     */
+    @Override
+    public Set<OWLClass> getDescendants(OWLClass object) {
+        return closureIndex.getDescendants(object);
+    }
+
     public Set<OWLClass> getEquivalents(OWLClass object) {
         Set<OWLClass> result = new HashSet<>();
         for (OWLOntology ont : getOntologies()) {
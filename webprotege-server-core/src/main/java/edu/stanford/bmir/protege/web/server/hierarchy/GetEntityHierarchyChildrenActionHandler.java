@@ -4,7 +4,6 @@ import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.mansyntax.render.DeprecatedEntityChecker;
-import edu.stanford.bmir.protege.web.server.pagination.PageCollector;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
@@ -23,9 +22,9 @@ import java.util.Comparator;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static edu.stanford.bmir.protege.web.server.pagination.SortedPageCollector.toSortedPage;
 import static edu.stanford.bmir.protege.web.server.util.AlphaNumericStringComparator.alphaNumerically;
 import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PROJECT;
-import static java.util.Comparator.comparing;
 
 /**
  * Matthew Horridge Stanford Center for Biomedical Informatics Research 28 Nov 2017
@@ -86,12 +85,13 @@ public class GetEntityHierarchyChildrenActionHandler extends AbstractProjectActi
                          // Filter out deprecated entities that are displayed under owl:Thing, owl:topObjectProperty
                          // owl:topDataProperty
                          .filter(child -> isNotDeprecatedTopLevelEntity(parent, child))
-                         .sorted(comparing(dictionaryManager::getShortForm))
-                         .collect(PageCollector.toPage(action.getPageRequest().getPageNumber(),
-                                                       2000))
-                         .map(pg ->
-                             pg.transform(child -> nodeRenderer.toGraphNode(child, hierarchyProvider.get()))
-                         ).orElse(Page.emptyPage());
+                         .collect(toSortedPage(action.getPageRequest().getPageNumber(),
+                                               2000,
+                                               dictionaryManager::getShortForm))
+                         .map(pg -> {
+                             var childNodes = nodeRenderer.toGraphNodes(pg.getPageElements(), hierarchyProvider.get());
+                             return pg.transform(childNodes::get);
+                         }).orElse(Page.emptyPage());
 
         return new GetHierarchyChildrenResult(parentNode, page);
     }
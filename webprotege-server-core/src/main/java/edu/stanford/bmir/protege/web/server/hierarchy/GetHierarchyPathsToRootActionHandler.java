@@ -7,20 +7,15 @@ import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
 import edu.stanford.bmir.protege.web.shared.hierarchy.GetHierarchyPathsToRootAction;
 import edu.stanford.bmir.protege.web.shared.hierarchy.GetHierarchyPathsToRootResult;
-import edu.stanford.protege.gwt.graphtree.shared.Path;
 import edu.stanford.protege.gwt.graphtree.shared.graph.GraphNode;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 
 import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PROJECT;
-import static edu.stanford.protege.gwt.graphtree.shared.PathCollector.toPath;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -28,6 +23,8 @@ import static java.util.stream.Collectors.toList;
  */
 public class GetHierarchyPathsToRootActionHandler extends AbstractProjectActionHandler<GetHierarchyPathsToRootAction, GetHierarchyPathsToRootResult> {
 
+    private static final int[] NO_PARENTS = new int[0];
+
     @Nonnull
     private final HierarchyProviderMapper hierarchyProviderMapper;
 
@@ -59,16 +56,49 @@ public class GetHierarchyPathsToRootActionHandler extends AbstractProjectActionH
     @Override
     public GetHierarchyPathsToRootResult execute(@Nonnull GetHierarchyPathsToRootAction action, @Nonnull ExecutionContext executionContext) {
         Optional<HierarchyProvider<OWLEntity>> hierarchyProvider = hierarchyProviderMapper.getHierarchyProvider(action.getHierarchyId());
-        return hierarchyProvider.map(hp -> {
-            Set<List<OWLEntity>> pathsToRoot = hp.getPathsToRoot(action.getEntity());
-            List<Path<GraphNode<EntityNode>>> result =
-                    pathsToRoot.stream()
-                               .map(pathList -> pathList.stream()
-                                                        .map(e -> nodeRenderer.toGraphNode(e, hp))
-                                                        .collect(toPath()))
-                               .collect(toList());
-            return new GetHierarchyPathsToRootResult(result);
-        }).orElse(new GetHierarchyPathsToRootResult(Collections.emptyList()));
+        return hierarchyProvider.map(hp -> getAncestorGraph(action.getEntity(), hp))
+                                .orElse(GetHierarchyPathsToRootResult.empty());
+    }
 
+    /**
+     * Gets the sub-graph of ancestors of the specified entity.  The graph is linear in the number of ancestors,
+     * whereas the number of paths to the root can be exponential, so paths are left to be expanded by the client.
+     */
+    @Nonnull
+    private GetHierarchyPathsToRootResult getAncestorGraph(@Nonnull OWLEntity entity,
+                                                           @Nonnull HierarchyProvider<OWLEntity> hp) {
+        Set<OWLEntity> roots = hp.getRoots();
+        // Breadth first traversal of the ancestors.  Nodes are indexed in the order that they are reached.
+        Map<OWLEntity, Integer> indexes = new HashMap<>();
+        List<OWLEntity> nodes = new ArrayList<>();
+        List<int[]> parentIndexes = new ArrayList<>();
+        indexes.put(entity, 0);
+        nodes.add(entity);
+        for(int i = 0; i < nodes.size(); i++) {
+            OWLEntity node = nodes.get(i);
+            if(roots.contains(node)) {
+                parentIndexes.add(NO_PARENTS);
+                continue;
+            }
+            Set<OWLEntity> nodeParents = hp.getParents(node);
+            int[] nodeParentIndexes = new int[nodeParents.size()];
+            int count = 0;
+            for(OWLEntity parent : nodeParents) {
+                Integer parentIndex = indexes.get(parent);
+                if(parentIndex == null) {
+                    parentIndex = nodes.size();
+                    indexes.put(parent, parentIndex);
+                    nodes.add(parent);
+                }
+                nodeParentIndexes[count] = parentIndex;
+                count++;
+            }
+            parentIndexes.add(nodeParentIndexes);
+        }
+        var graphNodes = nodeRenderer.toGraphNodes(nodes, hp);
+        List<GraphNode<EntityNode>> renderedNodes = nodes.stream()
+                                                         .map(graphNodes::get)
+                                                         .collect(toList());
+        return new GetHierarchyPathsToRootResult(renderedNodes, parentIndexes);
     }
 }
@@ -62,10 +62,10 @@ public class GetHierarchyRootsActionHandler extends AbstractProjectActionHandler
         return hierarchyProviderMapper.getHierarchyProvider(hierarchyId).map(hierarchyProvider -> {
             Set<OWLEntity> roots = hierarchyProvider.getRoots();
             List<GraphNode<EntityNode>> rootNodes =
-                    roots.stream()
-                         .map(rootEntity -> {
-                             EntityNode rootNode = renderer.render(rootEntity);
-                             return new GraphNode<>(rootNode, hierarchyProvider.getChildren(rootEntity).isEmpty());
+                    renderer.renderAll(roots).entrySet().stream()
+                         .map(rootEntry -> {
+                             EntityNode rootNode = rootEntry.getValue();
+                             return new GraphNode<>(rootNode, hierarchyProvider.getChildren(rootEntry.getKey()).isEmpty());
                          })
                          .sorted(comparing(node -> node.getUserObject().getBrowserText()))
                          .collect(toList());
@@ -4,7 +4,7 @@ import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.mansyntax.render.DeprecatedEntityChecker;
-import edu.stanford.bmir.protege.web.server.pagination.PageCollector;
+import edu.stanford.bmir.protege.web.server.pagination.SortedPageCollector;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
@@ -16,7 +16,6 @@ import edu.stanford.protege.gwt.graphtree.shared.graph.GraphNode;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.util.Comparator;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -75,11 +74,15 @@ public class GetHierarchySiblingsActionHandler extends AbstractProjectActionHand
                                          // Remove self
                                          .filter(sib -> !sib.equals(action.getEntity()))
                                          .distinct()
-                                         .sorted(Comparator.comparing(dictionaryManager::getShortForm))
-                                         // Paginate and transform
-                                         .collect(PageCollector.toPage(pageNumber, pageSize))
-                                         .orElse(Page.emptyPage())
-                                         .transform(e -> nodeRenderer.toGraphNode(e, hp));
+                                         // Sort, paginate and transform
+                                         .collect(SortedPageCollector.toSortedPage(pageNumber,
+                                                                                   pageSize,
+                                                                                   dictionaryManager::getShortForm))
+                                         .map(pg -> {
+                                             var siblingNodes = nodeRenderer.toGraphNodes(pg.getPageElements(), hp);
+                                             return pg.transform(siblingNodes::get);
+                                         })
+                                         .orElse(Page.emptyPage());
                              }
                         )
                         .orElse(Page.emptyPage());
@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.server.hierarchy;
 
+import com.google.common.collect.ImmutableMap;
 import edu.stanford.bmir.protege.web.server.entity.EntityNodeRenderer;
 import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
 import edu.stanford.protege.gwt.graphtree.shared.graph.GraphNode;
@@ -7,6 +8,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.Collection;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -33,4 +35,24 @@ public class GraphNodeRenderer {
                                              @Nonnull HierarchyProvider<OWLEntity> hierarchyProvider) {
         return new GraphNode<>(renderer.render(entity), hierarchyProvider.getChildren(entity).isEmpty());
     }
+
+    /**
+     * Render the specified entities into {@link GraphNode}s whose user objects are {@link EntityNode}s.
+     * The entity nodes are rendered in bulk using {@link EntityNodeRenderer#renderAll(Collection)}.
+     * @param entities The entities to be rendered.
+     * @param hierarchyProvider A hierarchy that is used to provide information.
+     * @return A map from entity to graph node.  The iteration order of the map is the iteration order of the
+     * specified entities.
+     */
+    @Nonnull
+    public ImmutableMap<OWLEntity, GraphNode<EntityNode>> toGraphNodes(@Nonnull Collection<? extends OWLEntity> entities,
+                                                                      @Nonnull HierarchyProvider<OWLEntity> hierarchyProvider) {
+        ImmutableMap<OWLEntity, EntityNode> entityNodes = renderer.renderAll(entities);
+        ImmutableMap.Builder<OWLEntity, GraphNode<EntityNode>> graphNodes = ImmutableMap.builder();
+        entityNodes.forEach((entity, entityNode) ->
+                                    graphNodes.put(entity,
+                                                   new GraphNode<>(entityNode,
+                                                                   hierarchyProvider.getChildren(entity).isEmpty())));
+        return graphNodes.build();
+    }
 }
@@ -0,0 +1,399 @@
+package edu.stanford.bmir.protege.web.server.hierarchy;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * An index of the direct parent/child relationships in a hierarchy, along with the transitive closures of
+ * these relationships.  Nodes are coded as ints, in the order in which they are first seen, and the
+ * relationships are held as sorted int arrays.  Ancestor and descendant closures are computed on first request
+ * and are cached until an edge change affects them.  Ancestor and descendant sets are returned as read-only
+ * views of the cached closures, so repeated requests do not copy the closures.
+ *
+ * Instances of this class are thread safe.
+ */
+final class HierarchyClosureIndex<N> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<N, Integer> idsByNode = new HashMap<>();
+
+    /**
+     * Nodes indexed by id.  The array is replaced when it grows, but existing slots never change, which allows
+     * closure views to hold on to the array that was current when they were created.
+     */
+    private Object[] nodes = new Object[INITIAL_CAPACITY];
+
+    private int nodeCount = 0;
+
+    private int[][] parentIds = new int[INITIAL_CAPACITY][];
+
+    private int[][] childIds = new int[INITIAL_CAPACITY][];
+
+    private int[][] ancestorClosures = new int[INITIAL_CAPACITY][];
+
+    private int[][] descendantClosures = new int[INITIAL_CAPACITY][];
+
+    /**
+     * Visit marks for traversals.  A node has been visited in the current traversal if its mark is equal to
+     * the current epoch.
+     */
+    private int[] marks = new int[INITIAL_CAPACITY];
+
+    private int epoch = 0;
+
+    private int[] workQueue = new int[INITIAL_CAPACITY];
+
+    /**
+     * Removes all nodes and edges from this index.
+     */
+    public synchronized void clear() {
+        idsByNode.clear();
+        nodes = new Object[INITIAL_CAPACITY];
+        nodeCount = 0;
+        parentIds = new int[INITIAL_CAPACITY][];
+        childIds = new int[INITIAL_CAPACITY][];
+        ancestorClosures = new int[INITIAL_CAPACITY][];
+        descendantClosures = new int[INITIAL_CAPACITY][];
+        marks = new int[INITIAL_CAPACITY];
+        epoch = 0;
+    }
+
+    /**
+     * Sets the direct parents of the specified node, replacing any previous parents.
+     * @param node The node.
+     * @param parents The direct parents of the node.
+     * @return true if the parents of the node changed, otherwise false.
+     */
+    public synchronized boolean setParents(@Nonnull N node, @Nonnull Collection<? extends N> parents) {
+        checkNotNull(node);
+        if(parents.isEmpty() && !idsByNode.containsKey(node)) {
+            return false;
+        }
+        int id = getOrCreateId(node);
+        int[] nextParents = toSortedIds(parents);
+        int[] previousParents = getParentIds(id);
+        if(Arrays.equals(previousParents, nextParents)) {
+            return false;
+        }
+        // The ancestors of the node, and of each of its descendants, change.  The descendants of the previous
+        // and the next ancestors of the node change.
+        invalidateDescendantClosuresOfAncestors(id);
+        invalidateAncestorClosuresOfDescendants(id);
+        parentIds[id] = nextParents.length == 0 ? null : nextParents;
+        for(int parent : previousParents) {
+            if(Arrays.binarySearch(nextParents, parent) < 0) {
+                childIds[parent] = remove(childIds[parent], id);
+            }
+        }
+        for(int parent : nextParents) {
+            if(Arrays.binarySearch(previousParents, parent) < 0) {
+                childIds[parent] = insert(childIds[parent], id);
+            }
+        }
+        invalidateDescendantClosuresOfAncestors(id);
+        return true;
+    }
+
+    /**
+     * Gets the direct parents of the specified node.
+     */
+    @Nonnull
+    public synchronized Set<N> getParents(@Nonnull N node) {
+        Integer id = idsByNode.get(node);
+        if(id == null) {
+            return Collections.emptySet();
+        }
+        return new NodeSet(getParentIds(id), nodes);
+    }
+
+    /**
+     * Gets the direct children of the specified node.
+     */
+    @Nonnull
+    public synchronized Set<N> getChildren(@Nonnull N node) {
+        Integer id = idsByNode.get(node);
+        if(id == null || childIds[id] == null) {
+            return Collections.emptySet();
+        }
+        return new NodeSet(childIds[id], nodes);
+    }
+
+    /**
+     * Gets the ancestors of the specified node.  The ancestors of a node only include the node itself if the
+     * node is in a cycle.
+     * @return A read-only set of ancestors.
+     */
+    @Nonnull
+    public synchronized Set<N> getAncestors(@Nonnull N node) {
+        Integer id = idsByNode.get(node);
+        if(id == null) {
+            return Collections.emptySet();
+        }
+        return new NodeSet(getAncestorClosure(id), nodes);
+    }
+
+    /**
+     * Gets the descendants of the specified node.  The descendants of a node only include the node itself if
+     * the node is in a cycle.
+     * @return A read-only set of descendants.
+     */
+    @Nonnull
+    public synchronized Set<N> getDescendants(@Nonnull N node) {
+        Integer id = idsByNode.get(node);
+        if(id == null) {
+            return Collections.emptySet();
+        }
+        int[] closure = descendantClosures[id];
+        if(closure == null) {
+            closure = computeClosure(id, childIds);
+            descendantClosures[id] = closure;
+        }
+        return new NodeSet(closure, nodes);
+    }
+
+    /**
+     * Determines whether one node is an ancestor of another node.
+     */
+    public synchronized boolean isAncestor(@Nonnull N node, @Nonnull N ancestor) {
+        Integer id = idsByNode.get(node);
+        Integer ancestorId = idsByNode.get(ancestor);
+        if(id == null || ancestorId == null) {
+            return false;
+        }
+        return Arrays.binarySearch(getAncestorClosure(id), ancestorId) >= 0;
+    }
+
+    /**
+     * Gets the number of nodes that have been seen by this index.
+     */
+    public synchronized int getNodeCount() {
+        return nodeCount;
+    }
+
+    private int[] getAncestorClosure(int id) {
+        int[] closure = ancestorClosures[id];
+        if(closure == null) {
+            closure = computeClosure(id, parentIds);
+            ancestorClosures[id] = closure;
+        }
+        return closure;
+    }
+
+    private int[] getParentIds(int id) {
+        int[] parents = parentIds[id];
+        return parents == null ? EMPTY : parents;
+    }
+
+    private int getOrCreateId(@Nonnull N node) {
+        Integer existingId = idsByNode.get(node);
+        if(existingId != null) {
+            return existingId;
+        }
+        int id = nodeCount;
+        if(id == nodes.length) {
+            int capacity = nodes.length * 2;
+            nodes = Arrays.copyOf(nodes, capacity);
+            parentIds = Arrays.copyOf(parentIds, capacity);
+            childIds = Arrays.copyOf(childIds, capacity);
+            ancestorClosures = Arrays.copyOf(ancestorClosures, capacity);
+            descendantClosures = Arrays.copyOf(descendantClosures, capacity);
+            marks = Arrays.copyOf(marks, capacity);
+        }
+        nodes[id] = node;
+        idsByNode.put(node, id);
+        nodeCount++;
+        return id;
+    }
+
+    private int[] toSortedIds(@Nonnull Collection<? extends N> parents) {
+        if(parents.isEmpty()) {
+            return EMPTY;
+        }
+        int[] ids = new int[parents.size()];
+        int count = 0;
+        for(N parent : parents) {
+            ids[count] = getOrCreateId(checkNotNull(parent));
+            count++;
+        }
+        Arrays.sort(ids);
+        // Remove duplicates
+        int distinctCount = 0;
+        for(int i = 0; i < count; i++) {
+            if(i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinctCount] = ids[i];
+                distinctCount++;
+            }
+        }
+        return distinctCount == ids.length ? ids : Arrays.copyOf(ids, distinctCount);
+    }
+
+    private void invalidateAncestorClosuresOfDescendants(int id) {
+        ancestorClosures[id] = null;
+        int count = traverse(id, childIds);
+        for(int i = 0; i < count; i++) {
+            ancestorClosures[workQueue[i]] = null;
+        }
+    }
+
+    private void invalidateDescendantClosuresOfAncestors(int id) {
+        descendantClosures[id] = null;
+        int count = traverse(id, parentIds);
+        for(int i = 0; i < count; i++) {
+            descendantClosures[workQueue[i]] = null;
+        }
+    }
+
+    private int[] computeClosure(int id, int[][] adjacency) {
+        int count = traverse(id, adjacency);
+        if(count == 0) {
+            return EMPTY;
+        }
+        int[] closure = Arrays.copyOf(workQueue, count);
+        Arrays.sort(closure);
+        return closure;
+    }
+
+    /**
+     * Performs a breadth first traversal from the specified node.  On return, the first n elements of
+     * the work queue contain the nodes that were reached, where n is the return value.  The start node is
+     * only included if it is reachable from itself.
+     */
+    private int traverse(int start, int[][] adjacency) {
+        int currentEpoch = nextEpoch();
+        int head = 0;
+        int tail = enqueueUnvisited(adjacency[start], currentEpoch, 0);
+        while(head < tail) {
+            int next = workQueue[head];
+            head++;
+            tail = enqueueUnvisited(adjacency[next], currentEpoch, tail);
+        }
+        return tail;
+    }
+
+    private int enqueueUnvisited(int[] ids, int currentEpoch, int tail) {
+        if(ids == null) {
+            return tail;
+        }
+        for(int id : ids) {
+            if(marks[id] != currentEpoch) {
+                marks[id] = currentEpoch;
+                if(tail == workQueue.length) {
+                    workQueue = Arrays.copyOf(workQueue, workQueue.length * 2);
+                }
+                workQueue[tail] = id;
+                tail++;
+            }
+        }
+        return tail;
+    }
+
+    private int nextEpoch() {
+        if(epoch == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            epoch = 0;
+        }
+        epoch++;
+        return epoch;
+    }
+
+    private static int[] insert(int[] ids, int id) {
+        if(ids == null) {
+            return new int[]{id};
+        }
+        int pos = Arrays.binarySearch(ids, id);
+        if(pos >= 0) {
+            return ids;
+        }
+        int insertionPoint = -pos - 1;
+        int[] result = new int[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertionPoint);
+        result[insertionPoint] = id;
+        System.arraycopy(ids, insertionPoint, result, insertionPoint + 1, ids.length - insertionPoint);
+        return result;
+    }
+
+    private static int[] remove(int[] ids, int id) {
+        if(ids == null) {
+            return null;
+        }
+        int pos = Arrays.binarySearch(ids, id);
+        if(pos < 0) {
+            return ids;
+        }
+        if(ids.length == 1) {
+            return null;
+        }
+        int[] result = new int[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, pos);
+        System.arraycopy(ids, pos + 1, result, pos, ids.length - pos - 1);
+        return result;
+    }
+
+    private synchronized int getId(Object node) {
+        Integer id = idsByNode.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * A read-only view of a sorted array of node ids.  The arrays are never modified once they have been
+     * published, so the view remains valid after the index changes.
+     */
+    private final class NodeSet extends AbstractSet<N> {
+
+        private final int[] ids;
+
+        private final Object[] nodesById;
+
+        private NodeSet(int[] ids, Object[] nodesById) {
+            this.ids = ids;
+            this.nodesById = nodesById;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if(ids.length == 0) {
+                return false;
+            }
+            int id = getId(o);
+            return id != -1 && Arrays.binarySearch(ids, id) >= 0;
+        }
+
+        @Nonnull
+        @Override
+        public Iterator<N> iterator() {
+            return new Iterator<N>() {
+
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < ids.length;
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public N next() {
+                    if(index >= ids.length) {
+                        throw new NoSuchElementException();
+                    }
+                    N node = (N) nodesById[ids[index]];
+                    index++;
+                    return node;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+}
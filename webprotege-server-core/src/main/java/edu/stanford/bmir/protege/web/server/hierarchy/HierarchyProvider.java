@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.hierarchy;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Matthew Horridge
@@ -30,8 +31,20 @@ public interface HierarchyProvider<N> extends HasGetAncestors<N> {
     Set<N> getEquivalents(N object);
 
 
+    /**
+     * Gets all of the paths from the roots of the hierarchy to the specified object.  The number of paths can
+     * be exponential in the depth of the hierarchy, so callers that can work with a limited number of paths
+     * should use {@link #streamPathsToRoot(Object)}.
+     */
     Set<List<N>> getPathsToRoot(N object);
 
+    /**
+     * Lazily streams the paths from the roots of the hierarchy to the specified object.  Each path starts with a
+     * root and ends with the object.  Paths are computed as the stream is consumed, so a limited number of paths
+     * can be obtained cheaply using {@link Stream#limit(long)}.
+     */
+    Stream<List<N>> streamPathsToRoot(N object);
+
 
     boolean containsReference(N object);
 
@@ -18,6 +18,7 @@ import edu.stanford.bmir.protege.web.shared.pagination.Page;
 import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.slf4j.Logger;
@@ -27,6 +28,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import java.util.Map;
 import java.util.Optional;
 
 import static edu.stanford.bmir.protege.web.server.logging.Markers.BROWSING;
@@ -108,7 +110,8 @@ public class GetIndividualsActionHandler extends AbstractProjectActionHandler<Ge
                     type,
                     typeData.getBrowserText());
         Page<OWLNamedIndividual> pg = result.getIndividuals();
-        Page<EntityNode> entityNodes = pg.transform(entityNodeRenderer::render);
+        Map<OWLEntity, EntityNode> renderedNodes = entityNodeRenderer.renderAll(pg.getPageElements());
+        Page<EntityNode> entityNodes = pg.transform(renderedNodes::get);
         Optional<OWLClassData> renderedType = action.getType().map(t -> typeData);
         return new GetIndividualsResult(renderedType,
                                         entityNodes,
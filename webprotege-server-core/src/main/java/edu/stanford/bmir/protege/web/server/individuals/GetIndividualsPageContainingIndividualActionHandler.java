@@ -9,13 +9,17 @@ import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
 import edu.stanford.bmir.protege.web.shared.individuals.GetIndividualsPageContainingIndividualAction;
 import edu.stanford.bmir.protege.web.shared.individuals.GetIndividualsPageContainingIndividualResult;
 import edu.stanford.bmir.protege.web.shared.pagination.Page;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Matthew Horridge
@@ -50,12 +54,11 @@ public class GetIndividualsPageContainingIndividualActionHandler extends Abstrac
                                                                                       action.getPreferredType(),
                                                                                       action.getPreferredMode(),
                                                                                       200);
-        Page<EntityNode> entityNodesPage = result.getIndividuals().transform(renderer::render);
-        ImmutableSet<EntityNode> types =
-                individualsIndex
-                        .getTypes(action.getIndividual())
-                        .map(renderer::render)
-                        .collect(toImmutableSet());
+        Map<OWLEntity, EntityNode> renderedNodes = renderer.renderAll(result.getIndividuals().getPageElements());
+        Page<EntityNode> entityNodesPage = result.getIndividuals().transform(renderedNodes::get);
+        List<OWLClass> typeEntities = individualsIndex.getTypes(action.getIndividual())
+                                                      .collect(toList());
+        ImmutableSet<EntityNode> types = ImmutableSet.copyOf(renderer.renderAll(typeEntities).values());
         return GetIndividualsPageContainingIndividualResult.get(action.getIndividual(),
                                                                 entityNodesPage,
                                                                 renderer.render(result.getType()),
@@ -6,7 +6,6 @@ import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
 import edu.stanford.bmir.protege.web.server.shortform.Scanner;
 import edu.stanford.bmir.protege.web.server.shortform.SearchString;
-import edu.stanford.bmir.protege.web.server.util.AlphaNumericStringComparator;
 import edu.stanford.bmir.protege.web.server.util.ClassExpression;
 import edu.stanford.bmir.protege.web.server.util.Counter;
 import edu.stanford.bmir.protege.web.server.util.ProtegeStreams;
@@ -29,7 +28,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static edu.stanford.bmir.protege.web.server.pagination.PageCollector.toPage;
+import static edu.stanford.bmir.protege.web.server.pagination.SortedPageCollector.toSortedPage;
+import static edu.stanford.bmir.protege.web.server.util.AlphaNumericStringComparator.alphaNumerically;
 import static edu.stanford.bmir.protege.web.shared.individuals.InstanceRetrievalMode.ALL_INSTANCES;
 import static edu.stanford.bmir.protege.web.shared.individuals.InstanceRetrievalMode.DIRECT_INSTANCES;
 import static java.util.stream.Collectors.toList;
@@ -98,11 +98,10 @@ public class IndividualsIndexImpl implements IndividualsIndex {
         Optional<Page<OWLNamedIndividual>> page = getIndividualsMatching(type, mode)
                 .peek(ind -> counter.increment())
                 .filter(ind -> matchesSearchStrings(ind, searchStrings))
-                .map(this::toIndividualRendering)
-                .sorted()
-                .map(IndividualRendering::getIndividual)
-                .collect(toPage(pageRequest.getPageNumber(),
-                                pageRequest.getPageSize()));
+                .collect(toSortedPage(pageRequest.getPageNumber(),
+                                      pageRequest.getPageSize(),
+                                      this::getSortKey,
+                                      alphaNumerically()));
 
         return IndividualsQueryResult.get(page.orElse(Page.emptyPage()),
                                           counter.getCounter(),
@@ -170,7 +169,11 @@ public class IndividualsIndexImpl implements IndividualsIndex {
             }
         }
 
-        List<OWLNamedIndividual> individuals = getIndividualsMatching(actualType, actualMode).collect(toList());
+        List<OWLNamedIndividual> individuals = getIndividualsMatching(actualType, actualMode)
+                .map(ind -> new SortKeyedIndividual(ind, getSortKey(ind)))
+                .sorted()
+                .map(SortKeyedIndividual::getIndividual)
+                .collect(toList());
         int individualIndex = individuals.indexOf(individual);
         Page<OWLNamedIndividual> page;
         if(individualIndex == -1) {
@@ -194,7 +197,8 @@ public class IndividualsIndexImpl implements IndividualsIndex {
     }
 
     /**
-     * Returns a stream of distinct individuals that match the specified parameters.
+     * Returns a stream of distinct individuals that match the specified parameters.  The individuals are not
+     * sorted.
      */
     private Stream<OWLNamedIndividual> getIndividualsMatching(@Nonnull OWLClass type,
                                                               @Nonnull InstanceRetrievalMode mode) {
@@ -228,10 +232,7 @@ public class IndividualsIndexImpl implements IndividualsIndex {
                         .filter(OWLIndividual::isNamed)
                         .map(OWLIndividual::asOWLNamedIndividual);
         return individuals
-                .distinct()
-                .map(this::toIndividualRendering)
-                .sorted()
-                .map(IndividualRendering::getIndividual);
+                .distinct();
     }
 
     private boolean isDirectInstanceOfOWLThing(OWLNamedIndividual i) {
@@ -259,8 +260,8 @@ public class IndividualsIndexImpl implements IndividualsIndex {
                 .map(OWLClassExpression::asOWLClass);
     }
 
-    private IndividualRendering toIndividualRendering(OWLNamedIndividual ind) {
-        return new IndividualRendering(ind, dictionaryManager.getShortForm(ind).toLowerCase());
+    private String getSortKey(OWLNamedIndividual ind) {
+        return dictionaryManager.getShortForm(ind).toLowerCase();
     }
 
     private boolean matchesSearchStrings(@Nonnull OWLNamedIndividual i,
@@ -269,7 +270,7 @@ public class IndividualsIndexImpl implements IndividualsIndex {
             return true;
         }
         String shortForm = dictionaryManager.getShortForm(i);
-        Scanner scanner = new Scanner(shortForm, shortForm.toLowerCase());
+        Scanner scanner = new Scanner(shortForm);
         for (SearchString searchString : searchStrings) {
             int index = scanner.indexOf(searchString, 0);
             if (index == -1) {
@@ -279,30 +280,24 @@ public class IndividualsIndexImpl implements IndividualsIndex {
         return true;
     }
 
-    private static class IndividualRendering implements Comparable<IndividualRendering> {
+    private static class SortKeyedIndividual implements Comparable<SortKeyedIndividual> {
 
         private final OWLNamedIndividual individual;
 
-        private final String rendering;
+        private final String sortKey;
 
-        private final AlphaNumericStringComparator comparator = new AlphaNumericStringComparator();
-
-        public IndividualRendering(OWLNamedIndividual individual, String rendering) {
+        public SortKeyedIndividual(OWLNamedIndividual individual, String sortKey) {
             this.individual = individual;
-            this.rendering = rendering;
+            this.sortKey = sortKey;
         }
 
         public OWLNamedIndividual getIndividual() {
             return individual;
         }
 
-        public String getRendering() {
-            return rendering;
-        }
-
         @Override
-        public int compareTo(IndividualRendering o) {
-            return comparator.compare(this.rendering, o.rendering);
+        public int compareTo(SortKeyedIndividual o) {
+            return alphaNumerically().compare(this.sortKey, o.sortKey);
         }
     }
 }
@@ -26,6 +26,7 @@ import edu.stanford.bmir.protege.web.server.crud.persistence.ProjectEntityCrudKi
 import edu.stanford.bmir.protege.web.server.crud.supplied.SuppliedNameSuffixEntityCrudKitPlugin;
 import edu.stanford.bmir.protege.web.server.crud.uuid.UUIDEntityCrudKitPlugin;
 import edu.stanford.bmir.protege.web.server.dispatch.ActionHandlerRegistry;
+import edu.stanford.bmir.protege.web.server.dispatch.ActionResultCacheSettings;
 import edu.stanford.bmir.protege.web.server.dispatch.DispatchServiceExecutor;
 import edu.stanford.bmir.protege.web.server.dispatch.impl.ActionHandlerRegistryImpl;
 import edu.stanford.bmir.protege.web.server.dispatch.impl.DispatchServiceExecutorImpl;
@@ -41,13 +42,20 @@ import edu.stanford.bmir.protege.web.server.perspective.PerspectiveLayoutStoreIm
 import edu.stanford.bmir.protege.web.server.perspective.PerspectivesManager;
 import edu.stanford.bmir.protege.web.server.perspective.PerspectivesManagerImpl;
 import edu.stanford.bmir.protege.web.server.project.*;
+import edu.stanford.bmir.protege.web.server.revision.ChangeHistoryDecoderPool;
+import edu.stanford.bmir.protege.web.server.revision.RevisionSnapshotSettings;
+import edu.stanford.bmir.protege.web.server.revision.RevisionStoreSettings;
+import edu.stanford.bmir.protege.web.server.revision.RevisionWriterSettings;
 import edu.stanford.bmir.protege.web.server.sharing.ProjectSharingSettingsManager;
 import edu.stanford.bmir.protege.web.server.sharing.ProjectSharingSettingsManagerImpl;
+import edu.stanford.bmir.protege.web.server.shortform.DictionaryBuilderPool;
+import edu.stanford.bmir.protege.web.server.shortform.DictionaryWarmUpExecutor;
 import edu.stanford.bmir.protege.web.server.user.*;
 import edu.stanford.bmir.protege.web.server.watches.WatchRecordRepository;
 import edu.stanford.bmir.protege.web.server.watches.WatchRecordRepositoryImpl;
 import edu.stanford.bmir.protege.web.server.webhook.SlackWebhookRepository;
 import edu.stanford.bmir.protege.web.server.webhook.SlackWebhookRepositoryImpl;
+import edu.stanford.bmir.protege.web.server.webhook.WebhookExecutorSettings;
 import edu.stanford.bmir.protege.web.server.webhook.WebhookRepository;
 import edu.stanford.bmir.protege.web.server.webhook.WebhookRepositoryImpl;
 import edu.stanford.bmir.protege.web.shared.app.ApplicationSettings;
@@ -59,8 +67,10 @@ import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 import javax.annotation.Nonnull;
 import java.util.Collections;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Matthew Horridge
@@ -72,6 +82,8 @@ public class ApplicationModule {
 
     private static final int MAX_FILE_DOWNLOAD_THREADS = 5;
 
+    private static final int MAX_DICTIONARY_WARM_UP_THREADS = 2;
+
 
 
     @ApplicationSingleton
@@ -182,6 +194,73 @@ public class ApplicationModule {
         return povider.get();
     }
 
+    @Provides
+    @ApplicationSingleton
+    public RevisionSnapshotSettings provideRevisionSnapshotSettings(WebProtegeProperties properties) {
+        return RevisionSnapshotSettings.get(properties.getRevisionSnapshotInterval(),
+                                            properties.getRevisionSnapshotBytes(),
+                                            properties.getRevisionSnapshotRetained());
+    }
+
+    @Provides
+    @ApplicationSingleton
+    public ProjectCacheSettings provideProjectCacheSettings(WebProtegeProperties properties) {
+        return ProjectCacheSettings.get(properties.getProjectCacheIdleTimeout(),
+                                        properties.getProjectCacheMaxProjects(),
+                                        properties.getProjectCacheHeapBudgetMb() * 1024 * 1024,
+                                        properties.getProjectCacheLoadWait());
+    }
+
+    @Provides
+    @ApplicationSingleton
+    public ProjectWarmUpSettings provideProjectWarmUpSettings(WebProtegeProperties properties) {
+        return ProjectWarmUpSettings.get(properties.getProjectWarmUpMaxProjects(),
+                                         properties.getProjectWarmUpThreads(),
+                                         properties.getProjectWarmUpRetainTime());
+    }
+
+    @Provides
+    @ApplicationSingleton
+    public ReadIsolationSettings provideReadIsolationSettings(WebProtegeProperties properties) {
+        return ReadIsolationSettings.get(properties.isProjectLockedReads());
+    }
+
+    @Provides
+    public ProjectEvictionPolicy provideProjectEvictionPolicy(DefaultProjectEvictionPolicy policy) {
+        return policy;
+    }
+
+    @Provides
+    @ApplicationSingleton
+    public RevisionStoreSettings provideRevisionStoreSettings(WebProtegeProperties properties) {
+        return RevisionStoreSettings.get(properties.isRevisionStoreLazyLoading(),
+                                         properties.getRevisionStoreCacheSize());
+    }
+
+    @Provides
+    @ApplicationSingleton
+    public RevisionWriterSettings provideRevisionWriterSettings(WebProtegeProperties properties) {
+        return RevisionWriterSettings.get(properties.getRevisionWriterMaxLatency(),
+                                          properties.getRevisionWriterMaxBatchSize(),
+                                          properties.isRevisionWriterAwaitDurability());
+    }
+
+    @Provides
+    @ApplicationSingleton
+    public WebhookExecutorSettings provideWebhookExecutorSettings(WebProtegeProperties properties) {
+        return WebhookExecutorSettings.get(properties.getWebhookMaxInFlight(),
+                                           properties.getWebhookMaxQueued(),
+                                           properties.getWebhookTimeout(),
+                                           properties.getWebhookMaxAttempts(),
+                                           properties.getWebhookRetryDelay());
+    }
+
+    @Provides
+    @ApplicationSingleton
+    public ActionResultCacheSettings provideActionResultCacheSettings(WebProtegeProperties properties) {
+        return ActionResultCacheSettings.get(properties.getDispatchResultCacheMaxSize());
+    }
+
     @Provides
     @MailProperties
     @ApplicationSingleton
@@ -247,6 +326,43 @@ public class ApplicationModule {
         });
     }
 
+    @Provides
+    @ApplicationSingleton
+    @ChangeHistoryDecoderPool
+    public ForkJoinPool provideChangeHistoryDecoderPool() {
+        // Decoding is CPU bound.  A dedicated pool keeps large loads from tying up the common pool.
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(thread.getName().replace("ForkJoinPool", "Change-History-Decoder"));
+            return thread;
+        }, null, false);
+    }
+
+    @Provides
+    @ApplicationSingleton
+    @DictionaryBuilderPool
+    public ForkJoinPool provideDictionaryBuilderPool() {
+        // Dictionary builds are CPU bound and can be large.  They are kept off of the common pool.
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(thread.getName().replace("ForkJoinPool", "Dictionary-Builder"));
+            return thread;
+        }, null, false);
+    }
+
+    @Provides
+    @ApplicationSingleton
+    @DictionaryWarmUpExecutor
+    public Executor provideDictionaryWarmUpExecutor() {
+        // Warm up threads mostly wait for builds on the dictionary builder pool, so only a few are needed to
+        // keep that pool busy
+        return Executors.newFixedThreadPool(MAX_DICTIONARY_WARM_UP_THREADS, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "Dictionary-Warm-Up"));
+            return thread;
+        });
+    }
+
     @Provides
     public WebhookRepository providesWebhookRepository(WebhookRepositoryImpl impl) {
         return impl;
@@ -36,6 +36,8 @@ import edu.stanford.bmir.protege.web.server.project.ChangeManager;
 import edu.stanford.bmir.protege.web.server.project.RootOntologyProvider;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManagerImpl;
+import edu.stanford.bmir.protege.web.server.revision.RevisionSnapshotStore;
+import edu.stanford.bmir.protege.web.server.revision.RevisionSnapshotStoreProvider;
 import edu.stanford.bmir.protege.web.server.revision.RevisionStore;
 import edu.stanford.bmir.protege.web.server.revision.RevisionStoreProvider;
 import edu.stanford.bmir.protege.web.server.shortform.*;
@@ -320,6 +322,12 @@ public class ProjectModule {
         return provider.get();
     }
 
+    @Provides
+    @ProjectSingleton
+    public RevisionSnapshotStore provideRevisionSnapshotStore(RevisionSnapshotStoreProvider provider) {
+        return provider.get();
+    }
+
     @Provides
     List<MetricCalculator> providesMetricsCaculator(MetricCalculatorsProvider provider) {
         return provider.get();
@@ -526,9 +534,14 @@ public class ProjectModule {
     }
 
     @Provides
-    MultiLingualDictionary provideDictionary(MultiLingualDictionaryImpl dictionary, LanguageManager languageManager) {
-        // Preload existing languages to avoid delays after loading in the UI
+    @ProjectSingleton
+    MultiLingualDictionary provideDictionary(MultiLingualDictionaryImpl dictionary,
+                                             LanguageManager languageManager,
+                                             ProjectDisposablesManager disposablesManager) {
+        // Preload existing languages, in the background, to avoid delays after loading in the UI.  The dictionaries
+        // are restored from a snapshot where possible, and a snapshot is written when the project is disposed of.
         dictionary.loadLanguages(languageManager.getActiveLanguages());
+        disposablesManager.register(dictionary);
         return dictionary;
     }
 
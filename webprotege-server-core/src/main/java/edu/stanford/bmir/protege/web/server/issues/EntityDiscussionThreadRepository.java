@@ -1,34 +1,55 @@
 package edu.stanford.bmir.protege.web.server.issues;
 
+import com.google.common.base.Stopwatch;
+import com.mongodb.AggregationOptions;
 import com.mongodb.BasicDBObject;
+import com.mongodb.Cursor;
+import com.mongodb.DBObject;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
 import edu.stanford.bmir.protege.web.shared.issues.*;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.mongodb.morphia.Datastore;
+import org.mongodb.morphia.converters.Converters;
 import org.mongodb.morphia.query.Query;
 import org.mongodb.morphia.query.UpdateOperations;
 import org.mongodb.morphia.query.UpdateResults;
 import org.semanticweb.owlapi.model.OWLEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.shared.issues.EntityDiscussionThread.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 5 Oct 2016
  */
+@ApplicationSingleton
 public class EntityDiscussionThreadRepository {
 
     public static final String MATCHED_COMMENT_PATH = "comments.$";
 
+    private static final Logger logger = LoggerFactory.getLogger(EntityDiscussionThreadRepository.class);
+
+    private static final String COMMENT_COUNT = "commentCount";
+
     @Nonnull
     private final Datastore datastore;
 
+    /**
+     * Comment counts for the projects that have been accessed.  These are evicted when a project is purged
+     * from the project cache.
+     */
+    private final ConcurrentMap<ProjectId, ProjectCommentCounts> commentCounts = new ConcurrentHashMap<>();
+
     @Inject
     public EntityDiscussionThreadRepository(@Nonnull Datastore datastore) {
         this.datastore = checkNotNull(datastore);
@@ -48,27 +69,111 @@ public class EntityDiscussionThreadRepository {
 
     public int getCommentsCount(@Nonnull ProjectId projectId,
                                 @Nonnull OWLEntity entity) {
-        return findThreads(projectId, entity).stream()
-                                             .map(thread -> thread.getComments().size())
-                                             .reduce((left, right) -> left + right)
-                                             .orElse(0);
+        return getCommentCounts(projectId).getCommentsCount(entity);
     }
 
     public int getOpenCommentsCount(@Nonnull ProjectId projectId,
                                     @Nonnull OWLEntity entity) {
-        return datastore.createQuery(EntityDiscussionThread.class)
-                        .disableValidation()
-                        .field(PROJECT_ID).equal(projectId)
-                        .field(ENTITY).equal(entity)
-                        .field(STATUS).equal(Status.OPEN)
-                        .asList()
-                        .stream().map(thread -> thread.getComments().size())
-                        .reduce((left, right) -> left + right)
-                        .orElse(0);
+        return getCommentCounts(projectId).getOpenCommentsCount(entity);
+    }
+
+    /**
+     * Gets the number of comments in open threads for each of the specified entities.
+     * @param projectId The project.
+     * @param entities The entities.
+     * @return A map from entity to open comment count.  Entities that do not have any open comments are not
+     * present in the map.
+     */
+    @Nonnull
+    public Map<OWLEntity, Integer> getOpenCommentsCounts(@Nonnull ProjectId projectId,
+                                                         @Nonnull Collection<? extends OWLEntity> entities) {
+        if(entities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        ProjectCommentCounts projectCommentCounts = getCommentCounts(projectId);
+        Map<OWLEntity, Integer> counts = new HashMap<>();
+        for(OWLEntity entity : entities) {
+            int count = projectCommentCounts.getOpenCommentsCount(entity);
+            if(count != 0) {
+                counts.put(entity, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Discards the comment counts that are held in memory for the specified project.  They will be reloaded
+     * when they are next needed.
+     * @param projectId The project.
+     */
+    public void evictCommentCounts(@Nonnull ProjectId projectId) {
+        commentCounts.remove(projectId);
+    }
+
+    @Nonnull
+    private ProjectCommentCounts getCommentCounts(@Nonnull ProjectId projectId) {
+        return commentCounts.computeIfAbsent(projectId, this::loadCommentCounts);
+    }
+
+    /**
+     * Loads the comment counts for a project using an aggregation that projects each thread down to its
+     * entity, status and number of comments.
+     */
+    @Nonnull
+    private ProjectCommentCounts loadCommentCounts(@Nonnull ProjectId projectId) {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Query<EntityDiscussionThread> matchQuery = datastore.createQuery(EntityDiscussionThread.class)
+                                                            .field(PROJECT_ID).equal(projectId);
+        List<DBObject> pipeline = Arrays.asList(
+                new BasicDBObject("$match", matchQuery.getQueryObject()),
+                new BasicDBObject("$project",
+                                  new BasicDBObject(ENTITY, 1)
+                                          .append(STATUS, 1)
+                                          .append(COMMENT_COUNT, new BasicDBObject("$size", "$" + COMMENTS)))
+        );
+        Converters converters = datastore.getMapper().getConverters();
+        ProjectCommentCounts counts = new ProjectCommentCounts();
+        Cursor cursor = datastore.getCollection(EntityDiscussionThread.class)
+                                 .aggregate(pipeline, AggregationOptions.builder().build());
+        try {
+            while(cursor.hasNext()) {
+                DBObject result = cursor.next();
+                Object entity = converters.decode(OWLEntity.class, result.get(ENTITY));
+                if(entity == null) {
+                    continue;
+                }
+                counts.putThread(new ThreadId(result.get("_id").toString()),
+                                 (OWLEntity) entity,
+                                 Status.OPEN.name().equals(result.get(STATUS)),
+                                 ((Number) result.get(COMMENT_COUNT)).intValue());
+            }
+        } finally {
+            cursor.close();
+        }
+        logger.info("{} Loaded comment counts in {} ms", projectId, stopwatch.elapsed(MILLISECONDS));
+        return counts;
+    }
+
+    /**
+     * Updates the loaded comment counts, if any, to reflect the latest state of the specified thread.
+     */
+    private void updateCommentCounts(@Nonnull EntityDiscussionThread thread) {
+        commentCounts.computeIfPresent(thread.getProjectId(), (projectId, counts) -> {
+            counts.putThread(thread.getId(),
+                             thread.getEntity(),
+                             thread.getStatus() == Status.OPEN,
+                             thread.getComments().size());
+            return counts;
+        });
+    }
+
+    private void updateCommentCounts(@Nonnull ThreadId threadId) {
+        getThread(threadId).ifPresent(this::updateCommentCounts);
     }
 
     public void saveThread(@Nonnull EntityDiscussionThread thread) {
         datastore.save(thread);
+        updateCommentCounts(thread);
     }
 
     public void addCommentToThread(@Nonnull ThreadId threadId,
@@ -76,12 +181,15 @@ public class EntityDiscussionThreadRepository {
         Query<EntityDiscussionThread> query = createQueryForThread(threadId);
         UpdateOperations<EntityDiscussionThread> ops = getUpdateOperations().push(COMMENTS, comment);
         datastore.update(query, ops, false);
+        updateCommentCounts(threadId);
     }
 
     public Optional<EntityDiscussionThread> setThreadStatus(@Nonnull ThreadId threadId,
                                                             @Nonnull Status status) {
         datastore.updateFirst(createQueryForThread(threadId), getUpdateOperations().set(STATUS, status));
-        return Optional.ofNullable(datastore.get(EntityDiscussionThread.class, threadId));
+        Optional<EntityDiscussionThread> thread = Optional.ofNullable(datastore.get(EntityDiscussionThread.class, threadId));
+        thread.ifPresent(this::updateCommentCounts);
+        return thread;
     }
 
 
@@ -98,6 +206,10 @@ public class EntityDiscussionThreadRepository {
         UpdateOperations<EntityDiscussionThread> updateOperations = datastore.createUpdateOperations(EntityDiscussionThread.class);
         updateOperations.set("entity", withEntity);
         datastore.update(query, updateOperations);
+        commentCounts.computeIfPresent(projectId, (id, counts) -> {
+            counts.replaceEntity(entity, withEntity);
+            return counts;
+        });
     }
 
     private UpdateOperations<EntityDiscussionThread> getUpdateOperations() {
@@ -124,12 +236,17 @@ public class EntityDiscussionThreadRepository {
     }
 
     public boolean deleteComment(CommentId commentId) {
+        Optional<EntityDiscussionThread> thread = findThreadByCommentId(commentId);
         Query<EntityDiscussionThread> query = datastore.createQuery(EntityDiscussionThread.class)
                                                        .field(COMMENTS_ID).equal(commentId);
         UpdateOperations<EntityDiscussionThread> update = getUpdateOperations()
                 .removeAll(COMMENTS, new BasicDBObject("_id", commentId.getId()));
         UpdateResults updateResults = datastore.updateFirst(query, update);
-        return updateResults.getUpdatedCount() == 1;
+        boolean deleted = updateResults.getUpdatedCount() == 1;
+        if(deleted) {
+            thread.ifPresent(t -> updateCommentCounts(t.getId()));
+        }
+        return deleted;
     }
 
     public List<EntityDiscussionThread> getThreadsInProject(ProjectId projectId) {
@@ -0,0 +1,113 @@
+package edu.stanford.bmir.protege.web.server.issues;
+
+import edu.stanford.bmir.protege.web.shared.issues.ThreadId;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * An in-memory projection of the number of comments, and the number of comments in open threads, for each
+ * commented entity in a project.  A summary of each thread is held so that the projection can be updated from
+ * the latest state of a thread, irrespective of how that thread changed.
+ *
+ * Instances of this class are thread safe.
+ */
+class ProjectCommentCounts {
+
+    private final Map<ThreadId, ThreadSummary> threadSummaries = new HashMap<>();
+
+    private final Map<OWLEntity, Counts> countsByEntity = new HashMap<>();
+
+    /**
+     * Sets the summary of the specified thread, replacing any previous summary for the thread.
+     * @param threadId The thread id.
+     * @param entity The entity that the thread is about.
+     * @param open Whether or not the thread is open.
+     * @param commentCount The number of comments in the thread.
+     */
+    public synchronized void putThread(@Nonnull ThreadId threadId,
+                                       @Nonnull OWLEntity entity,
+                                       boolean open,
+                                       int commentCount) {
+        removeThread(threadId);
+        ThreadSummary summary = new ThreadSummary(checkNotNull(entity), open, commentCount);
+        threadSummaries.put(threadId, summary);
+        add(summary, 1);
+    }
+
+    public synchronized void removeThread(@Nonnull ThreadId threadId) {
+        ThreadSummary summary = threadSummaries.remove(threadId);
+        if(summary != null) {
+            add(summary, -1);
+        }
+    }
+
+    /**
+     * Moves the threads about one entity so that they are about another entity.
+     */
+    public synchronized void replaceEntity(@Nonnull OWLEntity entity,
+                                           @Nonnull OWLEntity withEntity) {
+        if(entity.equals(withEntity) || !countsByEntity.containsKey(entity)) {
+            return;
+        }
+        List<Map.Entry<ThreadId, ThreadSummary>> threads = threadSummaries.entrySet().stream()
+                                                                          .filter(e -> e.getValue().entity.equals(entity))
+                                                                          .collect(Collectors.toList());
+        threads.forEach(e -> putThread(e.getKey(), withEntity, e.getValue().open, e.getValue().commentCount));
+    }
+
+    public synchronized int getCommentsCount(@Nonnull OWLEntity entity) {
+        Counts counts = countsByEntity.get(entity);
+        return counts == null ? 0 : counts.total;
+    }
+
+    public synchronized int getOpenCommentsCount(@Nonnull OWLEntity entity) {
+        Counts counts = countsByEntity.get(entity);
+        return counts == null ? 0 : counts.open;
+    }
+
+    private void add(@Nonnull ThreadSummary summary, int sign) {
+        Counts counts = countsByEntity.computeIfAbsent(summary.entity, e -> new Counts());
+        counts.threads += sign;
+        counts.total += sign * summary.commentCount;
+        if(summary.open) {
+            counts.open += sign * summary.commentCount;
+        }
+        if(counts.threads == 0) {
+            countsByEntity.remove(summary.entity);
+        }
+    }
+
+    private static final class ThreadSummary {
+
+        private final OWLEntity entity;
+
+        private final boolean open;
+
+        private final int commentCount;
+
+        private ThreadSummary(OWLEntity entity, boolean open, int commentCount) {
+            this.entity = entity;
+            this.open = open;
+            this.commentCount = commentCount;
+        }
+    }
+
+    private static final class Counts {
+
+        private int threads;
+
+        private int total;
+
+        private int open;
+    }
+}
@@ -5,16 +5,15 @@ import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.server.entity.EntityNodeRenderer;
-import edu.stanford.bmir.protege.web.server.renderer.RenderingManager;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
-import edu.stanford.bmir.protege.web.shared.entity.OWLEntityData;
 import edu.stanford.bmir.protege.web.shared.match.GetMatchingEntitiesAction;
 import edu.stanford.bmir.protege.web.shared.match.GetMatchingEntitiesResult;
 import edu.stanford.bmir.protege.web.shared.match.criteria.Criteria;
 import edu.stanford.bmir.protege.web.shared.pagination.Page;
 import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,11 +22,12 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static edu.stanford.bmir.protege.web.server.pagination.PageCollector.toPage;
+import static edu.stanford.bmir.protege.web.server.pagination.SortedPageCollector.toSortedPage;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -45,9 +45,6 @@ public class GetMatchingEntitiesActionHandler extends AbstractProjectActionHandl
     @Nonnull
     private final EntityNodeRenderer nodeRenderer;
 
-    @Nonnull
-    private final RenderingManager renderingManager;
-
     @Nonnull
     private final MatchingEngine matchingEngine;
 
@@ -55,11 +52,10 @@ public class GetMatchingEntitiesActionHandler extends AbstractProjectActionHandl
     public GetMatchingEntitiesActionHandler(@Nonnull AccessManager accessManager,
                                             @Nonnull DictionaryManager dictionaryManager,
                                             @Nonnull EntityNodeRenderer nodeRenderer,
-                                            @Nonnull RenderingManager renderingManager, @Nonnull MatchingEngine matchingEngine) {
+                                            @Nonnull MatchingEngine matchingEngine) {
         super(accessManager);
         this.dictionaryManager = checkNotNull(dictionaryManager);
         this.nodeRenderer = checkNotNull(nodeRenderer);
-        this.renderingManager = renderingManager;
         this.matchingEngine = checkNotNull(matchingEngine);
     }
 
@@ -81,20 +77,22 @@ public class GetMatchingEntitiesActionHandler extends AbstractProjectActionHandl
         Stopwatch stopwatch = Stopwatch.createStarted();
         PageRequest pageRequest = action.getPageRequest();
         Criteria criteria = action.getCriteria();
-        Optional<Page<OWLEntityData>> result = matchingEngine.match(criteria)
-                                                             .map(renderingManager::getRendering)
-                                                             .sorted()
-                                                             .collect(toPage(pageRequest.getPageNumber(),
-                                                                           pageRequest.getPageSize()));
+        // Sort on the short form, which is what entities are displayed with, and only render the requested page
+        Optional<Page<OWLEntity>> result = matchingEngine.match(criteria)
+                                                         .collect(toSortedPage(pageRequest.getPageNumber(),
+                                                                               pageRequest.getPageSize(),
+                                                                               dictionaryManager::getShortForm));
         stopwatch.stop();
         logger.info("{} {} Answered query in {} ms",
                     action.getProjectId(),
                     executionContext.getUserId(),
                     stopwatch.elapsed(TimeUnit.MILLISECONDS));
         Optional<Page<EntityNode>> entityHierarchyNodes = result.map(pg -> {
-            List<EntityNode> nodes = pg.getPageElements().stream()
-                                       .map(ed -> nodeRenderer.render(ed.getEntity()))
-                                       .collect(toList());
+            List<OWLEntity> entities = pg.getPageElements();
+            Map<OWLEntity, EntityNode> renderedNodes = nodeRenderer.renderAll(entities);
+            List<EntityNode> nodes = entities.stream()
+                                             .map(renderedNodes::get)
+                                             .collect(toList());
             return new Page<>(pg.getPageNumber(),
                               pg.getPageCount(),
                               nodes,
@@ -8,6 +8,8 @@ import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.Imports;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashSet;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -33,9 +35,12 @@ public class InstanceOfMatcher implements Matcher<OWLEntity> {
     @Nonnull
     private final HierarchyFilterType filterType;
 
-    private boolean initialised = false;
-
-    private Set<OWLNamedIndividual> instances;
+    /**
+     * The instances of the class.  These are computed on first use.  Matchers may be cached and shared between
+     * threads, so this is volatile.
+     */
+    @Nullable
+    private volatile Set<OWLNamedIndividual> instances;
 
     public InstanceOfMatcher(@Nonnull @Provided ClassHierarchyProvider hierarchyProvider,
                              @Nonnull @Provided OWLOntology rootOntology,
@@ -50,33 +55,39 @@ public class InstanceOfMatcher implements Matcher<OWLEntity> {
     @SuppressWarnings("SuspiciousMethodCalls")
     @Override
     public boolean matches(@Nonnull OWLEntity value) {
-        if (!initialised) {
+        return getInstances().contains(value);
+    }
+
+    @Nonnull
+    private Set<OWLNamedIndividual> getInstances() {
+        Set<OWLNamedIndividual> result = instances;
+        if (result == null) {
             if (filterType == HierarchyFilterType.DIRECT) {
-                instances = rootOntology.getImportsClosure().stream()
-                                        .flatMap(ont -> ont.getClassAssertionAxioms(target).stream())
-                                        .map(OWLClassAssertionAxiom::getIndividual)
-                                        .filter(OWLIndividual::isNamed)
-                                        .map(ind -> (OWLNamedIndividual) ind)
-                                        .collect(toSet());
+                result = rootOntology.getImportsClosure().stream()
+                                     .flatMap(ont -> ont.getClassAssertionAxioms(target).stream())
+                                     .map(OWLClassAssertionAxiom::getIndividual)
+                                     .filter(OWLIndividual::isNamed)
+                                     .map(ind -> (OWLNamedIndividual) ind)
+                                     .collect(toSet());
             }
             else {
                 if(target.isOWLThing()) {
-                    instances = rootOntology.getIndividualsInSignature(Imports.INCLUDED);
+                    result = rootOntology.getIndividualsInSignature(Imports.INCLUDED);
                 }
                 else {
-                    Set<OWLClass> clses = hierarchyProvider.getDescendants(target);
+                    Set<OWLClass> clses = new HashSet<>(hierarchyProvider.getDescendants(target));
                     clses.add(target);
-                    instances = clses.stream()
-                                     .flatMap(cls -> rootOntology.getImportsClosure().stream()
-                                                                 .flatMap(ont -> ont.getClassAssertionAxioms(cls).stream()))
-                                     .map(OWLClassAssertionAxiom::getIndividual)
-                                     .filter(OWLIndividual::isNamed)
-                                     .map(ind -> (OWLNamedIndividual) ind)
-                                     .collect(toSet());
+                    result = clses.stream()
+                                  .flatMap(cls -> rootOntology.getImportsClosure().stream()
+                                                              .flatMap(ont -> ont.getClassAssertionAxioms(cls).stream()))
+                                  .map(OWLClassAssertionAxiom::getIndividual)
+                                  .filter(OWLIndividual::isNamed)
+                                  .map(ind -> (OWLNamedIndividual) ind)
+                                  .collect(toSet());
                 }
             }
-            initialised = true;
+            instances = result;
         }
-        return instances.contains(value);
+        return result;
     }
 }
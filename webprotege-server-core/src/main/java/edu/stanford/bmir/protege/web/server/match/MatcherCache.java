@@ -0,0 +1,87 @@
+package edu.stanford.bmir.protege.web.server.match;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.match.criteria.RootCriteria;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Caches compiled matchers for criteria.  Some matchers cache information, such as the descendants of a class,
+ * that they compute on first use, so the cache must be invalidated whenever the project ontologies, and the
+ * indexes derived from them, change.
+ */
+@ProjectSingleton
+public class MatcherCache {
+
+    private static final int MAXIMUM_SIZE = 500;
+
+    private final Cache<RootCriteria, CachedMatcher> cache = Caffeine.newBuilder()
+                                                                     .maximumSize(MAXIMUM_SIZE)
+                                                                     .build();
+
+    /**
+     * Incremented on each invalidation so that matchers that were compiled before an invalidation are not
+     * added to the cache after it.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public MatcherCache() {
+    }
+
+    /**
+     * Gets the matcher for the specified criteria, compiling it with the specified function if it is not cached.
+     */
+    @Nonnull
+    public Matcher<OWLEntity> getMatcher(@Nonnull RootCriteria criteria,
+                                         @Nonnull Function<RootCriteria, Matcher<OWLEntity>> compiler) {
+        long currentGeneration = generation.get();
+        CachedMatcher cachedMatcher = cache.getIfPresent(criteria);
+        if(cachedMatcher != null && cachedMatcher.getGeneration() == currentGeneration) {
+            return cachedMatcher.getMatcher();
+        }
+        Matcher<OWLEntity> matcher = compiler.apply(criteria);
+        if(generation.get() == currentGeneration) {
+            cache.put(criteria, new CachedMatcher(currentGeneration, matcher));
+        }
+        return matcher;
+    }
+
+    /**
+     * Discards all cached matchers.  This should be called after changes have been applied to the project
+     * ontologies and after the indexes that are derived from them have been updated.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static class CachedMatcher {
+
+        private final long generation;
+
+        private final Matcher<OWLEntity> matcher;
+
+        private CachedMatcher(long generation, Matcher<OWLEntity> matcher) {
+            this.generation = generation;
+            this.matcher = matcher;
+        }
+
+        public long getGeneration() {
+            return generation;
+        }
+
+        public Matcher<OWLEntity> getMatcher() {
+            return matcher;
+        }
+    }
+}
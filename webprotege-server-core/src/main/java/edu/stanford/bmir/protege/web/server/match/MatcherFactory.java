@@ -1,5 +1,7 @@
 package edu.stanford.bmir.protege.web.server.match;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.shared.match.criteria.*;
 import org.apache.commons.lang.StringUtils;
@@ -11,6 +13,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.regex.Pattern;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -23,6 +26,12 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
  */
 public class MatcherFactory {
 
+    private static final int PATTERN_CACHE_SIZE = 1000;
+
+    private static final Cache<String, Pattern> patternCache = Caffeine.newBuilder()
+                                                                       .maximumSize(PATTERN_CACHE_SIZE)
+                                                                       .build();
+
     @Nonnull
     private final SubClassOfMatcherFactory subClassOfMatcherFactory;
 
@@ -47,6 +56,9 @@ public class MatcherFactory {
     @Nonnull
     private final IriAnnotationsMatcherFactory iriAnnotationsMatcherFactory;
 
+    @Nonnull
+    private final MatchingCostEstimator costEstimator;
+
     @Inject
     public MatcherFactory(@Nonnull SubClassOfMatcherFactory subClassOfMatcherFactory,
                           @Nonnull InstanceOfMatcherFactory instanceOfMatcherFactory, @Nonnull ConflictingBooleanValuesMatcherFactory conflictingBooleanValuesMatcherFactory,
@@ -54,7 +66,8 @@ public class MatcherFactory {
                           @Nonnull AnnotationValuesAreNotDisjointMatcherFactory annotationValuesAreNotDisjointMatcherFactory,
                           @Nonnull NonUniqueLangTagsMatcherFactory nonUniqueLangTagsMatcherFactory,
                           @Nonnull EntityAnnotationMatcherFactory entityAnnotationMatcherFactory,
-                          @Nonnull IriAnnotationsMatcherFactory iriAnnotationsMatcherFactory) {
+                          @Nonnull IriAnnotationsMatcherFactory iriAnnotationsMatcherFactory,
+                          @Nonnull MatchingCostEstimator costEstimator) {
         this.subClassOfMatcherFactory = checkNotNull(subClassOfMatcherFactory);
         this.instanceOfMatcherFactory = checkNotNull(instanceOfMatcherFactory);
         this.conflictingBooleanValuesMatcherFactory = checkNotNull(conflictingBooleanValuesMatcherFactory);
@@ -63,6 +76,16 @@ public class MatcherFactory {
         this.nonUniqueLangTagsMatcherFactory = checkNotNull(nonUniqueLangTagsMatcherFactory);
         this.entityAnnotationMatcherFactory = checkNotNull(entityAnnotationMatcherFactory);
         this.iriAnnotationsMatcherFactory = checkNotNull(iriAnnotationsMatcherFactory);
+        this.costEstimator = checkNotNull(costEstimator);
+    }
+
+    /**
+     * Gets the compiled pattern for the specified regular expression and flags.  Patterns are immutable so they
+     * are shared between all projects.
+     */
+    @Nonnull
+    private static Pattern getPattern(@Nonnull String regex, int flags) {
+        return patternCache.get(flags + "/" + regex, key -> Pattern.compile(regex, flags));
     }
 
     public Matcher<OWLEntity> getMatcher(@Nonnull RootCriteria criteria) {
@@ -71,7 +94,11 @@ public class MatcherFactory {
             @Nonnull
             @Override
             public Matcher<OWLEntity> visit(@Nonnull CompositeRootCriteria criteria) {
+                // Evaluate the cheapest and most decisive children first
+                Comparator<RootCriteria> order = criteria.getMatchType() == MultiMatchType.ALL ?
+                        costEstimator.getConjunctionOrder() : costEstimator.getDisjunctionOrder();
                 ImmutableList<Matcher<OWLEntity>> matchers = criteria.getRootCriteria().stream()
+                                                                     .sorted(order)
                                                                      .map(c -> c.accept(this))
                                                                      .collect(toImmutableList());
                 switch (criteria.getMatchType()) {
@@ -304,7 +331,7 @@ public class MatcherFactory {
                 if(criteria.isIgnoreCase()) {
                     flags |= Pattern.CASE_INSENSITIVE;
                 }
-                Pattern pattern = Pattern.compile(criteria.getPattern(), flags);
+                Pattern pattern = getPattern(criteria.getPattern(), flags);
                 return LiteralAnnotationValueMatcher.forLexicalValueMatcher(
                         new StringContainsRegexMatchMatcher(pattern)
                 );
@@ -313,7 +340,7 @@ public class MatcherFactory {
             @Override
             public Matcher<OWLAnnotationValue> visit(@Nonnull StringDoesNotContainRegexMatchCriteria criteria) {
                 return LiteralAnnotationValueMatcher.forLexicalValueMatcher(
-                        new NotMatcher<>(new StringContainsRegexMatchMatcher(Pattern.compile(criteria.getPattern())))
+                        new NotMatcher<>(new StringContainsRegexMatchMatcher(getPattern(criteria.getPattern(), 0)))
                 );
             }
 
@@ -0,0 +1,229 @@
+package edu.stanford.bmir.protege.web.server.match;
+
+import edu.stanford.bmir.protege.web.shared.match.criteria.*;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.Comparator;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Estimates the cost of evaluating criteria against an entity, along with the selectivity of criteria, which is
+ * the estimated fraction of entities that match.  The estimates are used to order the children of composite
+ * criteria so that the cheapest and most decisive children are evaluated first.
+ */
+public class MatchingCostEstimator {
+
+    /**
+     * The cost of a check on the entity itself, for example, its type.
+     */
+    private static final double ENTITY_CHECK_COST = 1;
+
+    /**
+     * The cost of a lookup in a set that is computed from an index, for example the descendants of a class.
+     */
+    private static final double SET_LOOKUP_COST = 2;
+
+    /**
+     * The cost of examining the annotation assertions on an entity.
+     */
+    private static final double ANNOTATION_SCAN_COST = 20;
+
+    /**
+     * The cost of examining and comparing all annotation assertions on an entity.
+     */
+    private static final double ANNOTATION_COMPARISON_COST = 50;
+
+    private static final double DEFAULT_SELECTIVITY = 0.5;
+
+    @Inject
+    public MatchingCostEstimator() {
+    }
+
+    /**
+     * Gets a comparator that orders the children of a conjunction.  Children that are cheap and that are likely to
+     * fail are ordered first, so that evaluation short circuits as early as possible.
+     */
+    @Nonnull
+    public Comparator<RootCriteria> getConjunctionOrder() {
+        return Comparator.comparingDouble(c -> getCost(c) / Math.max(0.01, 1 - getSelectivity(c)));
+    }
+
+    /**
+     * Gets a comparator that orders the children of a disjunction.  Children that are cheap and that are likely to
+     * succeed are ordered first.
+     */
+    @Nonnull
+    public Comparator<RootCriteria> getDisjunctionOrder() {
+        return Comparator.comparingDouble(c -> getCost(c) / Math.max(0.01, getSelectivity(c)));
+    }
+
+    /**
+     * Gets the estimated cost of evaluating the specified criteria against one entity.
+     */
+    public double getCost(@Nonnull RootCriteria criteria) {
+        return criteria.accept(new RootCriteriaVisitor<Double>() {
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull CompositeRootCriteria criteria) {
+                return criteria.getRootCriteria().stream()
+                               .mapToDouble(c -> c.accept(this))
+                               .sum();
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityAnnotationCriteria criteria) {
+                return ANNOTATION_SCAN_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityIsDeprecatedCriteria criteria) {
+                return ANNOTATION_SCAN_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityIsNotDeprecatedCriteria criteria) {
+                return ANNOTATION_SCAN_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityHasNonUniqueLangTagsCriteria criteria) {
+                return ANNOTATION_COMPARISON_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityTypeIsOneOfCriteria criteria) {
+                return ENTITY_CHECK_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityHasConflictingBooleanAnnotationValuesCriteria criteria) {
+                return ANNOTATION_COMPARISON_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityAnnotationValuesAreNotDisjointCriteria criteria) {
+                return ANNOTATION_COMPARISON_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull IsNotBuiltInEntityCriteria criteria) {
+                return ENTITY_CHECK_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull SubClassOfCriteria criteria) {
+                return SET_LOOKUP_COST;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull InstanceOfCriteria instanceOfCriteria) {
+                return SET_LOOKUP_COST;
+            }
+        });
+    }
+
+    /**
+     * Gets the estimated fraction of entities that match the specified criteria.
+     */
+    public double getSelectivity(@Nonnull RootCriteria criteria) {
+        return criteria.accept(new RootCriteriaVisitor<Double>() {
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull CompositeRootCriteria criteria) {
+                double selectivity = criteria.getMatchType() == MultiMatchType.ALL ? 1 : 0;
+                for(RootCriteria child : criteria.getRootCriteria()) {
+                    double childSelectivity = child.accept(this);
+                    if(criteria.getMatchType() == MultiMatchType.ALL) {
+                        selectivity *= childSelectivity;
+                    }
+                    else {
+                        selectivity = selectivity + childSelectivity - selectivity * childSelectivity;
+                    }
+                }
+                return selectivity;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityAnnotationCriteria criteria) {
+                switch(criteria.getAnnotationPresence()) {
+                    case AT_LEAST_ONE:
+                        return 0.3;
+                    case AT_MOST_ONE:
+                    case NONE:
+                        return 0.7;
+                    default:
+                        return DEFAULT_SELECTIVITY;
+                }
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityIsDeprecatedCriteria criteria) {
+                return 0.05;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityIsNotDeprecatedCriteria criteria) {
+                return 0.95;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityHasNonUniqueLangTagsCriteria criteria) {
+                return 0.05;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityTypeIsOneOfCriteria criteria) {
+                // Classes and individuals usually dominate the signature
+                return Math.min(1.0, criteria.getEntityTypes().size() * 0.3);
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityHasConflictingBooleanAnnotationValuesCriteria criteria) {
+                return 0.01;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull EntityAnnotationValuesAreNotDisjointCriteria criteria) {
+                return 0.05;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull IsNotBuiltInEntityCriteria criteria) {
+                return 0.99;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull SubClassOfCriteria criteria) {
+                return criteria.getFilterType() == HierarchyFilterType.DIRECT ? 0.01 : 0.1;
+            }
+
+            @Nonnull
+            @Override
+            public Double visit(@Nonnull InstanceOfCriteria instanceOfCriteria) {
+                return instanceOfCriteria.getFilterType() == HierarchyFilterType.DIRECT ? 0.01 : 0.1;
+            }
+        });
+    }
+}
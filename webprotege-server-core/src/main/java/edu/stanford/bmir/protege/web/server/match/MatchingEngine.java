@@ -31,4 +31,11 @@ public interface MatchingEngine {
     boolean matches(@Nonnull OWLEntity entity, @Nonnull Criteria criteria);
 
     boolean matchesAny(@Nonnull OWLEntity entity, @Nonnull ImmutableList<? extends Criteria> criteria);
+
+    /**
+     * Gets a matcher that matches entities that match any of the specified criteria.  The matcher may cache
+     * information that it computes on its first use, so it should be discarded when the ontology changes.
+     */
+    @Nonnull
+    Matcher<OWLEntity> getMatcherForAny(@Nonnull ImmutableList<? extends Criteria> criteria);
 }
@@ -10,6 +10,8 @@ import org.semanticweb.owlapi.model.parameters.Imports;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -29,30 +31,49 @@ public class MatchingEngineImpl implements MatchingEngine {
     @Nonnull
     private final MatcherFactory matcherFactory;
 
+    @Nonnull
+    private final MatcherCache matcherCache;
+
+    @Nonnull
+    private final MatchingQueryPlanner queryPlanner;
+
+    @Nonnull
+    private final MatchingCostEstimator costEstimator;
+
     @Inject
     public MatchingEngineImpl(@Nonnull @RootOntology OWLOntology rootOntology,
-                              @Nonnull MatcherFactory matcherFactory) {
+                              @Nonnull MatcherFactory matcherFactory,
+                              @Nonnull MatcherCache matcherCache,
+                              @Nonnull MatchingQueryPlanner queryPlanner,
+                              @Nonnull MatchingCostEstimator costEstimator) {
         this.rootOntology = checkNotNull(rootOntology);
         this.matcherFactory = checkNotNull(matcherFactory);
+        this.matcherCache = checkNotNull(matcherCache);
+        this.queryPlanner = checkNotNull(queryPlanner);
+        this.costEstimator = checkNotNull(costEstimator);
     }
 
     @Override
     public Stream<OWLEntity> match(@Nonnull Criteria criteria) {
         Matcher<OWLEntity> matcher = getMatcher(criteria);
-        return rootOntology.getSignature(Imports.INCLUDED)
-                           .stream()
-                           .filter(matcher::matches);
+        return getCandidates(queryPlanner.getCandidates((RootCriteria) criteria))
+                .filter(matcher::matches);
     }
 
     @Override
     public Stream<OWLEntity> matchAny(@Nonnull ImmutableList<? extends Criteria> criteria) {
-        ImmutableList<Matcher<OWLEntity>> matchers = criteria.stream()
-                                                             .map(this::getMatcher)
-                                                             .collect(toImmutableList());
-        OrMatcher<OWLEntity> orMatcher = new OrMatcher<>(matchers);
-        return rootOntology.getSignature(Imports.INCLUDED)
-                           .stream()
-                           .filter(orMatcher::matches);
+        Matcher<OWLEntity> orMatcher = getMatcherForAny(criteria);
+        return getCandidates(queryPlanner.getCandidatesForAny(toRootCriteria(criteria)))
+                .filter(orMatcher::matches);
+    }
+
+    /**
+     * Gets the entities to evaluate.  These are the candidates from the query plan, if there are any, or the whole
+     * signature otherwise.
+     */
+    private Stream<OWLEntity> getCandidates(@Nonnull Optional<Set<OWLEntity>> candidates) {
+        return candidates.orElseGet(() -> rootOntology.getSignature(Imports.INCLUDED))
+                         .stream();
     }
 
     @Override
@@ -62,12 +83,26 @@ public class MatchingEngineImpl implements MatchingEngine {
 
     @Override
     public boolean matchesAny(@Nonnull OWLEntity entity, @Nonnull ImmutableList<? extends Criteria> criteria) {
+        return getMatcherForAny(criteria).matches(entity);
+    }
+
+    @Nonnull
+    @Override
+    public Matcher<OWLEntity> getMatcherForAny(@Nonnull ImmutableList<? extends Criteria> criteria) {
+        ImmutableList<Matcher<OWLEntity>> matchers = toRootCriteria(criteria).stream()
+                                                                             .sorted(costEstimator.getDisjunctionOrder())
+                                                                             .map(this::getMatcher)
+                                                                             .collect(toImmutableList());
+        return new OrMatcher<>(matchers);
+    }
+
+    private static ImmutableList<RootCriteria> toRootCriteria(@Nonnull ImmutableList<? extends Criteria> criteria) {
         return criteria.stream()
-                       .map(this::getMatcher)
-                       .anyMatch(c -> c.matches(entity));
+                       .map(c -> (RootCriteria) c)
+                       .collect(toImmutableList());
     }
 
     private Matcher<OWLEntity> getMatcher(@Nonnull Criteria rootCriteria) {
-        return matcherFactory.getMatcher((RootCriteria) rootCriteria);
+        return matcherCache.getMatcher((RootCriteria) rootCriteria, matcherFactory::getMatcher);
     }
 }
@@ -0,0 +1,208 @@
+package edu.stanford.bmir.protege.web.server.match;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.inject.project.RootOntology;
+import edu.stanford.bmir.protege.web.shared.match.AnnotationPresence;
+import edu.stanford.bmir.protege.web.shared.match.criteria.*;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.*;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Plans the execution of criteria by finding a set of candidate entities that can be used in place of the
+ * whole signature of the project ontologies.  Candidates are seeded from indexes: the class hierarchy for
+ * subclass criteria, class assertions for instance criteria and annotation assertions, by property, for
+ * annotation criteria.  The candidates for some criteria are always a superset of the entities that match the
+ * criteria, so the criteria must still be evaluated against each candidate.
+ */
+public class MatchingQueryPlanner {
+
+    @Nonnull
+    private final OWLOntology rootOntology;
+
+    @Nonnull
+    private final ClassHierarchyProvider classHierarchyProvider;
+
+    @Inject
+    public MatchingQueryPlanner(@Nonnull @RootOntology OWLOntology rootOntology,
+                                @Nonnull ClassHierarchyProvider classHierarchyProvider) {
+        this.rootOntology = checkNotNull(rootOntology);
+        this.classHierarchyProvider = checkNotNull(classHierarchyProvider);
+    }
+
+    /**
+     * Gets the candidates for entities that match any of the specified criteria.
+     * @return The candidates, or empty if the criteria cannot be seeded from an index, in which case the whole
+     * signature must be searched.
+     */
+    @Nonnull
+    public Optional<Set<OWLEntity>> getCandidatesForAny(@Nonnull ImmutableList<? extends RootCriteria> criteria) {
+        Set<OWLEntity> candidates = new HashSet<>();
+        for(RootCriteria c : criteria) {
+            Optional<Set<OWLEntity>> childCandidates = getCandidates(c);
+            if(childCandidates.isEmpty()) {
+                return Optional.empty();
+            }
+            candidates.addAll(childCandidates.get());
+        }
+        return Optional.of(candidates);
+    }
+
+    /**
+     * Gets the candidates for entities that match the specified criteria.
+     * @return The candidates, or empty if the criteria cannot be seeded from an index, in which case the whole
+     * signature must be searched.
+     */
+    @Nonnull
+    public Optional<Set<OWLEntity>> getCandidates(@Nonnull RootCriteria criteria) {
+        return criteria.accept(new RootCriteriaVisitor<Optional<Set<OWLEntity>>>() {
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull CompositeRootCriteria criteria) {
+                if(criteria.getMatchType() == MultiMatchType.ANY) {
+                    return getCandidatesForAny(criteria.getRootCriteria());
+                }
+                // Any child's candidates will do for a conjunction, so pick the smallest
+                return criteria.getRootCriteria().stream()
+                               .map(c -> c.accept(this))
+                               .filter(Optional::isPresent)
+                               .map(Optional::get)
+                               .min(Comparator.comparing(Set::size));
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull EntityAnnotationCriteria criteria) {
+                if(criteria.getAnnotationPresence() != AnnotationPresence.AT_LEAST_ONE) {
+                    return Optional.empty();
+                }
+                return criteria.getAnnotationCriteria().<Optional<Set<OWLEntity>>>accept(annotationCriteria -> {
+                    AnnotationPropertyCriteria propertyCriteria = annotationCriteria.getAnnotationPropertyCriteria();
+                    if(!(propertyCriteria instanceof IriEqualsCriteria)) {
+                        return Optional.empty();
+                    }
+                    IRI propertyIri = ((IriEqualsCriteria) propertyCriteria).getIri();
+                    return Optional.of(getAnnotationSubjects(propertyIri));
+                });
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull EntityIsDeprecatedCriteria criteria) {
+                return Optional.of(getAnnotationSubjects(OWLRDFVocabulary.OWL_DEPRECATED.getIRI()));
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull EntityIsNotDeprecatedCriteria criteria) {
+                return Optional.empty();
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull EntityHasNonUniqueLangTagsCriteria criteria) {
+                return Optional.empty();
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull EntityTypeIsOneOfCriteria criteria) {
+                return Optional.empty();
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull EntityHasConflictingBooleanAnnotationValuesCriteria criteria) {
+                return Optional.empty();
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull EntityAnnotationValuesAreNotDisjointCriteria criteria) {
+                return Optional.empty();
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull IsNotBuiltInEntityCriteria criteria) {
+                return Optional.empty();
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull SubClassOfCriteria criteria) {
+                if(criteria.getFilterType() == HierarchyFilterType.DIRECT) {
+                    return Optional.of(new HashSet<OWLEntity>(classHierarchyProvider.getChildren(criteria.getTarget())));
+                }
+                else {
+                    return Optional.of(new HashSet<OWLEntity>(classHierarchyProvider.getDescendants(criteria.getTarget())));
+                }
+            }
+
+            @Nonnull
+            @Override
+            public Optional<Set<OWLEntity>> visit(@Nonnull InstanceOfCriteria criteria) {
+                OWLClass target = criteria.getTarget();
+                if(criteria.getFilterType() == HierarchyFilterType.DIRECT) {
+                    return Optional.of(getInstances(Collections.singleton(target)));
+                }
+                if(target.isOWLThing()) {
+                    return Optional.of(new HashSet<OWLEntity>(rootOntology.getIndividualsInSignature(Imports.INCLUDED)));
+                }
+                Set<OWLClass> classes = new HashSet<>(classHierarchyProvider.getDescendants(target));
+                classes.add(target);
+                return Optional.of(getInstances(classes));
+            }
+        });
+    }
+
+    /**
+     * Gets the entities that are the subjects of annotation assertions on the specified property
+     */
+    @Nonnull
+    private Set<OWLEntity> getAnnotationSubjects(@Nonnull IRI propertyIri) {
+        OWLAnnotationProperty property = rootOntology.getOWLOntologyManager()
+                                                     .getOWLDataFactory()
+                                                     .getOWLAnnotationProperty(propertyIri);
+        Set<OWLEntity> subjects = new HashSet<>();
+        for(OWLOntology ontology : rootOntology.getImportsClosure()) {
+            for(OWLAxiom axiom : ontology.getReferencingAxioms(property)) {
+                if(axiom instanceof OWLAnnotationAssertionAxiom) {
+                    OWLAnnotationAssertionAxiom ax = (OWLAnnotationAssertionAxiom) axiom;
+                    if(ax.getProperty().equals(property) && ax.getSubject() instanceof IRI) {
+                        subjects.addAll(rootOntology.getEntitiesInSignature((IRI) ax.getSubject(), Imports.INCLUDED));
+                    }
+                }
+            }
+        }
+        return subjects;
+    }
+
+    /**
+     * Gets the named individuals that are asserted to be instances of the specified classes
+     */
+    @Nonnull
+    private Set<OWLEntity> getInstances(@Nonnull Set<OWLClass> classes) {
+        Set<OWLEntity> instances = new HashSet<>();
+        for(OWLOntology ontology : rootOntology.getImportsClosure()) {
+            for(OWLClass cls : classes) {
+                for(OWLClassAssertionAxiom ax : ontology.getClassAssertionAxioms(cls)) {
+                    if(ax.getIndividual().isNamed()) {
+                        instances.add(ax.getIndividual().asOWLNamedIndividual());
+                    }
+                }
+            }
+        }
+        return instances;
+    }
+}
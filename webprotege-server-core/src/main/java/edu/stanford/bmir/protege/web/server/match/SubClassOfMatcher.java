@@ -8,6 +8,7 @@ import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -28,11 +29,14 @@ public class SubClassOfMatcher implements Matcher<OWLEntity> {
     @Nonnull
     private final OWLClass cls;
 
-    private final Set<OWLClass> subClasses;
-
     private final HierarchyFilterType filterType;
 
-    private boolean filledClasses = false;
+    /**
+     * The sub classes of the class.  These are computed on first use.  Matchers may be cached and shared between
+     * threads, so this is volatile.
+     */
+    @Nullable
+    private volatile Set<OWLClass> subClasses;
 
     public SubClassOfMatcher(@Provided @Nonnull ClassHierarchyProvider provider,
                              @Nonnull OWLClass cls,
@@ -40,20 +44,25 @@ public class SubClassOfMatcher implements Matcher<OWLEntity> {
         this.provider = checkNotNull(provider);
         this.filterType = checkNotNull(filterType);
         this.cls = checkNotNull(cls);
-        subClasses = new HashSet<>();
     }
 
     @Override
     public boolean matches(@Nonnull OWLEntity value) {
-        if(value.isOWLClass() && !filledClasses) {
-            filledClasses = true;
+        return value.isOWLClass() && getSubClasses().contains(value.asOWLClass());
+    }
+
+    @Nonnull
+    private Set<OWLClass> getSubClasses() {
+        Set<OWLClass> result = subClasses;
+        if(result == null) {
             if (filterType == HierarchyFilterType.ALL) {
-                subClasses.addAll(provider.getDescendants(cls));
+                result = new HashSet<>(provider.getDescendants(cls));
             }
             else {
-                subClasses.addAll(provider.getChildren(cls));
+                result = new HashSet<>(provider.getChildren(cls));
             }
+            subClasses = result;
         }
-        return value.isOWLClass() && subClasses.contains(value.asOWLClass());
+        return result;
     }
 }
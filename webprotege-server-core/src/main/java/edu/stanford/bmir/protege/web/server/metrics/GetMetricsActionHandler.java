@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.server.metrics;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.dispatch.AbstractProjectActionHandler;
+import edu.stanford.bmir.protege.web.server.dispatch.CacheableActionHandler;
 import edu.stanford.bmir.protege.web.server.dispatch.ExecutionContext;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.metrics.GetMetricsAction;
@@ -19,7 +20,7 @@ import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PRO
 /**
  * @author Matthew Horridge, Stanford University, Bio-Medical Informatics Research Group, Date: 26/04/2014
  */
-public class GetMetricsActionHandler extends AbstractProjectActionHandler<GetMetricsAction, GetMetricsResult> {
+public class GetMetricsActionHandler extends AbstractProjectActionHandler<GetMetricsAction, GetMetricsResult> implements CacheableActionHandler<GetMetricsAction, GetMetricsResult> {
 
     @Nonnull
     private final OWLAPIProjectMetricsManager metricsManager;
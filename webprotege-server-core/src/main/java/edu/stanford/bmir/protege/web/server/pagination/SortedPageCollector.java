@@ -0,0 +1,195 @@
+package edu.stanford.bmir.protege.web.server.pagination;
+
+import edu.stanford.bmir.protege.web.server.util.TopKSelector;
+import edu.stanford.bmir.protege.web.shared.pagination.Page;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Collects a page of elements from an unsorted stream, ordered by a sort key.  The sort key of each element is
+ * computed once, and only the first pageNumber * pageSize elements, in sort key order, are retained while the
+ * stream is consumed.  This avoids sorting, and holding on to, the whole stream when only one page is required.
+ * Elements with equal sort keys keep their encounter order.  Expensive transformations, such as rendering,
+ * should be applied to the elements of the collected page rather than to the elements of the stream.
+ */
+public class SortedPageCollector<T, K> implements Collector<T, SortedPageCollector.PageAccumulator<T, K>, Optional<Page<T>>> {
+
+    private final int pageNumber;
+
+    private final int pageSize;
+
+    @Nonnull
+    private final Function<? super T, ? extends K> sortKeyFunction;
+
+    @Nonnull
+    private final Comparator<? super K> sortKeyComparator;
+
+    private SortedPageCollector(int pageNumber,
+                                int pageSize,
+                                @Nonnull Function<? super T, ? extends K> sortKeyFunction,
+                                @Nonnull Comparator<? super K> sortKeyComparator) {
+        this.pageNumber = pageNumber;
+        this.pageSize = pageSize;
+        this.sortKeyFunction = checkNotNull(sortKeyFunction);
+        this.sortKeyComparator = checkNotNull(sortKeyComparator);
+    }
+
+    /**
+     * Creates a collector that collects the specified page of elements, where elements are ordered by the
+     * natural ordering of their sort keys.
+     * @param pageNumber The page number.  Must be greater than zero.
+     * @param pageSize The page size.  Must be greater than zero.
+     * @param sortKeyFunction A function that computes the sort key for an element.
+     */
+    public static <T, K extends Comparable<? super K>> SortedPageCollector<T, K> toSortedPage(int pageNumber,
+                                                                                               int pageSize,
+                                                                                               @Nonnull Function<? super T, ? extends K> sortKeyFunction) {
+        return toSortedPage(pageNumber, pageSize, sortKeyFunction, Comparator.naturalOrder());
+    }
+
+    /**
+     * Creates a collector that collects the specified page of elements, where elements are ordered by their
+     * sort keys.
+     * @param pageNumber The page number.  Must be greater than zero.
+     * @param pageSize The page size.  Must be greater than zero.
+     * @param sortKeyFunction A function that computes the sort key for an element.
+     * @param sortKeyComparator A comparator that orders sort keys.
+     */
+    public static <T, K> SortedPageCollector<T, K> toSortedPage(int pageNumber,
+                                                                int pageSize,
+                                                                @Nonnull Function<? super T, ? extends K> sortKeyFunction,
+                                                                @Nonnull Comparator<? super K> sortKeyComparator) {
+        if(pageNumber < 1) {
+            throw new IllegalArgumentException("Page number must be greater than zero");
+        }
+        if(pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be greater than zero");
+        }
+        return new SortedPageCollector<>(pageNumber, pageSize, sortKeyFunction, sortKeyComparator);
+    }
+
+    @Override
+    public Supplier<PageAccumulator<T, K>> supplier() {
+        // Elements that come after the requested page never need to be retained
+        long limit = (long) pageNumber * pageSize;
+        return () -> new PageAccumulator<>(limit, sortKeyComparator);
+    }
+
+    @Override
+    public BiConsumer<PageAccumulator<T, K>, T> accumulator() {
+        return (accumulator, t) -> accumulator.add(t, sortKeyFunction.apply(t));
+    }
+
+    @Override
+    public BinaryOperator<PageAccumulator<T, K>> combiner() {
+        return PageAccumulator::addAll;
+    }
+
+    @Override
+    public Function<PageAccumulator<T, K>, Optional<Page<T>>> finisher() {
+        return accumulator -> {
+            long elementCount = accumulator.getCount();
+            long fullPages = elementCount / pageSize;
+            long remainder = elementCount % pageSize;
+            long pageCount = fullPages + (remainder == 0 ? 0 : 1);
+            if(pageNumber > pageCount) {
+                return Optional.empty();
+            }
+            List<T> sortedElements = accumulator.getSortedElements();
+            int pageStart = (pageNumber - 1) * pageSize;
+            List<T> pageElements = new ArrayList<>(sortedElements.subList(pageStart, sortedElements.size()));
+            return Optional.of(new Page<>(pageNumber, (int) pageCount, pageElements, elementCount));
+        };
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Accumulates the elements with the least sort keys, along with a count of all of the elements that have been
+     * added.  Elements are selected by a {@link TopKSelector}.  Each element is given a sequence number, which breaks
+     * ties between equal sort keys, so that elements with equal sort keys keep their encounter order.
+     */
+    public static class PageAccumulator<T, K> {
+
+        private final TopKSelector<SortKeyedElement<T, K>> selector;
+
+        private long count = 0;
+
+        private PageAccumulator(long limit, Comparator<? super K> sortKeyComparator) {
+            Comparator<SortKeyedElement<T, K>> bySortKey = (e1, e2) -> sortKeyComparator.compare(e1.getSortKey(),
+                                                                                                  e2.getSortKey());
+            this.selector = new TopKSelector<>((int) Math.min(limit, Integer.MAX_VALUE),
+                                               bySortKey.thenComparingLong(SortKeyedElement::getSequenceNumber));
+        }
+
+        private void add(T element, K sortKey) {
+            selector.offer(new SortKeyedElement<>(element, sortKey, count));
+            count++;
+        }
+
+        private PageAccumulator<T, K> addAll(PageAccumulator<T, K> other) {
+            // Preserve encounter order by sequencing the other elements after this accumulator's elements
+            for(SortKeyedElement<T, K> element : other.selector.getSortedElements()) {
+                selector.offer(new SortKeyedElement<>(element.getElement(),
+                                                      element.getSortKey(),
+                                                      count + element.getSequenceNumber()));
+            }
+            count += other.count;
+            return this;
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        private List<T> getSortedElements() {
+            List<SortKeyedElement<T, K>> elements = selector.getSortedElements();
+            List<T> result = new ArrayList<>(elements.size());
+            for(SortKeyedElement<T, K> element : elements) {
+                result.add(element.getElement());
+            }
+            return result;
+        }
+    }
+
+    private static class SortKeyedElement<T, K> {
+
+        private final T element;
+
+        private final K sortKey;
+
+        private final long sequenceNumber;
+
+        private SortKeyedElement(T element, K sortKey, long sequenceNumber) {
+            this.element = element;
+            this.sortKey = sortKey;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        public T getElement() {
+            return element;
+        }
+
+        public K getSortKey() {
+            return sortKey;
+        }
+
+        public long getSequenceNumber() {
+            return sequenceNumber;
+        }
+    }
+}
@@ -15,13 +15,17 @@ import edu.stanford.bmir.protege.web.server.hierarchy.OWLDataPropertyHierarchyPr
 import edu.stanford.bmir.protege.web.server.hierarchy.OWLObjectPropertyHierarchyProvider;
 import edu.stanford.bmir.protege.web.server.inject.project.RootOntology;
 import edu.stanford.bmir.protege.web.server.lang.ActiveLanguagesManager;
+import edu.stanford.bmir.protege.web.server.match.MatcherCache;
 import edu.stanford.bmir.protege.web.server.owlapi.OWLEntityCreator;
 import edu.stanford.bmir.protege.web.server.owlapi.RenameMap;
 import edu.stanford.bmir.protege.web.server.owlapi.RenameMapFactory;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.revision.RevisionWriterSettings;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryManager;
 import edu.stanford.bmir.protege.web.server.shortform.DictionaryUpdatesProcessor;
+import edu.stanford.bmir.protege.web.server.tag.CriteriaBasedTagsManager;
+import edu.stanford.bmir.protege.web.server.usage.AnnotationAxiomReferenceIndex;
 import edu.stanford.bmir.protege.web.server.webhook.ProjectChangedWebhookInvoker;
 import edu.stanford.bmir.protege.web.shared.DataFactory;
 import edu.stanford.bmir.protege.web.shared.crud.EntityCrudKitSuffixSettings;
@@ -30,6 +34,7 @@ import edu.stanford.bmir.protege.web.shared.event.ProjectEvent;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.permissions.PermissionDeniedException;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.util.OWLObjectDuplicator;
@@ -39,11 +44,12 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.server.access.Subject.forUser;
@@ -173,22 +179,28 @@ public class ChangeManager implements HasApplyChanges {
     private final EntityCrudContextFactory entityCrudContextFactory;
 
     @Nonnull
-    private final ReadWriteLock projectChangeLock = new ReentrantReadWriteLock();
+    private final ProjectChangeLock projectChangeLock;
 
     @Nonnull
-    private final Lock projectChangeReadLock = projectChangeLock.readLock();
+    private final Lock changeProcesssingLock = new ReentrantLock();
 
     @Nonnull
-    private final Lock projectChangeWriteLock = projectChangeLock.writeLock();
+    private final RenameMapFactory renameMapFactory;
 
     @Nonnull
-    private final Lock changeProcesssingLock = new ReentrantLock();
+    private final BuiltInPrefixDeclarations builtInPrefixDeclarations;
 
     @Nonnull
-    private final RenameMapFactory renameMapFactory;
+    private final RevisionWriterSettings revisionWriterSettings;
 
     @Nonnull
-    private final BuiltInPrefixDeclarations builtInPrefixDeclarations;
+    private final AnnotationAxiomReferenceIndex annotationAxiomReferenceIndex;
+
+    @Nonnull
+    private final CriteriaBasedTagsManager criteriaBasedTagsManager;
+
+    @Nonnull
+    private final MatcherCache matcherCache;
 
     @Inject
     public ChangeManager(@Nonnull ProjectId projectId,
@@ -213,7 +225,12 @@ public class ChangeManager implements HasApplyChanges {
                          @Nonnull UserInSessionFactory userInSessionFactory,
                          @Nonnull EntityCrudContextFactory entityCrudContextFactory,
                          @Nonnull RenameMapFactory renameMapFactory,
-                         @Nonnull BuiltInPrefixDeclarations builtInPrefixDeclarations) {
+                         @Nonnull BuiltInPrefixDeclarations builtInPrefixDeclarations,
+                         @Nonnull RevisionWriterSettings revisionWriterSettings,
+                         @Nonnull AnnotationAxiomReferenceIndex annotationAxiomReferenceIndex,
+                         @Nonnull ProjectChangeLock projectChangeLock,
+                         @Nonnull CriteriaBasedTagsManager criteriaBasedTagsManager,
+                         @Nonnull MatcherCache matcherCache) {
         this.projectId = projectId;
         this.rootOntology = rootOntology;
         this.dictionaryUpdatesProcessor = dictionaryUpdatesProcessor;
@@ -237,6 +254,11 @@ public class ChangeManager implements HasApplyChanges {
         this.entityCrudContextFactory = entityCrudContextFactory;
         this.renameMapFactory = renameMapFactory;
         this.builtInPrefixDeclarations = builtInPrefixDeclarations;
+        this.revisionWriterSettings = revisionWriterSettings;
+        this.annotationAxiomReferenceIndex = annotationAxiomReferenceIndex;
+        this.projectChangeLock = projectChangeLock;
+        this.criteriaBasedTagsManager = criteriaBasedTagsManager;
+        this.matcherCache = matcherCache;
     }
 
     /**
@@ -265,12 +287,20 @@ public class ChangeManager implements HasApplyChanges {
         // Final check of whether the user can actually edit the project
         throwEditPermissionDeniedIfNecessary(userId);
 
-        final List<OWLOntologyChange> appliedChanges;
+        // Read actions may apply changes.  The changes cannot be published whilst the read is in progress.
+        return projectChangeLock.outsideOfRead(() -> applyChangesOutsideOfRead(userId, changeListGenerator));
+    }
+
+    private <R> ChangeApplicationResult<R> applyChangesOutsideOfRead(@Nonnull UserId userId,
+                                                                     @Nonnull ChangeListGenerator<R> changeListGenerator) {
         final ChangeApplicationResult<R> changeApplicationResult;
+        final Optional<Revision> revision;
 
 
         var crudContext = getEntityCrudContext(userId);
 
+        var speculativeChangeList = generateSpeculativeChangeList(userId, changeListGenerator);
+
         // The following must take into consideration fresh entity IRIs.  Entity IRIs are minted on the server, so
         // ontology changes may contain fresh entity IRIs as place holders. We need to make sure these get replaced
         // with true entity IRIs
@@ -279,7 +309,7 @@ public class ChangeManager implements HasApplyChanges {
             // generation of the changes may depend upon the state of the project
             changeProcesssingLock.lock();
 
-            var changeList = changeListGenerator.generateChanges(new ChangeGenerationContext(userId));
+            var changeList = getChangeList(userId, changeListGenerator, speculativeChangeList);
 
             // We have our changes
             var changes = changeList.getChanges();
@@ -332,30 +362,32 @@ public class ChangeManager implements HasApplyChanges {
             final var eventTranslatorManager = eventTranslatorManagerProvider.get();
             eventTranslatorManager.prepareForOntologyChanges(minimisedChanges);
 
-            // Now we do the actual changing, so we lock the project here.  No writes or reads can take place whilst
-            // we apply the changes
-            final Optional<Revision> revision;
-            try {
-                projectChangeWriteLock.lock();
+            // Now we do the actual changing, so we lock the project here.  Locked reads cannot take place whilst
+            // the changes are published.  Anything that does not need to be visible atomically is done afterwards.
+            var publishedChanges = projectChangeLock.publish(() -> {
                 var manager = ((ProjectOWLOntologyManager) rootOntology.getOWLOntologyManager());
                 var effectiveChanges = getEffectiveChanges(minimisedChanges);
-                manager.getDelegate().applyChanges(effectiveChanges);
-                appliedChanges = effectiveChanges;
+                // The annotation axiom reference index is updated under its own lock as the changes are applied
+                annotationAxiomReferenceIndex.applyChanges(effectiveChanges,
+                                                           () -> manager.getDelegate().applyChanges(effectiveChanges));
                 var renameMap = renameMapFactory.create(tempIri2MintedIri);
                 var renamedResult = getRenamedResult(changeListGenerator, changeList.getResult(), renameMap);
-                changeApplicationResult = new ChangeApplicationResult<>(renamedResult, appliedChanges, renameMap);
-                if(!appliedChanges.isEmpty()) {
-                    var rev = logAndProcessAppliedChanges(userId, changeListGenerator, changeApplicationResult);
-                    revision = Optional.of(rev);
-                    projectDetailsRepository.setModified(projectId, rev.getTimestamp(), userId);
+                var result = new ChangeApplicationResult<>(renamedResult, effectiveChanges, renameMap);
+                if(!effectiveChanges.isEmpty()) {
+                    var rev = publishAppliedChanges(userId, changeListGenerator, result);
+                    return new PublishedChanges<R>(result, Optional.of(rev));
                 }
                 else {
-                    revision = Optional.empty();
+                    return new PublishedChanges<R>(result, Optional.<Revision>empty());
                 }
-            } finally {
-                // Release for reads
-                projectChangeWriteLock.unlock();
-            }
+            });
+            changeApplicationResult = publishedChanges.getResult();
+            revision = publishedChanges.getRevision();
+
+            revision.ifPresent(rev -> {
+                documentStore.saveOntologyChanges(changeApplicationResult.getChangeList());
+                projectDetailsRepository.setModified(projectId, rev.getTimestamp(), userId);
+            });
 
             generateAndDispatchHighLevelEvents(userId, changeListGenerator, changeApplicationResult, eventTranslatorManager, revision);
 
@@ -363,9 +395,67 @@ public class ChangeManager implements HasApplyChanges {
             changeProcesssingLock.unlock();
         }
 
+        // Wait outside of the lock so that concurrent changes can be written in the same group
+        if(revisionWriterSettings.isAwaitDurability()) {
+            revision.ifPresent(rev -> awaitPersisted(rev.getRevisionNumber()));
+        }
+
         return changeApplicationResult;
     }
 
+    /**
+     * Generates changes against the last committed revision without holding the change processing lock, so that
+     * changes for unrelated edits can be generated concurrently.  This is only done if locked reads are enabled,
+     * because otherwise the generator could see changes that are half way through being published.  If another
+     * revision is committed before the changes are applied then they are discarded and the generator is run again,
+     * so generators may be run twice for one change.
+     * @return The generated changes, or empty if locked reads are disabled.
+     */
+    private <R> Optional<SpeculativeChangeList<R>> generateSpeculativeChangeList(@Nonnull UserId userId,
+                                                                                 @Nonnull ChangeListGenerator<R> changeListGenerator) {
+        if(!projectChangeLock.isLockedReads()) {
+            return Optional.empty();
+        }
+        return projectChangeLock.read(() -> {
+            var revisionNumber = projectChangeLock.getCommittedRevision();
+            var changeList = changeListGenerator.generateChanges(new ChangeGenerationContext(userId));
+            return Optional.of(new SpeculativeChangeList<>(revisionNumber, changeList));
+        });
+    }
+
+    /**
+     * Gets the changes to apply.  This must be called with the change processing lock held.  Speculatively generated
+     * changes are used if no revisions have been committed since they were generated, otherwise the changes are
+     * generated again against the current state of the project.
+     */
+    private <R> OntologyChangeList<R> getChangeList(@Nonnull UserId userId,
+                                                    @Nonnull ChangeListGenerator<R> changeListGenerator,
+                                                    @Nonnull Optional<SpeculativeChangeList<R>> speculativeChangeList) {
+        var committedRevision = changeManager.getCurrentRevision();
+        return speculativeChangeList
+                .filter(changeList -> changeList.getRevisionNumber().equals(committedRevision))
+                .map(SpeculativeChangeList::getChangeList)
+                .orElseGet(() -> changeListGenerator.generateChanges(new ChangeGenerationContext(userId)));
+    }
+
+    /**
+     * Waits until the specified revision, and all revisions before it, have been durably written to the
+     * change history.
+     * @param revisionNumber The revision number.
+     * @throws UncheckedIOException if the revision could not be written.
+     */
+    public void awaitPersisted(@Nonnull RevisionNumber revisionNumber) {
+        try {
+            changeManager.whenPersisted(revisionNumber).join();
+        } catch(CompletionException e) {
+            var cause = e.getCause();
+            if(cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw new UncheckedIOException(new IOException(cause));
+        }
+    }
+
     private void throwEditPermissionDeniedIfNecessary(UserId userId) {
         var subject = forUser(userId);
         var projectResource = new ProjectResource(projectId);
@@ -540,9 +630,9 @@ public class ChangeManager implements HasApplyChanges {
         return changeListGenerator.getRenamedResult(result, renameMap);
     }
 
-    private <R> Revision logAndProcessAppliedChanges(UserId userId,
-                                                     ChangeListGenerator<R> changeList,
-                                                     ChangeApplicationResult<R> finalResult) {
+    private <R> Revision publishAppliedChanges(UserId userId,
+                                               ChangeListGenerator<R> changeList,
+                                               ChangeApplicationResult<R> finalResult) {
         var changes = finalResult.getChangeList();
         // Update the rendering first so that a proper change message is generated
         activeLanguagesManager.handleChanges(changes);
@@ -558,12 +648,15 @@ public class ChangeManager implements HasApplyChanges {
                 .collect(toList());
         var revision = changeManager.addRevision(userId, changeRecords, changeDescription);
 
-        documentStore.saveOntologyChanges(changes);
-
         classHierarchyProvider.handleChanges(changes);
         objectPropertyHierarchyProvider.handleChanges(changes);
         dataPropertyHierarchyProvider.handleChanges(changes);
         annotationPropertyHierarchyProvider.handleChanges(changes);
+        // Compiled matchers cache information from the hierarchies, so they must be discarded after the
+        // hierarchies have been updated
+        matcherCache.invalidateAll();
+        // Tag criteria may refer to the class hierarchy, so this must be updated after the hierarchies
+        criteriaBasedTagsManager.handleChanges(changes);
         return revision;
     }
 
@@ -600,4 +693,44 @@ public class ChangeManager implements HasApplyChanges {
     private boolean isEffectiveChange(OWLOntologyChange chg) {
         return chg.accept(EFFECTIVE_CHANGE_FILTER);
     }
+
+    private static class SpeculativeChangeList<R> {
+
+        private final RevisionNumber revisionNumber;
+
+        private final OntologyChangeList<R> changeList;
+
+        private SpeculativeChangeList(RevisionNumber revisionNumber, OntologyChangeList<R> changeList) {
+            this.revisionNumber = revisionNumber;
+            this.changeList = changeList;
+        }
+
+        public RevisionNumber getRevisionNumber() {
+            return revisionNumber;
+        }
+
+        public OntologyChangeList<R> getChangeList() {
+            return changeList;
+        }
+    }
+
+    private static class PublishedChanges<R> {
+
+        private final ChangeApplicationResult<R> result;
+
+        private final Optional<Revision> revision;
+
+        private PublishedChanges(ChangeApplicationResult<R> result, Optional<Revision> revision) {
+            this.result = result;
+            this.revision = revision;
+        }
+
+        public ChangeApplicationResult<R> getResult() {
+            return result;
+        }
+
+        public Optional<Revision> getRevision() {
+            return revision;
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Evicts projects that have been idle for longer than the idle timeout, unless they have been asked to be
+ * retained until a time that has not yet passed.  If the remaining projects exceed the
+ * maximum number of projects, or their estimated heap size exceeds the heap budget, then the least recently used
+ * projects are evicted until they do not.  The most recently used project is never evicted because of the limits.
+ */
+public class DefaultProjectEvictionPolicy implements ProjectEvictionPolicy {
+
+    @Nonnull
+    private final ProjectCacheSettings settings;
+
+    @Inject
+    public DefaultProjectEvictionPolicy(@Nonnull ProjectCacheSettings settings) {
+        this.settings = checkNotNull(settings);
+    }
+
+    @Nonnull
+    @Override
+    public List<ProjectId> selectProjectsToEvict(@Nonnull List<LoadedProjectInfo> loadedProjects,
+                                                 long currentTime) {
+        var projectsToEvict = new ArrayList<ProjectId>();
+        var activeProjects = new ArrayList<LoadedProjectInfo>();
+        for(var project : loadedProjects) {
+            if(isIdle(project, currentTime)) {
+                projectsToEvict.add(project.getProjectId());
+            }
+            else {
+                activeProjects.add(project);
+            }
+        }
+        // Most recently used first
+        activeProjects.sort(Comparator.comparingLong(LoadedProjectInfo::getLastAccessTime).reversed());
+        int retainedProjects = 0;
+        long retainedHeapSize = 0;
+        for(var project : activeProjects) {
+            var heapSize = retainedHeapSize + project.getEstimatedHeapSize();
+            if(retainedProjects == 0 || (isWithinMaxProjects(retainedProjects + 1) && isWithinHeapBudget(heapSize))) {
+                retainedProjects++;
+                retainedHeapSize = heapSize;
+            }
+            else {
+                projectsToEvict.add(project.getProjectId());
+            }
+        }
+        return projectsToEvict;
+    }
+
+    private boolean isIdle(LoadedProjectInfo project, long currentTime) {
+        return currentTime - project.getLastAccessTime() > settings.getIdleTimeout()
+                && project.getRetainUntil() <= currentTime;
+    }
+
+    private boolean isWithinMaxProjects(int projects) {
+        return settings.getMaxProjects() == ProjectCacheSettings.NO_MAX_PROJECTS
+                || projects <= settings.getMaxProjects();
+    }
+
+    private boolean isWithinHeapBudget(long heapSize) {
+        return settings.getHeapBudget() == ProjectCacheSettings.NO_HEAP_BUDGET
+                || heapSize <= settings.getHeapBudget();
+    }
+}
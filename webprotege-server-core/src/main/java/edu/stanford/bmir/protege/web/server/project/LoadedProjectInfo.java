@@ -0,0 +1,44 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import com.google.auto.value.AutoValue;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Information about a project that is loaded in the {@link ProjectCache}, which is used to decide whether the
+ * project should be evicted.
+ */
+@AutoValue
+public abstract class LoadedProjectInfo {
+
+    @Nonnull
+    public static LoadedProjectInfo get(@Nonnull ProjectId projectId,
+                                        long lastAccessTime,
+                                        long estimatedHeapSize,
+                                        long retainUntil) {
+        return new AutoValue_LoadedProjectInfo(projectId, lastAccessTime, estimatedHeapSize, retainUntil);
+    }
+
+    @Nonnull
+    public abstract ProjectId getProjectId();
+
+    /**
+     * Gets the time, in milliseconds since the epoch, that the project was last accessed.
+     */
+    public abstract long getLastAccessTime();
+
+    /**
+     * Gets a rough estimate of the heap, in bytes, that the project occupies.
+     */
+    public abstract long getEstimatedHeapSize();
+
+    /**
+     * Gets the time, in milliseconds since the epoch, until which the project should be kept loaded even if it
+     * is idle.  This is zero for projects that have not been asked to be retained.
+     */
+    public abstract long getRetainUntil();
+}
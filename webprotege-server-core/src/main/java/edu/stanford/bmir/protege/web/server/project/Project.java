@@ -4,6 +4,7 @@ import edu.stanford.bmir.protege.web.server.dispatch.impl.ProjectActionHandlerRe
 import edu.stanford.bmir.protege.web.server.events.EventManager;
 import edu.stanford.bmir.protege.web.server.inject.project.RootOntology;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.shortform.MultiLingualDictionary;
 import edu.stanford.bmir.protege.web.shared.event.ProjectEvent;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
@@ -33,17 +34,27 @@ public class Project {
     @Nonnull
     private final ProjectActionHandlerRegistry actionHandlerRegistry;
 
+    @Nonnull
+    private final ProjectChangeLock changeLock;
+
+    @Nonnull
+    private final MultiLingualDictionary dictionary;
+
     @Inject
     public Project(ProjectId projectId,
                    EventManager<ProjectEvent<?>> projectEventManager,
                    @RootOntology OWLOntology ontology,
                    RevisionManager changeManager,
-                   @Nonnull ProjectActionHandlerRegistry actionHandlerRegistry) {
+                   @Nonnull ProjectActionHandlerRegistry actionHandlerRegistry,
+                   @Nonnull ProjectChangeLock changeLock,
+                   @Nonnull MultiLingualDictionary dictionary) {
         this.projectId = projectId;
         this.projectEventManager = projectEventManager;
         this.ontology = ontology;
         this.changeManager = changeManager;
         this.actionHandlerRegistry = actionHandlerRegistry;
+        this.changeLock = changeLock;
+        this.dictionary = dictionary;
     }
 
     public ProjectId getProjectId() {
@@ -65,4 +76,14 @@ public class Project {
     public ProjectActionHandlerRegistry getActionHanderRegistry() {
         return actionHandlerRegistry;
     }
+
+    @Nonnull
+    public ProjectChangeLock getChangeLock() {
+        return changeLock;
+    }
+
+    @Nonnull
+    public MultiLingualDictionary getDictionary() {
+        return dictionary;
+    }
 }
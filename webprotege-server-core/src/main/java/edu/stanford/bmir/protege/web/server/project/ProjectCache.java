@@ -1,10 +1,10 @@
 package edu.stanford.bmir.protege.web.server.project;
 
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.Interner;
-import com.google.common.collect.Interners;
 import edu.stanford.bmir.protege.web.server.dispatch.impl.ProjectActionHandlerRegistry;
 import edu.stanford.bmir.protege.web.server.inject.ProjectComponent;
+import edu.stanford.bmir.protege.web.server.issues.EntityDiscussionThreadRepository;
+import edu.stanford.bmir.protege.web.server.shortform.MultiLingualDictionary;
 import edu.stanford.bmir.protege.web.shared.HasDispose;
 import edu.stanford.bmir.protege.web.shared.csv.DocumentId;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
@@ -12,7 +12,7 @@ import edu.stanford.bmir.protege.web.shared.project.NewProjectSettings;
 import edu.stanford.bmir.protege.web.shared.project.ProjectAlreadyExistsException;
 import edu.stanford.bmir.protege.web.shared.project.ProjectDocumentNotFoundException;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
-import org.semanticweb.owlapi.io.OWLParserException;
+import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyStorageException;
 import org.slf4j.Logger;
@@ -22,8 +22,7 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -41,7 +40,11 @@ public class ProjectCache implements HasDispose {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectCache.class);
 
-    private final Interner<ProjectId> projectIdInterner;
+    /**
+     * A rough estimate of the heap that is occupied by an axiom once a project has been loaded.  This includes
+     * the axiom itself, the ontology indexes that refer to it and the project level indexes and caches.
+     */
+    private static final long ESTIMATED_BYTES_PER_AXIOM = 1024;
 
     private final ReadWriteLock projectMapReadWriteLoc = new ReentrantReadWriteLock();
 
@@ -49,65 +52,95 @@ public class ProjectCache implements HasDispose {
 
     private final Lock WRITE_LOCK = projectMapReadWriteLoc.writeLock();
 
-    private Map<ProjectId, ProjectComponent> projectId2ProjectComponent = new ConcurrentHashMap<>();
+    /**
+     * Futures for the project components of projects that are loaded or that are being loaded.  A future is
+     * removed from this map if loading fails so that the load can be retried.
+     */
+    private final Map<ProjectId, CompletableFuture<ProjectComponent>> projectId2ProjectComponent = new ConcurrentHashMap<>();
 
-    private final ReadWriteLock LAST_ACCESS_LOCK = new ReentrantReadWriteLock();
+    private final Map<ProjectId, Long> lastAccessMap = new ConcurrentHashMap<>();
 
-    private final ReadWriteLock PROJECT_ID_LOCK = new ReentrantReadWriteLock();
+    private final Map<ProjectId, Long> estimatedHeapSizeMap = new ConcurrentHashMap<>();
 
-    private Map<ProjectId, Long> lastAccessMap = new HashMap<>();
+    private final Map<ProjectId, Long> retainUntilMap = new ConcurrentHashMap<>();
 
     private final ProjectImporterFactory projectImporterFactory;
 
-    /**
-     * Elapsed time from the last access after which a project should be considered dormant (and should therefore
-     * be purged).  This can interact with the frequency with which clients poll the project event queue (which is
-     * be default every 10 seconds).
-     */
-    private static final long DORMANT_PROJECT_TIME_MS = 3 * 60 * 1000;
-
     private final ProjectComponentFactory projectComponentFactory;
 
+    private final EntityDiscussionThreadRepository discussionThreadRepository;
+
+    @Nonnull
+    private final ProjectEvictionPolicy evictionPolicy;
+
+    private final ExecutorService projectLoadingExecutor;
+
+    private final int loadingThreads;
+
     @Inject
     public ProjectCache(@Nonnull ProjectComponentFactory projectComponentFactory,
-                        @Nonnull ProjectImporterFactory projectImporterFactory) {
+                        @Nonnull ProjectImporterFactory projectImporterFactory,
+                        @Nonnull EntityDiscussionThreadRepository discussionThreadRepository,
+                        @Nonnull ProjectEvictionPolicy evictionPolicy) {
         this.projectComponentFactory = checkNotNull(projectComponentFactory);
         this.projectImporterFactory = checkNotNull(projectImporterFactory);
-        projectIdInterner = Interners.newWeakInterner();
+        this.discussionThreadRepository = checkNotNull(discussionThreadRepository);
+        this.evictionPolicy = checkNotNull(evictionPolicy);
+        // Limiting the number of concurrent loads limits the peak heap usage when
+        // lots of projects are requested at the same time
+        this.loadingThreads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        this.projectLoadingExecutor = Executors.newFixedThreadPool(loadingThreads, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "project-loading-thread"));
+            return thread;
+        });
+    }
 
+    /**
+     * Gets the number of projects that can be loaded at the same time.
+     */
+    public int getLoadingThreads() {
+        return loadingThreads;
     }
 
     public ProjectActionHandlerRegistry getActionHandlerRegistry(ProjectId projectId) {
         return getProject(projectId).getActionHanderRegistry();
     }
 
+    public ProjectChangeLock getProjectChangeLock(ProjectId projectId) {
+        return getProject(projectId).getChangeLock();
+    }
+
+    public MultiLingualDictionary getDictionary(ProjectId projectId) {
+        return getProject(projectId).getDictionary();
+    }
+
 
     /**
      * Gets the list of cached project ids.
      * @return A list of cached project ids.
      */
     private List<ProjectId> getCachedProjectIds() {
-        try {
-
-            READ_LOCK.lock();
-            return new ArrayList<>(lastAccessMap.keySet());
-        }
-        finally {
-            READ_LOCK.unlock();
-        }
+        return new ArrayList<>(projectId2ProjectComponent.keySet());
     }
 
     /**
-     * Purges projects that have not been access for some given period of time
+     * Purges projects that should be evicted according to the {@link ProjectEvictionPolicy}.  Projects that
+     * are still being loaded are never purged.
      */
     public void purgeDormantProjects() {
-        // No locking needed
-        for (ProjectId projectId : getCachedProjectIds()) {
-            long time = getLastAccessTime(projectId);
-            long lastAccessTimeDiff = System.currentTimeMillis() - time;
-            if (time == 0 || lastAccessTimeDiff > DORMANT_PROJECT_TIME_MS) {
-                purge(projectId);
+        var loadedProjects = new ArrayList<LoadedProjectInfo>();
+        projectId2ProjectComponent.forEach((projectId, future) -> {
+            if(isLoaded(future)) {
+                loadedProjects.add(LoadedProjectInfo.get(projectId,
+                                                         lastAccessMap.getOrDefault(projectId, 0L),
+                                                         estimatedHeapSizeMap.getOrDefault(projectId, 0L),
+                                                         retainUntilMap.getOrDefault(projectId, 0L)));
             }
+        });
+        var projectsToEvict = evictionPolicy.selectProjectsToEvict(loadedProjects, System.currentTimeMillis());
+        for(ProjectId projectId : projectsToEvict) {
+            purge(projectId);
         }
     }
 
@@ -119,18 +152,66 @@ public class ProjectCache implements HasDispose {
     }
 
     public Project getProject(ProjectId projectId) throws ProjectDocumentNotFoundException {
-        return getProjectInternal(projectId, AccessMode.NORMAL);
+        try {
+            return getProjectAsync(projectId).join();
+        } catch(CompletionException e) {
+            var cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Gets the specified project, loading it in the background if it is not loaded.
+     * @param projectId The project id.
+     * @return A future that completes with the project once the project has been loaded, or that completes
+     * exceptionally if the project could not be loaded.
+     */
+    @Nonnull
+    public CompletableFuture<Project> getProjectAsync(@Nonnull ProjectId projectId) {
+        return getProjectComponent(projectId).thenApply(projectComponent -> {
+            logProjectAccess(projectId);
+            return projectComponent.getProject();
+        });
     }
 
+    /**
+     * Loads the specified project in the background, ahead of it being requested.
+     * @param projectId The project id.
+     * @param retainUntil The time, in milliseconds since the epoch, until which the project should be kept
+     *                    loaded even if it is not accessed.
+     * @return A future that completes with the project once the project has been loaded.
+     */
+    @Nonnull
+    public CompletableFuture<Project> warmUpProject(@Nonnull ProjectId projectId, long retainUntil) {
+        retainUntilMap.merge(projectId, retainUntil, Math::max);
+        return getProjectComponent(projectId).thenApply(ProjectComponent::getProject);
+    }
+
+    /**
+     * Gets the specified project if it is loaded, without loading it.  Clients poll the projects that they have
+     * open for events using this method, so the poll counts as an access and open projects are not evicted for
+     * being idle.
+     * @param projectId The project id.
+     * @return The project, or empty if the project is not loaded.
+     */
     public Optional<Project> getProjectIfActive(ProjectId projectId) {
         try {
             READ_LOCK.lock();
-            boolean active = isActive(projectId);
-            if(!active) {
+            var future = projectId2ProjectComponent.get(projectId);
+            if(!isLoaded(future)) {
                 return Optional.empty();
             }
             else {
-                return Optional.of(getProjectInternal(projectId, AccessMode.QUIET));
+                logProjectAccess(projectId);
+                return Optional.of(future.join().getProject());
             }
         }
         finally {
@@ -139,53 +220,70 @@ public class ProjectCache implements HasDispose {
 
     }
 
-    private enum AccessMode {
-        NORMAL,
-        QUIET
+    private static boolean isLoaded(CompletableFuture<ProjectComponent> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
     }
 
-    private Project getProjectInternal(ProjectId projectId, AccessMode accessMode) {
-        // Per project lock
-        synchronized (getInternedProjectId(projectId)) {
-            try {
-                ProjectComponent projectComponent = getProjectInjector(projectId);
-                if (accessMode == AccessMode.NORMAL) {
-                    logProjectAccess(projectId);
-                }
-                return projectComponent.getProject();
-            }
-            catch (OWLParserException e) {
-                throw new RuntimeException(e);
-            }
+    private CompletableFuture<ProjectComponent> getProjectComponent(ProjectId projectId) {
+        var future = projectId2ProjectComponent.get(projectId);
+        if(future != null) {
+            return future;
         }
+        var loadingFuture = new CompletableFuture<ProjectComponent>();
+        var existingFuture = projectId2ProjectComponent.putIfAbsent(projectId, loadingFuture);
+        if(existingFuture != null) {
+            return existingFuture;
+        }
+        logger.info("Request for unloaded project {}.", projectId.getId());
+        try {
+            projectLoadingExecutor.execute(() -> loadProjectComponent(projectId, loadingFuture));
+        } catch(RejectedExecutionException e) {
+            projectId2ProjectComponent.remove(projectId, loadingFuture);
+            loadingFuture.completeExceptionally(e);
+        }
+        return loadingFuture;
     }
 
-    private ProjectComponent getProjectInjector(ProjectId projectId) {
-        ProjectComponent projectComponent = projectId2ProjectComponent.get(projectId);
-        if (projectComponent == null) {
-            logger.info("Request for unloaded project {}.", projectId.getId());
+    private void loadProjectComponent(ProjectId projectId, CompletableFuture<ProjectComponent> loadingFuture) {
+        try {
             Stopwatch stopwatch = Stopwatch.createStarted();
-            projectComponent = projectComponentFactory.createProjectComponent(projectId);
+            var projectComponent = projectComponentFactory.createProjectComponent(projectId);
             // Force instantiation of the project graph.
             // This needs to be done in a nicer way, but this approach works for now.
-            projectComponent.getProject();
+            var project = projectComponent.getProject();
             stopwatch.stop();
-            logger.info("{} Instantiated project component in {} ms",
+            var estimatedHeapSize = estimateHeapSize(project);
+            logger.info("{} Instantiated project component in {} ms.  Estimated heap size: {} MB",
                         projectId,
-                        stopwatch.elapsed(TimeUnit.MILLISECONDS));
-            projectId2ProjectComponent.put(projectId, projectComponent);
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS),
+                        estimatedHeapSize / (1024 * 1024));
+            estimatedHeapSizeMap.put(projectId, estimatedHeapSize);
+            logProjectAccess(projectId);
+            loadingFuture.complete(projectComponent);
+        } catch(Throwable t) {
+            logger.error("{} Could not load project: {}", projectId, t.getMessage(), t);
+            projectId2ProjectComponent.remove(projectId, loadingFuture);
+            estimatedHeapSizeMap.remove(projectId);
+            retainUntilMap.remove(projectId);
+            loadingFuture.completeExceptionally(t);
+            return;
+        }
+        if(projectId2ProjectComponent.get(projectId) != loadingFuture) {
+            // Purged whilst loading
+            lastAccessMap.remove(projectId);
+            estimatedHeapSizeMap.remove(projectId);
+            retainUntilMap.remove(projectId);
         }
-        return projectComponent;
+        // Evict projects straight away if this project takes us over the limits
+        purgeDormantProjects();
     }
 
-    /**
-     * Gets an interned {@link ProjectId} that is equal to the specified {@link ProjectId}.
-     * @param projectId The project id to intern.
-     * @return The interned project Id.  Not {@code null}.
-     */
-    private ProjectId getInternedProjectId(ProjectId projectId) {
-        // The interner is thread safe.
-        return projectIdInterner.intern(projectId);
+    private static long estimateHeapSize(Project project) {
+        long axiomCount = 0;
+        for(OWLOntology ontology : project.getRootOntology().getImportsClosure()) {
+            axiomCount += ontology.getAxiomCount();
+        }
+        return axiomCount * ESTIMATED_BYTES_PER_AXIOM;
     }
 
     public ProjectId getProject(NewProjectSettings newProjectSettings) throws ProjectAlreadyExistsException, OWLOntologyCreationException, OWLOntologyStorageException, IOException {
@@ -195,78 +293,49 @@ public class ProjectCache implements HasDispose {
             ProjectImporter importer = projectImporterFactory.getProjectImporter(projectId);
             importer.createProjectFromSources(sourceDocumentId.get(), newProjectSettings.getProjectOwner());
         }
-        return getProjectInternal(projectId, AccessMode.NORMAL).getProjectId();
+        return getProject(projectId).getProjectId();
     }
 
     public void purge(ProjectId projectId) {
         try {
             WRITE_LOCK.lock();
-            LAST_ACCESS_LOCK.writeLock().lock();
-            var projectComponent = projectId2ProjectComponent.remove(projectId);
-            if(projectComponent != null) {
-                var projectDisposableObjectManager = projectComponent.getDisposablesManager();
-                projectDisposableObjectManager.dispose();
+            var future = projectId2ProjectComponent.remove(projectId);
+            if(future != null) {
+                // If the project is still being loaded then it is disposed of once loading completes
+                future.thenAccept(projectComponent -> projectComponent.getDisposablesManager().dispose());
             }
             lastAccessMap.remove(projectId);
+            estimatedHeapSizeMap.remove(projectId);
+            retainUntilMap.remove(projectId);
+            discussionThreadRepository.evictCommentCounts(projectId);
         }
         finally {
-            final int projectsBeingAccessed = lastAccessMap.size();
-            LAST_ACCESS_LOCK.writeLock().unlock();
             WRITE_LOCK.unlock();
-            logger.info("Purged project: {}.  {} projects are now being accessed.", projectId.getId(), projectsBeingAccessed);
+            logger.info("Purged project: {}.  {} projects are now being accessed.", projectId.getId(), lastAccessMap.size());
         }
     }
 
     public boolean isActive(ProjectId projectId) {
         try {
             READ_LOCK.lock();
-            return projectId2ProjectComponent.containsKey(projectId) && lastAccessMap.containsKey(projectId);
+            return isLoaded(projectId2ProjectComponent.get(projectId));
         }
         finally {
             READ_LOCK.unlock();
         }
     }
 
-    /**
-     * Gets the time of last cache access for a given project.
-     * @param projectId The project id.
-     * @return The time stamp of the last access of the specified project from the cache.  This time stamp will be 0
-     *         if the project does not exist.
-     */
-    private long getLastAccessTime(ProjectId projectId) {
-        Long timestamp = null;
-        try {
-            LAST_ACCESS_LOCK.readLock().lock();
-            timestamp = lastAccessMap.get(projectId);
-        }
-        finally {
-            LAST_ACCESS_LOCK.readLock().unlock();
-        }
-        if (timestamp == null) {
-            return 0;
-        }
-        else {
-            return timestamp;
-        }
-    }
-
     private void logProjectAccess(final ProjectId projectId) {
-        try {
-            LAST_ACCESS_LOCK.writeLock().lock();
-            long currentTime = System.currentTimeMillis();
-            int currentSize = lastAccessMap.size();
-            lastAccessMap.put(projectId, currentTime);
-            if(lastAccessMap.size() > currentSize) {
-                logger.info("{} projects are now being accessed", lastAccessMap.size());
-            }
-        }
-        finally {
-            LAST_ACCESS_LOCK.writeLock().unlock();
+        long currentTime = System.currentTimeMillis();
+        var previousAccessTime = lastAccessMap.put(projectId, currentTime);
+        if(previousAccessTime == null) {
+            logger.info("{} projects are now being accessed", lastAccessMap.size());
         }
     }
 
     @Override
     public void dispose() {
+        projectLoadingExecutor.shutdown();
         purgeAllProjects();
     }
 }
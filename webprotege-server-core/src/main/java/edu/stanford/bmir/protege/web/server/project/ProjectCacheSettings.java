@@ -0,0 +1,55 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Settings that determine when loaded projects are evicted from the {@link ProjectCache} and how long requests
+ * to load a project wait for the project to be loaded.
+ */
+@AutoValue
+public abstract class ProjectCacheSettings {
+
+    public static final int NO_MAX_PROJECTS = 0;
+
+    public static final long NO_HEAP_BUDGET = 0;
+
+    @Nonnull
+    public static ProjectCacheSettings get(long idleTimeout,
+                                           int maxProjects,
+                                           long heapBudget,
+                                           long loadWaitTime) {
+        checkArgument(idleTimeout > 0, "idleTimeout must be greater than zero");
+        checkArgument(maxProjects >= 0, "maxProjects must not be negative");
+        checkArgument(heapBudget >= 0, "heapBudget must not be negative");
+        checkArgument(loadWaitTime >= 0, "loadWaitTime must not be negative");
+        return new AutoValue_ProjectCacheSettings(idleTimeout, maxProjects, heapBudget, loadWaitTime);
+    }
+
+    /**
+     * Gets the time, in milliseconds, since the last access of a project after which the project is evicted.
+     */
+    public abstract long getIdleTimeout();
+
+    /**
+     * Gets the maximum number of loaded projects, or {@link #NO_MAX_PROJECTS} if there is no maximum.
+     */
+    public abstract int getMaxProjects();
+
+    /**
+     * Gets the estimated heap, in bytes, that loaded projects may occupy, or {@link #NO_HEAP_BUDGET} if there is
+     * no budget.
+     */
+    public abstract long getHeapBudget();
+
+    /**
+     * Gets the maximum time, in milliseconds, that a request to load a project waits for the project to be loaded.
+     */
+    public abstract long getLoadWaitTime();
+}
@@ -0,0 +1,152 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-17
+ * <p>
+ * Separates readers of a project from the publication of changes to the project.  Changes are published by
+ * applying them to the ontologies and updating the in-memory indexes, dictionaries and hierarchies that depend on
+ * them, all under the write lock.  Work that does not have to be visible atomically, such as generating changes
+ * and writing them to disk, is done outside of the write lock so that the publication window is as short as
+ * possible.
+ * </p>
+ * <p>
+ * When locked reads are enabled, read actions hold the read lock for their duration and so see the project as
+ * of the last committed revision - they never see a revision that is half way through being published.  This is
+ * not snapshot isolation.  There is only one copy of the project, so a read that starts whilst a revision is being
+ * published waits until publication is complete, and a publication waits until all of the reads that are in
+ * progress have finished.  Reads that start whilst a publication is waiting may queue behind it.  When locked reads
+ * are disabled, read actions do not take the lock at all, and may see changes that are half way through being
+ * published.
+ * </p>
+ * <p>
+ * Whether or not locked reads are enabled, a read can find out whether it overlapped a publication by comparing
+ * {@link #getPublicationStamp()} before and after it (see {@link #isUnpublishedSince(long)}).
+ * </p>
+ */
+@ProjectSingleton
+public class ProjectChangeLock {
+
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    /**
+     * Incremented at the start and at the end of each publication, so it is odd whilst changes are being published
+     */
+    private final AtomicLong publicationStamp = new AtomicLong();
+
+    @Nonnull
+    private final ReadIsolationSettings settings;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    @Inject
+    public ProjectChangeLock(@Nonnull ReadIsolationSettings settings,
+                             @Nonnull RevisionManager revisionManager) {
+        this.settings = checkNotNull(settings);
+        this.revisionManager = checkNotNull(revisionManager);
+    }
+
+    public boolean isLockedReads() {
+        return settings.isLockedReads();
+    }
+
+    /**
+     * Performs a read of the project.  If locked reads are enabled, the read holds the read lock and so sees the
+     * project as of the last committed revision.  It waits for any publication that is in progress.
+     * @param reader The reader.
+     * @return The value returned by the reader.
+     */
+    public <T> T read(@Nonnull Supplier<T> reader) {
+        if(!settings.isLockedReads()) {
+            return reader.get();
+        }
+        readWriteLock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the last committed revision.  If locked reads are enabled, changes that are part of later revisions are
+     * not visible to the read that is in progress on this thread.
+     */
+    @Nonnull
+    public RevisionNumber getCommittedRevision() {
+        return read(revisionManager::getCurrentRevision);
+    }
+
+    /**
+     * Publishes changes to the project.  No reads that are performed with {@link #read(Supplier)} take place
+     * whilst the changes are published, if locked reads are enabled.  Publication waits for reads that are in
+     * progress to finish.  The caller must not hold the read lock;
+     * see {@link #outsideOfRead(Supplier)}.
+     * @param publisher The publisher.
+     * @return The value returned by the publisher.
+     */
+    public <T> T publish(@Nonnull Supplier<T> publisher) {
+        if(readWriteLock.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Cannot publish changes from within a read");
+        }
+        readWriteLock.writeLock().lock();
+        try {
+            publicationStamp.incrementAndGet();
+            return publisher.get();
+        } finally {
+            publicationStamp.incrementAndGet();
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a stamp that changes whenever changes start or finish being published.
+     * @see #isUnpublishedSince(long)
+     */
+    public long getPublicationStamp() {
+        return publicationStamp.get();
+    }
+
+    /**
+     * Determines whether nothing has been published since the specified stamp was obtained, and nothing was being
+     * published when it was obtained.  If this is the case then everything that was read between obtaining the stamp
+     * and calling this method was read from the last committed revision.
+     * @param stamp A stamp obtained from {@link #getPublicationStamp()}.
+     */
+    public boolean isUnpublishedSince(long stamp) {
+        return stamp % 2 == 0 && publicationStamp.get() == stamp;
+    }
+
+    /**
+     * Performs an action outside of any read that the current thread is performing.  This allows read actions to
+     * apply changes.  The read is resumed, and so sees the changes, once the action completes.
+     * @param action The action.
+     * @return The value returned by the action.
+     */
+    public <T> T outsideOfRead(@Nonnull Supplier<T> action) {
+        var readHoldCount = readWriteLock.getReadHoldCount();
+        for(int i = 0; i < readHoldCount; i++) {
+            readWriteLock.readLock().unlock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for(int i = 0; i < readHoldCount; i++) {
+                readWriteLock.readLock().lock();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.project;
 
 import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.dispatch.ActionResultCache;
 import edu.stanford.bmir.protege.web.server.webhook.SlackWebhookRepository;
 import edu.stanford.bmir.protege.web.server.webhook.WebhookRepository;
 import edu.stanford.bmir.protege.web.shared.lang.DefaultDisplayNameSettingsFactory;
@@ -48,15 +49,20 @@ public class ProjectDetailsManagerImpl implements ProjectDetailsManager {
     @Nonnull
     private final DefaultDisplayNameSettingsFactory displayNameSettingsFactory;
 
+    @Nonnull
+    private final ActionResultCache actionResultCache;
+
     @Inject
     public ProjectDetailsManagerImpl(@Nonnull ProjectDetailsRepository repository,
                                      @Nonnull SlackWebhookRepository slackWebhookRepository,
                                      @Nonnull WebhookRepository webhookRepository,
-                                     @Nonnull DefaultDisplayNameSettingsFactory displayNameSettingsFactory) {
+                                     @Nonnull DefaultDisplayNameSettingsFactory displayNameSettingsFactory,
+                                     @Nonnull ActionResultCache actionResultCache) {
         this.repository = checkNotNull(repository);
         this.webhookRepository = checkNotNull(webhookRepository);
         this.slackWebhookRepository = checkNotNull(slackWebhookRepository);
         this.displayNameSettingsFactory = checkNotNull(displayNameSettingsFactory);
+        this.actionResultCache = checkNotNull(actionResultCache);
     }
 
     @Override
@@ -111,7 +117,8 @@ public class ProjectDetailsManagerImpl implements ProjectDetailsManager {
                                               .withDefaultLanguage(projectSettings.getDefaultLanguage())
                                               .withDefaultDisplayNameSettings(projectSettings.getDefaultDisplayNameSettings());
             repository.save(updatedRecord);
-
+            // Cached results are rendered using the default language, which is not part of the revision history
+            actionResultCache.invalidate(projectId);
         });
         slackWebhookRepository.clearWebhooks(projectId);
         String payloadUrl = projectSettings.getSlackIntegrationSettings().getPayloadUrl();
@@ -0,0 +1,25 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Decides which loaded projects should be evicted from the {@link ProjectCache}.
+ */
+public interface ProjectEvictionPolicy {
+
+    /**
+     * Selects the projects that should be evicted.
+     * @param loadedProjects The projects that are loaded, in no particular order.
+     * @param currentTime The current time, in milliseconds since the epoch.
+     * @return The ids of the projects that should be evicted.
+     */
+    @Nonnull
+    List<ProjectId> selectProjectsToEvict(@Nonnull List<LoadedProjectInfo> loadedProjects,
+                                          long currentTime);
+}
@@ -5,8 +5,10 @@ import edu.stanford.bmir.protege.web.server.inject.DataDirectory;
 import edu.stanford.bmir.protege.web.server.inject.UploadsDirectory;
 import edu.stanford.bmir.protege.web.server.inject.project.*;
 import edu.stanford.bmir.protege.web.server.owlapi.WebProtegeOWLManager;
+import edu.stanford.bmir.protege.web.server.revision.ChangeHistoryDecoderPool;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.server.revision.RevisionStoreImpl;
+import edu.stanford.bmir.protege.web.server.revision.RevisionWriterSettings;
 import edu.stanford.bmir.protege.web.shared.csv.DocumentId;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
@@ -25,6 +27,7 @@ import javax.inject.Inject;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -51,7 +54,9 @@ public class ProjectImporter {
     public ProjectImporter(ProjectId projectId,
                            @Nonnull @UploadsDirectory File uploadsDirectory,
                            @Nonnull @DataDirectory File dataDirectory,
-                           UploadedProjectSourcesExtractor uploadedProjectSourcesExtractor) {
+                           UploadedProjectSourcesExtractor uploadedProjectSourcesExtractor,
+                           @Nonnull RevisionWriterSettings revisionWriterSettings,
+                           @Nonnull @ChangeHistoryDecoderPool ForkJoinPool decoderPool) {
         this.projectId = projectId;
         this.dataDirectory = checkNotNull(dataDirectory);
         this.uploadsDirectory = checkNotNull(uploadsDirectory);
@@ -60,7 +65,9 @@ public class ProjectImporter {
         rootOntologyDocument = new RootOntologyDocumentProvider(projectDirectory).get();
         this.revisionStore = new RevisionStoreImpl(projectId,
                                                    new ChangeHistoryFileProvider(projectDirectory).get(),
-                                                   new OWLDataFactoryImpl());
+                                                   new OWLDataFactoryImpl(),
+                                                   revisionWriterSettings,
+                                                   decoderPool);
         this.uploadedProjectSourcesExtractor = uploadedProjectSourcesExtractor;
         this.revisionStore.load();
     }
@@ -78,6 +85,7 @@ public class ProjectImporter {
             OWLOntology ontology = importer.importRawProjectSources(projectSources);
 
             generateInitialChanges(owner, rootOntologyManager);
+            revisionStore.dispose();
             writeNewProject(rootOntologyManager, ontology);
             deleteSourceFile(uploadedFile);
         }
@@ -2,6 +2,8 @@ package edu.stanford.bmir.protege.web.server.project;
 
 import edu.stanford.bmir.protege.web.server.inject.DataDirectory;
 import edu.stanford.bmir.protege.web.server.inject.UploadsDirectory;
+import edu.stanford.bmir.protege.web.server.revision.ChangeHistoryDecoderPool;
+import edu.stanford.bmir.protege.web.server.revision.RevisionWriterSettings;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.io.File;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -32,18 +35,28 @@ public class ProjectImporterFactory {
     @Nonnull
     private final UploadedProjectSourcesExtractor uploadedProjectSourcesExtractor;
 
+    @Nonnull
+    private final RevisionWriterSettings revisionWriterSettings;
+
+    @Nonnull
+    private final ForkJoinPool decoderPool;
+
     @Inject
     public ProjectImporterFactory(
             @Nonnull @UploadsDirectory File uploadsDirectory,
             @Nonnull @DataDirectory File dataDirectory,
-            @Nonnull UploadedProjectSourcesExtractor uploadedProjectSourcesExtractor) {
+            @Nonnull UploadedProjectSourcesExtractor uploadedProjectSourcesExtractor,
+            @Nonnull RevisionWriterSettings revisionWriterSettings,
+            @Nonnull @ChangeHistoryDecoderPool ForkJoinPool decoderPool) {
         this.uploadsDirectory = checkNotNull(uploadsDirectory);
         this.dataDirectory = checkNotNull(dataDirectory);
         this.uploadedProjectSourcesExtractor = checkNotNull(uploadedProjectSourcesExtractor);
+        this.revisionWriterSettings = checkNotNull(revisionWriterSettings);
+        this.decoderPool = checkNotNull(decoderPool);
     }
 
     @Nonnull
     public ProjectImporter getProjectImporter(@Nonnull ProjectId projectId) {
-        return new ProjectImporter(projectId, uploadsDirectory, dataDirectory, uploadedProjectSourcesExtractor);
+        return new ProjectImporter(projectId, uploadsDirectory, dataDirectory, uploadedProjectSourcesExtractor, revisionWriterSettings, decoderPool);
     }
 }
@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.project;
 
 import edu.stanford.bmir.protege.web.server.dispatch.impl.ProjectActionHandlerRegistry;
+import edu.stanford.bmir.protege.web.server.shortform.MultiLingualDictionary;
 import edu.stanford.bmir.protege.web.shared.project.NewProjectSettings;
 import edu.stanford.bmir.protege.web.shared.project.ProjectAlreadyExistsException;
 import edu.stanford.bmir.protege.web.shared.project.ProjectDocumentNotFoundException;
@@ -13,6 +14,7 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -40,6 +42,16 @@ public class ProjectManager {
     public ProjectActionHandlerRegistry getActionHandlerRegistry(@Nonnull ProjectId projectId) {
         return projectCache.getActionHandlerRegistry(checkNotNull(projectId));
     }
+
+    @Nonnull
+    public ProjectChangeLock getProjectChangeLock(@Nonnull ProjectId projectId) {
+        return projectCache.getProjectChangeLock(checkNotNull(projectId));
+    }
+
+    @Nonnull
+    public MultiLingualDictionary getDictionary(@Nonnull ProjectId projectId) {
+        return projectCache.getDictionary(checkNotNull(projectId));
+    }
     
     public Project getProject(@Nonnull ProjectId projectId,
                               @Nonnull UserId requestingUser) throws ProjectDocumentNotFoundException {
@@ -48,6 +60,20 @@ public class ProjectManager {
         return projectCache.getProject(projectId);
     }
 
+    /**
+     * Gets the specified project, loading it in the background if it is not loaded.
+     * @param projectId The project id.
+     * @param requestingUser The user that is requesting the project.
+     * @return A future that completes with the project once it has been loaded.
+     */
+    @Nonnull
+    public CompletableFuture<Project> getProjectAsync(@Nonnull ProjectId projectId,
+                                                      @Nonnull UserId requestingUser) {
+        long currentTime = System.currentTimeMillis();
+        projectAccessManager.logProjectAccess(projectId, requestingUser, currentTime);
+        return projectCache.getProjectAsync(projectId);
+    }
+
     public Optional<Project> getProjectIfActive(@Nonnull ProjectId projectId) throws ProjectDocumentNotFoundException {
         return projectCache.getProjectIfActive(projectId);
     }
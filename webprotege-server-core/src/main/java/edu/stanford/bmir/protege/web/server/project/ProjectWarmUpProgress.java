@@ -0,0 +1,39 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * The progress of loading projects when the server starts.
+ */
+@AutoValue
+public abstract class ProjectWarmUpProgress {
+
+    @Nonnull
+    public static ProjectWarmUpProgress get(int total, int loaded, int failed) {
+        return new AutoValue_ProjectWarmUpProgress(total, loaded, failed);
+    }
+
+    /**
+     * Gets the number of projects that were selected to be loaded.
+     */
+    public abstract int getTotal();
+
+    /**
+     * Gets the number of projects that have been loaded.
+     */
+    public abstract int getLoaded();
+
+    /**
+     * Gets the number of projects that could not be loaded.
+     */
+    public abstract int getFailed();
+
+    public boolean isComplete() {
+        return getLoaded() + getFailed() >= getTotal();
+    }
+}
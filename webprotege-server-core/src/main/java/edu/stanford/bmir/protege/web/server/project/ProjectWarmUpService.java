@@ -0,0 +1,214 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.server.app.ApplicationDisposablesManager;
+import edu.stanford.bmir.protege.web.server.user.UserActivityManager;
+import edu.stanford.bmir.protege.web.shared.HasDispose;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.project.UnknownProjectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Loads recently used projects in the background when the server starts, so that the first users of these projects
+ * after a restart do not have to wait for them to be loaded.  Projects are ranked by the time that they were last
+ * opened or modified, and then by the number of users that have recently opened them.  Progress is logged every
+ * {@link #PROGRESS_LOGGING_INTERVAL} projects and when the warm-up is complete.
+ *
+ * Projects are loaded on the threads of the {@link ProjectCache}.  Warm-up always leaves at least one of these
+ * threads free so that projects that users open during warm-up do not have to wait for warm-up to finish.
+ */
+@ApplicationSingleton
+public class ProjectWarmUpService implements HasDispose {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWarmUpService.class);
+
+    private static final int PROGRESS_LOGGING_INTERVAL = 10;
+
+    @Nonnull
+    private final ProjectCache projectCache;
+
+    @Nonnull
+    private final UserActivityManager userActivityManager;
+
+    @Nonnull
+    private final ProjectDetailsManager projectDetailsManager;
+
+    @Nonnull
+    private final ProjectWarmUpSettings settings;
+
+    @Nonnull
+    private final ApplicationDisposablesManager disposablesManager;
+
+    private final ExecutorService warmUpExecutor;
+
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private volatile int total = -1;
+
+    @Inject
+    public ProjectWarmUpService(@Nonnull ProjectCache projectCache,
+                                @Nonnull UserActivityManager userActivityManager,
+                                @Nonnull ProjectDetailsManager projectDetailsManager,
+                                @Nonnull ProjectWarmUpSettings settings,
+                                @Nonnull ApplicationDisposablesManager disposablesManager) {
+        this.projectCache = checkNotNull(projectCache);
+        this.userActivityManager = checkNotNull(userActivityManager);
+        this.projectDetailsManager = checkNotNull(projectDetailsManager);
+        this.settings = checkNotNull(settings);
+        this.disposablesManager = checkNotNull(disposablesManager);
+        var threads = getWarmUpThreads(settings.getThreads(), projectCache.getLoadingThreads());
+        if(threads < settings.getThreads()) {
+            logger.info("Warming up {} projects at a time rather than {} so that projects can be loaded for users",
+                        threads,
+                        settings.getThreads());
+        }
+        this.warmUpExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName(thread.getName().replace("thread", "project-warm-up-thread"));
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the number of projects that are loaded concurrently during warm-up.
+     * @param requestedThreads The number of threads in the settings.
+     * @param loadingThreads The number of threads that the project cache loads projects on.
+     * @return The requested number of threads, capped so that at least one loading thread is left for users.
+     * At least one thread is always used.
+     */
+    static int getWarmUpThreads(int requestedThreads, int loadingThreads) {
+        return Math.max(1, Math.min(requestedThreads, loadingThreads - 1));
+    }
+
+    /**
+     * Starts loading projects in the background.  This method returns immediately.
+     */
+    public void start() {
+        disposablesManager.register(this);
+        if(settings.getMaxProjects() == 0) {
+            logger.info("Project warm-up is disabled");
+            total = 0;
+            return;
+        }
+        warmUpExecutor.execute(this::warmUpProjects);
+    }
+
+    /**
+     * Gets the progress of the warm-up.
+     * @return The progress, or empty if the projects to be loaded have not been selected yet.
+     */
+    @Nonnull
+    public Optional<ProjectWarmUpProgress> getProgress() {
+        var total = this.total;
+        if(total == -1) {
+            return Optional.empty();
+        }
+        return Optional.of(ProjectWarmUpProgress.get(total, loaded.get(), failed.get()));
+    }
+
+    private void warmUpProjects() {
+        try {
+            var projectIds = selectProjectsToWarmUp();
+            total = projectIds.size();
+            logger.info("Warming up {} recently used projects", projectIds.size());
+            var retainUntil = System.currentTimeMillis() + settings.getRetainTime();
+            for(var projectId : projectIds) {
+                warmUpExecutor.execute(() -> warmUpProject(projectId, retainUntil));
+            }
+        } catch(RejectedExecutionException e) {
+            logger.info("Project warm-up cancelled");
+        } catch(RuntimeException e) {
+            logger.error("Could not select projects to warm up: {}", e.getMessage(), e);
+            total = 0;
+        }
+    }
+
+    private void warmUpProject(ProjectId projectId, long retainUntil) {
+        var stopwatch = Stopwatch.createStarted();
+        try {
+            // Wait so that no more than the configured number of projects are loaded at the same time
+            projectCache.warmUpProject(projectId, retainUntil).join();
+            loaded.incrementAndGet();
+            logger.info("{} Warmed up project in {} ms", projectId, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        } catch(CompletionException e) {
+            failed.incrementAndGet();
+            logger.warn("{} Could not warm up project: {}", projectId, e.getCause().getMessage());
+        }
+        getProgress().ifPresent(this::logProgress);
+    }
+
+    private void logProgress(@Nonnull ProjectWarmUpProgress progress) {
+        if(progress.isComplete()) {
+            logger.info("Project warm-up complete.  Loaded {} projects.  {} projects could not be loaded.",
+                        progress.getLoaded(),
+                        progress.getFailed());
+        }
+        else if((progress.getLoaded() + progress.getFailed()) % PROGRESS_LOGGING_INTERVAL == 0) {
+            logger.info("Project warm-up in progress.  Loaded {} of {} projects.  {} projects could not be loaded.",
+                        progress.getLoaded(),
+                        progress.getTotal(),
+                        progress.getFailed());
+        }
+    }
+
+    /**
+     * Selects the projects that should be loaded.
+     * @return The ids of the projects, in the order in which they should be loaded.
+     */
+    @Nonnull
+    List<ProjectId> selectProjectsToWarmUp() {
+        var lastActivity = new HashMap<ProjectId, Long>();
+        var users = new HashMap<ProjectId, Integer>();
+        for(var recentProject : userActivityManager.getAllRecentProjects()) {
+            lastActivity.merge(recentProject.getProjectId(), recentProject.getTimestamp(), Math::max);
+            users.merge(recentProject.getProjectId(), 1, Integer::sum);
+        }
+        for(var it = lastActivity.entrySet().iterator(); it.hasNext(); ) {
+            var entry = it.next();
+            try {
+                var projectDetails = projectDetailsManager.getProjectDetails(entry.getKey());
+                if(projectDetails.isInTrash()) {
+                    it.remove();
+                }
+                else {
+                    entry.setValue(Math.max(entry.getValue(), projectDetails.getLastModifiedAt()));
+                }
+            } catch(UnknownProjectException e) {
+                // Deleted project
+                it.remove();
+            }
+        }
+        Comparator<ProjectId> byLastActivity = Comparator.comparing(lastActivity::get);
+        Comparator<ProjectId> byUsers = Comparator.comparing(users::get);
+        return lastActivity.keySet()
+                           .stream()
+                           .sorted(byLastActivity.thenComparing(byUsers).reversed())
+                           .limit(settings.getMaxProjects())
+                           .collect(toList());
+    }
+
+    @Override
+    public void dispose() {
+        warmUpExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,43 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Settings for loading recently used projects when the server starts.
+ */
+@AutoValue
+public abstract class ProjectWarmUpSettings {
+
+    @Nonnull
+    public static ProjectWarmUpSettings get(int maxProjects,
+                                            int threads,
+                                            long retainTime) {
+        checkArgument(maxProjects >= 0, "maxProjects must not be negative");
+        checkArgument(threads > 0, "threads must be greater than zero");
+        checkArgument(retainTime >= 0, "retainTime must not be negative");
+        return new AutoValue_ProjectWarmUpSettings(maxProjects, threads, retainTime);
+    }
+
+    /**
+     * Gets the maximum number of projects to load.  Zero disables warm-up.
+     */
+    public abstract int getMaxProjects();
+
+    /**
+     * Gets the number of projects that are loaded concurrently.  This is capped at one less than the number of
+     * threads that the project cache loads projects on.
+     */
+    public abstract int getThreads();
+
+    /**
+     * Gets the time, in milliseconds, that loaded projects are kept loaded even if they are not accessed.
+     */
+    public abstract long getRetainTime();
+}
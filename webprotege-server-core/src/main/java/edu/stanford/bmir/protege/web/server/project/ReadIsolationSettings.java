@@ -0,0 +1,27 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Settings that determine what read actions see whilst changes are being applied to a project.
+ */
+@AutoValue
+public abstract class ReadIsolationSettings {
+
+    @Nonnull
+    public static ReadIsolationSettings get(boolean lockedReads) {
+        return new AutoValue_ReadIsolationSettings(lockedReads);
+    }
+
+    /**
+     * Determines whether read actions hold the project's read lock, so that they only see the state of the project
+     * as of the last committed revision.  Reads wait whilst changes are published, and publication waits for reads.
+     * If this is false then read actions may see changes that are half way through being applied.
+     */
+    public abstract boolean isLockedReads();
+}
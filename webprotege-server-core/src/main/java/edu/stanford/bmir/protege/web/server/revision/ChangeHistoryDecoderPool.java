@@ -0,0 +1,18 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Qualifies the {@link java.util.concurrent.ForkJoinPool} that change histories are decoded on when projects are
+ * loaded.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ChangeHistoryDecoderPool {
+
+}
@@ -0,0 +1,43 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * The time taken by each phase of loading a change history.
+ */
+@AutoValue
+public abstract class ChangeHistoryLoadTimings {
+
+    @Nonnull
+    public static ChangeHistoryLoadTimings get(long scanMillis,
+                                               long decodeMillis,
+                                               long assembleMillis,
+                                               int chunkCount) {
+        return new AutoValue_ChangeHistoryLoadTimings(scanMillis, decodeMillis, assembleMillis, chunkCount);
+    }
+
+    /**
+     * The time taken to find the positions of the revision records.
+     */
+    public abstract long getScanMillis();
+
+    /**
+     * The time taken to decode (and intern) the revisions.
+     */
+    public abstract long getDecodeMillis();
+
+    /**
+     * The time taken to assemble the decoded revisions into revision order.
+     */
+    public abstract long getAssembleMillis();
+
+    /**
+     * The number of chunks that were decoded.
+     */
+    public abstract int getChunkCount();
+}
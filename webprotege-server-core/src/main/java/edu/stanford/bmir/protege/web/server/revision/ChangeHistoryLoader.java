@@ -0,0 +1,195 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
+import org.semanticweb.binaryowl.change.OntologyChangeRecordList;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.semanticweb.binaryowl.chunk.SkipSetting.SKIP_DATA;
+import static org.semanticweb.binaryowl.chunk.SkipSetting.SKIP_NONE;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Loads the revisions in a change history in three phases.  First, the change history is scanned, without
+ * decoding any change data, to find the position of each revision record.  Second, the records are divided
+ * into chunks that are decoded in parallel on a fork join pool.  Finally, the decoded chunks are assembled
+ * in revision order.  If the record positions cannot be used then the change history is decoded sequentially.
+ */
+public class ChangeHistoryLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeHistoryLoader.class);
+
+    private static final int MIN_REVISIONS_PER_CHUNK = 64;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final File changeHistoryFile;
+
+    @Nonnull
+    private final OWLDataFactory dataFactory;
+
+    @Nonnull
+    private final ForkJoinPool forkJoinPool;
+
+    public ChangeHistoryLoader(@Nonnull ProjectId projectId,
+                               @Nonnull File changeHistoryFile,
+                               @Nonnull OWLDataFactory dataFactory,
+                               @Nonnull ForkJoinPool forkJoinPool) {
+        this.projectId = checkNotNull(projectId);
+        this.changeHistoryFile = checkNotNull(changeHistoryFile);
+        this.dataFactory = checkNotNull(dataFactory);
+        this.forkJoinPool = checkNotNull(forkJoinPool);
+    }
+
+    /**
+     * Loads the revisions in the change history.
+     * @param revisionFactory A function that creates a revision from a decoded record.  This function is called
+     *                        concurrently from multiple threads.
+     * @param revisionConsumer A consumer for the revisions.  The consumer is called from the calling thread, in
+     *                         revision order.
+     * @return The timings of the load phases
+     */
+    @Nonnull
+    public ChangeHistoryLoadTimings load(@Nonnull Function<OntologyChangeRecordList, Revision> revisionFactory,
+                                         @Nonnull Consumer<Revision> revisionConsumer) throws IOException {
+        var scanStopwatch = Stopwatch.createStarted();
+        var recordPositions = scanRecordPositions();
+        scanStopwatch.stop();
+
+        var decodeStopwatch = Stopwatch.createStarted();
+        List<List<Revision>> chunks;
+        if(isValid(recordPositions)) {
+            try {
+                chunks = decodeChunks(recordPositions, revisionFactory);
+            } catch(RuntimeException e) {
+                logger.warn("{} Could not decode change history in parallel.  Decoding sequentially.  Cause: {}",
+                            projectId,
+                            e.getMessage());
+                chunks = List.of(decodeSequentially(revisionFactory));
+            }
+        }
+        else {
+            chunks = List.of(decodeSequentially(revisionFactory));
+        }
+        decodeStopwatch.stop();
+
+        var assembleStopwatch = Stopwatch.createStarted();
+        for(var chunk : chunks) {
+            chunk.forEach(revisionConsumer);
+        }
+        assembleStopwatch.stop();
+
+        return ChangeHistoryLoadTimings.get(scanStopwatch.elapsed(MILLISECONDS),
+                                            decodeStopwatch.elapsed(MILLISECONDS),
+                                            assembleStopwatch.elapsed(MILLISECONDS),
+                                            chunks.size());
+    }
+
+    private List<Long> scanRecordPositions() throws IOException {
+        var recordPositions = new ArrayList<Long>();
+        try(var inputStream = new BufferedInputStream(new FileInputStream(changeHistoryFile))) {
+            var changeLog = new BinaryOWLOntologyChangeLog();
+            changeLog.readChanges(inputStream,
+                                  dataFactory,
+                                  (changeRecordList, skipSetting, filePosition) -> recordPositions.add(filePosition),
+                                  SKIP_DATA);
+        }
+        return recordPositions;
+    }
+
+    private static boolean isValid(List<Long> recordPositions) {
+        if(recordPositions.isEmpty() || recordPositions.get(0) <= 0) {
+            return false;
+        }
+        for(int i = 1; i < recordPositions.size(); i++) {
+            if(recordPositions.get(i) <= recordPositions.get(i - 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<List<Revision>> decodeChunks(List<Long> recordPositions,
+                                              Function<OntologyChangeRecordList, Revision> revisionFactory) throws IOException {
+        var revisionCount = recordPositions.size();
+        var chunkCount = Math.max(1, forkJoinPool.getParallelism() * CHUNKS_PER_THREAD);
+        var revisionsPerChunk = Math.max(MIN_REVISIONS_PER_CHUNK, (revisionCount + chunkCount - 1) / chunkCount);
+        try(var channel = FileChannel.open(changeHistoryFile.toPath(), StandardOpenOption.READ)) {
+            var fileLength = channel.size();
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, recordPositions.get(0));
+            var tasks = new ArrayList<ForkJoinTask<List<Revision>>>();
+            for(int start = 0; start < revisionCount; start += revisionsPerChunk) {
+                var end = Math.min(start + revisionsPerChunk, revisionCount);
+                var chunkStart = recordPositions.get(start);
+                var chunkEnd = end < revisionCount ? recordPositions.get(end) : fileLength;
+                var chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkEnd - chunkStart);
+                var expectedRevisionCount = end - start;
+                tasks.add(forkJoinPool.submit(() -> decodeChunk(header.duplicate(),
+                                                                chunk,
+                                                                expectedRevisionCount,
+                                                                revisionFactory)));
+            }
+            var chunks = new ArrayList<List<Revision>>(tasks.size());
+            for(var task : tasks) {
+                chunks.add(task.join());
+            }
+            return chunks;
+        }
+    }
+
+    private List<Revision> decodeChunk(ByteBuffer header,
+                                       ByteBuffer chunk,
+                                       int expectedRevisionCount,
+                                       Function<OntologyChangeRecordList, Revision> revisionFactory) throws IOException {
+        var revisions = new ArrayList<Revision>(expectedRevisionCount);
+        // Each chunk is decoded as if it were a complete change history
+        var inputStream = new SequenceInputStream(new ByteBufferInputStream(header),
+                                                  new ByteBufferInputStream(chunk));
+        var changeLog = new BinaryOWLOntologyChangeLog();
+        changeLog.readChanges(inputStream,
+                              dataFactory,
+                              (changeRecordList, skipSetting, filePosition) -> revisions.add(revisionFactory.apply(changeRecordList)),
+                              SKIP_NONE);
+        if(revisions.size() != expectedRevisionCount) {
+            throw new IllegalStateException(String.format("Expected %d revisions in chunk but found %d",
+                                                          expectedRevisionCount,
+                                                          revisions.size()));
+        }
+        return revisions;
+    }
+
+    private List<Revision> decodeSequentially(Function<OntologyChangeRecordList, Revision> revisionFactory) throws IOException {
+        var revisions = new ArrayList<Revision>();
+        try(var inputStream = new BufferedInputStream(new FileInputStream(changeHistoryFile))) {
+            var changeLog = new BinaryOWLOntologyChangeLog();
+            changeLog.readChanges(inputStream,
+                                  dataFactory,
+                                  (changeRecordList, skipSetting, filePosition) -> revisions.add(revisionFactory.apply(changeRecordList)),
+                                  SKIP_NONE);
+        }
+        return revisions;
+    }
+}
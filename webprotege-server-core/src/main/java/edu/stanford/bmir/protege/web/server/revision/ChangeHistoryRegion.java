@@ -0,0 +1,30 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * The region of the change history file that a revision was written to.
+ */
+@AutoValue
+public abstract class ChangeHistoryRegion {
+
+    @Nonnull
+    public static ChangeHistoryRegion get(long offset, long length) {
+        return new AutoValue_ChangeHistoryRegion(offset, length);
+    }
+
+    /**
+     * The offset, in bytes, of the start of the revision's record.
+     */
+    public abstract long getOffset();
+
+    /**
+     * The length, in bytes, of the revision's record.
+     */
+    public abstract long getLength();
+}
@@ -0,0 +1,93 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * An append only list that stores its elements in fixed size chunks.  Appending an element never copies
+ * existing elements (only the, comparatively small, array of chunk references is occasionally grown), so
+ * appending is O(1).  Snapshots of the list are immutable, random access views that share chunks with the
+ * list.  A snapshot never sees elements that were appended after it was taken.
+ *
+ * This class is not thread safe.  Appends must be externally synchronized with each other and with
+ * the taking of snapshots.  Snapshots themselves may be freely shared between threads once they have
+ * been safely published.
+ */
+public class ChunkedAppendList<E> {
+
+    private static final int CHUNK_SHIFT = 10;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private Object[][] chunks = new Object[0][];
+
+    private int size = 0;
+
+    /**
+     * Appends the specified element to the end of this list.
+     * @param element The element.  Not {@code null}.
+     */
+    public void append(@Nonnull E element) {
+        checkNotNull(element);
+        int chunkIndex = size >>> CHUNK_SHIFT;
+        if(chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(4, chunks.length * 2));
+        }
+        if(chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = new Object[CHUNK_SIZE];
+        }
+        chunks[chunkIndex][size & CHUNK_MASK] = element;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets an immutable snapshot of the elements that are currently in this list.
+     */
+    @Nonnull
+    public List<E> snapshot() {
+        return new Snapshot<>(chunks, size);
+    }
+
+    private static class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+
+        private final Object[][] chunks;
+
+        private final int size;
+
+        private Snapshot(Object[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return (E) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
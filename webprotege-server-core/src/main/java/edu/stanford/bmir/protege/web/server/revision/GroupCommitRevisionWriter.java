@@ -0,0 +1,456 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.shared.HasDispose;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
+import org.semanticweb.binaryowl.BinaryOWLVersion;
+import org.semanticweb.binaryowl.chunk.SkipSetting;
+import org.semanticweb.binaryowl.stream.BinaryOWLOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.file.StandardOpenOption.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Writes revisions to the change history in groups.  Revisions are queued and a background thread collects
+ * them into batches.  A batch is closed when it reaches the maximum batch size or when the maximum latency
+ * has elapsed since its first revision was collected.  Each batch is appended to the change history through
+ * a single open {@link FileChannel}, which is synced once per batch.
+ *
+ * Each batch is encoded into an in-memory buffer, preceded by the change history header if the change history is
+ * empty, and the buffer is then appended to the change history with a single write.  The header is taken, once,
+ * from a change log that is written by the binary OWL change log into a scratch file next to the change history.
+ * If a batch cannot be written then the change history is truncated back to the length that it had before the
+ * batch, so that later batches are not appended after a partially written one.
+ *
+ * The queue depth and commit latencies are available from {@link #getMetrics()} and are logged every
+ * {@value #METRICS_LOGGING_INTERVAL} batches.
+ */
+public class GroupCommitRevisionWriter implements HasDispose {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitRevisionWriter.class);
+
+    private static final String SCRATCH_FILE_SUFFIX = ".batch";
+
+    private static final long SLOW_COMMIT_THRESHOLD_MILLIS = 1000;
+
+    private static final int METRICS_LOGGING_INTERVAL = 100;
+
+    /**
+     * The version of the binary OWL format that the change log is written in
+     */
+    private static final BinaryOWLVersion BINARY_OWL_VERSION = BinaryOWLVersion.getVersion(1);
+
+    /**
+     * Placed on the queue to tell the writer thread to stop
+     */
+    private static final PendingRevision STOP = new PendingRevision(
+            Revision.createEmptyRevisionWithRevisionNumber(RevisionNumber.getRevisionNumber(0)),
+            new CompletableFuture<>());
+
+    private final ProjectId projectId;
+
+    private final File changeHistoryFile;
+
+    private final File scratchFile;
+
+    private final RevisionWriterSettings settings;
+
+    private final ExecutorService writerExecutor;
+
+    private final BlockingQueue<PendingRevision> queue = new LinkedBlockingQueue<>();
+
+    /**
+     * Futures for revisions that have been submitted but not yet committed, keyed by revision number
+     */
+    private final ConcurrentSkipListMap<Long, CompletableFuture<ChangeHistoryRegion>> pendingRevisions = new ConcurrentSkipListMap<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean disposed = false;
+
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final AtomicLong revisionCount = new AtomicLong();
+
+    private final AtomicLong lastCommitLatency = new AtomicLong();
+
+    private final AtomicLong maxCommitLatency = new AtomicLong();
+
+    private final AtomicLong totalCommitLatency = new AtomicLong();
+
+    /**
+     * The header that begins a change history.  Only accessed by the writer thread.
+     */
+    @Nullable
+    private byte[] header;
+
+    /**
+     * The open change history.  Only accessed by the writer thread.
+     */
+    @Nullable
+    private FileChannel changeHistoryChannel;
+
+    public GroupCommitRevisionWriter(@Nonnull ProjectId projectId,
+                                     @Nonnull File changeHistoryFile,
+                                     @Nonnull RevisionWriterSettings settings) {
+        this.projectId = checkNotNull(projectId);
+        this.changeHistoryFile = checkNotNull(changeHistoryFile);
+        this.settings = checkNotNull(settings);
+        this.scratchFile = new File(changeHistoryFile.getParentFile(), changeHistoryFile.getName() + SCRATCH_FILE_SUFFIX);
+        this.writerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName(thread.getName().replace("thread", "change-writer-thread"));
+            return thread;
+        });
+    }
+
+    /**
+     * Submits a revision to be written to the change history.  Revisions must be submitted in
+     * revision number order.
+     * @param revision The revision.
+     * @return A future that completes, with the region of the change history that the revision was written
+     * to, once the revision has been written and synced.
+     */
+    @Nonnull
+    public CompletableFuture<ChangeHistoryRegion> submit(@Nonnull Revision revision) {
+        checkNotNull(revision);
+        checkState(!disposed, "The revision writer has been disposed");
+        var future = new CompletableFuture<ChangeHistoryRegion>();
+        pendingRevisions.put(revision.getRevisionNumber().getValue(), future);
+        queue.add(new PendingRevision(revision, future));
+        if(started.compareAndSet(false, true)) {
+            writerExecutor.submit(this::writeBatches);
+        }
+        return future;
+    }
+
+    /**
+     * Gets a future that completes when the specified revision, and all revisions before it,
+     * have been synced to the change history.
+     * @param revisionNumber The revision number.  The head revision number denotes the most recently
+     *                       submitted revision.
+     */
+    @Nonnull
+    public CompletableFuture<Void> whenDurable(@Nonnull RevisionNumber revisionNumber) {
+        var pendingRevision = revisionNumber.isHead() ? pendingRevisions.lastEntry() : pendingRevisions.floorEntry(revisionNumber.getValue());
+        if(pendingRevision == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Batches are committed in order so, when this revision is durable, all previous ones are too
+        return pendingRevision.getValue().thenApply(region -> null);
+    }
+
+    @Nonnull
+    public RevisionWriterMetrics getMetrics() {
+        return RevisionWriterMetrics.get(queue.size(),
+                                         batchCount.get(),
+                                         revisionCount.get(),
+                                         lastCommitLatency.get(),
+                                         maxCommitLatency.get(),
+                                         totalCommitLatency.get());
+    }
+
+    private void writeBatches() {
+        try {
+            var stopped = false;
+            while(!stopped) {
+                var batch = new ArrayList<PendingRevision>();
+                stopped = collectBatch(batch);
+                if(!batch.isEmpty()) {
+                    commit(batch);
+                }
+            }
+        } catch(InterruptedException e) {
+            logger.warn("{} Revision writer interrupted", projectId);
+            Thread.currentThread().interrupt();
+        } finally {
+            closeChangeHistory();
+            var unwritten = new ArrayList<PendingRevision>();
+            queue.drainTo(unwritten);
+            unwritten.forEach(pendingRevision -> pendingRevision.future.completeExceptionally(
+                    new IOException("The revision writer was stopped before the revision was written")));
+        }
+    }
+
+    /**
+     * Collects a batch of revisions from the queue.
+     * @return true if the writer has been asked to stop, otherwise false.
+     */
+    private boolean collectBatch(List<PendingRevision> batch) throws InterruptedException {
+        var next = queue.take();
+        var deadline = System.nanoTime() + MILLISECONDS.toNanos(settings.getMaxLatencyMillis());
+        while(next != STOP) {
+            batch.add(next);
+            if(batch.size() >= settings.getMaxBatchSize()) {
+                return false;
+            }
+            next = queue.poll();
+            if(next == null) {
+                var remaining = deadline - System.nanoTime();
+                if(remaining <= 0) {
+                    return false;
+                }
+                next = queue.poll(remaining, NANOSECONDS);
+                if(next == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void commit(List<PendingRevision> batch) {
+        var stopwatch = Stopwatch.createStarted();
+        List<ChangeHistoryRegion> regions = null;
+        IOException error = null;
+        try {
+            regions = write(batch);
+        } catch(IOException e) {
+            error = e;
+        } catch(RuntimeException e) {
+            error = new IOException(e);
+        }
+        stopwatch.stop();
+        recordCommit(batch.size(), stopwatch.elapsed(MILLISECONDS));
+        if(error != null) {
+            logger.error("{} An error occurred whilst writing {} revisions to the change history.  Cause: {}",
+                         projectId,
+                         batch.size(),
+                         error.getMessage(),
+                         error);
+            // The partially written batch has been discarded.  Start afresh with the next batch.
+            closeChangeHistory();
+        }
+        for(int i = 0; i < batch.size(); i++) {
+            var pendingRevision = batch.get(i);
+            if(regions != null) {
+                pendingRevision.future.complete(regions.get(i));
+            }
+            else {
+                pendingRevision.future.completeExceptionally(error);
+            }
+            pendingRevisions.remove(pendingRevision.revision.getRevisionNumber().getValue(), pendingRevision.future);
+        }
+    }
+
+    private void recordCommit(int batchSize, long latency) {
+        batchCount.incrementAndGet();
+        revisionCount.addAndGet(batchSize);
+        lastCommitLatency.set(latency);
+        maxCommitLatency.accumulateAndGet(latency, Math::max);
+        totalCommitLatency.addAndGet(latency);
+        var queueDepth = queue.size();
+        if(latency > SLOW_COMMIT_THRESHOLD_MILLIS) {
+            logger.info("{} Committed {} revisions to the change history in {} ms (queue depth: {})",
+                        projectId, batchSize, latency, queueDepth);
+        }
+        else {
+            logger.debug("{} Committed {} revisions to the change history in {} ms (queue depth: {})",
+                         projectId, batchSize, latency, queueDepth);
+        }
+        logMetricsIfNecessary();
+    }
+
+    private void logMetricsIfNecessary() {
+        if(batchCount.get() % METRICS_LOGGING_INTERVAL != 0) {
+            return;
+        }
+        var metrics = getMetrics();
+        logger.info("{} Revision writer: {} revisions in {} batches, commit latency {} ms mean, {} ms max, " +
+                            "{} ms last (queue depth: {})",
+                    projectId,
+                    metrics.getRevisionCount(),
+                    metrics.getBatchCount(),
+                    String.format("%.1f", metrics.getMeanCommitLatencyMillis()),
+                    metrics.getMaxCommitLatencyMillis(),
+                    metrics.getLastCommitLatencyMillis(),
+                    metrics.getQueueDepth());
+    }
+
+    private List<ChangeHistoryRegion> write(List<PendingRevision> batch) throws IOException {
+        var changeHistoryChannel = getChangeHistoryChannel();
+        var changeHistoryStart = changeHistoryChannel.size();
+        var buffer = new BatchBuffer();
+        if(changeHistoryStart == 0) {
+            // A new change history needs a header
+            buffer.write(getHeader());
+        }
+        var regions = new ArrayList<ChangeHistoryRegion>(batch.size());
+        for(var pendingRevision : batch) {
+            var start = buffer.size();
+            buffer.writeRevision(pendingRevision.revision);
+            regions.add(ChangeHistoryRegion.get(changeHistoryStart + start, buffer.size() - start));
+        }
+        try {
+            var bytes = buffer.toByteBuffer();
+            while(bytes.hasRemaining()) {
+                write(bytes, changeHistoryChannel);
+            }
+            changeHistoryChannel.force(true);
+        } catch(IOException | RuntimeException e) {
+            discardPartialBatch(changeHistoryChannel, changeHistoryStart, e);
+            throw e;
+        }
+        return regions;
+    }
+
+    /**
+     * Writes encoded revisions to the change history.
+     * @return The number of bytes that were written.
+     */
+    int write(@Nonnull ByteBuffer source,
+              @Nonnull FileChannel target) throws IOException {
+        return target.write(source);
+    }
+
+    /**
+     * Truncates the change history to the length that it had before a batch was appended to it, so that
+     * the bytes of a partially written batch do not corrupt the change history.
+     */
+    private void discardPartialBatch(@Nonnull FileChannel changeHistoryChannel,
+                                     long changeHistoryStart,
+                                     @Nonnull Exception cause) {
+        try {
+            changeHistoryChannel.truncate(changeHistoryStart);
+            changeHistoryChannel.force(true);
+        } catch(IOException e) {
+            logger.error("{} Could not discard a partially written batch of revisions.  " +
+                                 "The change history may be corrupt.  Cause: {}",
+                         projectId,
+                         e.getMessage(),
+                         e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Gets the header that begins a change history.  The header is obtained by having the binary OWL change log
+     * write a change history, containing a single empty revision, to the scratch file.  The header is everything
+     * before the position that the change log reports for the revision when it reads the file back.  The revision
+     * itself is used to check that revisions encoded by this writer match those encoded by the change log.
+     */
+    private byte[] getHeader() throws IOException {
+        if(header != null) {
+            return header;
+        }
+        try {
+            Files.deleteIfExists(scratchFile.toPath());
+            var probeRevision = Revision.createEmptyRevisionWithRevisionNumber(RevisionNumber.getRevisionNumber(0));
+            new RevisionSerializationTask(scratchFile, probeRevision).call();
+            var recordPositions = new ArrayList<Long>();
+            try(var inputStream = new BufferedInputStream(new FileInputStream(scratchFile))) {
+                new BinaryOWLOntologyChangeLog().readChanges(inputStream,
+                                                             new OWLDataFactoryImpl(),
+                                                             (changeRecordList, skipSetting, filePosition) -> recordPositions.add(filePosition),
+                                                             SkipSetting.SKIP_DATA);
+            }
+            var probeChangeHistory = Files.readAllBytes(scratchFile.toPath());
+            if(recordPositions.size() != 1) {
+                throw new IOException("Could not determine the length of the change history header");
+            }
+            var headerLength = Math.toIntExact(recordPositions.get(0));
+            var probeBuffer = new BatchBuffer();
+            probeBuffer.writeRevision(probeRevision);
+            var encodedProbeRevision = Arrays.copyOfRange(probeChangeHistory, headerLength, probeChangeHistory.length);
+            if(!Arrays.equals(probeBuffer.toByteArray(), encodedProbeRevision)) {
+                throw new IOException("Revisions are not encoded in the same way as the binary OWL change log encodes them");
+            }
+            header = Arrays.copyOf(probeChangeHistory, headerLength);
+            return header;
+        } finally {
+            Files.deleteIfExists(scratchFile.toPath());
+        }
+    }
+
+    private FileChannel getChangeHistoryChannel() throws IOException {
+        if(changeHistoryChannel == null) {
+            Files.createDirectories(changeHistoryFile.getParentFile().toPath());
+            changeHistoryChannel = FileChannel.open(changeHistoryFile.toPath(), CREATE, WRITE, APPEND);
+        }
+        return changeHistoryChannel;
+    }
+
+    private void closeChangeHistory() {
+        if(changeHistoryChannel == null) {
+            return;
+        }
+        try {
+            changeHistoryChannel.close();
+        } catch(IOException e) {
+            logger.warn("{} Could not close change history.  Cause: {}", projectId, e.getMessage());
+        }
+        changeHistoryChannel = null;
+    }
+
+    /**
+     * Stops the writer.  Revisions that have already been submitted are written before the writer stops.
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+        if(started.get()) {
+            queue.add(STOP);
+        }
+        writerExecutor.shutdown();
+    }
+
+    /**
+     * A buffer that revisions are encoded into, in the binary OWL change log format, before they are appended
+     * to the change history.
+     */
+    private static class BatchBuffer extends ByteArrayOutputStream {
+
+        private final DataOutputStream dataOutputStream = new DataOutputStream(this);
+
+        private final BinaryOWLOutputStream outputStream = new BinaryOWLOutputStream(dataOutputStream,
+                                                                                     BINARY_OWL_VERSION);
+
+        private void writeRevision(@Nonnull Revision revision) throws IOException {
+            RevisionSerializationTask.toChangeRecordList(revision).write(outputStream);
+            dataOutputStream.flush();
+        }
+
+        /**
+         * Gets a view of the buffered bytes without copying them
+         */
+        private ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    private static class PendingRevision {
+
+        private final Revision revision;
+
+        private final CompletableFuture<ChangeHistoryRegion> future;
+
+        private PendingRevision(Revision revision, CompletableFuture<ChangeHistoryRegion> future) {
+            this.revision = revision;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import edu.stanford.bmir.protege.web.server.inject.project.ChangeHistoryFile;
+import edu.stanford.bmir.protege.web.shared.HasDispose;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
+import org.semanticweb.binaryowl.change.OntologyChangeRecordList;
+import org.semanticweb.binaryowl.chunk.SkipSetting;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializationVocabulary.*;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * A {@link RevisionStore} that only holds a compact index of revisions in memory.  The index records the revision
+ * number, file offset, timestamp, user and description of each revision.  It is built from the change history
+ * without decoding any change records.  The change records of a revision are decoded on demand from the memory
+ * mapped change history file and a bounded number of decoded revisions are cached.  This means that the heap that is used by a project scales with the size of its
+ * ontologies rather than with the size of its history.
+ */
+public class LazyRevisionStoreImpl implements RevisionStore, HasDispose {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyRevisionStoreImpl.class);
+
+    private final GroupCommitRevisionWriter revisionWriter;
+
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    private final Lock readLock = readWriteLock.readLock();
+
+    private final Lock writeLock = readWriteLock.writeLock();
+
+    private final ProjectId projectId;
+
+    private final OWLDataFactory dataFactory;
+
+    private final File changeHistoryFile;
+
+    private final Cache<RevisionNumber, Revision> decodedRevisions;
+
+    private final Interner<UserId> userIdInterner = Interners.newStrongInterner();
+
+    private final ChunkedAppendList<IndexEntry> index = new ChunkedAppendList<>();
+
+    /**
+     * An immutable snapshot of the index entries.  This is replaced every time an entry is appended.
+     */
+    private volatile List<IndexEntry> entries = ImmutableList.of();
+
+    /**
+     * The length of the change history header, or -1 if it is not known.  The header
+     * is prepended to a revision's bytes when the revision is decoded.
+     */
+    private volatile long headerLength = -1;
+
+    @Nullable
+    private FileChannel changeHistoryChannel;
+
+    @Nullable
+    private MappedByteBuffer mappedChangeHistory;
+
+    @Inject
+    public LazyRevisionStoreImpl(@Nonnull ProjectId projectId,
+                                 @Nonnull @ChangeHistoryFile File changeHistoryFile,
+                                 @Nonnull OWLDataFactory dataFactory,
+                                 @Nonnull RevisionStoreSettings settings,
+                                 @Nonnull RevisionWriterSettings revisionWriterSettings) {
+        this.projectId = checkNotNull(projectId);
+        this.dataFactory = checkNotNull(dataFactory);
+        this.changeHistoryFile = checkNotNull(changeHistoryFile);
+        this.decodedRevisions = Caffeine.newBuilder()
+                                        .maximumSize(settings.getDecodedRevisionCacheSize())
+                                        .build();
+        this.revisionWriter = new GroupCommitRevisionWriter(projectId, changeHistoryFile, revisionWriterSettings);
+    }
+
+    @Nonnull
+    @Override
+    public List<Revision> getRevisions() {
+        return new RevisionListView(entries);
+    }
+
+    @Nonnull
+    @Override
+    public List<RevisionSummary> getRevisionSummaries() {
+        return entries.stream()
+                      .map(this::toRevisionSummary)
+                      .collect(toImmutableList());
+    }
+
+    private RevisionSummary toRevisionSummary(IndexEntry entry) {
+        var changeCount = entry.changeCount;
+        if(changeCount == IndexEntry.UNKNOWN_CHANGE_COUNT) {
+            changeCount = getRevision(entry).getSize();
+            entry.changeCount = changeCount;
+        }
+        return new RevisionSummary(entry.revisionNumber, entry.userId, entry.timestamp, changeCount, entry.description);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Revision> getRevision(@Nonnull RevisionNumber revisionNumber) {
+        var entries = this.entries;
+        int index = getIndexForRevision(entries, revisionNumber);
+        if(index < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(getRevision(entries.get(index)));
+    }
+
+    private static int getIndexForRevision(@Nonnull List<IndexEntry> entries,
+                                           @Nonnull RevisionNumber revisionNumber) {
+        if(entries.isEmpty()) {
+            return -1;
+        }
+        if(revisionNumber.isHead()) {
+            return entries.size() - 1;
+        }
+        int low = 0;
+        int high = entries.size() - 1;
+        while(low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = entries.get(mid).revisionNumber.compareTo(revisionNumber);
+            if(cmp < 0) {
+                low = mid + 1;
+            }
+            else if(cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void addRevision(@Nonnull Revision revision) {
+        checkNotNull(revision);
+        try {
+            writeLock.lock();
+            if(revision.getRevisionNumber().compareTo(getCurrentRevisionNumber()) <= 0) {
+                throw new IllegalArgumentException(String.format("Revision number (%d) must be greater than the current revision number (%d)", revision
+                        .getRevisionNumber()
+                        .getValue(), getCurrentRevisionNumber().getValue()));
+            }
+            var entry = new IndexEntry(revision.getRevisionNumber(),
+                                       revision.getTimestamp(),
+                                       userIdInterner.intern(revision.getUserId()),
+                                       revision.getSize(),
+                                       revision.getHighLevelDescription());
+            // Held in memory until it has been written to the change history
+            entry.pendingRevision = revision;
+            appendEntry(entry);
+            persistChanges(entry, revision);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void appendEntry(IndexEntry entry) {
+        index.append(entry);
+        entries = index.snapshot();
+    }
+
+    @Nonnull
+    @Override
+    public RevisionNumber getCurrentRevisionNumber() {
+        try {
+            readLock.lock();
+            var entries = this.entries;
+            if(entries.isEmpty()) {
+                return RevisionNumber.getRevisionNumber(0);
+            }
+            return entries.get(entries.size() - 1).revisionNumber;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> whenPersisted(@Nonnull RevisionNumber revisionNumber) {
+        return revisionWriter.whenDurable(revisionNumber);
+    }
+
+    private void persistChanges(IndexEntry entry, Revision revision) {
+        var persisted = revisionWriter.submit(revision)
+                                      .thenAccept(region -> handleRevisionPersisted(entry, region));
+        if(index.size() == 1) {
+            // Save immediately
+            try {
+                logger.info("{} Saving first revision of project", projectId);
+                persisted.join();
+            } catch(CompletionException e) {
+                logger.error("{} An error occurred whilst saving the first revision of the project.  Cause: {}.", projectId, e
+                        .getCause().getMessage(), e);
+            }
+        }
+    }
+
+    private synchronized void handleRevisionPersisted(IndexEntry entry, ChangeHistoryRegion region) {
+        if(headerLength == -1 && entries.get(0) == entry) {
+            // The revision was written to a new change history, directly after the header
+            headerLength = region.getOffset();
+        }
+        if(headerLength != -1) {
+            entry.offset = region.getOffset();
+            entry.length = region.getLength();
+            entry.pendingRevision = null;
+        }
+        // Otherwise, the change history could not be indexed when it was loaded.  The
+        // revision stays in memory until the next time the project is loaded.
+    }
+
+    public void load() {
+        try {
+            writeLock.lock();
+            if(!changeHistoryFile.exists()) {
+                changeHistoryFile.getParentFile().mkdirs();
+                return;
+            }
+            try {
+                logger.info("{} Indexing change history", projectId);
+                var stopwatch = Stopwatch.createStarted();
+                var indexEntries = new ArrayList<IndexEntry>();
+                var offsets = new ArrayList<Long>();
+                // Only the metadata of each revision is read here.  Change records are decoded on demand.
+                readChangeHistory((changeRecordList, filePosition) -> {
+                    indexEntries.add(toIndexEntry(changeRecordList));
+                    offsets.add(filePosition);
+                }, SkipSetting.SKIP_DATA);
+                var fileLength = changeHistoryFile.length();
+                for(int i = 0; i < indexEntries.size(); i++) {
+                    var entry = indexEntries.get(i);
+                    entry.offset = offsets.get(i);
+                    entry.length = (i + 1 < offsets.size() ? offsets.get(i + 1) : fileLength) - entry.offset;
+                    appendEntry(entry);
+                }
+                if(!index.isEmpty()) {
+                    headerLength = entries.get(0).offset;
+                }
+                if(!isIndexDecodable()) {
+                    logger.warn("{} The change history index could not be used to decode revisions.  " +
+                                        "Revisions will be held in memory.", projectId);
+                    headerLength = -1;
+                    var counter = new int[1];
+                    readChangeHistory((changeRecordList, filePosition) -> {
+                        var revision = toRevision(changeRecordList);
+                        var entry = entries.get(counter[0]);
+                        entry.pendingRevision = revision;
+                        entry.changeCount = revision.getSize();
+                        counter[0]++;
+                    }, SkipSetting.SKIP_NONE);
+                }
+                stopwatch.stop();
+                logger.info("{} Change history loading complete.  Loaded {} revisions in {} ms.", projectId, index.size(), stopwatch
+                        .elapsed(TimeUnit.MILLISECONDS));
+
+            } catch(Exception e) {
+                logger.error("{} Failed to load change history for project.  Cause: {}", projectId, e.getMessage(), e);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void readChangeHistory(ChangeRecordListHandler handler,
+                                   SkipSetting skipSetting) throws Exception {
+        try(var inputStream = new BufferedInputStream(new FileInputStream(changeHistoryFile))) {
+            var changeLog = new BinaryOWLOntologyChangeLog();
+            changeLog.readChanges(inputStream,
+                                  dataFactory,
+                                  (changeRecordList, skip, filePosition) -> handler.handle(changeRecordList, filePosition),
+                                  skipSetting);
+        }
+    }
+
+    /**
+     * Sanity checks the index by decoding the first and last revisions
+     */
+    private boolean isIndexDecodable() {
+        var entries = this.entries;
+        if(entries.isEmpty()) {
+            return true;
+        }
+        if(headerLength <= 0) {
+            return false;
+        }
+        for(int i = 1; i < entries.size(); i++) {
+            if(entries.get(i).offset <= entries.get(i - 1).offset) {
+                return false;
+            }
+        }
+        try {
+            decode(entries.get(0));
+            decode(entries.get(entries.size() - 1));
+            return true;
+        } catch(RuntimeException e) {
+            logger.warn("{} Could not decode revision from change history index.  Cause: {}", projectId, e.getMessage());
+            return false;
+        }
+    }
+
+    private Revision getRevision(IndexEntry entry) {
+        var pendingRevision = entry.pendingRevision;
+        if(pendingRevision != null) {
+            return pendingRevision;
+        }
+        return decodedRevisions.get(entry.revisionNumber, revisionNumber -> decode(entry));
+    }
+
+    private Revision decode(IndexEntry entry) {
+        try {
+            var header = getMappedRegion(0, headerLength);
+            var record = getMappedRegion(entry.offset, entry.length);
+            var inputStream = new SequenceInputStream(new ByteBufferInputStream(header),
+                                                      new ByteBufferInputStream(record));
+            var decoded = new ArrayList<Revision>(1);
+            var changeLog = new BinaryOWLOntologyChangeLog();
+            changeLog.readChanges(inputStream,
+                                  dataFactory,
+                                  (changeRecordList, skipSetting, filePosition) -> decoded.add(toRevision(changeRecordList)),
+                                  SkipSetting.SKIP_NONE);
+            if(decoded.size() != 1 || !decoded.get(0).getRevisionNumber().equals(entry.revisionNumber)) {
+                throw new IllegalStateException("Decoded revision does not match revision " + entry.revisionNumber.getValue());
+            }
+            entry.changeCount = decoded.get(0).getSize();
+            return decoded.get(0);
+        } catch(RuntimeException e) {
+            throw e;
+        } catch(Exception e) {
+            throw new RuntimeException("Could not decode revision " + entry.revisionNumber.getValue(), e);
+        }
+    }
+
+    private synchronized ByteBuffer getMappedRegion(long position, long length) throws IOException {
+        if(changeHistoryChannel == null) {
+            changeHistoryChannel = FileChannel.open(changeHistoryFile.toPath(), StandardOpenOption.READ);
+        }
+        var end = position + length;
+        if(mappedChangeHistory == null || mappedChangeHistory.capacity() < end) {
+            var fileLength = changeHistoryChannel.size();
+            if(fileLength > Integer.MAX_VALUE) {
+                // Too big to map in one go.  Just map the region.
+                return changeHistoryChannel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            }
+            mappedChangeHistory = changeHistoryChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileLength);
+        }
+        var region = mappedChangeHistory.duplicate();
+        region.position((int) position);
+        region.limit((int) end);
+        return region.slice();
+    }
+
+    private Revision toRevision(OntologyChangeRecordList changeRecordList) {
+        var metadata = changeRecordList.getMetadata();
+        var userName = metadata.getStringAttribute(USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), "");
+        var revisionNumberValue = metadata.getLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 0L);
+        var revisionNumber = RevisionNumber.getRevisionNumber(revisionNumberValue);
+        var description = metadata.getStringAttribute(DESCRIPTION_META_DATA_ATTRIBUTE.getVocabularyName(), "");
+        var userId = userIdInterner.intern(UserId.getUserId(userName));
+        return new Revision(userId,
+                            revisionNumber,
+                            ImmutableList.copyOf(changeRecordList.getChangeRecords()),
+                            changeRecordList.getTimestamp(),
+                            description);
+    }
+
+    /**
+     * Creates an index entry from a change record list whose change records have been skipped.  The
+     * change count is not known until the revision is decoded.
+     */
+    private IndexEntry toIndexEntry(OntologyChangeRecordList changeRecordList) {
+        var metadata = changeRecordList.getMetadata();
+        var userName = metadata.getStringAttribute(USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), "");
+        var revisionNumberValue = metadata.getLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 0L);
+        var description = metadata.getStringAttribute(DESCRIPTION_META_DATA_ATTRIBUTE.getVocabularyName(), "");
+        return new IndexEntry(RevisionNumber.getRevisionNumber(revisionNumberValue),
+                              changeRecordList.getTimestamp(),
+                              userIdInterner.intern(UserId.getUserId(userName)),
+                              IndexEntry.UNKNOWN_CHANGE_COUNT,
+                              description);
+    }
+
+    @Override
+    public void dispose() {
+        revisionWriter.dispose();
+        synchronized (this) {
+            try {
+                if(changeHistoryChannel != null) {
+                    changeHistoryChannel.close();
+                }
+            } catch(IOException e) {
+                logger.warn("{} Could not close change history.  Cause: {}", projectId, e.getMessage());
+            }
+            changeHistoryChannel = null;
+            mappedChangeHistory = null;
+        }
+    }
+
+    private interface ChangeRecordListHandler {
+
+        void handle(OntologyChangeRecordList changeRecordList, long filePosition);
+    }
+
+    /**
+     * An entry in the revision index
+     */
+    private static class IndexEntry {
+
+        private static final int UNKNOWN_CHANGE_COUNT = -1;
+
+        private final RevisionNumber revisionNumber;
+
+        private final long timestamp;
+
+        private final UserId userId;
+
+        private final String description;
+
+        /**
+         * The number of changes in the revision, or {@link #UNKNOWN_CHANGE_COUNT} if the revision has
+         * not been decoded yet.
+         */
+        private volatile int changeCount;
+
+        private volatile long offset = -1;
+
+        private volatile long length = -1;
+
+        @Nullable
+        private volatile Revision pendingRevision;
+
+        private IndexEntry(RevisionNumber revisionNumber,
+                           long timestamp,
+                           UserId userId,
+                           int changeCount,
+                           String description) {
+            this.revisionNumber = revisionNumber;
+            this.timestamp = timestamp;
+            this.userId = userId;
+            this.changeCount = changeCount;
+            this.description = description;
+        }
+    }
+
+    /**
+     * An immutable list view of a prefix of the index.  Revisions are decoded as they are retrieved.
+     */
+    private class RevisionListView extends AbstractList<Revision> implements RandomAccess {
+
+        private final List<IndexEntry> entries;
+
+        private RevisionListView(List<IndexEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Revision get(int index) {
+            return getRevision(entries.get(index));
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+}
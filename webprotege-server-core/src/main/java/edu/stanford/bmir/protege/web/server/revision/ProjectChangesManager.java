@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.gwt.safehtml.shared.SafeHtml;
 import edu.stanford.bmir.protege.web.server.axiom.AxiomIRISubjectProvider;
 import edu.stanford.bmir.protege.web.server.diff.DiffElementRenderer;
@@ -84,7 +85,7 @@ public class ProjectChangesManager {
 
     public Page<ProjectChange> getProjectChanges(Optional<OWLEntity> subject,
                                                  PageRequest pageRequest) {
-        ImmutableList<Revision> revisions = revisionManager.getRevisions();
+        List<Revision> revisions = revisionManager.getRevisions();
         if (subject.isPresent()) {
             // We need to scan revisions to find the ones containing a particular subject
             // We ignore the page request here.
@@ -100,7 +101,7 @@ public class ProjectChangesManager {
         else {
             // Pages are in reverse order
             ImmutableList.Builder<ProjectChange> changes = ImmutableList.builder();
-            revisions.reverse().stream()
+            Lists.reverse(revisions).stream()
                     .skip(pageRequest.getSkip())
                     .limit(pageRequest.getPageSize())
                     .forEach(revision -> getProjectChangesForRevision(revision, subject, changes));
@@ -1,6 +1,5 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
-import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.change.HasGetRevisionSummary;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
@@ -12,6 +11,7 @@ import org.semanticweb.owlapi.model.OWLOntologyManager;
 import javax.annotation.Nonnull;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Matthew Horridge
@@ -52,11 +52,12 @@ public interface RevisionManager extends HasGetRevisionSummary {
 
     /**
      * Gets a list of revisions held by this manager.
-     * @return The list of revisions.  Modifications to the returned list will not affect the revisions contained
-     * within this manager.
+     * @return The list of revisions.  The list is an immutable snapshot of the revisions contained within this
+     * manager.  Revisions may be decoded on demand as they are retrieved from the list, so callers that only need
+     * summaries should use {@link #getRevisionSummaries()}.
      */
     @Nonnull
-    ImmutableList<Revision> getRevisions();
+    List<Revision> getRevisions();
 
     @Nonnull
     OWLOntologyManager getOntologyManagerForRevision(@Nonnull RevisionNumber revision);
@@ -77,4 +78,11 @@ public interface RevisionManager extends HasGetRevisionSummary {
                          @Nonnull List<? extends OWLOntologyChangeRecord> changes,
                          @Nonnull String desc);
 
+    /**
+     * Gets a future that completes once the specified revision, and all of the revisions before it, have been
+     * durably written to the change history.
+     * @param revisionNumber The revision number.  Not {@code null}.
+     */
+    @Nonnull
+    CompletableFuture<Void> whenPersisted(@Nonnull RevisionNumber revisionNumber);
 }
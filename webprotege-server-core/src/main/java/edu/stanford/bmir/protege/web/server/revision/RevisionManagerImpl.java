@@ -11,17 +11,21 @@ import org.semanticweb.owlapi.model.OWLOntologyChange;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static java.util.stream.Collectors.toList;
 
 /**
  * Author: Matthew Horridge<br>
@@ -32,6 +36,8 @@ import static java.util.stream.Collectors.toList;
 @ProjectSingleton
 public class RevisionManagerImpl implements RevisionManager {
 
+    private static final Logger logger = LoggerFactory.getLogger(RevisionManagerImpl.class);
+
     private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
     private final Lock readLock = readWriteLock.readLock();
@@ -40,9 +46,13 @@ public class RevisionManagerImpl implements RevisionManager {
 
     private final RevisionStore revisionStore;
 
+    private final RevisionSnapshotStore snapshotStore;
+
     @Inject
-    public RevisionManagerImpl(@Nonnull RevisionStore revisionStore) {
+    public RevisionManagerImpl(@Nonnull RevisionStore revisionStore,
+                               @Nonnull RevisionSnapshotStore snapshotStore) {
         this.revisionStore = checkNotNull(revisionStore);
+        this.snapshotStore = checkNotNull(snapshotStore);
     }
 
     @Nonnull
@@ -62,6 +72,7 @@ public class RevisionManagerImpl implements RevisionManager {
                     timestamp,
                     highlevelDescription);
             revisionStore.addRevision(revision);
+            snapshotStore.submitSnapshotIfDue(revisionNumber, () -> getOntologyManagerForRevision(revisionNumber));
             return revision;
         } finally {
             writeLock.unlock();
@@ -75,26 +86,48 @@ public class RevisionManagerImpl implements RevisionManager {
         return revisionStore.getCurrentRevisionNumber();
     }
 
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> whenPersisted(@Nonnull RevisionNumber revisionNumber) {
+        return revisionStore.whenPersisted(checkNotNull(revisionNumber));
+    }
+
     @Nonnull
     @Override
     public OWLOntologyManager getOntologyManagerForRevision(@Nonnull RevisionNumber revision) {
         try {
-            OWLOntologyManager manager = WebProtegeOWLManager.createOWLOntologyManager();
             final OWLOntologyID singletonOntologyId = new OWLOntologyID();
-            for (Revision rev : revisionStore.getRevisions()) {
-                if (rev.getRevisionNumber().compareTo(revision) <= 0) {
-                    for (OWLOntologyChangeRecord record : rev) {
-                        // Anonymous ontologies are not handled nicely at all.
-                        OWLOntologyChangeRecord normalisedChangeRecord = normaliseChangeRecord(record,
-                                                                                               singletonOntologyId);
-                        OWLOntologyID ontologyId = normalisedChangeRecord.getOntologyID();
-                        if (!manager.contains(ontologyId)) {
-                            manager.createOntology(ontologyId);
-                        }
-
-                        OWLOntologyChange change = normalisedChangeRecord.createOntologyChange(manager);
-                        manager.applyChange(change);
+            OWLOntologyManager manager = WebProtegeOWLManager.createOWLOntologyManager();
+            // Start from the nearest snapshot, if there is one, and then replay the remaining revisions
+            RevisionNumber startRevision = RevisionNumber.getRevisionNumber(0);
+            Optional<RevisionNumber> snapshotRevision = snapshotStore.getNearestSnapshot(revision);
+            if (snapshotRevision.isPresent()) {
+                try {
+                    snapshotStore.loadSnapshot(snapshotRevision.get(), manager, singletonOntologyId);
+                    startRevision = snapshotRevision.get();
+                } catch (IOException | OWLOntologyCreationException | RuntimeException e) {
+                    logger.error("Could not load snapshot of revision {}.  Replaying all revisions.  Cause: {}",
+                                 snapshotRevision.get().getValue(), e.getMessage(), e);
+                    manager = WebProtegeOWLManager.createOWLOntologyManager();
+                }
+            }
+            List<Revision> revisions = revisionStore.getRevisions();
+            for (int i = getIndexOfFirstRevisionAfter(revisions, startRevision); i < revisions.size(); i++) {
+                Revision rev = revisions.get(i);
+                if (rev.getRevisionNumber().compareTo(revision) > 0) {
+                    break;
+                }
+                for (OWLOntologyChangeRecord record : rev) {
+                    // Anonymous ontologies are not handled nicely at all.
+                    OWLOntologyChangeRecord normalisedChangeRecord = normaliseChangeRecord(record,
+                                                                                           singletonOntologyId);
+                    OWLOntologyID ontologyId = normalisedChangeRecord.getOntologyID();
+                    if (!manager.contains(ontologyId)) {
+                        manager.createOntology(ontologyId);
                     }
+
+                    OWLOntologyChange change = normalisedChangeRecord.createOntologyChange(manager);
+                    manager.applyChange(change);
                 }
             }
             if (manager.getOntologies().isEmpty()) {
@@ -107,6 +140,13 @@ public class RevisionManagerImpl implements RevisionManager {
         }
     }
 
+    private static int getIndexOfFirstRevisionAfter(List<Revision> revisions,
+                                                    RevisionNumber revisionNumber) {
+        int index = Collections.binarySearch(revisions,
+                                             Revision.createEmptyRevisionWithRevisionNumber(revisionNumber));
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
     private OWLOntologyChangeRecord normaliseChangeRecord(OWLOntologyChangeRecord changeRecord,
                                                           OWLOntologyID singletonAnonymousId) {
         OWLOntologyID ontologyID = changeRecord.getOntologyID();
@@ -121,7 +161,7 @@ public class RevisionManagerImpl implements RevisionManager {
 
     @Nonnull
     @Override
-    public ImmutableList<Revision> getRevisions() {
+    public List<Revision> getRevisions() {
         return revisionStore.getRevisions();
     }
 
@@ -141,23 +181,14 @@ public class RevisionManagerImpl implements RevisionManager {
     @Nonnull
     @Override
     public Optional<RevisionSummary> getRevisionSummary(@Nonnull RevisionNumber revisionNumber) {
-        Optional<Revision> revision = revisionStore.getRevision(revisionNumber);
-        if (!revision.isPresent()) {
-            return Optional.empty();
-        }
-        else {
-            return Optional.of(toRevisionSummary(revision.get()));
-        }
-
+        return revisionStore.getRevision(revisionNumber).map(RevisionManagerImpl::toRevisionSummary);
     }
 
 
     @Nonnull
     @Override
     public List<RevisionSummary> getRevisionSummaries() {
-        return revisionStore.getRevisions().stream()
-                            .map(RevisionManagerImpl::toRevisionSummary)
-                            .collect(toList());
+        return revisionStore.getRevisionSummaries();
     }
 
     private static RevisionSummary toRevisionSummary(Revision revision) {
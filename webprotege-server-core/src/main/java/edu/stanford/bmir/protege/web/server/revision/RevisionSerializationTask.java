@@ -26,13 +26,20 @@ public class RevisionSerializationTask implements Callable<Integer> {
     }
 
     public Integer call() throws IOException {
+        BinaryOWLOntologyChangeLog changeLog = new BinaryOWLOntologyChangeLog();
+        changeLog.appendChanges(toChangeRecordList(revision), file);
+        return 0;
+    }
+
+    /**
+     * Converts a revision into the change record list that is written to the change history.
+     */
+    static OntologyChangeRecordList toChangeRecordList(Revision revision) {
         BinaryOWLMetadata metadata = new BinaryOWLMetadata();
         metadata.setStringAttribute(RevisionSerializationVocabulary.USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), revision.getUserId().getUserName());
         metadata.setLongAttribute(RevisionSerializationVocabulary.REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), revision.getRevisionNumber().getValue());
         metadata.setStringAttribute(RevisionSerializationVocabulary.DESCRIPTION_META_DATA_ATTRIBUTE.getVocabularyName(), revision.getHighLevelDescription());
         metadata.setStringAttribute(RevisionSerializationVocabulary.REVISION_TYPE_META_DATA_ATTRIBUTE.getVocabularyName(), RevisionType.EDIT.name());
-        BinaryOWLOntologyChangeLog changeLog = new BinaryOWLOntologyChangeLog();
-        changeLog.appendChanges(new OntologyChangeRecordList(revision.getTimestamp(), metadata, revision.getChanges()), file);
-        return 0;
+        return new OntologyChangeRecordList(revision.getTimestamp(), metadata, revision.getChanges());
     }
 }
@@ -0,0 +1,55 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Settings that determine how often snapshots of a project's ontologies are written next to
+ * the change history.  A snapshot is due when either the number of revisions or the number
+ * of change history bytes since the last snapshot reaches its limit.  Only the most recent
+ * snapshots are retained.
+ */
+@AutoValue
+public abstract class RevisionSnapshotSettings {
+
+    @Nonnull
+    public static RevisionSnapshotSettings get(int revisionInterval,
+                                               long byteInterval,
+                                               int retainedSnapshots) {
+        checkArgument(revisionInterval > 0, "revisionInterval must be greater than zero");
+        checkArgument(byteInterval > 0, "byteInterval must be greater than zero");
+        checkArgument(retainedSnapshots > 0, "retainedSnapshots must be greater than zero");
+        return new AutoValue_RevisionSnapshotSettings(revisionInterval, byteInterval, retainedSnapshots);
+    }
+
+    /**
+     * Gets the number of revisions after which a snapshot is written.
+     */
+    public abstract int getRevisionInterval();
+
+    /**
+     * Gets the number of bytes that the change history may grow by before a snapshot is written.
+     */
+    public abstract long getByteInterval();
+
+    /**
+     * Gets the number of snapshots that are kept.  Older snapshots are deleted when a new snapshot is written.
+     */
+    public abstract int getRetainedSnapshots();
+
+    /**
+     * Determines whether a snapshot is due.
+     * @param revisionsSinceSnapshot The number of revisions since the last snapshot.
+     * @param bytesSinceSnapshot The number of change history bytes written since the last snapshot.
+     */
+    public boolean isSnapshotDue(long revisionsSinceSnapshot,
+                                 long bytesSinceSnapshot) {
+        return revisionsSinceSnapshot >= getRevisionInterval() || bytesSinceSnapshot >= getByteInterval();
+    }
+}
@@ -0,0 +1,295 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import edu.stanford.bmir.protege.web.shared.HasDispose;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.apache.commons.io.FileUtils;
+import org.semanticweb.binaryowl.BinaryOWLMetadata;
+import org.semanticweb.binaryowl.BinaryOWLOntologyDocumentSerializer;
+import org.semanticweb.binaryowl.BinaryOWLParseException;
+import org.semanticweb.binaryowl.owlapi.BinaryOWLOntologyBuildingHandler;
+import org.semanticweb.binaryowl.owlapi.OWLOntologyWrapper;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Stores snapshots of the ontologies of a project at specific revisions.  Snapshots are written,
+ * in the binary OWL format, to a directory next to the change history file.  Each snapshot is a
+ * directory that contains one ontology document per ontology.  A snapshot provides a starting
+ * point for reconstructing the ontologies at a given revision so that only the revisions
+ * after the snapshot need to be replayed.
+ */
+public class RevisionSnapshotStore implements HasDispose {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevisionSnapshotStore.class);
+
+    private static final String SNAPSHOTS_DIRECTORY_NAME = "snapshots";
+
+    private static final String SNAPSHOT_DIRECTORY_PREFIX = "revision-";
+
+    private static final String INCOMPLETE_SNAPSHOT_SUFFIX = ".tmp";
+
+    private static final String ONTOLOGY_DOCUMENT_PREFIX = "ontology-";
+
+    private static final String ONTOLOGY_DOCUMENT_SUFFIX = ".binary";
+
+    private static final String REVISION_METADATA_ATTRIBUTE = "revision";
+
+    private static final String CHANGE_HISTORY_LENGTH_METADATA_ATTRIBUTE = "changeHistoryLength";
+
+    private final ProjectId projectId;
+
+    private final File changeHistoryFile;
+
+    private final File snapshotsDirectory;
+
+    private final RevisionSnapshotSettings settings;
+
+    private final ExecutorService snapshotExecutor;
+
+    private final ConcurrentSkipListMap<Long, File> snapshotDirectories = new ConcurrentSkipListMap<>();
+
+    private final AtomicBoolean snapshotInProgress = new AtomicBoolean();
+
+    private boolean indexed = false;
+
+    private long lastSnapshotChangeHistoryLength = 0;
+
+    public RevisionSnapshotStore(@Nonnull ProjectId projectId,
+                                 @Nonnull File changeHistoryFile,
+                                 @Nonnull RevisionSnapshotSettings settings) {
+        this.projectId = checkNotNull(projectId);
+        this.changeHistoryFile = checkNotNull(changeHistoryFile);
+        this.settings = checkNotNull(settings);
+        this.snapshotsDirectory = new File(changeHistoryFile.getParentFile(), SNAPSHOTS_DIRECTORY_NAME);
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName(thread.getName().replace("thread", "revision-snapshot-thread"));
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the revision number of the latest snapshot that is at or below the specified revision.
+     * @param revisionNumber The revision number.
+     * @return The revision number of the nearest snapshot, or empty if there is no such snapshot.
+     */
+    @Nonnull
+    public Optional<RevisionNumber> getNearestSnapshot(@Nonnull RevisionNumber revisionNumber) {
+        ensureIndexed();
+        return Optional.ofNullable(snapshotDirectories.floorKey(revisionNumber.getValue()))
+                       .map(RevisionNumber::getRevisionNumber);
+    }
+
+    /**
+     * Loads the ontologies in the specified snapshot into the specified manager.
+     * @param revisionNumber The revision number of the snapshot.  This must be the revision number of
+     *                       an existing snapshot.
+     * @param manager The manager that the ontologies will be loaded into.  This should be an empty manager.
+     * @param anonymousOntologyId The id to be used for an anonymous ontology.  When revisions are replayed,
+     *                            changes to anonymous ontologies are applied to an ontology with this id.
+     */
+    public void loadSnapshot(@Nonnull RevisionNumber revisionNumber,
+                             @Nonnull OWLOntologyManager manager,
+                             @Nonnull OWLOntologyID anonymousOntologyId) throws IOException, OWLOntologyCreationException {
+        ensureIndexed();
+        var snapshotDirectory = snapshotDirectories.get(revisionNumber.getValue());
+        if(snapshotDirectory == null) {
+            throw new FileNotFoundException("Snapshot for revision " + revisionNumber.getValue() + " does not exist");
+        }
+        var stopwatch = Stopwatch.createStarted();
+        var serializer = new BinaryOWLOntologyDocumentSerializer();
+        for(var ontologyDocument : getOntologyDocuments(snapshotDirectory)) {
+            var ontology = manager.createOntology();
+            try(var inputStream = new BufferedInputStream(new FileInputStream(ontologyDocument))) {
+                serializer.read(inputStream, new BinaryOWLOntologyBuildingHandler(ontology), manager.getOWLDataFactory());
+            } catch(BinaryOWLParseException | UnloadableImportException e) {
+                throw new IOException("Could not parse snapshot document " + ontologyDocument.getName(), e);
+            }
+            if(ontology.getOntologyID().isAnonymous()) {
+                manager.applyChange(new SetOntologyID(ontology, anonymousOntologyId));
+            }
+        }
+        logger.info("{} Loaded snapshot of revision {} in {} ms",
+                    projectId,
+                    revisionNumber.getValue(),
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Submits a snapshot of the specified revision to be written in the background, if a snapshot is due.
+     * @param headRevisionNumber The head revision number.
+     * @param managerSupplier A supplier for a manager that contains the ontologies at the head revision.  This
+     *                        will be called from the background thread.
+     */
+    public void submitSnapshotIfDue(@Nonnull RevisionNumber headRevisionNumber,
+                                    @Nonnull Supplier<OWLOntologyManager> managerSupplier) {
+        if(!isSnapshotDue(headRevisionNumber)) {
+            return;
+        }
+        if(!snapshotInProgress.compareAndSet(false, true)) {
+            return;
+        }
+        snapshotExecutor.submit(() -> {
+            try {
+                writeSnapshot(headRevisionNumber, managerSupplier.get());
+            } catch(Exception e) {
+                logger.error("{} An error occurred whilst writing a snapshot of revision {}.  Cause: {}",
+                             projectId,
+                             headRevisionNumber.getValue(),
+                             e.getMessage(),
+                             e);
+            } finally {
+                snapshotInProgress.set(false);
+            }
+        });
+    }
+
+    private synchronized boolean isSnapshotDue(@Nonnull RevisionNumber headRevisionNumber) {
+        ensureIndexed();
+        var lastSnapshotRevision = Optional.ofNullable(snapshotDirectories.floorKey(headRevisionNumber.getValue()))
+                                           .orElse(0L);
+        var revisionsSinceSnapshot = headRevisionNumber.getValue() - lastSnapshotRevision;
+        var bytesSinceSnapshot = changeHistoryFile.length() - lastSnapshotChangeHistoryLength;
+        return settings.isSnapshotDue(revisionsSinceSnapshot, bytesSinceSnapshot);
+    }
+
+    /**
+     * Writes a snapshot of the ontologies in the specified manager.
+     * @param revisionNumber The revision that the ontologies in the manager correspond to.
+     * @param manager The manager containing the ontologies.
+     */
+    public void writeSnapshot(@Nonnull RevisionNumber revisionNumber,
+                              @Nonnull OWLOntologyManager manager) throws IOException {
+        ensureIndexed();
+        var stopwatch = Stopwatch.createStarted();
+        var changeHistoryLength = changeHistoryFile.length();
+        var snapshotDirectory = getSnapshotDirectory(revisionNumber);
+        var incompleteSnapshotDirectory = new File(snapshotsDirectory,
+                                                   snapshotDirectory.getName() + INCOMPLETE_SNAPSHOT_SUFFIX);
+        FileUtils.deleteDirectory(incompleteSnapshotDirectory);
+        Files.createDirectories(incompleteSnapshotDirectory.toPath());
+        var metadata = new BinaryOWLMetadata();
+        metadata.setLongAttribute(REVISION_METADATA_ATTRIBUTE, revisionNumber.getValue());
+        metadata.setLongAttribute(CHANGE_HISTORY_LENGTH_METADATA_ATTRIBUTE, changeHistoryLength);
+        var serializer = new BinaryOWLOntologyDocumentSerializer();
+        int counter = 0;
+        for(var ontology : manager.getOntologies()) {
+            var ontologyDocument = new File(incompleteSnapshotDirectory,
+                                            ONTOLOGY_DOCUMENT_PREFIX + counter + ONTOLOGY_DOCUMENT_SUFFIX);
+            try(var os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(ontologyDocument)))) {
+                serializer.write(new OWLOntologyWrapper(ontology), os, metadata);
+            }
+            counter++;
+        }
+        FileUtils.deleteDirectory(snapshotDirectory);
+        Files.move(incompleteSnapshotDirectory.toPath(), snapshotDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            snapshotDirectories.put(revisionNumber.getValue(), snapshotDirectory);
+            lastSnapshotChangeHistoryLength = Math.max(lastSnapshotChangeHistoryLength, changeHistoryLength);
+        }
+        logger.info("{} Wrote snapshot of revision {} ({} ontologies) in {} ms",
+                    projectId,
+                    revisionNumber.getValue(),
+                    counter,
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        pruneSnapshots();
+    }
+
+    /**
+     * Deletes all but the most recent snapshots, as specified by the retained snapshots setting.
+     */
+    private void pruneSnapshots() {
+        while(true) {
+            Map.Entry<Long, File> oldestSnapshot;
+            synchronized (this) {
+                if(snapshotDirectories.size() <= settings.getRetainedSnapshots()) {
+                    return;
+                }
+                oldestSnapshot = snapshotDirectories.pollFirstEntry();
+            }
+            try {
+                FileUtils.deleteDirectory(oldestSnapshot.getValue());
+                logger.info("{} Deleted snapshot of revision {}", projectId, oldestSnapshot.getKey());
+            } catch(IOException e) {
+                logger.warn("{} Could not delete snapshot of revision {}.  Cause: {}",
+                            projectId,
+                            oldestSnapshot.getKey(),
+                            e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void ensureIndexed() {
+        if(indexed) {
+            return;
+        }
+        indexed = true;
+        var files = snapshotsDirectory.listFiles();
+        if(files == null) {
+            return;
+        }
+        for(var file : files) {
+            var name = file.getName();
+            if(!file.isDirectory() || !name.startsWith(SNAPSHOT_DIRECTORY_PREFIX)) {
+                continue;
+            }
+            if(name.endsWith(INCOMPLETE_SNAPSHOT_SUFFIX)) {
+                // Left over from an interrupted write
+                FileUtils.deleteQuietly(file);
+                continue;
+            }
+            try {
+                var revision = Long.parseLong(name.substring(SNAPSHOT_DIRECTORY_PREFIX.length()));
+                snapshotDirectories.put(revision, file);
+            } catch(NumberFormatException e) {
+                logger.warn("{} Ignoring malformed snapshot directory name: {}", projectId, name);
+            }
+        }
+        if(!snapshotDirectories.isEmpty()) {
+            // We don't know exactly how much of the change history was written when
+            // the last snapshot was taken, so start counting from here.
+            lastSnapshotChangeHistoryLength = changeHistoryFile.length();
+        }
+        logger.info("{} Found {} revision snapshots", projectId, snapshotDirectories.size());
+    }
+
+    private File getSnapshotDirectory(RevisionNumber revisionNumber) {
+        return new File(snapshotsDirectory, SNAPSHOT_DIRECTORY_PREFIX + revisionNumber.getValue());
+    }
+
+    private static File[] getOntologyDocuments(File snapshotDirectory) throws IOException {
+        var documents = snapshotDirectory.listFiles((dir, name) -> name.endsWith(ONTOLOGY_DOCUMENT_SUFFIX));
+        if(documents == null) {
+            throw new IOException("Could not list snapshot directory " + snapshotDirectory.getName());
+        }
+        Arrays.sort(documents);
+        return documents;
+    }
+
+    @Override
+    public void dispose() {
+        snapshotExecutor.shutdown();
+    }
+}
@@ -0,0 +1,49 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import edu.stanford.bmir.protege.web.server.inject.project.ChangeHistoryFile;
+import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.io.File;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class RevisionSnapshotStoreProvider implements Provider<RevisionSnapshotStore> {
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final File changeHistoryFile;
+
+    @Nonnull
+    private final RevisionSnapshotSettings settings;
+
+    @Nonnull
+    private final ProjectDisposablesManager disposablesManager;
+
+    @Inject
+    public RevisionSnapshotStoreProvider(@Nonnull ProjectId projectId,
+                                         @Nonnull @ChangeHistoryFile File changeHistoryFile,
+                                         @Nonnull RevisionSnapshotSettings settings,
+                                         @Nonnull ProjectDisposablesManager disposablesManager) {
+        this.projectId = checkNotNull(projectId);
+        this.changeHistoryFile = checkNotNull(changeHistoryFile);
+        this.settings = checkNotNull(settings);
+        this.disposablesManager = checkNotNull(disposablesManager);
+    }
+
+    @Override
+    public RevisionSnapshotStore get() {
+        var snapshotStore = new RevisionSnapshotStore(projectId, changeHistoryFile, settings);
+        disposablesManager.register(snapshotStore);
+        return snapshotStore;
+    }
+}
@@ -1,11 +1,13 @@
 package edu.stanford.bmir.protege.web.server.revision;
 
-import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
 
 import javax.annotation.Nonnull;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Matthew Horridge
@@ -17,10 +19,18 @@ public interface RevisionStore {
 
     /**
      * Gets all of the revisions.
-     * @return The revisions in an immutable list.
+     * @return The revisions in an immutable, random access, list.  The list is a snapshot of the revisions at the
+     * time of the call.  Revisions that are subsequently added to this store will not appear in the list.
      */
     @Nonnull
-    ImmutableList<Revision> getRevisions();
+    List<Revision> getRevisions();
+
+    /**
+     * Gets summaries of all of the revisions.
+     * @return The revision summaries in an immutable list, ordered by revision number.
+     */
+    @Nonnull
+    List<RevisionSummary> getRevisionSummaries();
 
     /**
      * Gets the revision that has the specified revision number.
@@ -45,4 +55,13 @@ public interface RevisionStore {
      */
     @Nonnull
     RevisionNumber getCurrentRevisionNumber();
+
+    /**
+     * Gets a future that completes once the specified revision, and all of the revisions before it, have been
+     * durably written to the change history.
+     * @param revisionNumber The revision number.  The head revision number denotes the latest revision.
+     * @return The future.  If the revision has already been written then the future will be complete.
+     */
+    @Nonnull
+    CompletableFuture<Void> whenPersisted(@Nonnull RevisionNumber revisionNumber);
 }
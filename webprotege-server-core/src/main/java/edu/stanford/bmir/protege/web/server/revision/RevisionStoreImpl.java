@@ -8,10 +8,9 @@ import edu.stanford.bmir.protege.web.server.inject.project.ChangeHistoryFile;
 import edu.stanford.bmir.protege.web.shared.HasDispose;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
-import org.semanticweb.binaryowl.BinaryOWLOntologyChangeLog;
 import org.semanticweb.binaryowl.change.OntologyChangeRecordList;
-import org.semanticweb.binaryowl.chunk.SkipSetting;
 import org.semanticweb.owlapi.change.*;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLDataFactory;
@@ -20,20 +19,20 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializationVocabulary.*;
 
 /**
@@ -45,7 +44,7 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
 
     private static final Logger logger = LoggerFactory.getLogger(RevisionStoreImpl.class);
 
-    private final ExecutorService changeSerializationExecutor;
+    private final GroupCommitRevisionWriter revisionWriter;
 
     private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
 
@@ -59,30 +58,37 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
 
     private final File changeHistoryFile;
 
-    private ImmutableList<Revision> revisions = ImmutableList.of();
+    private final ForkJoinPool decoderPool;
+
+    private final ChunkedAppendList<Revision> revisions = new ChunkedAppendList<>();
+
+    /**
+     * An immutable snapshot of the revisions.  This is replaced every time a revision is added.
+     */
+    private volatile List<Revision> revisionsSnapshot = ImmutableList.of();
 
 
     @Inject
     public RevisionStoreImpl(@Nonnull ProjectId projectId,
                              @Nonnull @ChangeHistoryFile File changeHistoryFile,
-                             @Nonnull OWLDataFactory dataFactory) {
+                             @Nonnull OWLDataFactory dataFactory,
+                             @Nonnull RevisionWriterSettings revisionWriterSettings,
+                             @Nonnull @ChangeHistoryDecoderPool ForkJoinPool decoderPool) {
         this.projectId = checkNotNull(projectId);
         this.dataFactory = checkNotNull(dataFactory);
         this.changeHistoryFile = checkNotNull(changeHistoryFile);
-        changeSerializationExecutor = Executors.newSingleThreadExecutor(runnable -> {
-            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
-            thread.setName(thread.getName().replace("thread", "change-serializer-thread"));
-            return thread;
-        });
+        this.decoderPool = checkNotNull(decoderPool);
+        this.revisionWriter = new GroupCommitRevisionWriter(projectId, changeHistoryFile, revisionWriterSettings);
     }
 
     @Nonnull
     @Override
     public Optional<Revision> getRevision(@Nonnull RevisionNumber revisionNumber) {
+        var revisions = revisionsSnapshot;
         if(revisions.isEmpty()) {
             return Optional.empty();
         }
-        int index = getRevisionIndexForRevision(revisionNumber);
+        int index = getRevisionIndexForRevision(revisions, revisionNumber);
         if(index < 0 || revisions.size() <= index) {
             return Optional.empty();
         }
@@ -91,39 +97,41 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
         }
     }
 
-    private int getRevisionIndexForRevision(RevisionNumber revision) {
-        try {
-            readLock.lock();
-            if(revisions.isEmpty()) {
-                return -1;
-            }
-            if(revision.isHead()) {
-                return revisions.size() - 1;
-            }
-            var firstRevision = revisions.get(0);
-            if(revision.compareTo(firstRevision.getRevisionNumber()) < 0) {
-                return -1;
-            }
-            var lastRevision = revisions.get(revisions.size() - 1);
-            if(lastRevision.getRevisionNumber() == revision) {
-                return revisions.size() - 1;
-            }
-            var dummyRevision = Revision.createEmptyRevisionWithRevisionNumber(revision);
-            return Collections.binarySearch(revisions, dummyRevision);
-        } finally {
-            readLock.unlock();
+    private static int getRevisionIndexForRevision(List<Revision> revisions, RevisionNumber revision) {
+        if(revisions.isEmpty()) {
+            return -1;
+        }
+        if(revision.isHead()) {
+            return revisions.size() - 1;
+        }
+        var firstRevision = revisions.get(0);
+        if(revision.compareTo(firstRevision.getRevisionNumber()) < 0) {
+            return -1;
+        }
+        var lastRevision = revisions.get(revisions.size() - 1);
+        if(lastRevision.getRevisionNumber().equals(revision)) {
+            return revisions.size() - 1;
         }
+        var dummyRevision = Revision.createEmptyRevisionWithRevisionNumber(revision);
+        return Collections.binarySearch(revisions, dummyRevision);
     }
 
     @Nonnull
     @Override
-    public ImmutableList<Revision> getRevisions() {
-        try {
-            readLock.lock();
-            return revisions;
-        } finally {
-            readLock.unlock();
-        }
+    public List<Revision> getRevisions() {
+        return revisionsSnapshot;
+    }
+
+    @Nonnull
+    @Override
+    public List<RevisionSummary> getRevisionSummaries() {
+        return getRevisions().stream()
+                             .map(revision -> new RevisionSummary(revision.getRevisionNumber(),
+                                                                  revision.getUserId(),
+                                                                  revision.getTimestamp(),
+                                                                  revision.getSize(),
+                                                                  revision.getHighLevelDescription()))
+                             .collect(toImmutableList());
     }
 
     @Override
@@ -136,10 +144,8 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
                         .getRevisionNumber()
                         .getValue(), getCurrentRevisionNumber().getValue()));
             }
-            var extendedListBuilder = ImmutableList.<Revision>builder();
-            extendedListBuilder.addAll(revisions);
-            extendedListBuilder.add(revision);
-            revisions = extendedListBuilder.build();
+            revisions.append(revision);
+            revisionsSnapshot = revisions.snapshot();
             persistChanges(revision);
         } finally {
             writeLock.unlock();
@@ -152,6 +158,7 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
     public RevisionNumber getCurrentRevisionNumber() {
         try {
             readLock.lock();
+            var revisions = revisionsSnapshot;
             if(revisions.isEmpty()) {
                 return RevisionNumber.getRevisionNumber(0);
             }
@@ -162,21 +169,24 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
 
     }
 
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> whenPersisted(@Nonnull RevisionNumber revisionNumber) {
+        return revisionWriter.whenDurable(revisionNumber);
+    }
+
     private void persistChanges(Revision revision) {
         try {
             writeLock.lock();
-            var revisionSerializationTask = new RevisionSerializationTask(changeHistoryFile, revision);
-            if(revisions.size() != 1) {
-                changeSerializationExecutor.submit(revisionSerializationTask);
-            }
-            else {
+            var persisted = revisionWriter.submit(revision);
+            if(revisions.size() == 1) {
                 // Save immediately
                 try {
                     logger.info("{} Saving first revision of project", projectId);
-                    revisionSerializationTask.call();
-                } catch(IOException e) {
+                    persisted.join();
+                } catch(CompletionException e) {
                     logger.error("{} An error occurred whilst saving the first revision of the project.  Cause: {}.", projectId, e
-                            .getMessage(), e);
+                            .getCause().getMessage(), e);
                 }
             }
         } finally {
@@ -191,17 +201,26 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
                 changeHistoryFile.getParentFile().mkdirs();
                 return;
             }
-            var revisionsBuilder = ImmutableList.<Revision>builder();
-            var axiomInterner = Interners.<OWLAxiom>newStrongInterner();
-            var metadataInterner = Interners.<String>newStrongInterner();
-            var userIdInterner = Interners.<UserId>newStrongInterner();
+            // Revisions are decoded concurrently so the interners must be thread safe
+            var forkJoinPool = decoderPool;
+            var axiomInterner = Interners.newBuilder()
+                                         .strong()
+                                         .concurrencyLevel(forkJoinPool.getParallelism())
+                                         .<OWLAxiom>build();
+            var metadataInterner = Interners.newBuilder()
+                                            .strong()
+                                            .concurrencyLevel(forkJoinPool.getParallelism())
+                                            .<String>build();
+            var userIdInterner = Interners.newBuilder()
+                                          .strong()
+                                          .concurrencyLevel(forkJoinPool.getParallelism())
+                                          .<UserId>build();
 
             try {
                 logger.info("{} Loading change history", projectId);
                 var stopwatch = Stopwatch.createStarted();
-                var changeLog = new BinaryOWLOntologyChangeLog();
-                var inputStream = new BufferedInputStream(new FileInputStream(changeHistoryFile));
-                changeLog.readChanges(inputStream, dataFactory, (changeRecordList, skipSetting, l) -> {
+                var loader = new ChangeHistoryLoader(projectId, changeHistoryFile, dataFactory, forkJoinPool);
+                var timings = loader.load(changeRecordList -> {
                     var metadata = changeRecordList.getMetadata();
                     var userName = metadataInterner.intern(metadata.getStringAttribute(USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), ""));
                     var revisionNumberValue = metadata.getLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 0L);
@@ -210,14 +229,19 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
                     var userId = userIdInterner.intern(UserId.getUserId(userName));
 
                     var internedChangeRecords = internChangeRecords(changeRecordList, axiomInterner);
-                    var revision = new Revision(userId, revisionNumber, internedChangeRecords, changeRecordList.getTimestamp(), description);
-                    revisionsBuilder.add(revision);
-                }, SkipSetting.SKIP_NONE);
-                inputStream.close();
+                    return new Revision(userId, revisionNumber, internedChangeRecords, changeRecordList.getTimestamp(), description);
+                }, revisions::append);
                 stopwatch.stop();
-                revisions = revisionsBuilder.build();
-                logger.info("{} Change history loading complete.  Loaded {} revisions in {} ms.", projectId, revisions.size(), stopwatch
-                        .elapsed(TimeUnit.MILLISECONDS));
+                revisionsSnapshot = revisions.snapshot();
+                logger.info("{} Change history loading complete.  Loaded {} revisions in {} ms " +
+                                    "(scan: {} ms, decode: {} ms in {} chunks, assemble: {} ms).",
+                            projectId,
+                            revisions.size(),
+                            stopwatch.elapsed(TimeUnit.MILLISECONDS),
+                            timings.getScanMillis(),
+                            timings.getDecodeMillis(),
+                            timings.getChunkCount(),
+                            timings.getAssembleMillis());
 
             } catch(Exception e) {
                 logger.error("{} Failed to load change history for project.  Cause: {}", projectId, e.getMessage(), e);
@@ -231,7 +255,7 @@ public class RevisionStoreImpl implements RevisionStore, HasDispose {
 
     @Override
     public void dispose() {
-        changeSerializationExecutor.shutdown();
+        revisionWriter.dispose();
     }
 
     @Nonnull
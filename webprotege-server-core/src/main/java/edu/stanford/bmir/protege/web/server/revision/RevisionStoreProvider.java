@@ -3,6 +3,7 @@ package edu.stanford.bmir.protege.web.server.revision;
 import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
@@ -16,26 +17,46 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class RevisionStoreProvider implements Provider<RevisionStore> {
 
     @Nonnull
-    private final RevisionStoreImpl revisionStore;
+    private final Provider<RevisionStoreImpl> revisionStoreProvider;
+
+    @Nonnull
+    private final Provider<LazyRevisionStoreImpl> lazyRevisionStoreProvider;
+
+    @Nonnull
+    private final RevisionStoreSettings settings;
 
     @Nonnull
     private final ProjectDisposablesManager disposablesManager;
 
-    private boolean loaded = false;
+    @Nullable
+    private RevisionStore revisionStore = null;
 
     @Inject
-    public RevisionStoreProvider(@Nonnull RevisionStoreImpl revisionStore,
+    public RevisionStoreProvider(@Nonnull Provider<RevisionStoreImpl> revisionStoreProvider,
+                                 @Nonnull Provider<LazyRevisionStoreImpl> lazyRevisionStoreProvider,
+                                 @Nonnull RevisionStoreSettings settings,
                                  @Nonnull ProjectDisposablesManager disposablesManager) {
-        this.revisionStore = checkNotNull(revisionStore);
+        this.revisionStoreProvider = checkNotNull(revisionStoreProvider);
+        this.lazyRevisionStoreProvider = checkNotNull(lazyRevisionStoreProvider);
+        this.settings = checkNotNull(settings);
         this.disposablesManager = checkNotNull(disposablesManager);
     }
 
     @Override
     public synchronized RevisionStore get() {
-        if(!loaded) {
-            revisionStore.load();
-            loaded = true;
-            disposablesManager.register(revisionStore);
+        if(revisionStore == null) {
+            if(settings.isLazyLoading()) {
+                var lazyRevisionStore = lazyRevisionStoreProvider.get();
+                lazyRevisionStore.load();
+                disposablesManager.register(lazyRevisionStore);
+                revisionStore = lazyRevisionStore;
+            }
+            else {
+                var eagerRevisionStore = revisionStoreProvider.get();
+                eagerRevisionStore.load();
+                disposablesManager.register(eagerRevisionStore);
+                revisionStore = eagerRevisionStore;
+            }
         }
         return revisionStore;
     }
@@ -0,0 +1,35 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Settings that determine how the revisions of a project are held in memory.
+ */
+@AutoValue
+public abstract class RevisionStoreSettings {
+
+    @Nonnull
+    public static RevisionStoreSettings get(boolean lazyLoading,
+                                            int decodedRevisionCacheSize) {
+        checkArgument(decodedRevisionCacheSize >= 0, "decodedRevisionCacheSize must not be negative");
+        return new AutoValue_RevisionStoreSettings(lazyLoading, decodedRevisionCacheSize);
+    }
+
+    /**
+     * Determines whether the change records of revisions are decoded on demand from the change history.  If
+     * {@code false} then all revisions are decoded when the project is loaded and are held in memory.
+     */
+    public abstract boolean isLazyLoading();
+
+    /**
+     * Gets the maximum number of decoded revisions that are cached when revisions are decoded on demand.
+     */
+    public abstract int getDecodedRevisionCacheSize();
+}
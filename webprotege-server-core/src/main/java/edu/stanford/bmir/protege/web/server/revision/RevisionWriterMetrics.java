@@ -0,0 +1,70 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * A snapshot of the activity of a {@link GroupCommitRevisionWriter}.
+ */
+@AutoValue
+public abstract class RevisionWriterMetrics {
+
+    @Nonnull
+    public static RevisionWriterMetrics get(int queueDepth,
+                                            long batchCount,
+                                            long revisionCount,
+                                            long lastCommitLatencyMillis,
+                                            long maxCommitLatencyMillis,
+                                            long totalCommitLatencyMillis) {
+        return new AutoValue_RevisionWriterMetrics(queueDepth,
+                                                   batchCount,
+                                                   revisionCount,
+                                                   lastCommitLatencyMillis,
+                                                   maxCommitLatencyMillis,
+                                                   totalCommitLatencyMillis);
+    }
+
+    /**
+     * The number of revisions that are waiting to be written.
+     */
+    public abstract int getQueueDepth();
+
+    /**
+     * The number of batches that have been committed.
+     */
+    public abstract long getBatchCount();
+
+    /**
+     * The number of revisions that have been committed.
+     */
+    public abstract long getRevisionCount();
+
+    /**
+     * The time taken to write and sync the last batch.
+     */
+    public abstract long getLastCommitLatencyMillis();
+
+    /**
+     * The longest time taken to write and sync a batch.
+     */
+    public abstract long getMaxCommitLatencyMillis();
+
+    /**
+     * The total time spent writing and syncing batches.
+     */
+    public abstract long getTotalCommitLatencyMillis();
+
+    /**
+     * The mean time taken to write and sync a batch.
+     */
+    public double getMeanCommitLatencyMillis() {
+        if(getBatchCount() == 0) {
+            return 0;
+        }
+        return getTotalCommitLatencyMillis() / (double) getBatchCount();
+    }
+}
@@ -0,0 +1,42 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Settings that determine how revisions are grouped together when they are written to the change history.
+ */
+@AutoValue
+public abstract class RevisionWriterSettings {
+
+    @Nonnull
+    public static RevisionWriterSettings get(long maxLatencyMillis,
+                                             int maxBatchSize,
+                                             boolean awaitDurability) {
+        checkArgument(maxLatencyMillis >= 0, "maxLatencyMillis must not be negative");
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be greater than zero");
+        return new AutoValue_RevisionWriterSettings(maxLatencyMillis, maxBatchSize, awaitDurability);
+    }
+
+    /**
+     * Gets the maximum amount of time, in milliseconds, that the writer waits for further revisions
+     * to arrive before it writes the revisions that it has collected.
+     */
+    public abstract long getMaxLatencyMillis();
+
+    /**
+     * Gets the maximum number of revisions that are written, and synced, together.
+     */
+    public abstract int getMaxBatchSize();
+
+    /**
+     * Determines whether changes to a project should wait for their revision to be synced to disk.
+     */
+    public abstract boolean isAwaitDurability();
+}
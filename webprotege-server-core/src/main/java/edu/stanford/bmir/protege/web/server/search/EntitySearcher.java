@@ -6,12 +6,14 @@ import com.google.common.base.Stopwatch;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import com.google.common.math.IntMath;
 import com.google.common.primitives.ImmutableIntArray;
 import edu.stanford.bmir.protege.web.server.lang.LanguageManager;
 import edu.stanford.bmir.protege.web.server.mansyntax.render.HasGetRendering;
 import edu.stanford.bmir.protege.web.server.shortform.*;
 import edu.stanford.bmir.protege.web.server.tag.TagsManager;
 import edu.stanford.bmir.protege.web.server.util.Counter;
+import edu.stanford.bmir.protege.web.server.util.TopKSelector;
 import edu.stanford.bmir.protege.web.shared.DataFactory;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.search.EntitySearchResult;
@@ -224,17 +226,27 @@ public class EntitySearcher {
         int limitRemainder = limit - filledCounter.getCounter();
         if (limitRemainder > 0) {
             int skipRemainder = Math.max(skip - filledCounter.getCounter(), 0);
+            // Only the best skip + limit matches are kept.  Every match is counted but the
+            // other matches are never collected or sorted.
+            TopKSelector<SearchMatch> topMatches = new TopKSelector<>(IntMath.saturatedAdd(skipRemainder, limitRemainder),
+                                                                      Comparator.naturalOrder());
             dictionaryManager.getShortFormsContaining(searchWords,
                                                       entityTypes,
                                                       languageManager.getActiveLanguages())
-                             .map(this::performMatch)
-                             .filter(Objects::nonNull)
-                             .peek(this::incrementMatchCounter)
-                             .sorted()
-                             .skip(skipRemainder)
-                             .limit(limitRemainder)
-                             .map(this::toSearchResult)
-                             .forEach(results::add);
+                             .forEach(shortFormMatch -> {
+                                 matchCounter.increment();
+                                 if (topMatches.isFull() && !isCandidateForFullTopMatches(shortFormMatch, topMatches)) {
+                                     return;
+                                 }
+                                 SearchMatch searchMatch = performMatch(shortFormMatch);
+                                 if (searchMatch != null) {
+                                     topMatches.offer(searchMatch);
+                                 }
+                             });
+            topMatches.getSortedElements().stream()
+                      .skip(skipRemainder)
+                      .map(this::toSearchResult)
+                      .forEach(results::add);
         }
 
         logger.info(BROWSING,
@@ -247,12 +259,38 @@ public class EntitySearcher {
 
     }
 
-    private void incrementSearchCounter(OWLEntity entity) {
-        searchCounter.increment();
+    /**
+     * Determines whether the specified match could be better than the worst of the top matches.  For an
+     * exact match query, once the worst of the top matches is an exact match of the rendering, only other
+     * exact matches (which may tie on short form and be ordered by entity) need to be considered.  Ranking
+     * of the remaining matches is therefore terminated early, and they are only counted.
+     */
+    private boolean isCandidateForFullTopMatches(@Nonnull ShortFormMatch shortFormMatch,
+                                                 @Nonnull TopKSelector<SearchMatch> topMatches) {
+        if (!isExactMatchQuery()) {
+            return true;
+        }
+        boolean worstIsExactRenderingMatch = topMatches.getWorst()
+                                                       .map(worst -> worst.getMatchType() == MatchType.RENDERING
+                                                               && isExactMatch(worst.getShortFormMatch()))
+                                                       .orElse(false);
+        return !worstIsExactRenderingMatch || isExactMatch(shortFormMatch);
     }
 
-    private void incrementMatchCounter(SearchMatch match) {
-        matchCounter.increment();
+    /**
+     * Determines whether the search is a single, non-wildcard, search word that could be matched exactly
+     * by a short form.
+     */
+    private boolean isExactMatchQuery() {
+        return searchWords.size() == 1 && !searchWords.get(0).isWildCard();
+    }
+
+    private boolean isExactMatch(@Nonnull ShortFormMatch shortFormMatch) {
+        return shortFormMatch.getShortForm().equalsIgnoreCase(searchWords.get(0).getSearchString());
+    }
+
+    private void incrementSearchCounter(OWLEntity entity) {
+        searchCounter.increment();
     }
 
     private EntitySearchResult toSearchResult(SearchMatch match) {
@@ -0,0 +1,662 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * A compact store of entity short forms.  Entities are partitioned over a fixed number of shards, each of which is
+ * guarded by its own read/write lock, so that writes to different shards do not contend.  Within a shard, each
+ * entity is assigned an int slot.  Short forms are held in a byte arena, using one byte per char if every char of
+ * the short form is a Latin-1 char and two bytes per char otherwise.  Lower case short forms are not stored; they
+ * are computed char by char when short forms are scanned.  Entities and short forms are looked up using open
+ * addressing tables of slots, so no per-entry objects are allocated.
+ *
+ * This class is thread safe.
+ */
+final class CompactShortFormStore {
+
+    private static final int SHARD_BITS = 4;
+
+    private static final int SHARD_COUNT = 1 << SHARD_BITS;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+
+    /**
+     * Matches the short form of an entity.
+     * @param <R> The type of match.
+     */
+    interface ShortFormMatcher<R> {
+
+        /**
+         * Matches the specified short form.  The short form is a view of the store that is only valid for the
+         * duration of the call.  It must be copied (using {@link CharSequence#toString()}) if it is retained.
+         * @return The match or null if there is no match.
+         */
+        @Nullable
+        R match(@Nonnull OWLEntity entity, @Nonnull CharSequence shortForm);
+    }
+
+    CompactShortFormStore(int expectedSize) {
+        int expectedShardSize = Math.max(expectedSize / SHARD_COUNT, 1);
+        for(int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard(expectedShardSize);
+        }
+    }
+
+    /**
+     * Gets the number of entities that have short forms in this store.
+     */
+    int size() {
+        int size = 0;
+        for(Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Sets the short form of the specified entity.
+     * @return The previous short form of the entity, or null if the entity did not have a short form.
+     */
+    @Nullable
+    String put(@Nonnull OWLEntity entity, @Nonnull String shortForm) {
+        return getShard(entity).put(checkNotNull(entity), checkNotNull(shortForm));
+    }
+
+    /**
+     * Removes the short form of the specified entity.
+     * @return The removed short form, or null if the entity did not have a short form.
+     */
+    @Nullable
+    String remove(@Nonnull OWLEntity entity) {
+        return getShard(entity).remove(entity);
+    }
+
+    @Nullable
+    String get(@Nonnull OWLEntity entity) {
+        return getShard(entity).get(entity);
+    }
+
+    void clear() {
+        for(Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * Gets the entities that have the specified short form.
+     */
+    @Nonnull
+    ImmutableList<OWLEntity> getEntities(@Nonnull String shortForm) {
+        ImmutableList.Builder<OWLEntity> entities = ImmutableList.builder();
+        for(Shard shard : shards) {
+            shard.getEntities(shortForm, entities);
+        }
+        return entities.build();
+    }
+
+    /**
+     * Matches the short form of the specified entity.
+     * @return The match, or null if the entity does not have a short form or its short form does not match.
+     */
+    @Nullable
+    <R> R match(@Nonnull OWLEntity entity, @Nonnull ShortFormMatcher<R> matcher) {
+        return getShard(entity).match(entity, matcher);
+    }
+
+    /**
+     * Matches the short forms of all of the entities that pass the specified filter, one shard at a time.
+     */
+    @Nonnull
+    <R> List<R> matchAll(int shardIndex,
+                         @Nonnull Predicate<OWLEntity> entityFilter,
+                         @Nonnull ShortFormMatcher<R> matcher) {
+        return shards[shardIndex].matchAll(entityFilter, matcher);
+    }
+
+    /**
+     * Passes each entity and its short form to the specified consumer.  The entries of a shard are copied before
+     * they are passed to the consumer, so the consumer is not called whilst any shard is locked.
+     */
+    void forEach(@Nonnull BiConsumer<OWLEntity, String> consumer) {
+        for(int i = 0; i < SHARD_COUNT; i++) {
+            List<Map.Entry<OWLEntity, String>> entries =
+                    matchAll(i, entity -> true, (entity, shortForm) -> Maps.immutableEntry(entity, shortForm.toString()));
+            for(Map.Entry<OWLEntity, String> entry : entries) {
+                consumer.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    static int getShardCount() {
+        return SHARD_COUNT;
+    }
+
+    private Shard getShard(@Nonnull OWLEntity entity) {
+        return shards[mix(entity.hashCode()) >>> (Integer.SIZE - SHARD_BITS)];
+    }
+
+    private static int mix(int hashCode) {
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Lower cases the specified chars one at a time, so that the positions of chars in the lower case string are
+     * the same as their positions in the original chars.
+     */
+    @Nonnull
+    static String toLowerCase(@Nonnull CharSequence chars) {
+        char[] lowerCase = new char[chars.length()];
+        for(int i = 0; i < lowerCase.length; i++) {
+            lowerCase[i] = Character.toLowerCase(chars.charAt(i));
+        }
+        return new String(lowerCase);
+    }
+
+    private static final class Shard {
+
+        private static final int MIN_CAPACITY = 8;
+
+        private static final int EMPTY = 0;
+
+        private static final int TOMBSTONE = -1;
+
+        /**
+         * The arena is compacted when at least this many bytes, and at least half of the arena, are garbage
+         */
+        private static final int MIN_GARBAGE_BEFORE_COMPACTION = 4096;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Lock readLock = lock.readLock();
+
+        private final Lock writeLock = lock.writeLock();
+
+        private final int initialCapacity;
+
+        // Slot data.  A free slot has a null entity.
+
+        private OWLEntity[] entities;
+
+        private int[] offsets;
+
+        /**
+         * The length of each short form in chars, shifted left by one, with the low bit set if the short form
+         * is stored with two bytes per char
+         */
+        private int[] lengths;
+
+        private int[] shortFormHashes;
+
+        private int slotCount;
+
+        private int[] freeSlots;
+
+        private int freeSlotCount;
+
+        private int size;
+
+        // Arena
+
+        private byte[] arena;
+
+        private int arenaSize;
+
+        private int arenaGarbage;
+
+        // Open addressing tables.  Each entry is a slot plus one, EMPTY or TOMBSTONE.
+
+        private int[] entityTable;
+
+        private int entityTableUsed;
+
+        private int[] shortFormTable;
+
+        private int shortFormTableUsed;
+
+        private Shard(int initialCapacity) {
+            this.initialCapacity = Math.max(initialCapacity, MIN_CAPACITY);
+            reset();
+        }
+
+        private void reset() {
+            entities = new OWLEntity[initialCapacity];
+            offsets = new int[initialCapacity];
+            lengths = new int[initialCapacity];
+            shortFormHashes = new int[initialCapacity];
+            slotCount = 0;
+            freeSlots = new int[MIN_CAPACITY];
+            freeSlotCount = 0;
+            size = 0;
+            arena = new byte[initialCapacity * 16];
+            arenaSize = 0;
+            arenaGarbage = 0;
+            entityTable = new int[tableCapacityFor(initialCapacity)];
+            entityTableUsed = 0;
+            shortFormTable = new int[tableCapacityFor(initialCapacity)];
+            shortFormTableUsed = 0;
+        }
+
+        int size() {
+            readLock.lock();
+            try {
+                return size;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        void clear() {
+            writeLock.lock();
+            try {
+                reset();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Nullable
+        String get(@Nonnull OWLEntity entity) {
+            readLock.lock();
+            try {
+                int slot = findSlot(entity);
+                return slot == -1 ? null : decode(slot);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        @Nullable
+        String put(@Nonnull OWLEntity entity, @Nonnull String shortForm) {
+            writeLock.lock();
+            try {
+                int slot = findSlot(entity);
+                String previousShortForm = null;
+                if(slot != -1) {
+                    if(shortFormEquals(slot, shortForm)) {
+                        return shortForm;
+                    }
+                    previousShortForm = decode(slot);
+                    removeFromShortFormTable(slot);
+                    arenaGarbage += getEncodedLength(lengths[slot]);
+                }
+                else {
+                    slot = allocateSlot(entity);
+                    addToEntityTable(slot);
+                    size++;
+                }
+                store(slot, shortForm);
+                addToShortFormTable(slot);
+                compactArenaIfNecessary();
+                return previousShortForm;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Nullable
+        String remove(@Nonnull OWLEntity entity) {
+            writeLock.lock();
+            try {
+                int slot = findSlot(entity);
+                if(slot == -1) {
+                    return null;
+                }
+                String shortForm = decode(slot);
+                removeFromShortFormTable(slot);
+                removeFromEntityTable(slot);
+                arenaGarbage += getEncodedLength(lengths[slot]);
+                freeSlot(slot);
+                size--;
+                compactArenaIfNecessary();
+                return shortForm;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void getEntities(@Nonnull String shortForm, @Nonnull ImmutableList.Builder<OWLEntity> result) {
+            int hash = shortForm.hashCode();
+            readLock.lock();
+            try {
+                int mask = shortFormTable.length - 1;
+                for(int i = mix(hash) & mask; shortFormTable[i] != EMPTY; i = (i + 1) & mask) {
+                    int entry = shortFormTable[i];
+                    if(entry != TOMBSTONE && shortFormHashes[entry - 1] == hash && shortFormEquals(entry - 1, shortForm)) {
+                        result.add(entities[entry - 1]);
+                    }
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        @Nullable
+        <R> R match(@Nonnull OWLEntity entity, @Nonnull ShortFormMatcher<R> matcher) {
+            readLock.lock();
+            try {
+                int slot = findSlot(entity);
+                if(slot == -1) {
+                    return null;
+                }
+                ShortFormChars view = new ShortFormChars();
+                view.set(arena, offsets[slot], lengths[slot]);
+                return matcher.match(entity, view);
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        @Nonnull
+        <R> List<R> matchAll(@Nonnull Predicate<OWLEntity> entityFilter, @Nonnull ShortFormMatcher<R> matcher) {
+            List<R> matches = new ArrayList<>();
+            ShortFormChars view = new ShortFormChars();
+            readLock.lock();
+            try {
+                for(int slot = 0; slot < slotCount; slot++) {
+                    OWLEntity entity = entities[slot];
+                    if(entity != null && entityFilter.test(entity)) {
+                        view.set(arena, offsets[slot], lengths[slot]);
+                        R match = matcher.match(entity, view);
+                        if(match != null) {
+                            matches.add(match);
+                        }
+                    }
+                }
+            } finally {
+                readLock.unlock();
+            }
+            return matches;
+        }
+
+        // Slots
+
+        private int allocateSlot(@Nonnull OWLEntity entity) {
+            int slot;
+            if(freeSlotCount > 0) {
+                freeSlotCount--;
+                slot = freeSlots[freeSlotCount];
+            }
+            else {
+                if(slotCount == entities.length) {
+                    int capacity = entities.length + (entities.length >> 1);
+                    entities = Arrays.copyOf(entities, capacity);
+                    offsets = Arrays.copyOf(offsets, capacity);
+                    lengths = Arrays.copyOf(lengths, capacity);
+                    shortFormHashes = Arrays.copyOf(shortFormHashes, capacity);
+                }
+                slot = slotCount;
+                slotCount++;
+            }
+            entities[slot] = entity;
+            return slot;
+        }
+
+        private void freeSlot(int slot) {
+            entities[slot] = null;
+            if(freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeSlotCount] = slot;
+            freeSlotCount++;
+        }
+
+        // Arena
+
+        private void store(int slot, @Nonnull String shortForm) {
+            boolean latin1 = isLatin1(shortForm);
+            int length = shortForm.length();
+            int encodedLength = latin1 ? length : length * 2;
+            ensureArenaCapacity(encodedLength);
+            int offset = arenaSize;
+            if(latin1) {
+                for(int i = 0; i < length; i++) {
+                    arena[offset + i] = (byte) shortForm.charAt(i);
+                }
+            }
+            else {
+                for(int i = 0; i < length; i++) {
+                    char ch = shortForm.charAt(i);
+                    arena[offset + 2 * i] = (byte) (ch >>> 8);
+                    arena[offset + 2 * i + 1] = (byte) ch;
+                }
+            }
+            arenaSize += encodedLength;
+            offsets[slot] = offset;
+            lengths[slot] = (length << 1) | (latin1 ? 0 : 1);
+            shortFormHashes[slot] = shortForm.hashCode();
+        }
+
+        private void ensureArenaCapacity(int additionalBytes) {
+            int required = arenaSize + additionalBytes;
+            if(required > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(required, arena.length + (arena.length >> 1)));
+            }
+        }
+
+        private void compactArenaIfNecessary() {
+            if(arenaGarbage < MIN_GARBAGE_BEFORE_COMPACTION || arenaGarbage * 2 < arenaSize) {
+                return;
+            }
+            int liveSize = arenaSize - arenaGarbage;
+            byte[] compacted = new byte[Math.max(liveSize + (liveSize >> 1), initialCapacity * 16)];
+            int compactedSize = 0;
+            for(int slot = 0; slot < slotCount; slot++) {
+                if(entities[slot] != null) {
+                    int encodedLength = getEncodedLength(lengths[slot]);
+                    System.arraycopy(arena, offsets[slot], compacted, compactedSize, encodedLength);
+                    offsets[slot] = compactedSize;
+                    compactedSize += encodedLength;
+                }
+            }
+            arena = compacted;
+            arenaSize = compactedSize;
+            arenaGarbage = 0;
+        }
+
+        private String decode(int slot) {
+            return ShortFormChars.decode(arena, offsets[slot], lengths[slot]);
+        }
+
+        private boolean shortFormEquals(int slot, @Nonnull String shortForm) {
+            int packedLength = lengths[slot];
+            int length = packedLength >>> 1;
+            if(length != shortForm.length()) {
+                return false;
+            }
+            int offset = offsets[slot];
+            boolean latin1 = (packedLength & 1) == 0;
+            for(int i = 0; i < length; i++) {
+                if(ShortFormChars.charAt(arena, offset, latin1, i) != shortForm.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int getEncodedLength(int packedLength) {
+            int length = packedLength >>> 1;
+            return (packedLength & 1) == 0 ? length : length * 2;
+        }
+
+        private static boolean isLatin1(@Nonnull String s) {
+            for(int i = 0; i < s.length(); i++) {
+                if(s.charAt(i) > 0xFF) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Entity table
+
+        private int findSlot(@Nonnull OWLEntity entity) {
+            int mask = entityTable.length - 1;
+            for(int i = mix(entity.hashCode()) & mask; entityTable[i] != EMPTY; i = (i + 1) & mask) {
+                int entry = entityTable[i];
+                if(entry != TOMBSTONE && entities[entry - 1].equals(entity)) {
+                    return entry - 1;
+                }
+            }
+            return -1;
+        }
+
+        private void addToEntityTable(int slot) {
+            if(shouldRehash(entityTableUsed, entityTable)) {
+                entityTable = new int[tableCapacityFor(size + 1)];
+                entityTableUsed = 0;
+                for(int s = 0; s < slotCount; s++) {
+                    if(entities[s] != null && s != slot) {
+                        entityTableUsed += insert(entityTable, mix(entities[s].hashCode()), s);
+                    }
+                }
+            }
+            entityTableUsed += insert(entityTable, mix(entities[slot].hashCode()), slot);
+        }
+
+        private void removeFromEntityTable(int slot) {
+            remove(entityTable, mix(entities[slot].hashCode()), slot);
+        }
+
+        // Short form table
+
+        private void addToShortFormTable(int slot) {
+            if(shouldRehash(shortFormTableUsed, shortFormTable)) {
+                shortFormTable = new int[tableCapacityFor(size)];
+                shortFormTableUsed = 0;
+                for(int s = 0; s < slotCount; s++) {
+                    if(entities[s] != null && s != slot) {
+                        shortFormTableUsed += insert(shortFormTable, mix(shortFormHashes[s]), s);
+                    }
+                }
+            }
+            shortFormTableUsed += insert(shortFormTable, mix(shortFormHashes[slot]), slot);
+        }
+
+        private void removeFromShortFormTable(int slot) {
+            remove(shortFormTable, mix(shortFormHashes[slot]), slot);
+        }
+
+        /**
+         * Determines whether a table should be rebuilt before an entry is added.  Tables are kept at most half
+         * full, counting tombstones as used.
+         */
+        private static boolean shouldRehash(int used, int[] table) {
+            return (used + 1) * 2 > table.length;
+        }
+
+        /**
+         * Inserts a slot into a table
+         * @return 1 if an empty entry was used, or 0 if a tombstone was reused.
+         */
+        private static int insert(int[] table, int hash, int slot) {
+            int mask = table.length - 1;
+            int i = hash & mask;
+            while(table[i] != EMPTY && table[i] != TOMBSTONE) {
+                i = (i + 1) & mask;
+            }
+            int used = table[i] == EMPTY ? 1 : 0;
+            table[i] = slot + 1;
+            return used;
+        }
+
+        private static void remove(int[] table, int hash, int slot) {
+            int mask = table.length - 1;
+            for(int i = hash & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+                if(table[i] == slot + 1) {
+                    table[i] = TOMBSTONE;
+                    return;
+                }
+            }
+        }
+
+        private static int tableCapacityFor(int size) {
+            int capacity = MIN_CAPACITY * 2;
+            while(capacity < size * 4) {
+                capacity <<= 1;
+            }
+            return capacity;
+        }
+    }
+
+    /**
+     * A char sequence view of a short form in an arena
+     */
+    private static final class ShortFormChars implements CharSequence {
+
+        private byte[] arena;
+
+        private int offset;
+
+        private int length;
+
+        private boolean latin1;
+
+        void set(byte[] arena, int offset, int packedLength) {
+            this.arena = arena;
+            this.offset = offset;
+            this.length = packedLength >>> 1;
+            this.latin1 = (packedLength & 1) == 0;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if(index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            return charAt(arena, offset, latin1, index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Nonnull
+        @Override
+        public String toString() {
+            return decode(arena, offset, (length << 1) | (latin1 ? 0 : 1));
+        }
+
+        static char charAt(byte[] arena, int offset, boolean latin1, int index) {
+            if(latin1) {
+                return (char) (arena[offset + index] & 0xFF);
+            }
+            int pos = offset + 2 * index;
+            return (char) (((arena[pos] & 0xFF) << 8) | (arena[pos + 1] & 0xFF));
+        }
+
+        static String decode(byte[] arena, int offset, int packedLength) {
+            int length = packedLength >>> 1;
+            boolean latin1 = (packedLength & 1) == 0;
+            char[] chars = new char[length];
+            for(int i = 0; i < length; i++) {
+                chars[i] = charAt(arena, offset, latin1, i);
+            }
+            return new String(chars);
+        }
+    }
+}
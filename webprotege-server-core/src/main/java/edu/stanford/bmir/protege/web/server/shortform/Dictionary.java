@@ -7,6 +7,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import javax.annotation.Nonnull;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -97,6 +98,13 @@ public class Dictionary {
                                                  defaultShortForm);
     }
 
+    /**
+     * Passes each entry in this dictionary to the specified consumer.
+     */
+    public void forEach(@Nonnull BiConsumer<OWLEntity, String> consumer) {
+        shortFormCache.forEach(consumer);
+    }
+
     @Nonnull
     public Stream<ShortFormMatch> getShortFormsContaining(@Nonnull List<SearchString> searchStrings,
                                                           @Nonnull Set<EntityType<?>> entityTypes) {
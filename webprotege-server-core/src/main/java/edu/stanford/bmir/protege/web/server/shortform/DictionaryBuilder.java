@@ -1,7 +1,8 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
-import edu.stanford.bmir.protege.web.server.util.Counter;
+import com.google.common.collect.Lists;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.Imports;
 import org.slf4j.Logger;
@@ -9,14 +10,12 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static edu.stanford.bmir.protege.web.server.shortform.DictionaryPredicates.isAxiomForDictionary;
-import static java.util.Collections.enumeration;
 import static java.util.Collections.singletonList;
 import static org.semanticweb.owlapi.model.AxiomType.ANNOTATION_ASSERTION;
 
@@ -24,22 +23,36 @@ import static org.semanticweb.owlapi.model.AxiomType.ANNOTATION_ASSERTION;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 4 Apr 2018
+ *
+ * Builds dictionaries in a single pass over the annotation assertion axioms in the imports closure of the root
+ * ontology.  Each axiom is dispatched, by annotation property, to the dictionaries that it is relevant to.  The
+ * axioms (and the signature, for the local name dictionary) are divided into chunks that are processed in
+ * parallel on a dedicated fork join pool, so that large builds do not tie up the common pool.
  */
 public class DictionaryBuilder {
 
     private static final Logger logger = LoggerFactory.getLogger(DictionaryBuilder.class);
 
+    private static final int MIN_AXIOMS_PER_CHUNK = 1024;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
     @Nonnull
     private final ProjectId projectId;
 
     @Nonnull
     private final OWLOntology rootOntology;
 
+    @Nonnull
+    private final ForkJoinPool forkJoinPool;
+
     @Inject
     public DictionaryBuilder(@Nonnull ProjectId projectId,
-                             @Nonnull OWLOntology rootOntology) {
+                             @Nonnull OWLOntology rootOntology,
+                             @Nonnull @DictionaryBuilderPool ForkJoinPool forkJoinPool) {
         this.projectId = checkNotNull(projectId);
         this.rootOntology = checkNotNull(rootOntology);
+        this.forkJoinPool = checkNotNull(forkJoinPool);
     }
 
     /**
@@ -50,57 +63,84 @@ public class DictionaryBuilder {
     }
 
     /**
-     * Builds the specified dictionaries
+     * Builds the specified dictionaries.  The dictionaries are populated concurrently, from multiple threads.
      */
     public void buildAll(List<Dictionary> dictionaries) {
-        List<Dictionary> annotationBasedDictionaries = new ArrayList<>();
+        Map<IRI, List<Dictionary>> annotationBasedDictionaries = new HashMap<>();
         Dictionary localNameDictionary = null;
         for (Dictionary dictionary : dictionaries) {
-            if (dictionary.getLanguage().isAnnotationBased()) {
-                annotationBasedDictionaries.add(dictionary);
+            DictionaryLanguage language = dictionary.getLanguage();
+            if (language.isAnnotationBased()) {
+                IRI propertyIri = language.getAnnotationPropertyIri();
+                if (propertyIri != null) {
+                    annotationBasedDictionaries.computeIfAbsent(propertyIri, iri -> new ArrayList<>())
+                                               .add(dictionary);
+                }
             }
             else {
                 localNameDictionary = dictionary;
             }
         }
-        buildAnnotationBasedDictionaries(annotationBasedDictionaries);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        int axiomCount = 0;
+        if (!annotationBasedDictionaries.isEmpty()) {
+            for (OWLOntology ontology : rootOntology.getImportsClosure()) {
+                List<OWLAnnotationAssertionAxiom> axioms = new ArrayList<>(ontology.getAxioms(ANNOTATION_ASSERTION));
+                axiomCount += axioms.size();
+                for (List<OWLAnnotationAssertionAxiom> chunk : toChunks(axioms)) {
+                    tasks.add(forkJoinPool.submit(() -> processAnnotationAssertions(chunk, annotationBasedDictionaries)));
+                }
+            }
+        }
         if (localNameDictionary != null) {
-            buildLocalNameDictionary(localNameDictionary);
+            Dictionary dictionary = localNameDictionary;
+            List<OWLEntity> signature = new ArrayList<>(rootOntology.getSignature(Imports.INCLUDED));
+            for (List<OWLEntity> chunk : toChunks(signature)) {
+                tasks.add(forkJoinPool.submit(() -> processLocalNames(chunk, dictionary)));
+            }
         }
+        tasks.forEach(ForkJoinTask::join);
+        logger.info("{} Processed {} axioms in {} chunks in order to build dictionaries",
+                    projectId,
+                    axiomCount,
+                    tasks.size());
     }
 
-    private void buildLocalNameDictionary(Dictionary localNameDictionary) {
+    private <T> List<List<T>> toChunks(List<T> elements) {
+        int chunkCount = Math.max(1, forkJoinPool.getParallelism() * CHUNKS_PER_THREAD);
+        int chunkSize = Math.max(MIN_AXIOMS_PER_CHUNK, (elements.size() + chunkCount - 1) / chunkCount);
+        return Lists.partition(elements, chunkSize);
+    }
+
+    private void processLocalNames(List<OWLEntity> entities, Dictionary localNameDictionary) {
         LocalNameExtractor extractor = new LocalNameExtractor();
-        rootOntology.getSignature(Imports.INCLUDED)
-                    .forEach(entity -> {
-                        String shortForm = extractor.getLocalName(entity.getIRI());
-                        if (!shortForm.isEmpty()) {
-                            localNameDictionary.put(entity, shortForm);
-                        }
-                    });
+        for (OWLEntity entity : entities) {
+            String shortForm = extractor.getLocalName(entity.getIRI());
+            if (!shortForm.isEmpty()) {
+                localNameDictionary.put(entity, shortForm);
+            }
+        }
     }
 
-    private void buildAnnotationBasedDictionaries(List<Dictionary> annotationBasedDictionaries) {
-        if (annotationBasedDictionaries.isEmpty()) {
-            return;
+    private void processAnnotationAssertions(List<OWLAnnotationAssertionAxiom> axioms,
+                                             Map<IRI, List<Dictionary>> dictionariesByProperty) {
+        for (OWLAnnotationAssertionAxiom ax : axioms) {
+            List<Dictionary> dictionaries = dictionariesByProperty.get(ax.getProperty().getIRI());
+            if (dictionaries == null || !(ax.getSubject() instanceof IRI) || !(ax.getValue() instanceof OWLLiteral)) {
+                continue;
+            }
+            OWLLiteral literal = (OWLLiteral) ax.getValue();
+            Set<OWLEntity> entities = null;
+            for (Dictionary dictionary : dictionaries) {
+                if (isAxiomForDictionary(ax, dictionary)) {
+                    if (entities == null) {
+                        entities = rootOntology.getEntitiesInSignature((IRI) ax.getSubject(), Imports.INCLUDED);
+                    }
+                    for (OWLEntity entity : entities) {
+                        dictionary.put(entity, literal.getLiteral());
+                    }
+                }
+            }
         }
-        Counter counter = new Counter();
-        rootOntology.getImportsClosure().stream()
-                    .flatMap(ont -> ont.getAxioms(ANNOTATION_ASSERTION).stream())
-                    .peek(counter::increment)
-                    .forEach(ax -> {
-                        annotationBasedDictionaries.stream()
-                                                   .filter(dictionary -> isAxiomForDictionary(ax, dictionary))
-                                                   .forEach(dictionary -> {
-                                                       IRI iri = (IRI) ax.getSubject();
-                                                       String literal = ((OWLLiteral) ax.getValue()).getLiteral();
-                                                       rootOntology.getEntitiesInSignature(iri, Imports.INCLUDED).forEach(entity -> {
-                                                           dictionary.put(entity, literal);
-                                                       });
-                                                   });
-                    });
-        logger.info("{} Processed {} axioms in order to build annotation based dictionaries",
-                    projectId,
-                    counter.getCounter());
     }
 }
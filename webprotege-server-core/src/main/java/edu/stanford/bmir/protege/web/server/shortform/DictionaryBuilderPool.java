@@ -0,0 +1,17 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Qualifies the {@link java.util.concurrent.ForkJoinPool} that the chunks of a dictionary build are processed on.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DictionaryBuilderPool {
+
+}
@@ -0,0 +1,34 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * The dictionaries of a project as they were at a specific revision.
+ */
+@AutoValue
+public abstract class DictionarySnapshot {
+
+    @Nonnull
+    public static DictionarySnapshot get(@Nonnull RevisionNumber revisionNumber,
+                                         @Nonnull ImmutableMap<DictionaryLanguage, Dictionary> dictionaries) {
+        return new AutoValue_DictionarySnapshot(revisionNumber, dictionaries);
+    }
+
+    /**
+     * Gets the revision that the dictionaries reflect.  The dictionaries reflect all of the changes up to
+     * and including this revision, and possibly some of the changes in later revisions.
+     */
+    @Nonnull
+    public abstract RevisionNumber getRevisionNumber();
+
+    @Nonnull
+    public abstract ImmutableMap<DictionaryLanguage, Dictionary> getDictionaries();
+}
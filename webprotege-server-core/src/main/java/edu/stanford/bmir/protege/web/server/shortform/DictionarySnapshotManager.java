@@ -0,0 +1,106 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Restores dictionaries from snapshots and brings them up to date with the head revision.  The revisions after a
+ * snapshot are replayed through a {@link DictionaryUpdatesProcessor}, which is obtained lazily because it depends,
+ * indirectly, on the dictionaries that are being restored.
+ */
+public class DictionarySnapshotManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionarySnapshotManager.class);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final DictionarySnapshotStore snapshotStore;
+
+    @Nonnull
+    private final RevisionManager revisionManager;
+
+    @Nonnull
+    private final Provider<DictionaryUpdatesProcessor> dictionaryUpdatesProcessorProvider;
+
+    @Inject
+    public DictionarySnapshotManager(@Nonnull ProjectId projectId,
+                                     @Nonnull DictionarySnapshotStore snapshotStore,
+                                     @Nonnull RevisionManager revisionManager,
+                                     @Nonnull Provider<DictionaryUpdatesProcessor> dictionaryUpdatesProcessorProvider) {
+        this.projectId = checkNotNull(projectId);
+        this.snapshotStore = checkNotNull(snapshotStore);
+        this.revisionManager = checkNotNull(revisionManager);
+        this.dictionaryUpdatesProcessorProvider = checkNotNull(dictionaryUpdatesProcessorProvider);
+    }
+
+    /**
+     * Gets the head revision number of the project.
+     */
+    @Nonnull
+    public RevisionNumber getCurrentRevision() {
+        return revisionManager.getCurrentRevision();
+    }
+
+    /**
+     * Reads the latest snapshot of the dictionaries that is not ahead of the head revision.
+     */
+    @Nonnull
+    public Optional<DictionarySnapshot> readSnapshot() {
+        return snapshotStore.readSnapshot(revisionManager.getCurrentRevision());
+    }
+
+    /**
+     * Replays the revisions after the specified revision, up to and including the head revision, through the
+     * {@link DictionaryUpdatesProcessor}.
+     * @return The number of revisions that were replayed.
+     */
+    public long replayRevisionsAfter(@Nonnull RevisionNumber revisionNumber) {
+        var headRevision = revisionManager.getCurrentRevision().getValue();
+        var dictionaryUpdatesProcessor = dictionaryUpdatesProcessorProvider.get();
+        var replayed = 0L;
+        for(var rev = revisionNumber.getValue() + 1; rev <= headRevision; rev++) {
+            var revision = revisionManager.getRevision(RevisionNumber.getRevisionNumber(rev));
+            if(revision.isEmpty()) {
+                throw new IllegalStateException("Revision " + rev + " is missing from the change history");
+            }
+            dictionaryUpdatesProcessor.handleRevision(revision.get());
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * Writes a snapshot of the specified dictionaries.  Errors are logged.
+     * @param revisionNumber The revision that the dictionaries reflect.
+     * @param dictionaries The dictionaries.
+     */
+    public void writeSnapshot(@Nonnull RevisionNumber revisionNumber,
+                              @Nonnull Collection<Dictionary> dictionaries) {
+        try {
+            snapshotStore.writeSnapshot(revisionNumber, dictionaries);
+        } catch(IOException e) {
+            logger.error("{} Could not write dictionary snapshot of revision {}.  Cause: {}",
+                         projectId,
+                         revisionNumber.getValue(),
+                         e.getMessage(),
+                         e);
+        }
+    }
+}
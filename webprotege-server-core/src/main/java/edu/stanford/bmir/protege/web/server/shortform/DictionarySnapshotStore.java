@@ -0,0 +1,309 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableMap;
+import edu.stanford.bmir.protege.web.server.inject.project.ChangeHistoryFile;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.apache.commons.io.FileUtils;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Stores snapshots of the dictionaries of a project so that they do not have to be rebuilt, from a scan of the
+ * annotation assertions in the project ontologies, each time the project is loaded.  Snapshots are written to a
+ * directory next to the change history file.  Each snapshot is a single binary file that is named after the
+ * revision that it reflects.  Only the latest snapshot is kept.
+ *
+ * A snapshot file consists of a header (a magic number, the format version and the revision number), followed by
+ * the dictionaries, followed by a CRC32 checksum of everything before it.  Snapshots are memory mapped when they are
+ * read.  A snapshot that cannot be validated is discarded.
+ */
+@ProjectSingleton
+public class DictionarySnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionarySnapshotStore.class);
+
+    private static final String SNAPSHOTS_DIRECTORY_NAME = "dictionaries";
+
+    private static final String SNAPSHOT_FILE_PREFIX = "dictionaries-";
+
+    private static final String SNAPSHOT_FILE_SUFFIX = ".bin";
+
+    private static final String INCOMPLETE_SNAPSHOT_SUFFIX = ".tmp";
+
+    private static final int MAGIC_NUMBER = 0x57504443;
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Marks the end of the entries of a dictionary, in place of an entity type
+     */
+    private static final int END_OF_ENTRIES = 0xFF;
+
+    private static final int CHECKSUM_LENGTH = Long.BYTES;
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final File snapshotsDirectory;
+
+    @Nonnull
+    private final OWLDataFactory dataFactory;
+
+    @Nonnull
+    private final List<EntityType<?>> entityTypes = EntityType.values();
+
+    @Inject
+    public DictionarySnapshotStore(@Nonnull ProjectId projectId,
+                                   @Nonnull @ChangeHistoryFile File changeHistoryFile,
+                                   @Nonnull OWLDataFactory dataFactory) {
+        this.projectId = checkNotNull(projectId);
+        this.snapshotsDirectory = new File(changeHistoryFile.getParentFile(), SNAPSHOTS_DIRECTORY_NAME);
+        this.dataFactory = checkNotNull(dataFactory);
+    }
+
+    /**
+     * Reads the latest snapshot whose revision is at or below the specified revision.
+     * @param maxRevisionNumber The maximum revision number.  Snapshots of later revisions, which can only exist
+     *                          if the change history has been replaced, are ignored.
+     * @return The snapshot, or empty if there is no such snapshot or the snapshot could not be read.
+     */
+    @Nonnull
+    public synchronized Optional<DictionarySnapshot> readSnapshot(@Nonnull RevisionNumber maxRevisionNumber) {
+        var snapshotFiles = getSnapshotFiles();
+        var snapshotFileEntry = snapshotFiles.floorEntry(maxRevisionNumber.getValue());
+        if(snapshotFileEntry == null) {
+            return Optional.empty();
+        }
+        var snapshotFile = snapshotFileEntry.getValue();
+        var stopwatch = Stopwatch.createStarted();
+        try(var channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            var snapshot = parseSnapshot(buffer);
+            if(snapshot.getRevisionNumber().getValue() != snapshotFileEntry.getKey()) {
+                throw new IOException("Snapshot revision does not match the snapshot file name");
+            }
+            logger.info("{} Read dictionary snapshot of revision {} ({} dictionaries) in {} ms",
+                        projectId,
+                        snapshot.getRevisionNumber().getValue(),
+                        snapshot.getDictionaries().size(),
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+            return Optional.of(snapshot);
+        } catch(IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("{} Discarding dictionary snapshot {} because it could not be read.  Cause: {}",
+                        projectId,
+                        snapshotFile.getName(),
+                        e.getMessage());
+            FileUtils.deleteQuietly(snapshotFile);
+            return Optional.empty();
+        }
+    }
+
+    @Nonnull
+    private DictionarySnapshot parseSnapshot(@Nonnull ByteBuffer buffer) throws IOException {
+        if(buffer.limit() < Integer.BYTES * 3 + Long.BYTES + CHECKSUM_LENGTH) {
+            throw new IOException("Snapshot is truncated");
+        }
+        var contentLength = buffer.limit() - CHECKSUM_LENGTH;
+        var expectedChecksum = buffer.getLong(contentLength);
+        var checksum = new CRC32();
+        var content = buffer.duplicate();
+        content.limit(contentLength);
+        checksum.update(content);
+        if(checksum.getValue() != expectedChecksum) {
+            throw new IOException("Snapshot checksum does not match");
+        }
+        buffer.limit(contentLength);
+        if(buffer.getInt() != MAGIC_NUMBER) {
+            throw new IOException("Not a dictionary snapshot");
+        }
+        var formatVersion = buffer.getInt();
+        if(formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version: " + formatVersion);
+        }
+        var revisionNumber = RevisionNumber.getRevisionNumber(buffer.getLong());
+        var dictionaryCount = buffer.getInt();
+        var dictionaries = ImmutableMap.<DictionaryLanguage, Dictionary>builder();
+        for(int i = 0; i < dictionaryCount; i++) {
+            var dictionary = parseDictionary(buffer);
+            dictionaries.put(dictionary.getLanguage(), dictionary);
+        }
+        if(buffer.hasRemaining()) {
+            throw new IOException("Unexpected content at the end of the snapshot");
+        }
+        return DictionarySnapshot.get(revisionNumber, dictionaries.build());
+    }
+
+    @Nonnull
+    private Dictionary parseDictionary(@Nonnull ByteBuffer buffer) throws IOException {
+        var annotationPropertyIri = readString(buffer);
+        var lang = readString(buffer);
+        var language = DictionaryLanguage.create(annotationPropertyIri.isEmpty() ? null : IRI.create(annotationPropertyIri),
+                                                 lang);
+        var expectedSize = Math.min(buffer.getInt(), buffer.remaining());
+        var dictionary = Dictionary.createWithCapacity(Math.max(expectedSize, 1), language);
+        while(true) {
+            var entityTypeIndex = Byte.toUnsignedInt(buffer.get());
+            if(entityTypeIndex == END_OF_ENTRIES) {
+                return dictionary;
+            }
+            if(entityTypeIndex >= entityTypes.size()) {
+                throw new IOException("Unknown entity type: " + entityTypeIndex);
+            }
+            var iri = IRI.create(readString(buffer));
+            OWLEntity entity = dataFactory.getOWLEntity(entityTypes.get(entityTypeIndex), iri);
+            dictionary.put(entity, readString(buffer));
+        }
+    }
+
+    @Nonnull
+    private static String readString(@Nonnull ByteBuffer buffer) throws IOException {
+        var length = buffer.getInt();
+        if(length < 0 || length > buffer.remaining()) {
+            throw new IOException("Malformed string length: " + length);
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Writes a snapshot of the specified dictionaries and removes any earlier snapshots.
+     * @param revisionNumber The revision that the dictionaries reflect.  The dictionaries must reflect all of the
+     *                       changes up to and including this revision.
+     * @param dictionaries The dictionaries.
+     */
+    public synchronized void writeSnapshot(@Nonnull RevisionNumber revisionNumber,
+                                           @Nonnull Collection<Dictionary> dictionaries) throws IOException {
+        var stopwatch = Stopwatch.createStarted();
+        Files.createDirectories(snapshotsDirectory.toPath());
+        var snapshotFile = getSnapshotFile(revisionNumber);
+        var incompleteSnapshotFile = new File(snapshotsDirectory, snapshotFile.getName() + INCOMPLETE_SNAPSHOT_SUFFIX);
+        var checksum = new CRC32();
+        try(var fileOutputStream = new FileOutputStream(incompleteSnapshotFile);
+            var os = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fileOutputStream, checksum)))) {
+            os.writeInt(MAGIC_NUMBER);
+            os.writeInt(FORMAT_VERSION);
+            os.writeLong(revisionNumber.getValue());
+            os.writeInt(dictionaries.size());
+            for(var dictionary : dictionaries) {
+                writeDictionary(dictionary, os);
+            }
+            os.flush();
+            // The checksum covers everything before it, so it is written directly to the file
+            var checksumOutputStream = new DataOutputStream(fileOutputStream);
+            checksumOutputStream.writeLong(checksum.getValue());
+            checksumOutputStream.flush();
+            fileOutputStream.getFD().sync();
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(incompleteSnapshotFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        getSnapshotFiles().values()
+                          .stream()
+                          .filter(file -> !file.equals(snapshotFile))
+                          .forEach(FileUtils::deleteQuietly);
+        logger.info("{} Wrote dictionary snapshot of revision {} ({} dictionaries) in {} ms",
+                    projectId,
+                    revisionNumber.getValue(),
+                    dictionaries.size(),
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    private void writeDictionary(@Nonnull Dictionary dictionary,
+                                 @Nonnull DataOutputStream os) throws IOException {
+        var language = dictionary.getLanguage();
+        var annotationPropertyIri = language.getAnnotationPropertyIri();
+        writeString(annotationPropertyIri != null ? annotationPropertyIri.toString() : "", os);
+        writeString(language.getLang(), os);
+        // A hint for the capacity of the dictionary.  Entries may be added or removed whilst they are written.
+        os.writeInt(dictionary.size());
+        dictionary.forEach((entity, shortForm) -> {
+            try {
+                os.writeByte(entityTypes.indexOf(entity.getEntityType()));
+                writeString(entity.getIRI().toString(), os);
+                writeString(shortForm, os);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        os.writeByte(END_OF_ENTRIES);
+    }
+
+    private static void writeString(@Nonnull String s,
+                                    @Nonnull DataOutputStream os) throws IOException {
+        var bytes = s.getBytes(UTF_8);
+        os.writeInt(bytes.length);
+        os.write(bytes);
+    }
+
+    /**
+     * Gets the complete snapshot files, keyed by revision number.
+     */
+    @Nonnull
+    private TreeMap<Long, File> getSnapshotFiles() {
+        var snapshotFiles = new TreeMap<Long, File>();
+        var files = snapshotsDirectory.listFiles();
+        if(files == null) {
+            return snapshotFiles;
+        }
+        for(var file : files) {
+            var name = file.getName();
+            if(!name.startsWith(SNAPSHOT_FILE_PREFIX)) {
+                continue;
+            }
+            if(name.endsWith(INCOMPLETE_SNAPSHOT_SUFFIX)) {
+                // Left over from an interrupted write
+                FileUtils.deleteQuietly(file);
+                continue;
+            }
+            if(!name.endsWith(SNAPSHOT_FILE_SUFFIX)) {
+                continue;
+            }
+            try {
+                var revision = Long.parseLong(name.substring(SNAPSHOT_FILE_PREFIX.length(),
+                                                             name.length() - SNAPSHOT_FILE_SUFFIX.length()));
+                snapshotFiles.put(revision, file);
+            } catch(NumberFormatException e) {
+                logger.warn("{} Ignoring malformed dictionary snapshot file name: {}", projectId, name);
+            }
+        }
+        return snapshotFiles;
+    }
+
+    @Nonnull
+    private File getSnapshotFile(@Nonnull RevisionNumber revisionNumber) {
+        return new File(snapshotsDirectory, SNAPSHOT_FILE_PREFIX + revisionNumber.getValue() + SNAPSHOT_FILE_SUFFIX);
+    }
+}
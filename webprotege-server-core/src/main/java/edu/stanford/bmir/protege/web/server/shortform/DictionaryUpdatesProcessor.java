@@ -1,7 +1,10 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
 import edu.stanford.bmir.protege.web.server.change.HasGetChangeSubjects;
+import edu.stanford.bmir.protege.web.server.revision.Revision;
+import org.semanticweb.owlapi.change.OWLOntologyChangeRecord;
 import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
 
 import javax.annotation.Nonnull;
@@ -11,6 +14,7 @@ import java.util.Set;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 /**
@@ -28,11 +32,37 @@ public class DictionaryUpdatesProcessor {
     @Nonnull
     private final DictionaryManager dictionaryManager;
 
+    @Nonnull
+    private final OWLOntology rootOntology;
+
     @Inject
     public DictionaryUpdatesProcessor(@Nonnull HasGetChangeSubjects changeSubjectsProvider,
-                                      @Nonnull DictionaryManager dictionaryManager) {
+                                      @Nonnull DictionaryManager dictionaryManager,
+                                      @Nonnull OWLOntology rootOntology) {
         this.changeSubjectsProvider = checkNotNull(changeSubjectsProvider);
         this.dictionaryManager = checkNotNull(dictionaryManager);
+        this.rootOntology = checkNotNull(rootOntology);
+    }
+
+    /**
+     * Updates all dictionaries in response to the changes in the specified revision.  The changes are assumed to
+     * have been applied to the project ontologies.
+     */
+    public void handleRevision(@Nonnull Revision revision) {
+        var changes = revision.getChanges()
+                              .stream()
+                              .map(this::toOntologyChange)
+                              .collect(toList());
+        handleChanges(changes);
+    }
+
+    @Nonnull
+    private OWLOntologyChange toOntologyChange(@Nonnull OWLOntologyChangeRecord record) {
+        // The change is only used to find the entities that it affects, so changes to ontologies that are not
+        // in the manager (for example, anonymous ontologies, whose ids differ between loads) are made against
+        // the root ontology
+        var ontology = rootOntology.getOWLOntologyManager().getOntology(record.getOntologyID());
+        return record.getData().createOntologyChange(ontology != null ? ontology : rootOntology);
     }
 
     /**
@@ -0,0 +1,17 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import javax.inject.Qualifier;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Qualifies the executor that dictionaries are restored or built on in the background when a project is opened.
+ */
+@Qualifier
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DictionaryWarmUpExecutor {
+
+}
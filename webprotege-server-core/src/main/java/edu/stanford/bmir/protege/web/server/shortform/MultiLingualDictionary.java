@@ -23,12 +23,22 @@ import java.util.stream.Stream;
 public interface MultiLingualDictionary {
 
     /**
-     * Causes the specified list of languages to be pre-loaded.
+     * Causes the specified list of languages to be pre-loaded.  Loading takes place in the background.  Until
+     * a language has been loaded, short form lookups that need it fall back to local names.  Entity lookups and
+     * searches that need it wait for it to be loaded.
      * @param languages The list of languages that should be loaded.  After loading these languages will
      *                  be available for looking up short forms and entities.
      */
     void loadLanguages(@Nonnull List<DictionaryLanguage> languages);
 
+    /**
+     * Gets a stamp that identifies the set of dictionaries that short forms are looked up in.  The stamp changes
+     * whenever a dictionary starts being built.  If two calls return the same (non-negative) stamp then no
+     * lookups fell back to local names, because of a dictionary being built, between the calls.
+     * @return The stamp, or -1 if a dictionary is being built and lookups that need it fall back to local names.
+     */
+    long getLoadedStamp();
+
     /**
      * Gets a short form for the specified entity.  Dictionaries for the specified languages are examined
      * in the specified order.  This means that a short form for a language that appears earlier in the
@@ -46,7 +56,8 @@ public interface MultiLingualDictionary {
                         @Nonnull String defaultShortForm);
 
     /**
-     * Gets short forms containing the specified search strings
+     * Gets short forms containing the specified search strings.  If dictionaries for the specified languages are
+     * being loaded then this waits for them to be loaded.
      * @param searchStrings The search strings.
      * @param entityTypes The types of entities to be retrieved.
      * @param languages The list of languages to consider.
@@ -58,7 +69,8 @@ public interface MultiLingualDictionary {
                                         @Nonnull List<DictionaryLanguage> languages);
 
     /**
-     * Gets a stream of entities that exactly match the specified short form.
+     * Gets a stream of entities that exactly match the specified short form.  If dictionaries for the specified
+     * languages are being loaded then this waits for them to be loaded.
      * @param shortForm The short form.
      * @param languages A list of languages.  All dictionaries that are for the specified languages will be examined.
      */
@@ -2,6 +2,7 @@ package edu.stanford.bmir.protege.web.server.shortform;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
+import edu.stanford.bmir.protege.web.shared.HasDispose;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
@@ -13,7 +14,10 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -21,17 +25,32 @@ import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 3 Apr 2018
+ *
+ * Dictionaries may be built in the background (see {@link #loadLanguages(List)}).  Whilst a dictionary is being
+ * built, short forms are looked up in the other dictionaries and fall back to the local name of the entity.  Lookups
+ * of entities by short form, and searches, wait for the build to complete because an incomplete answer could, for
+ * example, lead to a duplicate entity being created for a name that is already in use.  Updates that arrive whilst a
+ * dictionary is being built are replayed on the dictionary once it has been built.
+ *
+ * Dictionaries that are loaded in the background are restored from a snapshot, if possible, and brought up to
+ * date by replaying the revisions after the snapshot.  A snapshot is written once dictionaries have been built and
+ * when this dictionary is disposed of, so that re-opening a project does not require a scan of the project
+ * ontologies.
  */
 @ProjectSingleton
-public class MultiLingualDictionaryImpl implements MultiLingualDictionary {
+public class MultiLingualDictionaryImpl implements MultiLingualDictionary, HasDispose {
 
     private static final Logger logger = LoggerFactory.getLogger(MultiLingualDictionaryImpl.class);
 
+    /**
+     * Guards the dictionaries that are being built
+     */
     @Nonnull
     private final Lock writeLock = new ReentrantLock();
 
@@ -39,86 +58,341 @@ public class MultiLingualDictionaryImpl implements MultiLingualDictionary {
     @Nonnull
     private final ProjectId projectId;
 
+    /**
+     * Dictionaries that have been built
+     */
     @Nonnull
     private final Map<DictionaryLanguage, Dictionary> dictionaries = new ConcurrentHashMap<>();
 
+    /**
+     * Dictionaries that are being built, along with the entities that have been updated since the build started
+     */
+    @Nonnull
+    private final Map<DictionaryLanguage, Set<OWLEntity>> dictionariesBeingBuilt = new HashMap<>();
+
+    /**
+     * Futures that complete when the builds of the dictionaries that are being built finish, whether or not they
+     * succeed.  Guarded by the write lock.
+     */
+    @Nonnull
+    private final Map<DictionaryLanguage, CompletableFuture<Void>> buildCompletions = new HashMap<>();
+
+    /**
+     * The number of dictionary builds that have been started.  Guarded by the write lock.
+     */
+    private long buildsStarted = 0;
+
+    @Nonnull
+    private final LocalNameExtractor localNameExtractor = new LocalNameExtractor();
+
     @Nonnull
     private DictionaryUpdater dictionaryUpdater;
 
     @Nonnull
     private DictionaryBuilder dictionaryBuilder;
 
+    @Nonnull
+    private final DictionarySnapshotManager snapshotManager;
+
+    @Nonnull
+    private final Executor warmUpExecutor;
+
     private boolean loaded = false;
 
+    /**
+     * The revision of the last snapshot that was read or written, or -1 if there is no such snapshot
+     */
+    private long snapshotRevision = -1;
+
     @Inject
     public MultiLingualDictionaryImpl(@Nonnull ProjectId projectId,
                                       @Nonnull DictionaryBuilder dictionaryBuilder,
-                                      @Nonnull DictionaryUpdater dictionaryUpdater) {
+                                      @Nonnull DictionaryUpdater dictionaryUpdater,
+                                      @Nonnull DictionarySnapshotManager snapshotManager,
+                                      @Nonnull @DictionaryWarmUpExecutor Executor warmUpExecutor) {
         this.projectId = checkNotNull(projectId);
         this.dictionaryUpdater = checkNotNull(dictionaryUpdater);
         this.dictionaryBuilder = checkNotNull(dictionaryBuilder);
+        this.snapshotManager = checkNotNull(snapshotManager);
+        this.warmUpExecutor = checkNotNull(warmUpExecutor);
     }
 
+    /**
+     * Starts restoring or building the dictionaries for the specified languages in the background.  Until a
+     * dictionary has been loaded, lookups that need it fall back to local names.
+     */
     @Override
     public synchronized void loadLanguages(@Nonnull List<DictionaryLanguage> languages) {
         if(loaded) {
             return;
         }
         loaded = true;
-        // It's suffices to ask for the dictionaries corresponding to these languages
-        findDictionaries(languages);
+        var languagesToBuild = startBuilding(languages);
+        if(languagesToBuild.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.runAsync(() -> warmUp(languagesToBuild), warmUpExecutor)
+                             .exceptionally(t -> {
+                                 logger.error("{} Could not build dictionaries for {}", projectId, languagesToBuild, t);
+                                 return null;
+                             });
+        } catch(RejectedExecutionException e) {
+            // Lookups that are waiting for the dictionaries build them on demand instead
+            logger.warn("{} Could not schedule building dictionaries for {}", projectId, languagesToBuild, e);
+            abandonBuilding(languagesToBuild);
+        }
     }
 
+    private void warmUp(@Nonnull List<DictionaryLanguage> languages) {
+        Set<DictionaryLanguage> restoredLanguages;
+        try {
+            restoredLanguages = restoreDictionaries(languages);
+        } catch(RuntimeException | Error e) {
+            abandonBuilding(languages);
+            throw e;
+        }
+        var languagesToBuild = languages.stream()
+                                        .filter(language -> !restoredLanguages.contains(language))
+                                        .collect(toList());
+        buildDictionaries(languagesToBuild);
+        writeSnapshot();
+    }
+
+    /**
+     * Restores the dictionaries for the specified languages, which must be marked as being built, from the
+     * latest snapshot.  The revisions after the snapshot are replayed, which records the entities that they affect
+     * against the dictionaries that are being built.  These entities are updated when the dictionaries are
+     * published.
+     * @return The languages whose dictionaries were restored.
+     */
+    @Nonnull
+    private Set<DictionaryLanguage> restoreDictionaries(@Nonnull List<DictionaryLanguage> languages) {
+        var snapshot = snapshotManager.readSnapshot();
+        if(snapshot.isEmpty()) {
+            return Collections.emptySet();
+        }
+        var snapshotDictionaries = snapshot.get().getDictionaries();
+        var restoredDictionaries = languages.stream()
+                                            .map(snapshotDictionaries::get)
+                                            .filter(Objects::nonNull)
+                                            .collect(toList());
+        if(restoredDictionaries.isEmpty()) {
+            return Collections.emptySet();
+        }
+        var snapshotRevisionNumber = snapshot.get().getRevisionNumber();
+        try {
+            var stopwatch = Stopwatch.createStarted();
+            var replayedRevisions = snapshotManager.replayRevisionsAfter(snapshotRevisionNumber);
+            logger.info("{} Restored dictionaries for {} from snapshot of revision {} and replayed {} revisions in {} ms",
+                        projectId,
+                        snapshotDictionaries.keySet(),
+                        snapshotRevisionNumber.getValue(),
+                        replayedRevisions,
+                        stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        } catch(RuntimeException e) {
+            logger.warn("{} Could not replay revisions after dictionary snapshot of revision {}.  The dictionaries will be rebuilt.",
+                        projectId,
+                        snapshotRevisionNumber.getValue(),
+                        e);
+            return Collections.emptySet();
+        }
+        synchronized (this) {
+            snapshotRevision = Math.max(snapshotRevision, snapshotRevisionNumber.getValue());
+        }
+        publishDictionaries(restoredDictionaries);
+        return restoredDictionaries.stream()
+                                   .map(Dictionary::getLanguage)
+                                   .collect(toSet());
+    }
+
+    /**
+     * Writes a snapshot of the dictionaries that have been built, if the last snapshot is behind the head revision.
+     */
+    private synchronized void writeSnapshot() {
+        var dictionariesToWrite = new ArrayList<Dictionary>();
+        // Dictionary updates are made before revisions are added, so all of the dictionaries reflect the head
+        // revision.  The head revision is retrieved before the dictionaries, which may not have been published yet.
+        var headRevision = snapshotManager.getCurrentRevision();
+        writeLock.lock();
+        try {
+            if(!dictionariesBeingBuilt.isEmpty()) {
+                // Avoid replacing a snapshot with one that has fewer dictionaries
+                return;
+            }
+            dictionariesToWrite.addAll(dictionaries.values());
+        } finally {
+            writeLock.unlock();
+        }
+        if(dictionariesToWrite.isEmpty() || headRevision.getValue() <= snapshotRevision) {
+            return;
+        }
+        snapshotManager.writeSnapshot(headRevision, dictionariesToWrite);
+        snapshotRevision = headRevision.getValue();
+    }
+
+    @Override
+    public void dispose() {
+        writeSnapshot();
+    }
+
+    /**
+     * Gets the dictionaries for the specified languages, in the order of the languages.  Dictionaries that do not
+     * exist, and are not being built, are built on the calling thread.  Dictionaries that are being built are
+     * not included.
+     */
     @Nonnull
     private List<Dictionary> findDictionaries(@Nonnull List<DictionaryLanguage> languages) {
         final var foundDictionaries = new ArrayList<Dictionary>();
-        final var dictionariesToBuild = new ArrayList<DictionaryLanguage>();
+        boolean missingDictionaries = false;
         for(var language : languages) {
             var dictionary = dictionaries.get(language);
             if(dictionary == null) {
-                // At this moment, we need to build a dictionary for this language
-                // We might not need to build it in the end if someone builds it before us...
-                dictionariesToBuild.add(language);
+                missingDictionaries = true;
             }
             else {
                 foundDictionaries.add(dictionary);
             }
         }
-        if(!dictionariesToBuild.isEmpty()) {
-            buildDictionaries(dictionariesToBuild);
-            return languages.stream().map(dictionaries::get).collect(toList());
-        }
-        else {
+        if(!missingDictionaries) {
             return foundDictionaries;
         }
+        var languagesToBuild = startBuilding(languages);
+        buildDictionaries(languagesToBuild);
+        return languages.stream()
+                        .map(dictionaries::get)
+                        .filter(Objects::nonNull)
+                        .collect(toList());
+    }
+
+    /**
+     * Gets the dictionaries for the specified languages, in the order of the languages.  Dictionaries that do not
+     * exist, and are not being built, are built on the calling thread.  If any of the dictionaries are being built
+     * on other threads then this method waits for them to be built.
+     */
+    @Nonnull
+    private List<Dictionary> awaitDictionaries(@Nonnull List<DictionaryLanguage> languages) {
+        while(true) {
+            var foundDictionaries = findDictionaries(languages);
+            if(foundDictionaries.size() == languages.size()) {
+                return foundDictionaries;
+            }
+            // If a build fails then its dictionaries are not published, and they are built on this thread
+            // the next time around
+            getBuildCompletions(languages).forEach(CompletableFuture::join);
+        }
+    }
 
+    @Nonnull
+    private List<CompletableFuture<Void>> getBuildCompletions(@Nonnull List<DictionaryLanguage> languages) {
+        writeLock.lock();
+        try {
+            return languages.stream()
+                            .map(buildCompletions::get)
+                            .filter(Objects::nonNull)
+                            .collect(toList());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the dictionaries for the specified languages as being built, if they have not been built and are not
+     * already being built.
+     * @return The languages that the caller is responsible for building.
+     */
+    @Nonnull
+    private List<DictionaryLanguage> startBuilding(@Nonnull List<DictionaryLanguage> languages) {
+        writeLock.lock();
+        try {
+            var languagesToBuild = new ArrayList<DictionaryLanguage>();
+            for(var language : languages) {
+                if(!dictionaries.containsKey(language) && !dictionariesBeingBuilt.containsKey(language)) {
+                    dictionariesBeingBuilt.put(language, new HashSet<>());
+                    buildCompletions.put(language, new CompletableFuture<>());
+                    languagesToBuild.add(language);
+                    buildsStarted++;
+                }
+            }
+            return languagesToBuild;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     private void buildDictionaries(@Nonnull List<DictionaryLanguage> dictionaryLanguages) {
         if(dictionaryLanguages.isEmpty()) {
             return;
         }
+        var dictionariesToBuild = dictionaryLanguages.stream()
+                                                     .map(Dictionary::create)
+                                                     .collect(toList());
         try {
-            // Prevent others from building the same dictionaries at the same time.  Dictionaries
-            // can still be read whilst building is taking place.  Others may make requests for a
-            // dictionary that is alread being built but they will not get to build this themselves.
-            writeLock.lock();
             var stopwatch = Stopwatch.createStarted();
             logger.info("{} Building dictionaries for {}", projectId, dictionaryLanguages);
-            var dictionariesToBuild = dictionaryLanguages
-                    .stream()
-                    .filter(lang -> !dictionaries.containsKey(lang))
-                    .map(Dictionary::create)
-                    .collect(toList());
-
             dictionaryBuilder.buildAll(dictionariesToBuild);
-            dictionariesToBuild.forEach(dictionary -> dictionaries.put(dictionary.getLanguage(), dictionary));
             stopwatch.stop();
             logger.info("{} Built dictionaries for {} in {}", projectId, dictionaryLanguages, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        } catch(RuntimeException | Error e) {
+            // The dictionaries may only be partially populated, so they are discarded rather than published.  The
+            // build is attempted again the next time that the dictionaries are needed.
+            abandonBuilding(dictionaryLanguages);
+            throw e;
+        }
+        publishDictionaries(dictionariesToBuild);
+    }
+
+    /**
+     * Unmarks the dictionaries for the specified languages as being built, without publishing them.
+     */
+    private void abandonBuilding(@Nonnull List<DictionaryLanguage> languages) {
+        writeLock.lock();
+        try {
+            languages.forEach(dictionariesBeingBuilt::remove);
+            languages.forEach(this::completeBuild);
         } finally {
             writeLock.unlock();
         }
+    }
+
+    /**
+     * Publishes dictionaries that have been built.  Any updates that were made during the build are replayed first.
+     */
+    private void publishDictionaries(@Nonnull List<Dictionary> builtDictionaries) {
+        writeLock.lock();
+        try {
+            for(var dictionary : builtDictionaries) {
+                var updatedEntities = dictionariesBeingBuilt.remove(dictionary.getLanguage());
+                if(updatedEntities != null && !updatedEntities.isEmpty()) {
+                    dictionaryUpdater.update(dictionary, updatedEntities);
+                }
+                dictionaries.put(dictionary.getLanguage(), dictionary);
+                completeBuild(dictionary.getLanguage());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Signals that the build of the dictionary for the specified language has finished.  This must be called with
+     * the write lock held.
+     */
+    private void completeBuild(@Nonnull DictionaryLanguage language) {
+        var buildCompletion = buildCompletions.remove(language);
+        if(buildCompletion != null) {
+            buildCompletion.complete(null);
+        }
+    }
 
+    @Override
+    public long getLoadedStamp() {
+        writeLock.lock();
+        try {
+            return dictionariesBeingBuilt.isEmpty() ? buildsStarted : -1;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Nonnull
@@ -128,12 +402,22 @@ public class MultiLingualDictionaryImpl implements MultiLingualDictionary {
                                @Nonnull String defaultShortForm) {
         checkNotNull(defaultShortForm);
         var dictionaries = findDictionaries(languages);
-        return dictionaries
+        var shortForm = dictionaries
                 .stream()
                 .map(dictionary -> dictionary.getShortForm(entity, ""))
-                .filter(shortForm -> !shortForm.isEmpty())
-                .findFirst()
-                .orElse(defaultShortForm);
+                .filter(sf -> !sf.isEmpty())
+                .findFirst();
+        if(shortForm.isPresent()) {
+            return shortForm.get();
+        }
+        if(dictionaries.size() < languages.size()) {
+            // Some dictionaries are still being built
+            var localName = localNameExtractor.getLocalName(entity.getIRI());
+            if(!localName.isEmpty()) {
+                return localName;
+            }
+        }
+        return defaultShortForm;
     }
 
     @Nonnull
@@ -143,7 +427,7 @@ public class MultiLingualDictionaryImpl implements MultiLingualDictionary {
         if(entityTypes.isEmpty()) {
             return Stream.empty();
         }
-        var dictionaries = findDictionaries(languages);
+        var dictionaries = awaitDictionaries(languages);
         return dictionaries
                 .stream()
                 .flatMap(dictionary -> dictionary.getShortFormsContaining(searchString, entityTypes));
@@ -153,7 +437,7 @@ public class MultiLingualDictionaryImpl implements MultiLingualDictionary {
     @Override
     public Stream<OWLEntity> getEntities(@Nonnull String shortForm,
                                          @Nonnull List<DictionaryLanguage> languages) {
-        var dictionaries = findDictionaries(languages);
+        var dictionaries = awaitDictionaries(languages);
         return dictionaries.stream().flatMap(dictionary -> dictionary.getEntities(shortForm));
     }
 
@@ -161,21 +445,29 @@ public class MultiLingualDictionaryImpl implements MultiLingualDictionary {
     public void update(@Nonnull Collection<OWLEntity> entities,
                        @Nonnull List<DictionaryLanguage> languages) {
         logger.debug("Updating dictionary entries for {} entities.", entities.size());
-        findAllDictionaries(languages).forEach(dictionary -> dictionaryUpdater.update(dictionary, entities));
+        findAllDictionaries(languages, entities).forEach(dictionary -> dictionaryUpdater.update(dictionary, entities));
     }
 
     /**
      * Finds all the dictionaries in this multi-lingual dictionary.  The specified list of
-     * languages will be guaranteed to exists.
+     * languages will be guaranteed to exists.  The specified entities are recorded against any dictionaries
+     * that are being built so that they can be updated once they have been built.
      *
      * @param languages The languages
-     * @return The dictionaries
+     * @return The dictionaries that have been built
      */
     @Nonnull
-    private Stream<Dictionary> findAllDictionaries(@Nonnull List<DictionaryLanguage> languages) {
+    private Stream<Dictionary> findAllDictionaries(@Nonnull List<DictionaryLanguage> languages,
+                                                   @Nonnull Collection<OWLEntity> updatedEntities) {
         // Add any languages that are not present
         findDictionaries(languages);
-        return dictionaries.values().stream();
+        writeLock.lock();
+        try {
+            dictionariesBeingBuilt.values().forEach(entities -> entities.addAll(updatedEntities));
+            return new ArrayList<>(dictionaries.values()).stream();
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
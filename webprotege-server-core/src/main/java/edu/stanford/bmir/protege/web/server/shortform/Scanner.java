@@ -1,6 +1,7 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -12,9 +13,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class Scanner {
 
     @Nonnull
-    private final String shortForm;
+    private final CharSequence shortForm;
 
-    @Nonnull
+    /**
+     * The lower case short form, or null if the short form is lower cased as it is scanned
+     */
+    @Nullable
     private final String lowerCaseShortForm;
 
     private int position = 0;
@@ -27,6 +31,14 @@ public class Scanner {
         this.lowerCaseShortForm = checkNotNull(lowerCaseShortForm);
     }
 
+    /**
+     * Creates a scanner for a short form that is lower cased, one char at a time, as it is scanned.
+     */
+    public Scanner(@Nonnull CharSequence shortForm) {
+        this.shortForm = checkNotNull(shortForm);
+        this.lowerCaseShortForm = null;
+    }
+
     /**
      * Scans the short form, in a case insensitive way, for the specified {@link SearchString}.
      * @param searchString The search string.
@@ -38,14 +50,14 @@ public class Scanner {
             char ch = shortForm.charAt(position);
             if (searchString.isWildCard()) {
                 // We can start the match anywhere in the string
-                if(searchString.matches(lowerCaseShortForm, position)) {
+                if(matches(searchString)) {
                     return position;
                 }
             }
             else {
                 // We only start the match at transitions (new words)
                 if (isTransition(ch)) {
-                    if (searchString.matches(lowerCaseShortForm, position)) {
+                    if (matches(searchString)) {
                         return position;
                     }
                 }
@@ -55,6 +67,15 @@ public class Scanner {
         return -1;
     }
 
+    private boolean matches(@Nonnull SearchString searchString) {
+        if (lowerCaseShortForm != null) {
+            return searchString.matches(lowerCaseShortForm, position);
+        }
+        else {
+            return searchString.matchesIgnoreCase(shortForm, position);
+        }
+    }
+
     private boolean isTransition(char ch) {
         return position == 0 || isWordBoundaryTransition(ch) || isCaseTransition(ch) || isNumericTransition(ch);
     }
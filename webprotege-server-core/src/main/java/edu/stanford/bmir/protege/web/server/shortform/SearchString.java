@@ -21,11 +21,12 @@ public class SearchString {
 
     private SearchString(@Nonnull String rawSearchString) {
         this.rawSearchString = rawSearchString;
+        // Lower cased in the same way as the short forms that are searched, rather than with the default locale
         if (rawSearchString.startsWith("*")) {
-            searchString = rawSearchString.substring(1).toLowerCase();
+            searchString = CompactShortFormStore.toLowerCase(rawSearchString.substring(1));
         }
         else {
-            searchString = rawSearchString.toLowerCase();
+            searchString = CompactShortFormStore.toLowerCase(rawSearchString);
         }
     }
 
@@ -64,6 +65,23 @@ public class SearchString {
         return string.startsWith(searchString, start);
     }
 
+    /**
+     * Determines whether this search string matches the specified chars, ignoring case, at the specified position.
+     * The chars are lower cased one at a time as they are compared.
+     */
+    public boolean matchesIgnoreCase(@Nonnull CharSequence chars, int start) {
+        int length = searchString.length();
+        if(start < 0 || start + length > chars.length()) {
+            return false;
+        }
+        for(int i = 0; i < length; i++) {
+            if(Character.toLowerCase(chars.charAt(start + i)) != searchString.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 
     @Override
     public String toString() {
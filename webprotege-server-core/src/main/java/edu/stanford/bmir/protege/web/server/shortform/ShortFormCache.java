@@ -1,9 +1,5 @@
 package edu.stanford.bmir.protege.web.server.shortform;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import com.google.common.primitives.ImmutableIntArray;
 import org.semanticweb.owlapi.model.EntityType;
 import org.semanticweb.owlapi.model.OWLEntity;
@@ -14,11 +10,15 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Matthew Horridge
@@ -28,17 +28,19 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Instances of this class are threadsafe.  Note, however, that consistency is not guaranteed when
  * iterating over results.  Short forms may be added or removed or changed whilst readers are iterating
  * over results.
+ *
+ * Short forms are held in a {@link CompactShortFormStore}, which shards entities over independently locked
+ * partitions and stores short forms in byte arenas rather than as strings.
  */
 public class ShortFormCache {
 
     private static final int DEFAULT_CAPACITY = 100;
 
     @Nonnull
-    private final Map<OWLEntity, ShortForm> entity2ShortFormMap;
+    private final CompactShortFormStore store;
 
     @Nonnull
-    private final Multimap<String, OWLEntity> shortForm2EntityMap;
-
+    private final TrigramIndex trigramIndex;
 
     @Inject
     public ShortFormCache() {
@@ -46,12 +48,8 @@ public class ShortFormCache {
     }
 
     private ShortFormCache(int capacity) {
-        this.entity2ShortFormMap = new ConcurrentHashMap<>(DEFAULT_CAPACITY);
-        // It might be wasteful to build this map up front.  It's only really used if
-        // users edit the project.  With large ontologies there could be an unfortable delay
-        // after project load though.
-        this.shortForm2EntityMap = Multimaps.synchronizedMultimap(HashMultimap.create(capacity, 1));
-
+        this.store = new CompactShortFormStore(capacity);
+        this.trigramIndex = new TrigramIndex(this::getLowerCaseShortForm);
     }
 
     @Nonnull
@@ -68,7 +66,7 @@ public class ShortFormCache {
      * Gets the number of OWL Entities that are mapped to short forms by this {@link Dictionary}
      */
     public int size() {
-        return entity2ShortFormMap.size();
+        return store.size();
     }
 
     /**
@@ -79,29 +77,40 @@ public class ShortFormCache {
      */
     public void put(@Nonnull OWLEntity entity,
                     @Nonnull String shortForm) {
-        entity2ShortFormMap.put(checkNotNull(entity), ShortForm.create(checkNotNull(shortForm)));
-        shortForm2EntityMap.put(shortForm, entity);
+        checkNotNull(entity);
+        checkNotNull(shortForm);
+        putInternal(entity, shortForm);
     }
 
     /**
      * Adds entries for all of the entries contains in the specified map of entities to short forms.
      */
     public void putAll(@Nonnull Map<OWLEntity, String> shortForms) {
+        shortForms.forEach(this::putInternal);
+    }
 
-        shortForms.forEach((entity, sf) -> {
-            entity2ShortFormMap.put(entity, ShortForm.create(sf));
-            shortForm2EntityMap.put(sf, entity);
-        });
-
+    private void putInternal(@Nonnull OWLEntity entity,
+                             @Nonnull String shortForm) {
+        // The trigram index is updated after the store so that a posting list compaction, which checks
+        // the current short form of an entity, never discards an entry that is still needed.
+        String previousShortForm = store.put(entity, shortForm);
+        if (previousShortForm != null) {
+            if (previousShortForm.equals(shortForm)) {
+                return;
+            }
+            trigramIndex.remove(entity, CompactShortFormStore.toLowerCase(previousShortForm));
+        }
+        trigramIndex.add(entity, CompactShortFormStore.toLowerCase(shortForm));
     }
 
     /**
      * Removes the entry for the specified entity.
      */
     public void remove(@Nonnull OWLEntity entity) {
-        ShortForm shortForm = entity2ShortFormMap.remove(checkNotNull(entity));
+        checkNotNull(entity);
+        String shortForm = store.remove(entity);
         if (shortForm != null) {
-            shortForm2EntityMap.removeAll(shortForm);
+            trigramIndex.remove(entity, CompactShortFormStore.toLowerCase(shortForm));
         }
     }
 
@@ -109,8 +118,14 @@ public class ShortFormCache {
      * Clears this cache.
      */
     public void clear() {
-        shortForm2EntityMap.clear();
-        entity2ShortFormMap.clear();
+        store.clear();
+        trigramIndex.clear();
+    }
+
+    @Nullable
+    private String getLowerCaseShortForm(@Nonnull OWLEntity entity) {
+        String shortForm = store.get(entity);
+        return shortForm != null ? CompactShortFormStore.toLowerCase(shortForm) : null;
     }
 
     /**
@@ -119,15 +134,22 @@ public class ShortFormCache {
      */
     public String getShortFormOrElse(@Nonnull OWLEntity entity,
                                      @Nullable String defaultShortForm) {
-        ShortForm shortForm = entity2ShortFormMap.get(entity);
+        String shortForm = store.get(entity);
         if (shortForm == null) {
             return defaultShortForm;
         }
         else {
-            return shortForm.getShortForm();
+            return shortForm;
         }
     }
 
+    /**
+     * Passes each entity, along with its short form, to the specified consumer.
+     */
+    public void forEach(@Nonnull BiConsumer<OWLEntity, String> consumer) {
+        store.forEach(checkNotNull(consumer));
+    }
+
     /**
      * Gets the entities that have the specified short form.  This must be an exact match.
      *
@@ -135,7 +157,7 @@ public class ShortFormCache {
      */
     @Nonnull
     public Stream<OWLEntity> getEntities(@Nonnull String shortForm) {
-        return ImmutableList.copyOf(shortForm2EntityMap.get(shortForm)).stream();
+        return store.getEntities(shortForm).stream();
     }
 
     /**
@@ -155,84 +177,57 @@ public class ShortFormCache {
             return Stream.empty();
         }
         boolean matchAllEntityTypes = entityTypes.containsAll(EntityType.values());
-        final int [] matchPositions = new int [searchStrings.size()];
-        return entity2ShortFormMap.entrySet().stream()
-                                  .filter(e -> matchAllEntityTypes || entityTypes.contains(e.getKey().getEntityType()))
-                                  .map(e -> {
-                                      ShortForm shortForm = e.getValue();
-                                      Scanner scanner = new Scanner(shortForm.shortForm,
-                                                                    shortForm.lowerCaseShortForm);
-                                      int matchCount = 0;
-                                      for (int i = 0; i < searchStrings.size(); i++) {
-                                          SearchString searchString = searchStrings.get(i);
-                                          int index = scanner.indexOf(searchString, 0);
-                                          matchPositions[i] = index;
-                                          if (index == -1) {
-                                              // Search is boolean AND
-                                              return null;
-                                          }
-                                          matchCount++;
-                                      }
-                                      if (matchCount > 0) {
-                                          return matchFunction.createMatch(e.getKey(),
-                                                                           shortForm.getShortForm(),
-                                                                           matchCount,
-                                                                           ImmutableIntArray.copyOf(matchPositions));
-                                      }
-                                      else {
-                                          return null;
-                                      }
-                                  })
-                                  .filter(Objects::nonNull);
-    }
-
-    private static class ShortForm {
-
-        private final String shortForm;
-
-        private final String lowerCaseShortForm;
-
-        private ShortForm(String shortForm, String lowerCaseShortForm) {
-            this.shortForm = shortForm;
-            this.lowerCaseShortForm = lowerCaseShortForm;
+        Predicate<OWLEntity> entityFilter = entity -> matchAllEntityTypes || entityTypes.contains(entity.getEntityType());
+        CompactShortFormStore.ShortFormMatcher<ShortFormMatch> matcher =
+                (entity, shortForm) -> match(entity, shortForm, searchStrings, matchFunction);
+        // Search strings of at least three characters narrow the search down to the entities whose
+        // short forms contain all of their trigrams.  The candidates are then verified with a scanner.
+        // Shorter search strings require a scan over all short forms.
+        List<String> lowerCaseSearchStrings = searchStrings.stream()
+                                                           .map(SearchString::getSearchString)
+                                                           .collect(toList());
+        Optional<Set<OWLEntity>> candidates = trigramIndex.getCandidates(lowerCaseSearchStrings);
+        if (candidates.isPresent()) {
+            return candidates.get()
+                             .stream()
+                             .filter(entityFilter)
+                             // Null if removed since the candidates were retrieved
+                             .map(entity -> store.match(entity, matcher))
+                             .filter(Objects::nonNull);
         }
-
-        public static ShortForm create(@Nonnull String shortForm) {
-            String lc = shortForm.toLowerCase();
-            String lowerCaseShortForm;
-            if (lc.equals(shortForm)) {
-                lowerCaseShortForm = shortForm;
-            }
-            else {
-                lowerCaseShortForm = lc;
-            }
-            return new ShortForm(shortForm, lowerCaseShortForm);
-        }
-
-        public String getShortForm() {
-            return shortForm;
+        else {
+            return IntStream.range(0, CompactShortFormStore.getShardCount())
+                            .boxed()
+                            .flatMap(shard -> store.matchAll(shard, entityFilter, matcher).stream());
         }
+    }
 
-        public int indexOfIgnoreCase(@Nonnull String searchString) {
-            return lowerCaseShortForm.indexOf(searchString);
+    @Nullable
+    private static ShortFormMatch match(@Nonnull OWLEntity entity,
+                                        @Nonnull CharSequence shortForm,
+                                        @Nonnull List<SearchString> searchStrings,
+                                        @Nonnull ShortFormMatchFunction matchFunction) {
+        Scanner scanner = new Scanner(shortForm);
+        int [] matchPositions = new int [searchStrings.size()];
+        int matchCount = 0;
+        for (int i = 0; i < searchStrings.size(); i++) {
+            SearchString searchString = searchStrings.get(i);
+            int index = scanner.indexOf(searchString, 0);
+            matchPositions[i] = index;
+            if (index == -1) {
+                // Search is boolean AND
+                return null;
+            }
+            matchCount++;
         }
-
-        @Override
-        public int hashCode() {
-            return shortForm.hashCode();
+        if (matchCount > 0) {
+            return matchFunction.createMatch(entity,
+                                             shortForm.toString(),
+                                             matchCount,
+                                             ImmutableIntArray.copyOf(matchPositions));
         }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (obj == this) {
-                return true;
-            }
-            if (!(obj instanceof ShortForm)) {
-                return false;
-            }
-            ShortForm other = (ShortForm) obj;
-            return this.shortForm.equals(other.shortForm);
+        else {
+            return null;
         }
     }
-
 }
@@ -0,0 +1,200 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * An inverted index from the trigrams (three character substrings) of lower case short forms to the entities that
+ * have those short forms.  The index is used to find candidate entities for a search.  Candidates are a superset
+ * of the entities whose short forms actually match the search, so they must be verified.
+ *
+ * Removals are lazy.  An entity is not removed from its posting lists straight away.  Instead, a posting list is
+ * compacted, against the current short forms, once enough of its entries have been removed.  Posting lists may
+ * therefore contain stale and duplicate entries.  These are filtered out during verification.
+ *
+ * This class is thread safe.
+ */
+class TrigramIndex {
+
+    private static final int TRIGRAM_LENGTH = 3;
+
+    /**
+     * Once the candidate set for a search has shrunk to this size it is cheaper to verify the candidates
+     * than to carry on intersecting posting lists
+     */
+    private static final int VERIFICATION_THRESHOLD = 64;
+
+    private final Map<Long, Postings> postingsByTrigram = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the current lower case short form for an entity, or null if the entity does not have a short form
+     */
+    @Nonnull
+    private final Function<OWLEntity, String> currentLowerCaseShortForm;
+
+    TrigramIndex(@Nonnull Function<OWLEntity, String> currentLowerCaseShortForm) {
+        this.currentLowerCaseShortForm = checkNotNull(currentLowerCaseShortForm);
+    }
+
+    /**
+     * Indexes the specified entity under the trigrams of the specified lower case short form.
+     */
+    void add(@Nonnull OWLEntity entity, @Nonnull String lowerCaseShortForm) {
+        for(var trigram : getDistinctTrigrams(lowerCaseShortForm)) {
+            postingsByTrigram.computeIfAbsent(trigram, t -> new Postings()).add(entity);
+        }
+    }
+
+    /**
+     * Notes that the specified entity no longer has the specified lower case short form.  This should be
+     * called after the entity's current short form has been changed or removed.
+     */
+    void remove(@Nonnull OWLEntity entity, @Nonnull String lowerCaseShortForm) {
+        for(var trigram : getDistinctTrigrams(lowerCaseShortForm)) {
+            var postings = postingsByTrigram.get(trigram);
+            if(postings != null) {
+                postings.remove(trigram, currentLowerCaseShortForm);
+            }
+        }
+    }
+
+    void clear() {
+        postingsByTrigram.clear();
+    }
+
+    /**
+     * Gets the candidate entities for the specified lower case search strings.  Every entity whose short form
+     * contains all of the search strings is a candidate.
+     * @return The candidates, or empty if none of the search strings are long enough to be looked up in this index.
+     */
+    @Nonnull
+    Optional<Set<OWLEntity>> getCandidates(@Nonnull List<String> lowerCaseSearchStrings) {
+        var trigrams = new LinkedHashSet<Long>();
+        for(var searchString : lowerCaseSearchStrings) {
+            for(var trigram : getDistinctTrigrams(searchString)) {
+                trigrams.add(trigram);
+            }
+        }
+        if(trigrams.isEmpty()) {
+            return Optional.empty();
+        }
+        var postingLists = new ArrayList<OWLEntity[]>(trigrams.size());
+        for(var trigram : trigrams) {
+            var postings = postingsByTrigram.get(trigram);
+            if(postings == null) {
+                return Optional.of(Collections.emptySet());
+            }
+            postingLists.add(postings.toArray());
+        }
+        // Intersect, starting with the shortest posting list
+        postingLists.sort(Comparator.comparingInt(postingList -> postingList.length));
+        Set<OWLEntity> candidates = new HashSet<>(Arrays.asList(postingLists.get(0)));
+        for(int i = 1; i < postingLists.size() && candidates.size() > VERIFICATION_THRESHOLD; i++) {
+            var intersection = new HashSet<OWLEntity>(candidates.size());
+            for(var entity : postingLists.get(i)) {
+                if(candidates.contains(entity)) {
+                    intersection.add(entity);
+                }
+            }
+            candidates = intersection;
+        }
+        return Optional.of(candidates);
+    }
+
+    @Nonnull
+    static long[] getDistinctTrigrams(@Nonnull String s) {
+        if(s.length() < TRIGRAM_LENGTH) {
+            return new long[0];
+        }
+        var trigrams = new long[s.length() - TRIGRAM_LENGTH + 1];
+        for(int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = getTrigram(s, i);
+        }
+        Arrays.sort(trigrams);
+        int distinctCount = 0;
+        for(int i = 0; i < trigrams.length; i++) {
+            if(i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinctCount] = trigrams[i];
+                distinctCount++;
+            }
+        }
+        return Arrays.copyOf(trigrams, distinctCount);
+    }
+
+    private static long getTrigram(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    private static boolean containsTrigram(@Nullable String s, long trigram) {
+        if(s == null) {
+            return false;
+        }
+        for(int i = 0; i + TRIGRAM_LENGTH <= s.length(); i++) {
+            if(getTrigram(s, i) == trigram) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The entities for one trigram
+     */
+    private static class Postings {
+
+        private static final int MIN_REMOVALS_BEFORE_COMPACTION = 16;
+
+        private OWLEntity[] entities = new OWLEntity[2];
+
+        private int size = 0;
+
+        private int removals = 0;
+
+        synchronized void add(OWLEntity entity) {
+            if(size == entities.length) {
+                entities = Arrays.copyOf(entities, size * 2);
+            }
+            entities[size] = entity;
+            size++;
+        }
+
+        synchronized void remove(long trigram, Function<OWLEntity, String> currentLowerCaseShortForm) {
+            removals++;
+            if(removals >= MIN_REMOVALS_BEFORE_COMPACTION && removals * 2 >= size) {
+                compact(trigram, currentLowerCaseShortForm);
+            }
+        }
+
+        private void compact(long trigram, Function<OWLEntity, String> currentLowerCaseShortForm) {
+            var seen = new HashSet<OWLEntity>(size);
+            int compactedSize = 0;
+            for(int i = 0; i < size; i++) {
+                var entity = entities[i];
+                if(seen.add(entity) && containsTrigram(currentLowerCaseShortForm.apply(entity), trigram)) {
+                    entities[compactedSize] = entity;
+                    compactedSize++;
+                }
+            }
+            Arrays.fill(entities, compactedSize, size, null);
+            size = compactedSize;
+            removals = 0;
+            if(entities.length > 4 * Math.max(size, 2)) {
+                entities = Arrays.copyOf(entities, Math.max(size, 2));
+            }
+        }
+
+        synchronized OWLEntity[] toArray() {
+            return Arrays.copyOf(entities, size);
+        }
+    }
+}
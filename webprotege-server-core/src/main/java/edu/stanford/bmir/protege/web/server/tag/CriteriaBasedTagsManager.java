@@ -1,15 +1,24 @@
 package edu.stanford.bmir.protege.web.server.tag;
 
+import com.google.common.collect.*;
+import edu.stanford.bmir.protege.web.server.change.HasGetChangeSubjects;
+import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.inject.project.RootOntology;
+import edu.stanford.bmir.protege.web.server.match.Matcher;
 import edu.stanford.bmir.protege.web.server.match.MatchingEngine;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
-import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import edu.stanford.bmir.protege.web.shared.tag.Tag;
 import edu.stanford.bmir.protege.web.shared.tag.TagId;
-import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -18,6 +27,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 19 Jun 2018
+ *
+ * Manages the tags that are assigned to entities by virtue of the entities matching tag criteria.  The tags of
+ * each entity are materialized in an index, which is built on first use after the project tags have changed and
+ * which is then kept up to date by re-evaluating the criteria for the entities that are affected by ontology
+ * changes.
  */
 @ProjectSingleton
 public class CriteriaBasedTagsManager {
@@ -28,31 +42,251 @@ public class CriteriaBasedTagsManager {
     @Nonnull
     private final MatchingEngine matchingEngine;
 
+    @Nonnull
+    private final OWLOntology rootOntology;
+
+    @Nonnull
+    private final HasGetChangeSubjects changeSubjectsProvider;
+
+    @Nonnull
+    private final ClassHierarchyProvider classHierarchyProvider;
+
+    private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    /**
+     * The materialized tags for each entity.  Entities that do not have any criteria based tags are absent.
+     * This is {@code null} if the index needs to be (re)built.
+     */
+    @Nullable
+    private Map<OWLEntity, ImmutableSet<TagId>> tagsByEntity;
+
+    private final SetMultimap<TagId, OWLEntity> entitiesByTag = HashMultimap.create();
+
     @Inject
     public CriteriaBasedTagsManager(@Nonnull TagRepository tagRepository,
-                                    @Nonnull MatchingEngine matchingEngine) {
+                                    @Nonnull MatchingEngine matchingEngine,
+                                    @Nonnull @RootOntology OWLOntology rootOntology,
+                                    @Nonnull HasGetChangeSubjects changeSubjectsProvider,
+                                    @Nonnull ClassHierarchyProvider classHierarchyProvider) {
         this.tagRepository = checkNotNull(tagRepository);
         this.matchingEngine = checkNotNull(matchingEngine);
+        this.rootOntology = checkNotNull(rootOntology);
+        this.changeSubjectsProvider = checkNotNull(changeSubjectsProvider);
+        this.classHierarchyProvider = checkNotNull(classHierarchyProvider);
     }
 
     public Stream<TagId> getTagsForEntity(@Nonnull OWLEntity entity) {
-        return tagRepository.findTags()
-                     .stream()
-                     .map(tag -> {
-                         if(matchingEngine.matchesAny(entity, tag.getCriteria())) {
-                             return tag;
-                         }
-                         else {
-                             return null;
-                         }
-                     })
-                     .filter(Objects::nonNull)
-                     .map(Tag::getTagId);
+        return readIndex(index -> index.getOrDefault(entity, ImmutableSet.of())).stream();
+    }
+
+    /**
+     * Gets the criteria based tags for each of the specified entities.
+     * @param entities The entities.
+     * @return A multimap from entity to the ids of the tags whose criteria match that entity.
+     */
+    @Nonnull
+    public ListMultimap<OWLEntity, TagId> getTagsForEntities(@Nonnull Collection<? extends OWLEntity> entities) {
+        ListMultimap<OWLEntity, TagId> result = ArrayListMultimap.create();
+        if(entities.isEmpty()) {
+            return result;
+        }
+        return readIndex(index -> {
+            for(OWLEntity entity : ImmutableSet.copyOf(entities)) {
+                result.putAll(entity, index.getOrDefault(entity, ImmutableSet.of()));
+            }
+            return result;
+        });
     }
 
     public Stream<OWLEntity> getTaggedEntities(@Nonnull TagId tagId) {
-        return tagRepository.findTagByTagId(tagId)
-                     .map(tag -> matchingEngine.matchAny(tag.getCriteria()))
-                     .orElse(Stream.empty());
+        // Copy so that the entities can be streamed outside of the lock
+        return readIndex(index -> ImmutableList.copyOf(entitiesByTag.get(tagId))).stream();
+    }
+
+    /**
+     * Discards the materialized tags.  This should be called when the tag definitions (and so the tag criteria)
+     * for the project have changed.  The tags are re-materialized on next use.
+     */
+    public void handleProjectTagsChanged() {
+        try {
+            readWriteLock.writeLock().lock();
+            tagsByEntity = null;
+            entitiesByTag.clear();
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the materialized tags in response to the specified list of (applied) ontology changes.  Only the
+     * entities that are affected by the changes are re-evaluated against the tag criteria.
+     */
+    public void handleChanges(@Nonnull List<? extends OWLOntologyChange> changes) {
+        try {
+            readWriteLock.writeLock().lock();
+            if(tagsByEntity == null) {
+                // Nothing materialized.  The index will be built from the changed ontology on next use.
+                return;
+            }
+            List<TagMatcher> tagMatchers = getTagMatchers();
+            if(tagMatchers.isEmpty()) {
+                // No criteria, so no entity can have criteria based tags
+                return;
+            }
+            Set<OWLEntity> affectedEntities = getAffectedEntities(changes);
+            for(OWLEntity entity : affectedEntities) {
+                ImmutableSet<TagId> previousTags = tagsByEntity.getOrDefault(entity, ImmutableSet.of());
+                previousTags.forEach(tagId -> entitiesByTag.remove(tagId, entity));
+                tagsByEntity.remove(entity);
+                if(rootOntology.containsEntityInSignature(entity, Imports.INCLUDED)) {
+                    putTags(entity, tagMatchers);
+                }
+            }
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the entities whose tags may be changed by the specified changes.  These are the entities in the
+     * signatures of the changes and the subjects of the changes.  Criteria may refer to the class hierarchy, so
+     * when a class is moved in the hierarchy (it is the sub class in a changed subclass or equivalent classes
+     * axiom) its descendants, along with their instances, are also included.  The individual in a changed class
+     * assertion is in the signature of the change, so the other instances of the class are not affected.
+     */
+    private Set<OWLEntity> getAffectedEntities(@Nonnull List<? extends OWLOntologyChange> changes) {
+        Set<OWLEntity> affectedEntities = new HashSet<>();
+        Set<OWLClass> movedClasses = new HashSet<>();
+        for(OWLOntologyChange change : changes) {
+            affectedEntities.addAll(change.getSignature());
+            affectedEntities.addAll(changeSubjectsProvider.getChangeSubjects(change));
+            if(change.isAxiomChange()) {
+                addMovedClasses(change.getAxiom(), movedClasses);
+            }
+        }
+        // Thing is always the root.  Its position in the hierarchy never changes.
+        movedClasses.removeIf(OWLClass::isOWLThing);
+        if(movedClasses.isEmpty()) {
+            return affectedEntities;
+        }
+        Set<OWLClass> affectedClasses = new HashSet<>();
+        for(OWLClass cls : movedClasses) {
+            affectedClasses.add(cls);
+            affectedClasses.addAll(classHierarchyProvider.getDescendants(cls));
+        }
+        affectedEntities.addAll(affectedClasses);
+        for(OWLOntology ontology : rootOntology.getImportsClosure()) {
+            for(OWLClass cls : affectedClasses) {
+                ontology.getClassAssertionAxioms(cls).stream()
+                        .map(OWLClassAssertionAxiom::getIndividual)
+                        .filter(OWLIndividual::isNamed)
+                        .map(OWLIndividual::asOWLNamedIndividual)
+                        .forEach(affectedEntities::add);
+            }
+        }
+        return affectedEntities;
+    }
+
+    /**
+     * Adds the named classes whose superclasses are changed by the specified axiom.
+     */
+    private static void addMovedClasses(@Nonnull OWLAxiom axiom, @Nonnull Set<OWLClass> movedClasses) {
+        if(axiom instanceof OWLSubClassOfAxiom) {
+            OWLClassExpression subClass = ((OWLSubClassOfAxiom) axiom).getSubClass();
+            if(!subClass.isAnonymous()) {
+                movedClasses.add(subClass.asOWLClass());
+            }
+        }
+        else if(axiom instanceof OWLEquivalentClassesAxiom) {
+            // Each named class is a sub class of the other class expressions
+            movedClasses.addAll(((OWLEquivalentClassesAxiom) axiom).getNamedClasses());
+        }
+    }
+
+    /**
+     * Applies the specified function to the materialized index, under the read lock, building the index first if
+     * necessary.
+     */
+    private <R> R readIndex(@Nonnull Function<Map<OWLEntity, ImmutableSet<TagId>>, R> function) {
+        readWriteLock.readLock().lock();
+        try {
+            if(tagsByEntity == null) {
+                // The read lock cannot be upgraded.  Build under the write lock and then downgrade.
+                readWriteLock.readLock().unlock();
+                readWriteLock.writeLock().lock();
+                try {
+                    if(tagsByEntity == null) {
+                        buildIndex();
+                    }
+                    readWriteLock.readLock().lock();
+                } finally {
+                    readWriteLock.writeLock().unlock();
+                }
+            }
+            return function.apply(tagsByEntity);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    private void buildIndex() {
+        tagsByEntity = new HashMap<>();
+        entitiesByTag.clear();
+        List<TagMatcher> tagMatchers = getTagMatchers();
+        if(!tagMatchers.isEmpty()) {
+            rootOntology.getSignature(Imports.INCLUDED)
+                        .forEach(entity -> putTags(entity, tagMatchers));
+        }
+    }
+
+    private void putTags(@Nonnull OWLEntity entity, @Nonnull List<TagMatcher> tagMatchers) {
+        ImmutableSet.Builder<TagId> tagIds = null;
+        for(TagMatcher tagMatcher : tagMatchers) {
+            if(tagMatcher.getMatcher().matches(entity)) {
+                if(tagIds == null) {
+                    tagIds = ImmutableSet.builder();
+                }
+                tagIds.add(tagMatcher.getTagId());
+                entitiesByTag.put(tagMatcher.getTagId(), entity);
+            }
+        }
+        if(tagIds != null) {
+            tagsByEntity.put(entity, tagIds.build());
+        }
+    }
+
+    /**
+     * Gets a matcher for each tag that has criteria.  The matchers are created once per index update
+     * so that any information that they cache is shared between the entities that are evaluated.
+     */
+    @Nonnull
+    private List<TagMatcher> getTagMatchers() {
+        List<TagMatcher> tagMatchers = new ArrayList<>();
+        for(Tag tag : tagRepository.findTags()) {
+            if(!tag.getCriteria().isEmpty()) {
+                tagMatchers.add(new TagMatcher(tag.getTagId(), matchingEngine.getMatcherForAny(tag.getCriteria())));
+            }
+        }
+        return tagMatchers;
+    }
+
+    private static class TagMatcher {
+
+        private final TagId tagId;
+
+        private final Matcher<OWLEntity> matcher;
+
+        private TagMatcher(TagId tagId, Matcher<OWLEntity> matcher) {
+            this.tagId = tagId;
+            this.matcher = matcher;
+        }
+
+        public TagId getTagId() {
+            return tagId;
+        }
+
+        public Matcher<OWLEntity> getMatcher() {
+            return matcher;
+        }
     }
 }
@@ -30,6 +30,15 @@ public interface EntityTagsRepository {
     @Nonnull
     Optional<EntityTags> findByEntity(@Nonnull OWLEntity entity);
 
+    /**
+     * Finds the entity tags for each of the specified entities.
+     * @param entities The entities.
+     * @return A map from entity to the tags for that entity.  Entities that do not have any tags are absent
+     * from the map.
+     */
+    @Nonnull
+    Map<OWLEntity, EntityTags> findByEntities(@Nonnull Collection<? extends OWLEntity> entities);
+
     @Nonnull
     Collection<EntityTags> findByTagId(@Nonnull TagId tagId);
 }
@@ -116,6 +116,25 @@ public class EntityTagsRepositoryCachingImpl implements EntityTagsRepository, Re
 
     }
 
+    @Nonnull
+    @Override
+    public Map<OWLEntity, EntityTags> findByEntities(@Nonnull Collection<? extends OWLEntity> entities) {
+        readLock.lock();
+        try {
+            Map<OWLEntity, EntityTags> result = new HashMap<>();
+            for(OWLEntity entity : entities) {
+                EntityTags tags = cache.get(entity);
+                if(tags != null) {
+                    result.put(entity, tags);
+                }
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+
+    }
+
     @Nonnull
     @Override
     public Collection<EntityTags> findByTagId(@Nonnull TagId tagId) {
@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.server.tag;
 
+import com.google.common.collect.ImmutableSet;
 import edu.stanford.bmir.protege.web.server.persistence.Repository;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
@@ -12,6 +13,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
@@ -136,6 +138,25 @@ public class EntityTagsRepositoryImpl implements EntityTagsRepository, Repositor
         }
     }
 
+    @Nonnull
+    @Override
+    public Map<OWLEntity, EntityTags> findByEntities(@Nonnull Collection<? extends OWLEntity> entities) {
+        if(entities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            readLock.lock();
+            return datastore.createQuery(EntityTags.class)
+                            .field(PROJECT_ID).equal(projectId)
+                            .field(ENTITY).in(ImmutableSet.copyOf(entities))
+                            .asList()
+                            .stream()
+                            .collect(toMap(EntityTags::getEntity, tags -> tags));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     @Nonnull
     @Override
     public Collection<EntityTags> findByTagId(@Nonnull TagId tagId) {
@@ -95,6 +95,38 @@ public class TagsManager {
         }
     }
 
+    /**
+     * Gets the tags for each of the specified entities.
+     *
+     * @param entities The entities.
+     * @return A multimap from entity to the tags that tag that entity.
+     */
+    @Nonnull
+    public ListMultimap<OWLEntity, Tag> getTags(@Nonnull Collection<? extends OWLEntity> entities) {
+        checkNotNull(entities);
+        try {
+            readLock.lock();
+            Map<TagId, Tag> tagsById = getProjectTagsByTagId();
+            ListMultimap<OWLEntity, TagId> criteriaBasedTags = criteriaBasedTagsManager.getTagsForEntities(entities);
+            ImmutableSet<OWLEntity> distinctEntities = ImmutableSet.copyOf(entities);
+            // One query for the explicit tags of all of the entities
+            Map<OWLEntity, EntityTags> explicitTagsByEntity = entityTagsRepository.findByEntities(distinctEntities);
+            ListMultimap<OWLEntity, Tag> tagsByEntity = ArrayListMultimap.create();
+            for(OWLEntity entity : distinctEntities) {
+                EntityTags entityTags = explicitTagsByEntity.get(entity);
+                Stream<TagId> explicitTags = entityTags != null ? entityTags.getTags().stream() : Stream.empty();
+                Streams.concat(explicitTags, criteriaBasedTags.get(entity).stream())
+                       .distinct()
+                       .map(tagsById::get)
+                       .filter(Objects::nonNull)
+                       .forEach(tag -> tagsByEntity.put(entity, tag));
+            }
+            return tagsByEntity;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     @Nonnull
     private Map<TagId, Tag> getProjectTagsByTagId() {
         try {
@@ -194,6 +226,7 @@ public class TagsManager {
                                            })
                                            .collect(toList());
             tagRepository.saveTags(tags);
+            criteriaBasedTagsManager.handleProjectTagsChanged();
         } finally {
             writeLock.unlock();
         }
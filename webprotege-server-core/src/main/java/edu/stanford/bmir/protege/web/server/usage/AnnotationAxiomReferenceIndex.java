@@ -0,0 +1,211 @@
+package edu.stanford.bmir.protege.web.server.usage;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import edu.stanford.bmir.protege.web.server.inject.project.RootOntology;
+import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * An index of the annotation axioms that reference entities by IRI, rather than by entity, and so are not
+ * found by {@link OWLOntology#getReferencingAxioms(OWLPrimitive)}.  The index covers the subjects, properties
+ * and IRI values of annotation assertions and the IRI ranges and domains of annotation property range and
+ * domain axioms, in all of the ontologies in the imports closure of the root ontology.  An axiom is indexed
+ * once for each position in which it references an IRI and once for each ontology that contains it.
+ *
+ * The index is built on first use and is then maintained incrementally from applied ontology changes.  Changes
+ * should be applied through {@link #applyChanges(List, Runnable)} so that the index cannot be built from ontologies
+ * that already contain changes which it has yet to handle.
+ *
+ * Instances of this class are thread safe.
+ */
+@ProjectSingleton
+public class AnnotationAxiomReferenceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnnotationAxiomReferenceIndex.class);
+
+    @Nonnull
+    private final ProjectId projectId;
+
+    @Nonnull
+    private final OWLOntology rootOntology;
+
+    private final Map<IRI, Multiset<OWLAxiom>> axiomsByIri = new HashMap<>();
+
+    private final Map<OWLAnnotationProperty, Multiset<OWLAxiom>> axiomsByProperty = new HashMap<>();
+
+    private boolean built = false;
+
+    @Inject
+    public AnnotationAxiomReferenceIndex(@Nonnull ProjectId projectId,
+                                         @Nonnull @RootOntology OWLOntology rootOntology) {
+        this.projectId = checkNotNull(projectId);
+        this.rootOntology = checkNotNull(rootOntology);
+    }
+
+    /**
+     * Gets the annotation axioms that reference the specified entity.  An axiom is listed once for each
+     * position in which it references the entity and once for each ontology that contains it.
+     */
+    @Nonnull
+    public synchronized List<OWLAxiom> getReferencingAxioms(@Nonnull OWLEntity entity) {
+        ensureBuilt();
+        var axioms = ImmutableList.<OWLAxiom>builder();
+        var iriReferences = axiomsByIri.get(entity.getIRI());
+        if(iriReferences != null) {
+            axioms.addAll(iriReferences);
+        }
+        if(entity.isOWLAnnotationProperty()) {
+            var propertyReferences = axiomsByProperty.get(entity.asOWLAnnotationProperty());
+            if(propertyReferences != null) {
+                axioms.addAll(propertyReferences);
+            }
+        }
+        return axioms.build();
+    }
+
+    /**
+     * Applies the specified changes and updates this index in response to them.  The lock on this index is held
+     * until the index has been updated, so the index is never built, by a concurrent lookup, from ontologies that
+     * contain changes that would then be indexed a second time.
+     * @param changes The changes.
+     * @param changeApplier Applies the changes to the ontologies.
+     */
+    public synchronized void applyChanges(@Nonnull List<? extends OWLOntologyChange> changes,
+                                          @Nonnull Runnable changeApplier) {
+        changeApplier.run();
+        handleChanges(changes);
+    }
+
+    /**
+     * Updates this index in response to the specified list of (applied) ontology changes.
+     */
+    public synchronized void handleChanges(@Nonnull List<? extends OWLOntologyChange> changes) {
+        if(!built) {
+            // The index will reflect these changes when it is built
+            return;
+        }
+        if(changes.stream().anyMatch(OWLOntologyChange::isImportChange)) {
+            // The imports closure may have changed
+            clear();
+            return;
+        }
+        var ontologies = rootOntology.getImportsClosure();
+        for(var change : changes) {
+            if(!change.isAxiomChange() || !ontologies.contains(change.getOntology())) {
+                continue;
+            }
+            var axiom = change.getAxiom();
+            if(change.isAddAxiom()) {
+                index(axiom);
+            }
+            else if(change.isRemoveAxiom()) {
+                unindex(axiom);
+            }
+        }
+    }
+
+    private void ensureBuilt() {
+        if(built) {
+            return;
+        }
+        var stopwatch = Stopwatch.createStarted();
+        for(var ontology : rootOntology.getImportsClosure()) {
+            ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION).forEach(this::index);
+            ontology.getAxioms(AxiomType.ANNOTATION_PROPERTY_RANGE).forEach(this::index);
+            ontology.getAxioms(AxiomType.ANNOTATION_PROPERTY_DOMAIN).forEach(this::index);
+        }
+        built = true;
+        logger.info("{} Built annotation axiom reference index in {} ms ({} IRIs)",
+                    projectId,
+                    stopwatch.elapsed(MILLISECONDS),
+                    axiomsByIri.size());
+    }
+
+    private void clear() {
+        axiomsByIri.clear();
+        axiomsByProperty.clear();
+        built = false;
+    }
+
+    private void index(@Nonnull OWLAxiom axiom) {
+        if(axiom instanceof OWLAnnotationAssertionAxiom) {
+            var ax = (OWLAnnotationAssertionAxiom) axiom;
+            addIfIri(ax.getSubject(), ax);
+            add(axiomsByProperty, ax.getProperty(), ax);
+            addIfIri(ax.getValue(), ax);
+        }
+        else if(axiom instanceof OWLAnnotationPropertyRangeAxiom) {
+            var ax = (OWLAnnotationPropertyRangeAxiom) axiom;
+            add(axiomsByProperty, ax.getProperty(), ax);
+            add(axiomsByIri, ax.getRange(), ax);
+        }
+        else if(axiom instanceof OWLAnnotationPropertyDomainAxiom) {
+            var ax = (OWLAnnotationPropertyDomainAxiom) axiom;
+            add(axiomsByProperty, ax.getProperty(), ax);
+            add(axiomsByIri, ax.getDomain(), ax);
+        }
+    }
+
+    private void unindex(@Nonnull OWLAxiom axiom) {
+        if(axiom instanceof OWLAnnotationAssertionAxiom) {
+            var ax = (OWLAnnotationAssertionAxiom) axiom;
+            removeIfIri(ax.getSubject(), ax);
+            remove(axiomsByProperty, ax.getProperty(), ax);
+            removeIfIri(ax.getValue(), ax);
+        }
+        else if(axiom instanceof OWLAnnotationPropertyRangeAxiom) {
+            var ax = (OWLAnnotationPropertyRangeAxiom) axiom;
+            remove(axiomsByProperty, ax.getProperty(), ax);
+            remove(axiomsByIri, ax.getRange(), ax);
+        }
+        else if(axiom instanceof OWLAnnotationPropertyDomainAxiom) {
+            var ax = (OWLAnnotationPropertyDomainAxiom) axiom;
+            remove(axiomsByProperty, ax.getProperty(), ax);
+            remove(axiomsByIri, ax.getDomain(), ax);
+        }
+    }
+
+    private void addIfIri(@Nonnull OWLObject object, @Nonnull OWLAxiom axiom) {
+        if(object instanceof IRI) {
+            add(axiomsByIri, (IRI) object, axiom);
+        }
+    }
+
+    private void removeIfIri(@Nonnull OWLObject object, @Nonnull OWLAxiom axiom) {
+        if(object instanceof IRI) {
+            remove(axiomsByIri, (IRI) object, axiom);
+        }
+    }
+
+    private static <K> void add(@Nonnull Map<K, Multiset<OWLAxiom>> map, @Nonnull K key, @Nonnull OWLAxiom axiom) {
+        map.computeIfAbsent(key, k -> HashMultiset.create()).add(axiom);
+    }
+
+    private static <K> void remove(@Nonnull Map<K, Multiset<OWLAxiom>> map, @Nonnull K key, @Nonnull OWLAxiom axiom) {
+        var axioms = map.get(key);
+        if(axioms != null) {
+            axioms.remove(axiom);
+            if(axioms.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
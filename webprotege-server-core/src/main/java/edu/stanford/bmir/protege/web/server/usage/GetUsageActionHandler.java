@@ -18,7 +18,8 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
 
 /**
  * Author: Matthew Horridge<br>
@@ -41,17 +42,22 @@ public class GetUsageActionHandler extends AbstractProjectActionHandler<GetUsage
     @Nonnull
     private final EntityNodeRenderer entityNodeRenderer;
 
+    @Nonnull
+    private final AnnotationAxiomReferenceIndex annotationAxiomReferenceIndex;
+
     @Inject
     public GetUsageActionHandler(@Nonnull AccessManager accessManager,
                                  @Nonnull ProjectId projectId,
                                  @Nonnull @RootOntology OWLOntology rootOntology,
                                  @Nonnull RenderingManager renderingManager,
-                                 @Nonnull EntityNodeRenderer entityNodeRenderer) {
+                                 @Nonnull EntityNodeRenderer entityNodeRenderer,
+                                 @Nonnull AnnotationAxiomReferenceIndex annotationAxiomReferenceIndex) {
         super(accessManager);
         this.projectId = projectId;
         this.rootOntology = rootOntology;
         this.renderingManager = renderingManager;
         this.entityNodeRenderer = entityNodeRenderer;
+        this.annotationAxiomReferenceIndex = annotationAxiomReferenceIndex;
     }
 
     @Nonnull
@@ -69,87 +75,29 @@ public class GetUsageActionHandler extends AbstractProjectActionHandler<GetUsage
     @Nonnull
     @Override
     public GetUsageResult execute(@Nonnull GetUsageAction action, @Nonnull ExecutionContext executionContext) {
-        List<UsageReference> usage = new ArrayList<>();
         final OWLEntity subject = action.getSubject();
-        ReferencingAxiomVisitor visitor = new ReferencingAxiomVisitor(subject, rootOntology, renderingManager);
         final UsageFilter usageFilter = action.getUsageFilter();
-        int totalReferenceCount = 0;
-        int counter = 0;
-
-        final IRI subjectIRI = subject.getIRI();
+        List<OWLAxiom> references = new ArrayList<>();
         for (OWLOntology ont : rootOntology.getImportsClosure()) {
-            Set<OWLAxiom> references = ont.getReferencingAxioms(subject);
-            for (OWLAxiom reference : references) {
-                counter = processAxiom(reference, usageFilter, action, usage, visitor, counter);
-                totalReferenceCount++;
-            }
-
-
-            final Set<OWLAnnotationAssertionAxiom> annotationAssertionAxioms = ont.getAxioms(AxiomType.ANNOTATION_ASSERTION);
-            for (OWLAnnotationAssertionAxiom ax : annotationAssertionAxioms) {
-                if (ax.getSubject().equals(subjectIRI)) {
-                    counter = processAxiom(ax, usageFilter, action, usage, visitor, counter);
-                    totalReferenceCount++;
-                }
-                if (ax.getProperty().equals(subject)) {
-                    counter = processAxiom(ax, usageFilter, action, usage, visitor, counter);
-                    totalReferenceCount++;
-                }
-                if (ax.getValue().equals(subjectIRI)) {
-                    counter = processAxiom(ax, usageFilter, action, usage, visitor, counter);
-                    totalReferenceCount++;
-                }
-            }
-            final Set<OWLAnnotationPropertyRangeAxiom> annotationPropertyRangeAxioms = ont.getAxioms(AxiomType.ANNOTATION_PROPERTY_RANGE);
-            for (OWLAnnotationPropertyRangeAxiom ax : annotationPropertyRangeAxioms) {
-                if (ax.getProperty().equals(subject)) {
-                    counter = processAxiom(ax, usageFilter, action, usage, visitor, counter);
-                    totalReferenceCount++;
-                }
-                if (ax.getRange().equals(subjectIRI)) {
-                    counter = processAxiom(ax, usageFilter, action, usage, visitor, counter);
-                    totalReferenceCount++;
-                }
-            }
-            final Set<OWLAnnotationPropertyDomainAxiom> annotationPropertyDomainAxioms = ont.getAxioms(AxiomType.ANNOTATION_PROPERTY_DOMAIN);
-            for (OWLAnnotationPropertyDomainAxiom ax : annotationPropertyDomainAxioms) {
-                if (ax.getProperty().equals(subject)) {
-                    counter = processAxiom(ax, usageFilter, action, usage, visitor, counter);
-                    totalReferenceCount++;
-                }
-                if (ax.getDomain().equals(subjectIRI)) {
-                    counter = processAxiom(ax, usageFilter, action, usage, visitor, counter);
-                    totalReferenceCount++;
-                }
-            }
+            references.addAll(ont.getReferencingAxioms(subject));
         }
+        // Annotation axioms that reference the subject by IRI
+        references.addAll(annotationAxiomReferenceIndex.getReferencingAxioms(subject));
+        int totalReferenceCount = references.size();
 
-
-
-
+        // Only the requested page of references is rendered
+        ReferencingAxiomVisitor visitor = new ReferencingAxiomVisitor(subject, rootOntology, renderingManager);
+        List<UsageReference> usage = references.stream()
+                                               .filter(reference -> usageFilter.isIncluded(reference.getAxiomType()))
+                                               .limit(action.getPageSize())
+                                               .flatMap(reference -> reference.accept(visitor).stream())
+                                               .filter(ref -> isIncludedBySubject(usageFilter, action, ref))
+                                               .collect(toList());
         usage.sort(new UsageReferenceComparator(subject));
         EntityNode entityNode = entityNodeRenderer.render(subject);
         return new GetUsageResult(projectId, entityNode, usage, totalReferenceCount);
     }
 
-    private int processAxiom(OWLAxiom reference, UsageFilter usageFilter, GetUsageAction action, List<UsageReference> result, ReferencingAxiomVisitor visitor, int counter) {
-        if (usageFilter.isIncluded(reference.getAxiomType())) {
-            counter++;
-            if (counter <= action.getPageSize()) {
-                final Set<UsageReference> refs = reference.accept(visitor);
-                for (UsageReference ref : refs) {
-                    if (isIncludedBySubject(usageFilter, action, ref)) {
-                        if (counter <= action.getPageSize()) {
-                            result.addAll(refs);
-                        }
-                    }
-                }
-            }
-
-        }
-        return counter;
-    }
-
     private boolean isIncludedBySubject(UsageFilter usageFilter, GetUsageAction action, UsageReference ref) {
         if(!ref.getAxiomSubject().isPresent()) {
             return true;
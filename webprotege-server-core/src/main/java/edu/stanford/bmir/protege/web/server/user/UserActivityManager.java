@@ -104,6 +104,17 @@ public class UserActivityManager implements Repository {
         save(replacement);
     }
 
+    /**
+     * Gets the recent project records of all users.  There is one record per user per project.
+     */
+    @Nonnull
+    public List<RecentProjectRecord> getAllRecentProjects() {
+        return datastore.createQuery(UserActivityRecord.class)
+                        .asList()
+                        .stream()
+                        .flatMap(record -> record.getRecentProjects().stream())
+                        .collect(toList());
+    }
 
     private Query<UserActivityRecord> queryByUserId(@Nonnull UserId userId) {
         return datastore.createQuery(UserActivityRecord.class)
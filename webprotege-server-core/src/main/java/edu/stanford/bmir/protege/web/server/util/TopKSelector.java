@@ -0,0 +1,95 @@
+package edu.stanford.bmir.protege.web.server.util;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Selects the k best (smallest) elements, according to a comparator, from the elements that are offered to it.
+ * At most k elements are held at any one time, in a bounded heap, so selecting the best k elements from
+ * n elements takes O(n log k) time and O(k) space rather than the O(n log n) time and O(n) space that are
+ * required to sort all of the elements and then take the first k.
+ *
+ * Instances of this class are not thread safe.
+ */
+public class TopKSelector<T> {
+
+    private final int k;
+
+    @Nonnull
+    private final Comparator<? super T> comparator;
+
+    /**
+     * A heap with the worst element at its head
+     */
+    @Nonnull
+    private final PriorityQueue<T> heap;
+
+    public TopKSelector(int k, @Nonnull Comparator<? super T> comparator) {
+        checkArgument(k >= 0, "k must be zero or positive");
+        this.k = k;
+        this.comparator = checkNotNull(comparator);
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)) + 1, comparator.reversed());
+    }
+
+    /**
+     * Offers the specified element to this selector.
+     * @param element The element.
+     * @return true if the element is one of the best k elements offered so far, otherwise false.
+     */
+    public boolean offer(@Nonnull T element) {
+        checkNotNull(element);
+        if(k == 0) {
+            return false;
+        }
+        if(heap.size() < k) {
+            heap.add(element);
+            return true;
+        }
+        if(comparator.compare(element, heap.peek()) >= 0) {
+            return false;
+        }
+        heap.poll();
+        heap.add(element);
+        return true;
+    }
+
+    /**
+     * Determines whether k elements are held by this selector.  Once this selector is full an offered
+     * element is only accepted if it is better than the worst element held.
+     */
+    public boolean isFull() {
+        return heap.size() == k;
+    }
+
+    /**
+     * Gets the worst of the elements that are held by this selector.
+     */
+    @Nonnull
+    public Optional<T> getWorst() {
+        return Optional.ofNullable(heap.peek());
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Gets the selected elements in order, best first.
+     */
+    @Nonnull
+    public List<T> getSortedElements() {
+        List<T> elements = new ArrayList<>(heap);
+        elements.sort(comparator);
+        return elements;
+    }
+}
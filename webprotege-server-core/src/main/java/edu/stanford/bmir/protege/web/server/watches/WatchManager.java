@@ -1,11 +1,13 @@
 package edu.stanford.bmir.protege.web.server.watches;
 
+import com.google.common.collect.SetMultimap;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
 import edu.stanford.bmir.protege.web.shared.user.UserId;
 import edu.stanford.bmir.protege.web.shared.watches.Watch;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -58,4 +60,11 @@ public interface WatchManager {
      * @return Direct watches for the specified entity
      */
     Set<Watch> getDirectWatches(@Nonnull OWLEntity watchedEntity);
+
+    /**
+     * Gets all direct watches for the specified entities.
+     * @param watchedEntities The watched entities
+     * @return A multimap from entity to the direct watches for that entity
+     */
+    SetMultimap<OWLEntity, Watch> getDirectWatches(@Nonnull Collection<? extends OWLEntity> watchedEntities);
 }
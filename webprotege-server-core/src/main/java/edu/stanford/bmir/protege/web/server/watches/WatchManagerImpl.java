@@ -1,5 +1,7 @@
 package edu.stanford.bmir.protege.web.server.watches;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
 import edu.stanford.bmir.protege.web.server.events.EventManager;
 import edu.stanford.bmir.protege.web.shared.event.*;
 import edu.stanford.bmir.protege.web.shared.inject.ProjectSingleton;
@@ -109,6 +111,17 @@ public class WatchManagerImpl implements WatchManager {
                 .collect(toSet());
     }
 
+    @Override
+    public SetMultimap<OWLEntity, Watch> getDirectWatches(@Nonnull Collection<? extends OWLEntity> watchedEntities) {
+        SetMultimap<OWLEntity, Watch> watches = HashMultimap.create();
+        if(watchedEntities.isEmpty()) {
+            return watches;
+        }
+        repository.findWatchRecords(projectId, watchedEntities)
+                  .forEach(record -> watches.put(record.getEntity(), toWatch(record)));
+        return watches;
+    }
+
     @Override
     public Set<Watch> getDirectWatches(@Nonnull OWLEntity watchedObject, @Nonnull UserId userId) {
         return repository.findWatchRecords(projectId,
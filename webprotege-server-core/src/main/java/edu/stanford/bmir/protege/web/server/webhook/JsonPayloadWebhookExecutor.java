@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.util.List;
 import java.util.UUID;
@@ -44,6 +45,26 @@ public class JsonPayloadWebhookExecutor {
      */
     public void submit(@Nonnull Object payload,
                        @Nonnull List<? extends Webhook> webhooks) {
+        submit(payload, null, webhooks);
+    }
+
+    /**
+     * Submit the specified payload for the specified Webhooks.  Payloads with the specified coalescing key
+     * that have not yet been sent to a payload URL are replaced by this payload.
+     * @param payload The payload that will be serialized to JSON.
+     * @param coalescingKey The key that identifies payloads that are superseded by this payload.
+     * @param webhooks The Webhooks that specify the payload URLs where the JSON payload
+     *                 will be sent to.
+     */
+    public void submitCoalesced(@Nonnull Object payload,
+                                @Nonnull String coalescingKey,
+                                @Nonnull List<? extends Webhook> webhooks) {
+        submit(payload, checkNotNull(coalescingKey), webhooks);
+    }
+
+    private void submit(@Nonnull Object payload,
+                        @Nullable String coalescingKey,
+                        @Nonnull List<? extends Webhook> webhooks) {
         try {
             final String jsonPayload = objectMapper
                     .writerWithDefaultPrettyPrinter()
@@ -54,7 +75,8 @@ public class JsonPayloadWebhookExecutor {
                 webhookExecutor.submit(new WebhookInvocation(invocationId,
                                                              payloadUrl,
                                                              jsonPayload,
-                                                             APPLICATION_JSON));
+                                                             APPLICATION_JSON,
+                                                             coalescingKey));
             });
         } catch (JsonProcessingException e) {
             logger.error("Webhook payload serialization error. Payload: {}.  Error: {}",
@@ -24,6 +24,8 @@ public class ProjectChangedWebhookInvoker {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectChangedWebhookInvoker.class);
 
+    private static final String COALESCING_KEY_PREFIX = "ProjectChanged:";
+
     @Nonnull
     private final ProjectId projectId;
 
@@ -52,6 +54,7 @@ public class ProjectChangedWebhookInvoker {
                                                                                 timestamp);
 
         List<ProjectWebhook> webhooks = webhookRepository.getProjectWebhooks(projectId, PROJECT_CHANGED);
-        webhookExecutor.submit(payload, webhooks);
+        // Bursts of changes are coalesced so that a payload URL is sent the latest revision of the project
+        webhookExecutor.submitCoalesced(payload, COALESCING_KEY_PREFIX + projectId.getId(), webhooks);
     }
 }
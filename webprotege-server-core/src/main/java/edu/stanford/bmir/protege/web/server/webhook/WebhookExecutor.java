@@ -2,28 +2,101 @@ package edu.stanford.bmir.protege.web.server.webhook;
 
 import edu.stanford.bmir.protege.web.shared.HasDispose;
 import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Matthew Horridge
  * Stanford Center for Biomedical Informatics Research
  * 19 May 2017
+ *
+ * Delivers webhook payloads to their payload URLs.  Each payload URL has its own queue and a bounded number
+ * of payloads that are being delivered to it, so a slow or unresponsive payload URL only delays payloads
+ * for that URL.  Payloads are posted with a non-blocking HTTP client.  Failed deliveries are retried with an
+ * exponentially increasing delay.  A retry keeps its place in the in-flight payloads for its payload URL,
+ * so a failing payload URL is not sent further payloads until the retry completes.  Delivery metrics are logged
+ * every {@link #METRICS_LOGGING_INTERVAL} completed deliveries.
  */
 @ApplicationSingleton
 public class WebhookExecutor implements HasDispose {
 
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
-        Thread thread = Executors.defaultThreadFactory().newThread(runnable);
-        thread.setName(thread.getName().replace("thread", "webhook-processor-thread"));
-        return thread;
-    });
+    private static final Logger logger = LoggerFactory.getLogger(WebhookExecutor.class);
+
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final int HTTP_CLIENT_THREADS = 2;
+
+    private static final int METRICS_LOGGING_INTERVAL = 100;
+
+    @Nonnull
+    private final WebhookExecutorSettings settings;
+
+    private final ExecutorService httpClientExecutor = Executors.newFixedThreadPool(HTTP_CLIENT_THREADS,
+                                                                                    threadFactory("webhook-processor-thread"));
+
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory("webhook-retry-thread"));
+
+    private final HttpClient httpClient;
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * The endpoints that have payloads that are waiting or are being delivered, keyed by payload URL.
+     * Guarded by lock.
+     */
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    /**
+     * Guarded by lock.
+     */
+    private boolean shutdown = false;
+
+    private final AtomicLong deliveredCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong retryCount = new AtomicLong();
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong lastDeliveryLatency = new AtomicLong();
+
+    private final AtomicLong maxDeliveryLatency = new AtomicLong();
+
+    private final AtomicLong totalDeliveryLatency = new AtomicLong();
 
     @Inject
-    public WebhookExecutor() {
+    public WebhookExecutor(@Nonnull WebhookExecutorSettings settings) {
+        this.settings = checkNotNull(settings);
+        this.httpClient = HttpClient.newBuilder()
+                                    .connectTimeout(Duration.ofMillis(settings.getTimeoutMillis()))
+                                    .followRedirects(HttpClient.Redirect.NORMAL)
+                                    .executor(httpClientExecutor)
+                                    .build();
     }
 
     @Override
@@ -32,19 +105,325 @@ public class WebhookExecutor implements HasDispose {
     }
 
     /**
-     * Shuts down this {@link WebhookExecutor}.
+     * Shuts down this {@link WebhookExecutor}.  Payloads that are waiting to be delivered, or waiting to be
+     * retried, are discarded.
      */
     public void shutdown() {
-        executor.shutdown();
+        lock.lock();
+        try {
+            shutdown = true;
+            endpoints.clear();
+        } finally {
+            lock.unlock();
+        }
+        retryExecutor.shutdownNow();
+        httpClientExecutor.shutdown();
     }
 
     /**
      * Submit the specified {@link WebhookInvocation} to be executed.  The {@link WebhookInvocation}
-     * will be submitted asynchronously.  Ordering is preserved so that if WebhookInvoation X is submitted
-     * before WebhookInvocation Y then X will be invoked before Y.
+     * will be submitted asynchronously.  If at most one payload is delivered to a payload URL at a time then
+     * ordering is preserved for each payload URL, so that if WebhookInvocation X is submitted before
+     * WebhookInvocation Y, for the same payload URL, then X will be invoked before Y.  If the invocation has a
+     * coalescing key, and an invocation with the same coalescing key is waiting to be delivered to the same
+     * payload URL, then the waiting invocation is replaced by this invocation.
      * @param webhookInvocation The invocation
      */
     public void submit(@Nonnull WebhookInvocation webhookInvocation) {
-        executor.submit(new PostWebhookPayloadTask(webhookInvocation));
+        checkNotNull(webhookInvocation);
+        String payloadUrl = webhookInvocation.getPayloadUrl();
+        PendingDelivery delivery = new PendingDelivery(webhookInvocation, System.nanoTime());
+        List<PendingDelivery> startableDeliveries;
+        lock.lock();
+        try {
+            if(shutdown) {
+                logger.warn("Webhook executor has been shut down.  Discarding webhook payload {} for {}",
+                            webhookInvocation.getId(),
+                            payloadUrl);
+                return;
+            }
+            Endpoint endpoint = endpoints.computeIfAbsent(payloadUrl, url -> new Endpoint());
+            if(endpoint.replaceQueuedDelivery(delivery)) {
+                coalescedCount.incrementAndGet();
+                logger.info("Webhook payload {} for {} replaced an undelivered payload",
+                            webhookInvocation.getId(),
+                            payloadUrl);
+                return;
+            }
+            if(endpoint.getQueue().size() >= settings.getMaxQueuedPerEndpoint()) {
+                droppedCount.incrementAndGet();
+                logger.warn("Too many webhook payloads are waiting to be delivered to {}.  Dropping webhook payload {}",
+                            payloadUrl,
+                            webhookInvocation.getId());
+                return;
+            }
+            endpoint.getQueue().add(delivery);
+            startableDeliveries = pollStartableDeliveries(endpoint);
+        } finally {
+            lock.unlock();
+        }
+        startableDeliveries.forEach(this::post);
+    }
+
+    @Nonnull
+    public WebhookExecutorMetrics getMetrics() {
+        int queuedCount = 0;
+        int inFlightCount = 0;
+        lock.lock();
+        try {
+            for(Endpoint endpoint : endpoints.values()) {
+                queuedCount += endpoint.getQueue().size();
+                inFlightCount += endpoint.getInFlightCount();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return WebhookExecutorMetrics.get(queuedCount,
+                                          inFlightCount,
+                                          deliveredCount.get(),
+                                          failedCount.get(),
+                                          retryCount.get(),
+                                          coalescedCount.get(),
+                                          droppedCount.get(),
+                                          lastDeliveryLatency.get(),
+                                          maxDeliveryLatency.get(),
+                                          totalDeliveryLatency.get());
+    }
+
+    /**
+     * Removes the deliveries that can be started from the queue of the specified endpoint.  Must be called
+     * with the lock held.
+     */
+    private List<PendingDelivery> pollStartableDeliveries(@Nonnull Endpoint endpoint) {
+        List<PendingDelivery> startableDeliveries = new ArrayList<>();
+        while(endpoint.getInFlightCount() < settings.getMaxInFlightPerEndpoint() && !endpoint.getQueue().isEmpty()) {
+            startableDeliveries.add(endpoint.getQueue().poll());
+            endpoint.incrementInFlightCount();
+        }
+        return startableDeliveries;
+    }
+
+    private void post(@Nonnull PendingDelivery delivery) {
+        WebhookInvocation invocation = delivery.getInvocation();
+        delivery.incrementAttemptCount();
+        logger.info("Posting webhook payload {} to {}",
+                    invocation.getId(),
+                    invocation.getPayloadUrl());
+        try {
+            Charset charset = Optional.ofNullable(invocation.getContentType().getCharset())
+                                      .orElse(StandardCharsets.UTF_8);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(invocation.getPayloadUrl()))
+                                             .timeout(Duration.ofMillis(settings.getTimeoutMillis()))
+                                             .header("Content-Type", invocation.getContentType().toString())
+                                             .POST(HttpRequest.BodyPublishers.ofString(invocation.getPayload(), charset))
+                                             .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                      .whenComplete((response, error) -> handleResponse(delivery, response, error));
+        } catch(IllegalArgumentException | RejectedExecutionException e) {
+            logger.warn("Webhook payload {} could not be posted to {}: {}",
+                        invocation.getId(),
+                        invocation.getPayloadUrl(),
+                        e.getMessage());
+            complete(delivery, false);
+        }
+    }
+
+    private void handleResponse(@Nonnull PendingDelivery delivery,
+                                @Nullable HttpResponse<Void> response,
+                                @Nullable Throwable error) {
+        WebhookInvocation invocation = delivery.getInvocation();
+        if(response != null && isSuccess(response.statusCode())) {
+            logger.info("Webhook payload {} POST result {}",
+                        invocation.getId(),
+                        response.statusCode());
+            complete(delivery, true);
+            return;
+        }
+        String failure = response != null ? "status " + response.statusCode() : String.valueOf(error);
+        boolean retryable = response == null || isRetryable(response.statusCode());
+        if(retryable && delivery.getAttemptCount() < settings.getMaxAttempts()) {
+            long retryDelay = getRetryDelay(delivery.getAttemptCount());
+            logger.info("Webhook payload {} POST to {} failed ({}).  Retrying in {} ms",
+                        invocation.getId(),
+                        invocation.getPayloadUrl(),
+                        failure,
+                        retryDelay);
+            try {
+                retryExecutor.schedule(() -> post(delivery), retryDelay, MILLISECONDS);
+                retryCount.incrementAndGet();
+                return;
+            } catch(RejectedExecutionException e) {
+                // Shut down
+            }
+        }
+        logger.warn("Webhook payload {} could not be delivered to {} after {} attempt(s) ({})",
+                    invocation.getId(),
+                    invocation.getPayloadUrl(),
+                    delivery.getAttemptCount(),
+                    failure);
+        complete(delivery, false);
+    }
+
+    /**
+     * Records the outcome of a delivery and starts the next deliveries for its payload URL.
+     */
+    private void complete(@Nonnull PendingDelivery delivery, boolean delivered) {
+        if(delivered) {
+            long latency = NANOSECONDS.toMillis(System.nanoTime() - delivery.getSubmissionTime());
+            deliveredCount.incrementAndGet();
+            lastDeliveryLatency.set(latency);
+            maxDeliveryLatency.accumulateAndGet(latency, Math::max);
+            totalDeliveryLatency.addAndGet(latency);
+        }
+        else {
+            failedCount.incrementAndGet();
+        }
+        logMetricsIfNecessary(completedCount.incrementAndGet());
+        String payloadUrl = delivery.getInvocation().getPayloadUrl();
+        List<PendingDelivery> startableDeliveries;
+        lock.lock();
+        try {
+            Endpoint endpoint = endpoints.get(payloadUrl);
+            if(endpoint == null) {
+                // Shut down
+                return;
+            }
+            endpoint.decrementInFlightCount();
+            startableDeliveries = pollStartableDeliveries(endpoint);
+            if(endpoint.isIdle()) {
+                endpoints.remove(payloadUrl);
+            }
+        } finally {
+            lock.unlock();
+        }
+        startableDeliveries.forEach(this::post);
+    }
+
+    private void logMetricsIfNecessary(long completed) {
+        if(completed % METRICS_LOGGING_INTERVAL != 0) {
+            return;
+        }
+        WebhookExecutorMetrics metrics = getMetrics();
+        logger.info("Webhook deliveries: {} delivered, {} failed, {} retried, {} coalesced, {} dropped, {} queued, {} in flight",
+                    metrics.getDeliveredCount(),
+                    metrics.getFailedCount(),
+                    metrics.getRetryCount(),
+                    metrics.getCoalescedCount(),
+                    metrics.getDroppedCount(),
+                    metrics.getQueuedCount(),
+                    metrics.getInFlightCount());
+        logger.info("Webhook delivery latency: mean {} ms, max {} ms, last {} ms",
+                    String.format("%.1f", metrics.getMeanDeliveryLatencyMillis()),
+                    metrics.getMaxDeliveryLatencyMillis(),
+                    metrics.getLastDeliveryLatencyMillis());
+    }
+
+    private static ThreadFactory threadFactory(@Nonnull String threadName) {
+        return runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName(thread.getName().replace("thread", threadName));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private long getRetryDelay(int attemptCount) {
+        long delay = settings.getRetryDelayMillis();
+        for(int i = 1; i < attemptCount && delay < MAX_RETRY_DELAY_MILLIS; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, MAX_RETRY_DELAY_MILLIS);
+    }
+
+    private static boolean isSuccess(int statusCode) {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        // Request timeout, too many requests and server errors
+        return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * The payloads for one payload URL.  Only accessed with the lock held.
+     */
+    private static class Endpoint {
+
+        private final LinkedList<PendingDelivery> queue = new LinkedList<>();
+
+        private int inFlightCount = 0;
+
+        public LinkedList<PendingDelivery> getQueue() {
+            return queue;
+        }
+
+        public int getInFlightCount() {
+            return inFlightCount;
+        }
+
+        public void incrementInFlightCount() {
+            inFlightCount++;
+        }
+
+        public void decrementInFlightCount() {
+            inFlightCount--;
+        }
+
+        public boolean isIdle() {
+            return inFlightCount == 0 && queue.isEmpty();
+        }
+
+        /**
+         * Replaces a queued delivery that has the same coalescing key as the specified delivery.
+         * @return true if a queued delivery was replaced, otherwise false.
+         */
+        public boolean replaceQueuedDelivery(@Nonnull PendingDelivery delivery) {
+            Optional<String> coalescingKey = delivery.getInvocation().getCoalescingKey();
+            if(coalescingKey.isEmpty()) {
+                return false;
+            }
+            ListIterator<PendingDelivery> iterator = queue.listIterator();
+            while(iterator.hasNext()) {
+                PendingDelivery queuedDelivery = iterator.next();
+                if(coalescingKey.equals(queuedDelivery.getInvocation().getCoalescingKey())) {
+                    iterator.set(delivery);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class PendingDelivery {
+
+        private final WebhookInvocation invocation;
+
+        private final long submissionTime;
+
+        /**
+         * Only accessed by one thread at a time, because attempts are made one after the other.
+         */
+        private int attemptCount = 0;
+
+        public PendingDelivery(WebhookInvocation invocation, long submissionTime) {
+            this.invocation = invocation;
+            this.submissionTime = submissionTime;
+        }
+
+        public WebhookInvocation getInvocation() {
+            return invocation;
+        }
+
+        public long getSubmissionTime() {
+            return submissionTime;
+        }
+
+        public int getAttemptCount() {
+            return attemptCount;
+        }
+
+        public void incrementAttemptCount() {
+            attemptCount++;
+        }
     }
 }
@@ -0,0 +1,99 @@
+package edu.stanford.bmir.protege.web.server.webhook;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * A snapshot of the activity of a {@link WebhookExecutor}.
+ */
+@AutoValue
+public abstract class WebhookExecutorMetrics {
+
+    @Nonnull
+    public static WebhookExecutorMetrics get(int queuedCount,
+                                             int inFlightCount,
+                                             long deliveredCount,
+                                             long failedCount,
+                                             long retryCount,
+                                             long coalescedCount,
+                                             long droppedCount,
+                                             long lastDeliveryLatencyMillis,
+                                             long maxDeliveryLatencyMillis,
+                                             long totalDeliveryLatencyMillis) {
+        return new AutoValue_WebhookExecutorMetrics(queuedCount,
+                                                    inFlightCount,
+                                                    deliveredCount,
+                                                    failedCount,
+                                                    retryCount,
+                                                    coalescedCount,
+                                                    droppedCount,
+                                                    lastDeliveryLatencyMillis,
+                                                    maxDeliveryLatencyMillis,
+                                                    totalDeliveryLatencyMillis);
+    }
+
+    /**
+     * The number of payloads that are waiting to be delivered.
+     */
+    public abstract int getQueuedCount();
+
+    /**
+     * The number of payloads that are being delivered, including payloads that are waiting to be retried.
+     */
+    public abstract int getInFlightCount();
+
+    /**
+     * The number of payloads that have been delivered.
+     */
+    public abstract long getDeliveredCount();
+
+    /**
+     * The number of payloads that could not be delivered.
+     */
+    public abstract long getFailedCount();
+
+    /**
+     * The number of times that a failed delivery has been retried.
+     */
+    public abstract long getRetryCount();
+
+    /**
+     * The number of payloads that were replaced by a later payload before they were delivered.
+     */
+    public abstract long getCoalescedCount();
+
+    /**
+     * The number of payloads that were dropped because too many payloads were waiting to be delivered to
+     * their payload URL.
+     */
+    public abstract long getDroppedCount();
+
+    /**
+     * The time between the submission and the delivery of the last delivered payload.
+     */
+    public abstract long getLastDeliveryLatencyMillis();
+
+    /**
+     * The longest time between the submission and the delivery of a payload.
+     */
+    public abstract long getMaxDeliveryLatencyMillis();
+
+    /**
+     * The total time between the submission and the delivery of delivered payloads.
+     */
+    public abstract long getTotalDeliveryLatencyMillis();
+
+    /**
+     * The mean time between the submission and the delivery of a payload.
+     */
+    public double getMeanDeliveryLatencyMillis() {
+        if(getDeliveredCount() == 0) {
+            return 0;
+        }
+        return getTotalDeliveryLatencyMillis() / (double) getDeliveredCount();
+    }
+}
@@ -0,0 +1,64 @@
+package edu.stanford.bmir.protege.web.server.webhook;
+
+import com.google.auto.value.AutoValue;
+
+import javax.annotation.Nonnull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Settings that determine how webhook payloads are delivered to their payload URLs.
+ */
+@AutoValue
+public abstract class WebhookExecutorSettings {
+
+    @Nonnull
+    public static WebhookExecutorSettings get(int maxInFlightPerEndpoint,
+                                              int maxQueuedPerEndpoint,
+                                              long timeoutMillis,
+                                              int maxAttempts,
+                                              long retryDelayMillis) {
+        checkArgument(maxInFlightPerEndpoint > 0, "maxInFlightPerEndpoint must be greater than zero");
+        checkArgument(maxQueuedPerEndpoint > 0, "maxQueuedPerEndpoint must be greater than zero");
+        checkArgument(timeoutMillis > 0, "timeoutMillis must be greater than zero");
+        checkArgument(maxAttempts > 0, "maxAttempts must be greater than zero");
+        checkArgument(retryDelayMillis >= 0, "retryDelayMillis must not be negative");
+        return new AutoValue_WebhookExecutorSettings(maxInFlightPerEndpoint,
+                                                     maxQueuedPerEndpoint,
+                                                     timeoutMillis,
+                                                     maxAttempts,
+                                                     retryDelayMillis);
+    }
+
+    /**
+     * Gets the maximum number of payloads that are concurrently being delivered to one payload URL.  With a
+     * value of one, payloads are delivered to a payload URL in the order in which they were submitted.
+     */
+    public abstract int getMaxInFlightPerEndpoint();
+
+    /**
+     * Gets the maximum number of payloads that wait to be delivered to one payload URL.  Further payloads
+     * are dropped.
+     */
+    public abstract int getMaxQueuedPerEndpoint();
+
+    /**
+     * Gets the time, in milliseconds, after which connecting to a payload URL, or waiting for its response,
+     * fails.
+     */
+    public abstract long getTimeoutMillis();
+
+    /**
+     * Gets the maximum number of attempts that are made to deliver a payload.
+     */
+    public abstract int getMaxAttempts();
+
+    /**
+     * Gets the delay, in milliseconds, before the first retry of a failed delivery.  The delay doubles for
+     * each subsequent retry.
+     */
+    public abstract long getRetryDelayMillis();
+}
@@ -3,6 +3,8 @@ package edu.stanford.bmir.protege.web.server.webhook;
 import org.apache.http.entity.ContentType;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -24,14 +26,31 @@ public class WebhookInvocation {
     @Nonnull
     private final ContentType contentType;
 
+    @Nullable
+    private final String coalescingKey;
+
     public WebhookInvocation(@Nonnull String id,
                              @Nonnull String payloadUrl,
                              @Nonnull String payload,
                              @Nonnull ContentType contentType) {
+        this(id, payloadUrl, payload, contentType, null);
+    }
+
+    /**
+     * @param coalescingKey A key that identifies invocations that supersede each other.  An invocation that
+     *                      has not been delivered may be discarded in favour of a later invocation with the
+     *                      same key for the same payload URL.
+     */
+    public WebhookInvocation(@Nonnull String id,
+                             @Nonnull String payloadUrl,
+                             @Nonnull String payload,
+                             @Nonnull ContentType contentType,
+                             @Nullable String coalescingKey) {
         this.id = checkNotNull(id);
         this.payloadUrl = checkNotNull(payloadUrl);
         this.payload = checkNotNull(payload);
         this.contentType = checkNotNull(contentType);
+        this.coalescingKey = coalescingKey;
     }
 
     public String getId() {
@@ -52,4 +71,9 @@ public class WebhookInvocation {
     public ContentType getContentType() {
         return contentType;
     }
+
+    @Nonnull
+    public Optional<String> getCoalescingKey() {
+        return Optional.ofNullable(coalescingKey);
+    }
 }
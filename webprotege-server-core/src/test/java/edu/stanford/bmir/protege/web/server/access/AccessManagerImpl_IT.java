@@ -4,6 +4,7 @@ import com.mongodb.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import edu.stanford.bmir.protege.web.server.persistence.MongoTestUtils;
+import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
 import edu.stanford.bmir.protege.web.shared.access.BuiltInRole;
 import edu.stanford.bmir.protege.web.shared.access.RoleId;
 import org.bson.Document;
@@ -136,6 +137,52 @@ public class AccessManagerImpl_IT {
         assertThat((List<String>) rebuiltDocument.get(ACTION_CLOSURE_FIELD), hasItems("ViewProject"));
     }
 
+    @Test
+    public void shouldHavePermissionForActionInClosure() {
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.VIEW_PROJECT), is(true));
+    }
+
+    @Test
+    public void shouldNotHavePermissionForActionNotInClosure() {
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.EDIT_ONTOLOGY), is(false));
+    }
+
+    @Test
+    public void shouldAnswerRepeatedLookupsFromCache() {
+        manager.hasPermission(subject, resource, BuiltInAction.VIEW_PROJECT);
+        manager.hasPermission(subject, resource, BuiltInAction.EDIT_ONTOLOGY);
+        manager.getActionClosure(subject, resource);
+        PermissionCacheMetrics metrics = manager.getPermissionCacheMetrics();
+        assertThat(metrics.getMissCount(), is(1L));
+        assertThat(metrics.getHitCount(), is(2L));
+    }
+
+    @Test
+    public void shouldInvalidateCachedPermissionsWhenRolesAreAssigned() {
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.EDIT_ONTOLOGY), is(false));
+        manager.setAssignedRoles(subject, resource, Collections.singleton(BuiltInRole.CAN_EDIT.getRoleId()));
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.EDIT_ONTOLOGY), is(true));
+        assertThat(manager.getPermissionCacheMetrics().getInvalidationCount(), is(greaterThan(0L)));
+    }
+
+    @Test
+    public void shouldInvalidateCachedPermissionsWhenRolesAreAssignedToAnySignedInUser() {
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.EDIT_ONTOLOGY), is(false));
+        manager.setAssignedRoles(Subject.forAnySignedInUser(),
+                                 resource,
+                                 Collections.singleton(BuiltInRole.CAN_EDIT.getRoleId()));
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.EDIT_ONTOLOGY), is(true));
+    }
+
+    @Test
+    public void shouldInvalidateCachedPermissionsWhenRebuilt() {
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.VIEW_PROJECT), is(true));
+        collection.updateOne(userQuery, new Document("$set", new Document("actionClosure", emptyList())));
+        manager.rebuild();
+        assertThat(manager.hasPermission(subject, resource, BuiltInAction.VIEW_PROJECT), is(true));
+        assertThat(manager.getPermissionCacheMetrics().getMissCount(), is(2L));
+    }
+
     @After
     public void tearDown() {
         database.drop();
@@ -0,0 +1,142 @@
+package edu.stanford.bmir.protege.web.server.dispatch;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.access.AccessManager;
+import edu.stanford.bmir.protege.web.server.access.ProjectResource;
+import edu.stanford.bmir.protege.web.server.access.Subject;
+import edu.stanford.bmir.protege.web.shared.metrics.GetMetricsAction;
+import edu.stanford.bmir.protege.web.shared.metrics.GetMetricsResult;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.EDIT_ONTOLOGY;
+import static edu.stanford.bmir.protege.web.shared.access.BuiltInAction.VIEW_PROJECT;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ActionResultCache_TestCase {
+
+    private static final RevisionNumber REVISION = RevisionNumber.getRevisionNumber(3);
+
+    private final ProjectId projectId = ProjectId.get(UUID.randomUUID().toString());
+
+    private final UserId viewer = UserId.getUserId("Viewer");
+
+    private final UserId otherViewer = UserId.getUserId("OtherViewer");
+
+    private final UserId editor = UserId.getUserId("Editor");
+
+    private final GetMetricsAction action = new GetMetricsAction(projectId);
+
+    private final AtomicInteger executionCount = new AtomicInteger();
+
+    private final Supplier<GetMetricsResult> executor = () -> {
+        executionCount.incrementAndGet();
+        return new GetMetricsResult(ImmutableList.of());
+    };
+
+    @Mock
+    private AccessManager accessManager;
+
+    private ActionResultCache cache;
+
+    @Before
+    public void setUp() {
+        when(accessManager.getActionClosure(any(Subject.class), any(ProjectResource.class)))
+                .thenReturn(ImmutableSet.of(VIEW_PROJECT.getActionId()));
+        when(accessManager.getActionClosure(eq(Subject.forUser(editor)), any(ProjectResource.class)))
+                .thenReturn(ImmutableSet.of(VIEW_PROJECT.getActionId(), EDIT_ONTOLOGY.getActionId()));
+        cache = new ActionResultCache(ActionResultCacheSettings.get(100), accessManager);
+    }
+
+    @Test
+    public void shouldExecuteActionOnMiss() {
+        GetMetricsResult result = cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        assertThat(result, is(notNullValue()));
+        assertThat(executionCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldReturnCachedResultOnHit() {
+        GetMetricsResult result = cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        GetMetricsResult cachedResult = cache.getResult(projectId, new GetMetricsAction(projectId), viewer, REVISION, executor, () -> true);
+        assertThat(cachedResult, is(sameInstance(result)));
+        assertThat(executionCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldShareResultsBetweenUsersWithSamePermissions() {
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.getResult(projectId, action, otherViewer, REVISION, executor, () -> true);
+        assertThat(executionCount.get(), is(1));
+    }
+
+    @Test
+    public void shouldNotShareResultsBetweenUsersWithDifferentPermissions() {
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.getResult(projectId, action, editor, REVISION, executor, () -> true);
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldNotReturnResultForDifferentRevision() {
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.getResult(projectId, action, viewer, RevisionNumber.getRevisionNumber(4), executor, () -> true);
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldNotReturnResultAfterInvalidation() {
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.invalidate(projectId);
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldNotCacheResultsWhenDisabled() {
+        cache = new ActionResultCache(ActionResultCacheSettings.get(0), accessManager);
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        assertThat(executionCount.get(), is(2));
+        assertThat(cache.getMetrics().isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldNotCacheResultThatIsNotCacheable() {
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> false);
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        assertThat(executionCount.get(), is(2));
+    }
+
+    @Test
+    public void shouldRecordHitsAndMissesPerAction() {
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.getResult(projectId, action, viewer, REVISION, executor, () -> true);
+        cache.getResult(projectId, action, editor, REVISION, executor, () -> true);
+        ActionResultCacheMetrics metrics = cache.getMetrics().get("GetMetricsAction");
+        assertThat(metrics.getHitCount(), is(2L));
+        assertThat(metrics.getMissCount(), is(2L));
+        assertThat(metrics.getHitRate(), is(0.5));
+    }
+}
@@ -1,19 +1,36 @@
 package edu.stanford.bmir.protege.web.server.dispatch.impl;
 
+import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.app.UserInSessionFactory;
 import edu.stanford.bmir.protege.web.server.dispatch.*;
+import edu.stanford.bmir.protege.web.server.project.ProjectChangeLock;
 import edu.stanford.bmir.protege.web.server.project.ProjectManager;
+import edu.stanford.bmir.protege.web.server.project.ReadIsolationSettings;
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.server.shortform.MultiLingualDictionary;
 import edu.stanford.bmir.protege.web.shared.app.UserInSession;
 import edu.stanford.bmir.protege.web.shared.dispatch.Action;
 import edu.stanford.bmir.protege.web.shared.dispatch.ActionExecutionException;
 import edu.stanford.bmir.protege.web.shared.dispatch.Result;
+import edu.stanford.bmir.protege.web.shared.metrics.GetMetricsAction;
+import edu.stanford.bmir.protege.web.shared.metrics.GetMetricsResult;
 import edu.stanford.bmir.protege.web.shared.permissions.PermissionDeniedException;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 
 /**
@@ -53,9 +70,22 @@ public class DispatchServiceExecutorImpl_TestCase<A extends Action<R>, R extends
     @Mock
     private UserInSession userInSession;
 
+    @Mock
+    private ActionResultCache resultCache;
+
+    private ActionHandler<GetMetricsAction, GetMetricsResult> cacheableActionHandler;
+
+    private ProjectChangeLock projectChangeLock;
+
+    private final ProjectId projectId = ProjectId.get(UUID.randomUUID().toString());
+
+    private final GetMetricsAction metricsAction = new GetMetricsAction(projectId);
+
+    private final GetMetricsResult cachedResult = new GetMetricsResult(ImmutableList.of());
+
     @Before
     public void setUp() throws Exception {
-        executor = new DispatchServiceExecutorImpl(registry, projectManager, userInSessionFactory);
+        executor = new DispatchServiceExecutorImpl(registry, projectManager, userInSessionFactory, resultCache);
         when(registry.getActionHandler(action)).thenReturn(actionHandler);
         when(actionHandler.getRequestValidator(action, requestContext)).thenReturn(requestValidator);
         when(requestValidator.validateAction()).thenReturn(RequestValidationResult.getValid());
@@ -86,4 +116,65 @@ public class DispatchServiceExecutorImpl_TestCase<A extends Action<R>, R extends
         executor.execute(action, requestContext, executionContext);
         verify(actionHandler, times(1)).execute(action, executionContext);
     }
+
+    @SuppressWarnings("unchecked")
+    private void setUpCacheableProjectAction() {
+        cacheableActionHandler = mock(ActionHandler.class, withSettings().extraInterfaces(CacheableActionHandler.class));
+        when(cacheableActionHandler.getRequestValidator(metricsAction, requestContext)).thenReturn(requestValidator);
+        var projectRegistry = mock(ProjectActionHandlerRegistry.class);
+        when(projectRegistry.getActionHandler(metricsAction)).thenReturn(cacheableActionHandler);
+        when(projectManager.getActionHandlerRegistry(projectId)).thenReturn(projectRegistry);
+        var revisionManager = mock(RevisionManager.class);
+        when(revisionManager.getCurrentRevision()).thenReturn(RevisionNumber.getRevisionNumber(3));
+        // Locked reads are disabled by default
+        projectChangeLock = new ProjectChangeLock(ReadIsolationSettings.get(false), revisionManager);
+        when(projectManager.getProjectChangeLock(projectId)).thenReturn(projectChangeLock);
+        var dictionary = mock(MultiLingualDictionary.class);
+        when(dictionary.getLoadedStamp()).thenReturn(1L);
+        when(projectManager.getDictionary(projectId)).thenReturn(dictionary);
+        when(resultCache.isEnabled()).thenReturn(true);
+        when(resultCache.getResult(eq(projectId),
+                                   eq(metricsAction),
+                                   any(UserId.class),
+                                   any(RevisionNumber.class),
+                                   any(Supplier.class),
+                                   any(BooleanSupplier.class))).thenReturn(cachedResult);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BooleanSupplier captureCacheable() {
+        var cacheableCaptor = ArgumentCaptor.forClass(BooleanSupplier.class);
+        verify(resultCache).getResult(eq(projectId),
+                                      eq(metricsAction),
+                                      any(UserId.class),
+                                      eq(RevisionNumber.getRevisionNumber(3)),
+                                      any(Supplier.class),
+                                      cacheableCaptor.capture());
+        return cacheableCaptor.getValue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldLogResultsThatAreServedFromTheCache() {
+        setUpCacheableProjectAction();
+        executor.execute(metricsAction, requestContext, executionContext);
+        verify(cacheableActionHandler, never()).execute(metricsAction, executionContext);
+        verify((CacheableActionHandler<GetMetricsAction, GetMetricsResult>) cacheableActionHandler)
+                .logResult(metricsAction, cachedResult, executionContext);
+    }
+
+    @Test
+    public void shouldCacheResultsWithoutLockedReads() {
+        setUpCacheableProjectAction();
+        executor.execute(metricsAction, requestContext, executionContext);
+        assertThat(captureCacheable().getAsBoolean(), is(true));
+    }
+
+    @Test
+    public void shouldNotCacheResultsIfChangesArePublishedWhilstTheyAreComputed() {
+        setUpCacheableProjectAction();
+        executor.execute(metricsAction, requestContext, executionContext);
+        projectChangeLock.publish(() -> null);
+        assertThat(captureCacheable().getAsBoolean(), is(false));
+    }
 }
@@ -0,0 +1,178 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import com.google.web.bindery.event.shared.Event;
+import edu.stanford.bmir.protege.web.shared.event.EventList;
+import edu.stanford.bmir.protege.web.shared.event.EventTag;
+import edu.stanford.bmir.protege.web.shared.event.WebProtegeEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class EventManager_TestCase {
+
+    private static final long LONG_LIFETIME_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final long SHORT_LIFETIME_MILLIS = 200;
+
+    private EventManager<TestEvent> eventManager;
+
+    private EventManager<TestEvent> createEventManager(long lifeTimeMillis) {
+        eventManager = new EventManager<>(EventLifeTime.getInMilliseconds(lifeTimeMillis));
+        return eventManager;
+    }
+
+    @After
+    public void tearDown() {
+        if(eventManager != null) {
+            eventManager.dispose();
+        }
+    }
+
+    private static List<TestEvent> events(int from, int to) {
+        List<TestEvent> events = new ArrayList<>();
+        for(int i = from; i < to; i++) {
+            events.add(new TestEvent(i));
+        }
+        return events;
+    }
+
+    private static void postEach(EventManager<TestEvent> eventManager, List<TestEvent> events) {
+        events.forEach(eventManager::postEvent);
+    }
+
+    @Test
+    public void shouldGetEventsFromTag() {
+        EventManager<TestEvent> eventManager = createEventManager(LONG_LIFETIME_MILLIS);
+        eventManager.postEvent(new TestEvent(0));
+        EventTag secondTag = eventManager.postEvent(new TestEvent(1));
+        EventTag thirdTag = eventManager.postEvent(new TestEvent(2));
+        EventList<TestEvent> eventList = eventManager.getEventsFromTag(secondTag);
+        assertThat(eventList.getEvents(), contains(new TestEvent(1), new TestEvent(2)));
+        assertThat(eventList.getStartTag(), is(secondTag));
+        assertThat(eventList.getEndTag(), is(thirdTag.next()));
+    }
+
+    @Test
+    public void shouldGetNoEventsFromNextTag() {
+        EventManager<TestEvent> eventManager = createEventManager(LONG_LIFETIME_MILLIS);
+        eventManager.postEvent(new TestEvent(0));
+        EventList<TestEvent> eventList = eventManager.getEventsFromTag(eventManager.getCurrentTag().next());
+        assertThat(eventList.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldGetEventsAfterRingBufferWrapsAround() throws InterruptedException {
+        EventManager<TestEvent> eventManager = createEventManager(SHORT_LIFETIME_MILLIS);
+        int capacity = eventManager.getEventBucketCapacity();
+        postEach(eventManager, events(0, capacity - 1));
+        Thread.sleep(SHORT_LIFETIME_MILLIS * 2);
+        eventManager.removeExpiredEvents();
+        EventTag fromTag = eventManager.getCurrentTag().next();
+        List<TestEvent> laterEvents = events(capacity, capacity + capacity / 2);
+        postEach(eventManager, laterEvents);
+        EventList<TestEvent> eventList = eventManager.getEventsFromTag(fromTag);
+        assertThat(eventList.getEvents(), is(laterEvents));
+        assertThat(eventManager.getEventBucketCapacity(), is(capacity));
+    }
+
+    @Test
+    public void shouldPurgeExpiredEvents() throws InterruptedException {
+        EventManager<TestEvent> eventManager = createEventManager(SHORT_LIFETIME_MILLIS);
+        EventTag firstTag = eventManager.postEvent(new TestEvent(0));
+        Thread.sleep(SHORT_LIFETIME_MILLIS * 2);
+        eventManager.removeExpiredEvents();
+        assertThat(eventManager.getEventsFromTag(firstTag).isEmpty(), is(true));
+        eventManager.postEvent(new TestEvent(1));
+        assertThat(eventManager.getEventsFromTag(firstTag).getEvents(), contains(new TestEvent(1)));
+    }
+
+    @Test
+    public void shouldNotOverwriteLiveEventsWhenRingBufferIsFull() {
+        EventManager<TestEvent> eventManager = createEventManager(LONG_LIFETIME_MILLIS);
+        int capacity = eventManager.getEventBucketCapacity();
+        EventTag firstTag = eventManager.getCurrentTag().next();
+        List<TestEvent> events = events(0, capacity * 3);
+        postEach(eventManager, events);
+        assertThat(eventManager.getEventsFromTag(firstTag).getEvents(), is(events));
+        assertThat(eventManager.getEventBucketCapacity(), is(greaterThanOrEqualTo(capacity * 3)));
+    }
+
+    @Test
+    public void shouldCompleteWaitingFutureWhenEventsArePosted() throws Exception {
+        EventManager<TestEvent> eventManager = createEventManager(LONG_LIFETIME_MILLIS);
+        CompletableFuture<EventTag> future = eventManager.awaitEventsFromTag(eventManager.getCurrentTag().next());
+        assertThat(future.isDone(), is(false));
+        EventTag postedTag = eventManager.postEvents(Collections.singletonList(new TestEvent(0)));
+        assertThat(future.get(1, TimeUnit.SECONDS), is(postedTag));
+    }
+
+    @Test
+    public void shouldCompleteFutureImmediatelyIfEventsHaveBeenPosted() {
+        EventManager<TestEvent> eventManager = createEventManager(LONG_LIFETIME_MILLIS);
+        EventTag postedTag = eventManager.postEvent(new TestEvent(0));
+        CompletableFuture<EventTag> future = eventManager.awaitEventsFromTag(postedTag);
+        assertThat(future.getNow(null), is(postedTag));
+    }
+
+    @Test
+    public void shouldCancelWaitingFuturesOnDispose() {
+        EventManager<TestEvent> eventManager = createEventManager(LONG_LIFETIME_MILLIS);
+        CompletableFuture<EventTag> future = eventManager.awaitEventsFromTag(eventManager.getCurrentTag().next());
+        eventManager.dispose();
+        assertThat(future.isCancelled(), is(true));
+    }
+
+    private static class TestEvent extends WebProtegeEvent<Object> {
+
+        private static final Event.Type<Object> TYPE = new Event.Type<>();
+
+        private final int id;
+
+        private TestEvent(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public Event.Type<Object> getAssociatedType() {
+            return TYPE;
+        }
+
+        @Override
+        protected void dispatch(Object handler) {
+
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(obj == this) {
+                return true;
+            }
+            if(!(obj instanceof TestEvent)) {
+                return false;
+            }
+            return this.id == ((TestEvent) obj).id;
+        }
+
+        @Override
+        public String toString() {
+            return "TestEvent(" + id + ")";
+        }
+    }
+}
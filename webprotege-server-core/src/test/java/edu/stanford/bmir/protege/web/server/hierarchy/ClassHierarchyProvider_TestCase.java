@@ -0,0 +1,106 @@
+package edu.stanford.bmir.protege.web.server.hierarchy;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class ClassHierarchyProvider_TestCase {
+
+    private OWLOntologyManager manager;
+
+    private OWLOntology ontology;
+
+    private OWLDataFactory dataFactory;
+
+    private OWLClass thing, clsA, clsB, clsC;
+
+    private ClassHierarchyProvider provider;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = OWLManager.createOWLOntologyManager();
+        dataFactory = manager.getOWLDataFactory();
+        ontology = manager.createOntology(IRI.create("http://example.org/ont"));
+        thing = dataFactory.getOWLThing();
+        clsA = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+        clsB = dataFactory.getOWLClass(IRI.create("http://example.org/B"));
+        clsC = dataFactory.getOWLClass(IRI.create("http://example.org/C"));
+        manager.applyChange(new AddAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(clsB, clsA)));
+        manager.applyChange(new AddAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(clsC, clsB)));
+        provider = new ClassHierarchyProvider(ProjectId.get(UUID.randomUUID().toString()), ontology, thing);
+    }
+
+    private void applyChange(OWLOntologyChange change) {
+        manager.applyChange(change);
+        provider.handleChanges(List.of(change));
+    }
+
+    @Test
+    public void shouldGetAncestors() {
+        assertThat(provider.getAncestors(clsC), containsInAnyOrder(clsB, clsA, thing));
+        assertThat(provider.getAncestors(thing), is(empty()));
+    }
+
+    @Test
+    public void shouldGetDescendants() {
+        assertThat(provider.getDescendants(clsA), containsInAnyOrder(clsB, clsC));
+        assertThat(provider.getDescendants(thing), containsInAnyOrder(clsA, clsB, clsC));
+    }
+
+    @Test
+    public void shouldUpdateAncestorsWhenSubClassOfAxiomIsRemoved() {
+        provider.getAncestors(clsC);
+        applyChange(new RemoveAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(clsB, clsA)));
+        assertThat(provider.getAncestors(clsC), containsInAnyOrder(clsB, thing));
+        assertThat(provider.getDescendants(clsA), is(empty()));
+    }
+
+    @Test
+    public void shouldUpdateAncestorsWhenSubClassOfAxiomIsAdded() {
+        var clsD = dataFactory.getOWLClass(IRI.create("http://example.org/D"));
+        applyChange(new AddAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(clsA, clsD)));
+        assertThat(provider.getAncestors(clsC), containsInAnyOrder(clsB, clsA, clsD, thing));
+        assertThat(provider.getDescendants(thing), hasItem(clsD));
+    }
+
+    @Test
+    public void shouldGetPathsToRoot() {
+        assertThat(provider.getPathsToRoot(clsC), contains(List.of(thing, clsA, clsB, clsC)));
+    }
+
+    @Test
+    public void shouldStreamLimitedNumberOfPathsInDiamondHeavyHierarchy() {
+        // 30 stacked diamonds give 2^30 paths from the bottom class to the root
+        var top = clsC;
+        for(int i = 0; i < 30; i++) {
+            var left = dataFactory.getOWLClass(IRI.create("http://example.org/L" + i));
+            var right = dataFactory.getOWLClass(IRI.create("http://example.org/R" + i));
+            var bottom = dataFactory.getOWLClass(IRI.create("http://example.org/N" + i));
+            applyChange(new AddAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(left, top)));
+            applyChange(new AddAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(right, top)));
+            applyChange(new AddAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(bottom, left)));
+            applyChange(new AddAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(bottom, right)));
+            top = bottom;
+        }
+        var bottom = top;
+        var paths = provider.streamPathsToRoot(bottom)
+                            .limit(1000)
+                            .collect(Collectors.toSet());
+        assertThat(paths.size(), is(1000));
+        paths.forEach(path -> assertThat(path, hasItems(thing, clsC, bottom)));
+        assertThat(provider.getAncestors(bottom).size(), is(93));
+    }
+}
@@ -0,0 +1,104 @@
+package edu.stanford.bmir.protege.web.server.hierarchy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class HierarchyClosureIndex_TestCase {
+
+    private HierarchyClosureIndex<String> index;
+
+    @Before
+    public void setUp() {
+        index = new HierarchyClosureIndex<>();
+        // A diamond: D -> B -> A, D -> C -> A
+        index.setParents("B", List.of("A"));
+        index.setParents("C", List.of("A"));
+        index.setParents("D", List.of("B", "C"));
+    }
+
+    @Test
+    public void shouldGetParentsAndChildren() {
+        assertThat(index.getParents("D"), containsInAnyOrder("B", "C"));
+        assertThat(index.getChildren("A"), containsInAnyOrder("B", "C"));
+    }
+
+    @Test
+    public void shouldGetAncestors() {
+        assertThat(index.getAncestors("D"), containsInAnyOrder("A", "B", "C"));
+        assertThat(index.getAncestors("A"), is(empty()));
+    }
+
+    @Test
+    public void shouldGetDescendants() {
+        assertThat(index.getDescendants("A"), containsInAnyOrder("B", "C", "D"));
+        assertThat(index.getDescendants("D"), is(empty()));
+    }
+
+    @Test
+    public void shouldReturnEmptySetsForUnknownNode() {
+        assertThat(index.getAncestors("X"), is(empty()));
+        assertThat(index.getDescendants("X"), is(empty()));
+    }
+
+    @Test
+    public void shouldSupportContainsOnClosure() {
+        Set<String> ancestors = index.getAncestors("D");
+        assertThat(ancestors.contains("A"), is(true));
+        assertThat(ancestors.contains("D"), is(false));
+        assertThat(ancestors.contains("X"), is(false));
+        assertThat(index.isAncestor("D", "A"), is(true));
+        assertThat(index.isAncestor("A", "D"), is(false));
+    }
+
+    @Test
+    public void shouldUpdateCachedClosuresWhenParentsChange() {
+        // Populate caches
+        index.getAncestors("D");
+        index.getDescendants("A");
+        index.setParents("B", List.of("E"));
+        assertThat(index.getAncestors("D"), containsInAnyOrder("A", "B", "C", "E"));
+        assertThat(index.getDescendants("E"), containsInAnyOrder("B", "D"));
+        assertThat(index.getDescendants("A"), containsInAnyOrder("C", "D"));
+        assertThat(index.getChildren("A"), contains("C"));
+    }
+
+    @Test
+    public void shouldReportWhetherParentsChanged() {
+        assertThat(index.setParents("D", List.of("C", "B")), is(false));
+        assertThat(index.setParents("D", List.of("C")), is(true));
+    }
+
+    @Test
+    public void shouldIncludeNodeInOwnClosuresWhenInCycle() {
+        index.setParents("A", List.of("D"));
+        assertThat(index.getAncestors("A"), containsInAnyOrder("A", "B", "C", "D"));
+        assertThat(index.getDescendants("A"), containsInAnyOrder("A", "B", "C", "D"));
+    }
+
+    @Test
+    public void shouldKeepPreviouslyReturnedClosureUnchanged() {
+        Set<String> ancestors = index.getAncestors("D");
+        index.setParents("D", List.of());
+        assertThat(ancestors, containsInAnyOrder("A", "B", "C"));
+        assertThat(index.getAncestors("D"), is(empty()));
+    }
+
+    @Test
+    public void shouldGrowBeyondInitialCapacity() {
+        for(int i = 1; i < 1000; i++) {
+            index.setParents("N" + i, List.of("N" + (i - 1)));
+        }
+        assertThat(index.getAncestors("N999").size(), is(999));
+        assertThat(index.getDescendants("N0").size(), is(999));
+    }
+}
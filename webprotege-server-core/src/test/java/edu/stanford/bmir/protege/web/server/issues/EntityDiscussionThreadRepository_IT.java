@@ -19,6 +19,7 @@ import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLEntity;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static edu.stanford.bmir.protege.web.server.persistence.MongoTestUtils.getTestDbName;
@@ -180,6 +181,58 @@ public class EntityDiscussionThreadRepository_IT {
         assertThat(count, is(1));
     }
 
+    @Test
+    public void shouldGetOpenCommentsCounts() {
+        OWLClass otherEntity = MockingUtils.mockOWLClass();
+        Map<OWLEntity, Integer> counts = repository.getOpenCommentsCounts(projectId, List.of(entity, otherEntity));
+        assertThat(counts.get(entity), is(1));
+        assertThat(counts.containsKey(otherEntity), is(false));
+    }
+
+    @Test
+    public void shouldNotCountCommentsInClosedThreadsInOpenCommentsCounts() {
+        repository.setThreadStatus(thread.getId(), Status.CLOSED);
+        Map<OWLEntity, Integer> counts = repository.getOpenCommentsCounts(projectId, List.of(entity));
+        assertThat(counts.containsKey(entity), is(false));
+    }
+
+    @Test
+    public void shouldUpdateCommentsCountWhenCommentIsAdded() {
+        repository.getCommentsCount(projectId, entity);
+        Comment otherComment = new Comment(CommentId.create(),
+                                           UserId.getUserId("Jane"),
+                                           System.currentTimeMillis(),
+                                           Optional.empty(),
+                                           "Another body", "Another rendered body");
+        repository.addCommentToThread(thread.getId(), otherComment);
+        assertThat(repository.getCommentsCount(projectId, entity), is(2));
+        assertThat(repository.getOpenCommentsCount(projectId, entity), is(2));
+    }
+
+    @Test
+    public void shouldUpdateOpenCommentsCountWhenThreadIsClosed() {
+        repository.getOpenCommentsCount(projectId, entity);
+        repository.setThreadStatus(thread.getId(), Status.CLOSED);
+        assertThat(repository.getOpenCommentsCount(projectId, entity), is(0));
+        assertThat(repository.getCommentsCount(projectId, entity), is(1));
+    }
+
+    @Test
+    public void shouldUpdateCommentsCountWhenCommentIsDeleted() {
+        repository.getCommentsCount(projectId, entity);
+        repository.deleteComment(comment.getId());
+        assertThat(repository.getCommentsCount(projectId, entity), is(0));
+    }
+
+    @Test
+    public void shouldMoveCommentsCountWhenEntityIsReplaced() {
+        OWLClass otherEntity = MockingUtils.mockOWLClass();
+        repository.getCommentsCount(projectId, entity);
+        repository.replaceEntity(projectId, entity, otherEntity);
+        assertThat(repository.getCommentsCount(projectId, entity), is(0));
+        assertThat(repository.getCommentsCount(projectId, otherEntity), is(1));
+    }
+
     private MongoCollection<Document> getCollection() {
         return mongoClient.getDatabase(getTestDbName())
                           .getCollection("EntityDiscussionThreads");
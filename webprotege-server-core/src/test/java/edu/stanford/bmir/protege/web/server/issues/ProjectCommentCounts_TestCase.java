@@ -0,0 +1,68 @@
+package edu.stanford.bmir.protege.web.server.issues;
+
+import edu.stanford.bmir.protege.web.MockingUtils;
+import edu.stanford.bmir.protege.web.shared.issues.ThreadId;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLClass;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class ProjectCommentCounts_TestCase {
+
+    private ProjectCommentCounts counts;
+
+    private OWLClass entity, otherEntity;
+
+    private ThreadId threadA, threadB;
+
+    @Before
+    public void setUp() {
+        counts = new ProjectCommentCounts();
+        entity = MockingUtils.mockOWLClass();
+        otherEntity = MockingUtils.mockOWLClass();
+        threadA = ThreadId.create();
+        threadB = ThreadId.create();
+        counts.putThread(threadA, entity, true, 3);
+        counts.putThread(threadB, entity, false, 2);
+    }
+
+    @Test
+    public void shouldSumCommentsOverThreads() {
+        assertThat(counts.getCommentsCount(entity), is(5));
+        assertThat(counts.getOpenCommentsCount(entity), is(3));
+    }
+
+    @Test
+    public void shouldReturnZeroForEntityWithoutThreads() {
+        assertThat(counts.getCommentsCount(otherEntity), is(0));
+        assertThat(counts.getOpenCommentsCount(otherEntity), is(0));
+    }
+
+    @Test
+    public void shouldReplaceThreadSummary() {
+        counts.putThread(threadA, entity, false, 4);
+        assertThat(counts.getCommentsCount(entity), is(6));
+        assertThat(counts.getOpenCommentsCount(entity), is(0));
+    }
+
+    @Test
+    public void shouldRemoveThread() {
+        counts.removeThread(threadA);
+        assertThat(counts.getCommentsCount(entity), is(2));
+        assertThat(counts.getOpenCommentsCount(entity), is(0));
+    }
+
+    @Test
+    public void shouldMoveThreadsToReplacementEntity() {
+        counts.replaceEntity(entity, otherEntity);
+        assertThat(counts.getCommentsCount(entity), is(0));
+        assertThat(counts.getCommentsCount(otherEntity), is(5));
+        assertThat(counts.getOpenCommentsCount(otherEntity), is(3));
+    }
+}
@@ -0,0 +1,66 @@
+package edu.stanford.bmir.protege.web.server.match;
+
+import edu.stanford.bmir.protege.web.shared.match.criteria.EntityIsDeprecatedCriteria;
+import edu.stanford.bmir.protege.web.shared.match.criteria.RootCriteria;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class MatcherCache_TestCase {
+
+    private MatcherCache cache;
+
+    private AtomicInteger compilations;
+
+    private Function<RootCriteria, Matcher<OWLEntity>> compiler;
+
+    @Before
+    public void setUp() {
+        cache = new MatcherCache();
+        compilations = new AtomicInteger();
+        compiler = criteria -> {
+            compilations.incrementAndGet();
+            return entity -> true;
+        };
+    }
+
+    @Test
+    public void shouldCompileMatcherOnce() {
+        var first = cache.getMatcher(EntityIsDeprecatedCriteria.get(), compiler);
+        var second = cache.getMatcher(EntityIsDeprecatedCriteria.get(), compiler);
+        assertThat(second, is(sameInstance(first)));
+        assertThat(compilations.get(), is(1));
+    }
+
+    @Test
+    public void shouldRecompileMatcherAfterInvalidation() {
+        var first = cache.getMatcher(EntityIsDeprecatedCriteria.get(), compiler);
+        cache.invalidateAll();
+        var second = cache.getMatcher(EntityIsDeprecatedCriteria.get(), compiler);
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(compilations.get(), is(2));
+    }
+
+    @Test
+    public void shouldNotCacheMatcherCompiledBeforeInvalidation() {
+        cache.getMatcher(EntityIsDeprecatedCriteria.get(), criteria -> {
+            // The ontology changes whilst the matcher is being compiled
+            cache.invalidateAll();
+            return compiler.apply(criteria);
+        });
+        cache.getMatcher(EntityIsDeprecatedCriteria.get(), compiler);
+        assertThat(compilations.get(), is(2));
+    }
+}
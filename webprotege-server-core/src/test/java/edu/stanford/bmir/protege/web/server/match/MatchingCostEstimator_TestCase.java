@@ -0,0 +1,77 @@
+package edu.stanford.bmir.protege.web.server.match;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.match.criteria.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class MatchingCostEstimator_TestCase {
+
+    private MatchingCostEstimator estimator;
+
+    private RootCriteria subClassOf;
+
+    private RootCriteria annotationRegex;
+
+    private RootCriteria notDeprecated;
+
+    private RootCriteria notBuiltIn;
+
+    @Before
+    public void setUp() {
+        estimator = new MatchingCostEstimator();
+        OWLDataFactory dataFactory = OWLManager.getOWLDataFactory();
+        subClassOf = SubClassOfCriteria.get(dataFactory.getOWLClass(IRI.create("http://example.org/A")),
+                                            HierarchyFilterType.ALL);
+        annotationRegex = EntityAnnotationCriteria.get(IriEqualsCriteria.get(dataFactory.getRDFSLabel()),
+                                                       StringContainsRegexMatchCriteria.get("heart.*", true));
+        notDeprecated = EntityIsNotDeprecatedCriteria.get();
+        notBuiltIn = IsNotBuiltInEntityCriteria.get();
+    }
+
+    private List<RootCriteria> sort(Comparator<RootCriteria> order, RootCriteria... criteria) {
+        var sorted = new ArrayList<>(List.of(criteria));
+        sorted.sort(order);
+        return sorted;
+    }
+
+    @Test
+    public void shouldOrderCheapSelectiveChildrenFirstInConjunction() {
+        var sorted = sort(estimator.getConjunctionOrder(), notDeprecated, annotationRegex, notBuiltIn, subClassOf);
+        assertThat(sorted.get(0), is(subClassOf));
+        assertThat(sorted.indexOf(annotationRegex), is(lessThan(sorted.indexOf(notDeprecated))));
+    }
+
+    @Test
+    public void shouldOrderCheapUnselectiveChildrenFirstInDisjunction() {
+        var sorted = sort(estimator.getDisjunctionOrder(), subClassOf, annotationRegex, notBuiltIn);
+        assertThat(sorted.get(0), is(notBuiltIn));
+    }
+
+    @Test
+    public void shouldSumCostOfCompositeChildren() {
+        var composite = CompositeRootCriteria.get(ImmutableList.of(subClassOf, notDeprecated), MultiMatchType.ALL);
+        assertThat(estimator.getCost(composite), is(estimator.getCost(subClassOf) + estimator.getCost(notDeprecated)));
+    }
+
+    @Test
+    public void shouldMultiplySelectivityOfConjunction() {
+        var composite = CompositeRootCriteria.get(ImmutableList.of(subClassOf, notDeprecated), MultiMatchType.ALL);
+        assertThat(estimator.getSelectivity(composite),
+                   is(closeTo(estimator.getSelectivity(subClassOf) * estimator.getSelectivity(notDeprecated), 1e-9)));
+    }
+}
@@ -0,0 +1,201 @@
+package edu.stanford.bmir.protege.web.server.match;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsIndex;
+import edu.stanford.bmir.protege.web.server.index.AnnotationAssertionAxiomsIndexCachingImpl;
+import edu.stanford.bmir.protege.web.shared.match.criteria.*;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * 2026-10-17
+ * <p>
+ * A benchmark that compares planned execution of representative criteria with a scan of the whole signature.
+ * The ontology is a class tree with labels, some deprecated classes and individuals.  For each criteria tree
+ * the results of both strategies are checked to be equal and the mean time per query is logged.
+ * </p>
+ */
+public class MatchingEnginePerformance_IT {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchingEnginePerformance_IT.class);
+
+    private static final String NS = "http://example.org/bench#";
+
+    private static final int BRANCHING_FACTOR = 10;
+
+    private static final int DEPTH = 4;
+
+    private static final int INDIVIDUALS_PER_LEAF_PARENT = 2;
+
+    private static final int WARM_UP_ITERATIONS = 3;
+
+    private static final int MEASURED_ITERATIONS = 10;
+
+    private OWLOntology ontology;
+
+    private OWLDataFactory dataFactory;
+
+    private MatcherFactory matcherFactory;
+
+    private MatchingEngineImpl matchingEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        dataFactory = manager.getOWLDataFactory();
+        ontology = manager.createOntology(IRI.create("http://example.org/bench"));
+        List<OWLAxiom> axioms = new ArrayList<>();
+        addClassTree(axioms, cls("C"), 0);
+        manager.addAxioms(ontology, new HashSet<>(axioms));
+        var hierarchyProvider = new ClassHierarchyProvider(ProjectId.get(UUID.randomUUID().toString()),
+                                                           ontology,
+                                                           dataFactory.getOWLThing());
+        AnnotationAssertionAxiomsIndex axiomsIndex = new AnnotationAssertionAxiomsIndexCachingImpl(ontology);
+        var costEstimator = new MatchingCostEstimator();
+        matcherFactory = new MatcherFactory(new SubClassOfMatcherFactory(() -> hierarchyProvider),
+                                            new InstanceOfMatcherFactory(() -> hierarchyProvider, () -> ontology),
+                                            new ConflictingBooleanValuesMatcherFactory(() -> axiomsIndex),
+                                            new EntityIsDeprecatedMatcherFactory(() -> axiomsIndex),
+                                            new AnnotationValuesAreNotDisjointMatcherFactory(() -> axiomsIndex),
+                                            new NonUniqueLangTagsMatcherFactory(() -> axiomsIndex),
+                                            new EntityAnnotationMatcherFactory(() -> axiomsIndex),
+                                            new IriAnnotationsMatcherFactory(() -> axiomsIndex),
+                                            costEstimator);
+        matchingEngine = new MatchingEngineImpl(ontology,
+                                                matcherFactory,
+                                                new MatcherCache(),
+                                                new MatchingQueryPlanner(ontology, hierarchyProvider),
+                                                costEstimator);
+    }
+
+    private OWLClass cls(String name) {
+        return dataFactory.getOWLClass(IRI.create(NS + name));
+    }
+
+    private void addClassTree(List<OWLAxiom> axioms, OWLClass parent, int depth) {
+        String label = "Label " + parent.getIRI().getShortForm();
+        axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+                                                              parent.getIRI(),
+                                                              dataFactory.getOWLLiteral(label, "en")));
+        if(parent.getIRI().toString().hashCode() % 20 == 0) {
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getOWLDeprecated(),
+                                                                  parent.getIRI(),
+                                                                  dataFactory.getOWLLiteral(true)));
+        }
+        if(depth == DEPTH) {
+            return;
+        }
+        for(int i = 0; i < BRANCHING_FACTOR; i++) {
+            OWLClass child = cls(parent.getIRI().getShortForm() + "_" + i);
+            axioms.add(dataFactory.getOWLSubClassOfAxiom(child, parent));
+            addClassTree(axioms, child, depth + 1);
+        }
+        if(depth == DEPTH - 1) {
+            for(int i = 0; i < INDIVIDUALS_PER_LEAF_PARENT; i++) {
+                IRI individualIri = IRI.create(parent.getIRI() + "_i" + i);
+                OWLNamedIndividual individual = dataFactory.getOWLNamedIndividual(individualIri);
+                axioms.add(dataFactory.getOWLClassAssertionAxiom(parent, individual));
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchSubClassOf() {
+        benchmark("SubClassOf", SubClassOfCriteria.get(cls("C_3_1"), HierarchyFilterType.ALL));
+    }
+
+    @Test
+    public void shouldMatchInstanceOf() {
+        benchmark("InstanceOf", InstanceOfCriteria.get(cls("C_2"), HierarchyFilterType.ALL));
+    }
+
+    @Test
+    public void shouldMatchDeprecated() {
+        benchmark("Deprecated", EntityIsDeprecatedCriteria.get());
+    }
+
+    @Test
+    public void shouldMatchLabelRegexWithinSubTree() {
+        var criteria = CompositeRootCriteria.get(
+                ImmutableList.of(EntityIsNotDeprecatedCriteria.get(),
+                                 EntityAnnotationCriteria.get(IriEqualsCriteria.get(dataFactory.getRDFSLabel()),
+                                                              StringContainsRegexMatchCriteria.get("_[1-3]$", false)),
+                                 SubClassOfCriteria.get(cls("C_5"), HierarchyFilterType.ALL)),
+                MultiMatchType.ALL);
+        benchmark("Label regex within sub tree", criteria);
+    }
+
+    @Test
+    public void shouldMatchUnselectiveConjunction() {
+        var criteria = CompositeRootCriteria.get(
+                ImmutableList.of(EntityIsNotDeprecatedCriteria.get(),
+                                 IsNotBuiltInEntityCriteria.get(),
+                                 EntityTypeIsOneOfCriteria.get(ImmutableSet.<EntityType<?>>of(EntityType.CLASS))),
+                MultiMatchType.ALL);
+        benchmark("Unselective conjunction", criteria);
+    }
+
+    @Test
+    public void shouldMatchDisjunction() {
+        var criteria = CompositeRootCriteria.get(
+                ImmutableList.of(EntityIsDeprecatedCriteria.get(),
+                                 InstanceOfCriteria.get(cls("C_7"), HierarchyFilterType.ALL)),
+                MultiMatchType.ANY);
+        benchmark("Disjunction", criteria);
+    }
+
+    private void benchmark(String name, RootCriteria criteria) {
+        Supplier<Set<OWLEntity>> scan = () -> {
+            // Compiles the matcher on each query and scans the whole signature, as before the query planner
+            Matcher<OWLEntity> matcher = matcherFactory.getMatcher(criteria);
+            return ontology.getSignature(Imports.INCLUDED).stream()
+                           .filter(matcher::matches)
+                           .collect(toSet());
+        };
+        Supplier<Set<OWLEntity>> planned = () -> matchingEngine.match(criteria).collect(toSet());
+        var expected = scan.get();
+        assertThat(planned.get(), is(expected));
+        var scanTime = time(scan);
+        var plannedTime = time(planned);
+        logger.info("{}: {} matches.  Scan: {} us/query.  Planned: {} us/query.",
+                    name,
+                    expected.size(),
+                    scanTime,
+                    plannedTime);
+    }
+
+    /**
+     * Gets the mean time, in microseconds, of the specified query
+     */
+    private static long time(Supplier<Set<OWLEntity>> query) {
+        for(int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        for(int i = 0; i < MEASURED_ITERATIONS; i++) {
+            query.get();
+        }
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / MEASURED_ITERATIONS;
+    }
+}
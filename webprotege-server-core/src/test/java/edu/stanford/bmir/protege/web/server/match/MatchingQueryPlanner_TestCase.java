@@ -0,0 +1,122 @@
+package edu.stanford.bmir.protege.web.server.match;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
+import edu.stanford.bmir.protege.web.shared.match.criteria.*;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class MatchingQueryPlanner_TestCase {
+
+    private OWLDataFactory dataFactory;
+
+    private OWLClass clsA, clsB, clsC, clsD;
+
+    private OWLNamedIndividual indB, indD;
+
+    private MatchingQueryPlanner planner;
+
+    @Before
+    public void setUp() throws Exception {
+        OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+        dataFactory = manager.getOWLDataFactory();
+        OWLOntology ontology = manager.createOntology(IRI.create("http://example.org/ont"));
+        clsA = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+        clsB = dataFactory.getOWLClass(IRI.create("http://example.org/B"));
+        clsC = dataFactory.getOWLClass(IRI.create("http://example.org/C"));
+        clsD = dataFactory.getOWLClass(IRI.create("http://example.org/D"));
+        indB = dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/b"));
+        indD = dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/d"));
+        manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(clsB, clsA));
+        manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(clsC, clsB));
+        manager.addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(clsD));
+        manager.addAxiom(ontology, dataFactory.getOWLClassAssertionAxiom(clsB, indB));
+        manager.addAxiom(ontology, dataFactory.getOWLClassAssertionAxiom(clsD, indD));
+        manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(clsC.getIRI(),
+                                                                               dataFactory.getOWLAnnotation(
+                                                                                       dataFactory.getOWLDeprecated(),
+                                                                                       dataFactory.getOWLLiteral(true))));
+        manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+                                                                               clsD.getIRI(),
+                                                                               dataFactory.getOWLLiteral("D")));
+        var hierarchyProvider = new ClassHierarchyProvider(ProjectId.get(UUID.randomUUID().toString()),
+                                                           ontology,
+                                                           dataFactory.getOWLThing());
+        planner = new MatchingQueryPlanner(ontology, hierarchyProvider);
+    }
+
+    @Test
+    public void shouldSeedSubClassOfFromDescendants() {
+        var candidates = planner.getCandidates(SubClassOfCriteria.get(clsA, HierarchyFilterType.ALL));
+        assertThat(candidates.orElseThrow(), containsInAnyOrder(clsB, clsC));
+    }
+
+    @Test
+    public void shouldSeedDirectSubClassOfFromChildren() {
+        var candidates = planner.getCandidates(SubClassOfCriteria.get(clsA, HierarchyFilterType.DIRECT));
+        assertThat(candidates.orElseThrow(), contains(clsB));
+    }
+
+    @Test
+    public void shouldSeedInstanceOfFromClassAssertions() {
+        var candidates = planner.getCandidates(InstanceOfCriteria.get(clsA, HierarchyFilterType.ALL));
+        assertThat(candidates.orElseThrow(), contains(indB));
+        var directCandidates = planner.getCandidates(InstanceOfCriteria.get(clsA, HierarchyFilterType.DIRECT));
+        assertThat(directCandidates.orElseThrow(), is(empty()));
+    }
+
+    @Test
+    public void shouldSeedDeprecatedFromAnnotationAssertions() {
+        var candidates = planner.getCandidates(EntityIsDeprecatedCriteria.get());
+        assertThat(candidates.orElseThrow(), contains(clsC));
+    }
+
+    @Test
+    public void shouldSeedAnnotationCriteriaFromAnnotationAssertionsByProperty() {
+        var criteria = EntityAnnotationCriteria.get(IriEqualsCriteria.get(dataFactory.getRDFSLabel()),
+                                                    AnyAnnotationValueCriteria.get());
+        assertThat(planner.getCandidates(criteria).orElseThrow(), contains(clsD));
+    }
+
+    @Test
+    public void shouldNotSeedUnselectiveCriteria() {
+        assertThat(planner.getCandidates(EntityIsNotDeprecatedCriteria.get()).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldSeedConjunctionFromSmallestChild() {
+        var criteria = CompositeRootCriteria.get(ImmutableList.of(EntityIsNotDeprecatedCriteria.get(),
+                                                                  SubClassOfCriteria.get(clsA, HierarchyFilterType.ALL),
+                                                                  SubClassOfCriteria.get(clsB, HierarchyFilterType.ALL)),
+                                                 MultiMatchType.ALL);
+        assertThat(planner.getCandidates(criteria).orElseThrow(), contains(clsC));
+    }
+
+    @Test
+    public void shouldSeedDisjunctionFromUnionOfChildren() {
+        var criteria = CompositeRootCriteria.get(ImmutableList.of(EntityIsDeprecatedCriteria.get(),
+                                                                  InstanceOfCriteria.get(clsD, HierarchyFilterType.ALL)),
+                                                 MultiMatchType.ANY);
+        assertThat(planner.getCandidates(criteria).orElseThrow(), containsInAnyOrder(clsC, indD));
+    }
+
+    @Test
+    public void shouldNotSeedDisjunctionWithUnselectiveChild() {
+        var criteria = CompositeRootCriteria.get(ImmutableList.of(EntityIsDeprecatedCriteria.get(),
+                                                                  EntityIsNotDeprecatedCriteria.get()),
+                                                 MultiMatchType.ANY);
+        assertThat(planner.getCandidates(criteria).isPresent(), is(false));
+    }
+}
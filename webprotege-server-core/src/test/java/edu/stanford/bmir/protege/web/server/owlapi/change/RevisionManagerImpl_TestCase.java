@@ -4,6 +4,7 @@ package edu.stanford.bmir.protege.web.server.owlapi.change;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.bmir.protege.web.server.revision.Revision;
 import edu.stanford.bmir.protege.web.server.revision.RevisionManagerImpl;
+import edu.stanford.bmir.protege.web.server.revision.RevisionSnapshotStore;
 import edu.stanford.bmir.protege.web.server.revision.RevisionStore;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
 import edu.stanford.bmir.protege.web.shared.revision.RevisionSummary;
@@ -41,6 +42,9 @@ public class RevisionManagerImpl_TestCase {
     @Mock
     private RevisionStore revisionStore;
 
+    @Mock
+    private RevisionSnapshotStore snapshotStore;
+
     @Mock
     private UserId userId;
 
@@ -55,10 +59,11 @@ public class RevisionManagerImpl_TestCase {
 
     @Before
     public void setUp() throws Exception {
-        manager = new RevisionManagerImpl(revisionStore);
+        manager = new RevisionManagerImpl(revisionStore, snapshotStore);
         when(revisionStore.getCurrentRevisionNumber()).thenReturn(revisionNumber);
         when(revisionStore.getRevision(revisionNumber)).thenReturn(java.util.Optional.of(revision));
         when(revisionStore.getRevisions()).thenReturn(ImmutableList.of(revision));
+        when(revisionStore.getRevisionSummaries()).thenReturn(ImmutableList.of(new RevisionSummary(revisionNumber, userId, TIME_STAMP, 1, HIGHLEVEL_DESC)));
         when(revisionNumber.getNextRevisionNumber()).thenReturn(nextRevisionNumber);
         when(revision.getUserId()).thenReturn(userId);
         when(revision.getChanges()).thenReturn(changes);
@@ -70,7 +75,12 @@ public class RevisionManagerImpl_TestCase {
 
     @Test(expected = NullPointerException.class)
     public void shouldThrowNullPointerExceptionIf_revisionStore_IsNull() {
-        new RevisionManagerImpl(null);
+        new RevisionManagerImpl(null, snapshotStore);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionIf_snapshotStore_IsNull() {
+        new RevisionManagerImpl(revisionStore, null);
     }
 
     @Test
@@ -0,0 +1,114 @@
+package edu.stanford.bmir.protege.web.server.pagination;
+
+import edu.stanford.bmir.protege.web.shared.pagination.Page;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static edu.stanford.bmir.protege.web.server.pagination.SortedPageCollector.toSortedPage;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+@SuppressWarnings("OptionalGetWithoutIsPresent")
+public class SortedPageCollector_TestCase {
+
+    private Stream<Integer> stream;
+
+    @Before
+    public void setUp() {
+        stream = Stream.of(7, 3, 9, 0, 5, 1, 8, 2, 6, 4);
+    }
+
+    @Test
+    public void shouldCollectSortedPage() {
+        Optional<Page<Integer>> pg = stream.collect(toSortedPage(3, 2, Function.identity()));
+        Page<Integer> page = pg.get();
+        assertThat(page.getPageCount(), is(5));
+        assertThat(page.getPageElements(), is(asList(4, 5)));
+        assertThat(page.getTotalElements(), is(10L));
+        assertThat(page.getPageNumber(), is(3));
+    }
+
+    @Test
+    public void shouldCollectFirstPage() {
+        Optional<Page<Integer>> pg = stream.collect(toSortedPage(1, 3, Function.identity()));
+        assertThat(pg.get().getPageElements(), is(asList(0, 1, 2)));
+    }
+
+    @Test
+    public void shouldCollectLastPartialPage() {
+        Optional<Page<Integer>> pg = stream.collect(toSortedPage(4, 3, Function.identity()));
+        Page<Integer> page = pg.get();
+        assertThat(page.getPageCount(), is(4));
+        assertThat(page.getPageElements(), is(singletonList(9)));
+    }
+
+    @Test
+    public void shouldSortWithComparator() {
+        Optional<Page<Integer>> pg = stream.collect(toSortedPage(1, 3, Function.<Integer>identity(), Comparator.reverseOrder()));
+        assertThat(pg.get().getPageElements(), is(asList(9, 8, 7)));
+    }
+
+    @Test
+    public void shouldPreserveEncounterOrderOfEqualKeys() {
+        Optional<Page<String>> pg = Stream.of("b2", "a1", "b1", "a2", "a3")
+                                          .collect(toSortedPage(1, 4, (String s) -> s.charAt(0)));
+        assertThat(pg.get().getPageElements(), is(asList("a1", "a2", "a3", "b2")));
+    }
+
+    @Test
+    public void shouldComputeSortKeyOncePerElement() {
+        List<Integer> keyed = new ArrayList<>();
+        stream.collect(toSortedPage(1, 2, (Integer i) -> {
+            keyed.add(i);
+            return i;
+        }));
+        assertThat(keyed.size(), is(10));
+    }
+
+    @Test
+    public void shouldCollectSamePageAsSortingInParallel() {
+        List<Integer> elements = new ArrayList<>();
+        for(int i = 0; i < 1000; i++) {
+            elements.add((i * 7919) % 1000);
+        }
+        Optional<Page<Integer>> pg = elements.parallelStream().collect(toSortedPage(5, 20, Function.identity()));
+        Optional<Page<Integer>> expected = elements.stream().sorted().collect(PageCollector.toPage(5, 20));
+        assertThat(pg.get().getPageElements(), is(expected.get().getPageElements()));
+        assertThat(pg.get().getTotalElements(), is(1000L));
+    }
+
+    @Test
+    public void shouldReturnEmptyForPageNumberGreaterThanPageCount() {
+        Optional<Page<Integer>> pg = stream.collect(toSortedPage(11, 1, Function.identity()));
+        assertThat(pg.isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldReturnEmptyForEmptyStream() {
+        Optional<Page<Integer>> pg = Stream.<Integer>empty().collect(toSortedPage(1, 10, Function.identity()));
+        assertThat(pg.isPresent(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionForZeroPageNumber() {
+        toSortedPage(0, 10, Function.<Integer>identity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionForZeroPageSize() {
+        toSortedPage(1, 0, Function.<Integer>identity());
+    }
+}
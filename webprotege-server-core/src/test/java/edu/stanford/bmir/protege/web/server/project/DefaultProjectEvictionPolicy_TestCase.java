@@ -0,0 +1,99 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class DefaultProjectEvictionPolicy_TestCase {
+
+    private static final long IDLE_TIMEOUT = 1000;
+
+    private static final long CURRENT_TIME = 100_000;
+
+    private final ProjectId projectA = ProjectId.get(UUID.randomUUID().toString());
+
+    private final ProjectId projectB = ProjectId.get(UUID.randomUUID().toString());
+
+    private final ProjectId projectC = ProjectId.get(UUID.randomUUID().toString());
+
+    private static DefaultProjectEvictionPolicy policy(int maxProjects, long heapBudget) {
+        return new DefaultProjectEvictionPolicy(ProjectCacheSettings.get(IDLE_TIMEOUT, maxProjects, heapBudget, 0));
+    }
+
+    private static LoadedProjectInfo loaded(ProjectId projectId, long idleTime, long heapSize) {
+        return LoadedProjectInfo.get(projectId, CURRENT_TIME - idleTime, heapSize, 0);
+    }
+
+    @Test
+    public void shouldEvictIdleProjects() {
+        var evicted = policy(0, 0).selectProjectsToEvict(List.of(loaded(projectA, IDLE_TIMEOUT + 1, 10),
+                                                                  loaded(projectB, IDLE_TIMEOUT - 1, 10)),
+                                                          CURRENT_TIME);
+        assertThat(evicted, contains(projectA));
+    }
+
+    @Test
+    public void shouldNotEvictIdleProjectsThatAreRetained() {
+        var retained = LoadedProjectInfo.get(projectA, CURRENT_TIME - IDLE_TIMEOUT - 1, 10, CURRENT_TIME + 1);
+        var evicted = policy(0, 0).selectProjectsToEvict(List.of(retained), CURRENT_TIME);
+        assertThat(evicted, is(empty()));
+    }
+
+    @Test
+    public void shouldEvictIdleProjectsOnceRetainTimeHasPassed() {
+        var retained = LoadedProjectInfo.get(projectA, CURRENT_TIME - IDLE_TIMEOUT - 1, 10, CURRENT_TIME);
+        var evicted = policy(0, 0).selectProjectsToEvict(List.of(retained), CURRENT_TIME);
+        assertThat(evicted, contains(projectA));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedProjectsOverMaxProjects() {
+        var evicted = policy(2, 0).selectProjectsToEvict(List.of(loaded(projectA, 30, 10),
+                                                                  loaded(projectB, 10, 10),
+                                                                  loaded(projectC, 20, 10)),
+                                                          CURRENT_TIME);
+        assertThat(evicted, contains(projectA));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedProjectsOverHeapBudget() {
+        var evicted = policy(0, 25).selectProjectsToEvict(List.of(loaded(projectA, 30, 10),
+                                                                   loaded(projectB, 10, 10),
+                                                                   loaded(projectC, 20, 10)),
+                                                           CURRENT_TIME);
+        assertThat(evicted, contains(projectA));
+    }
+
+    @Test
+    public void shouldRetainSmallerProjectsThatFitTheHeapBudget() {
+        var evicted = policy(0, 25).selectProjectsToEvict(List.of(loaded(projectA, 30, 5),
+                                                                   loaded(projectB, 10, 10),
+                                                                   loaded(projectC, 20, 20)),
+                                                           CURRENT_TIME);
+        assertThat(evicted, contains(projectC));
+    }
+
+    @Test
+    public void shouldNeverEvictMostRecentlyUsedProjectBecauseOfLimits() {
+        var evicted = policy(0, 5).selectProjectsToEvict(List.of(loaded(projectA, 10, 100)),
+                                                          CURRENT_TIME);
+        assertThat(evicted, is(empty()));
+    }
+
+    @Test
+    public void shouldNotEvictAnythingIfUnlimited() {
+        var evicted = policy(0, 0).selectProjectsToEvict(List.of(loaded(projectA, 30, 10_000),
+                                                                  loaded(projectB, 10, 10_000)),
+                                                          CURRENT_TIME);
+        assertThat(evicted, is(empty()));
+    }
+}
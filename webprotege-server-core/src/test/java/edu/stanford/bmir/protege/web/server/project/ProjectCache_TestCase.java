@@ -0,0 +1,151 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.server.inject.ProjectComponent;
+import edu.stanford.bmir.protege.web.server.issues.EntityDiscussionThreadRepository;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectCache_TestCase {
+
+    private final ProjectId projectId = ProjectId.get(UUID.randomUUID().toString());
+
+    @Mock
+    private ProjectComponentFactory projectComponentFactory;
+
+    @Mock
+    private ProjectImporterFactory projectImporterFactory;
+
+    @Mock
+    private EntityDiscussionThreadRepository discussionThreadRepository;
+
+    @Mock
+    private ProjectEvictionPolicy evictionPolicy;
+
+    @Mock
+    private ProjectComponent projectComponent;
+
+    @Mock
+    private Project project;
+
+    @Mock
+    private OWLOntology rootOntology;
+
+    @Mock
+    private ProjectDisposablesManager projectDisposablesManager;
+
+    private final CountDownLatch loadLatch = new CountDownLatch(1);
+
+    private ProjectCache projectCache;
+
+    @Before
+    public void setUp() {
+        when(rootOntology.getImportsClosure()).thenReturn(Set.of(rootOntology));
+        when(project.getRootOntology()).thenReturn(rootOntology);
+        when(projectComponent.getProject()).thenReturn(project);
+        when(projectComponent.getDisposablesManager()).thenReturn(projectDisposablesManager);
+        when(evictionPolicy.selectProjectsToEvict(anyListOf(LoadedProjectInfo.class), anyLong()))
+                .thenReturn(Collections.emptyList());
+        projectCache = new ProjectCache(projectComponentFactory,
+                                        projectImporterFactory,
+                                        discussionThreadRepository,
+                                        evictionPolicy);
+    }
+
+    @After
+    public void tearDown() {
+        projectCache.dispose();
+    }
+
+    private void blockLoadsUntilReleased() {
+        when(projectComponentFactory.createProjectComponent(projectId)).thenAnswer(invocation -> {
+            loadLatch.await(10, TimeUnit.SECONDS);
+            return projectComponent;
+        });
+    }
+
+    @Test
+    public void shouldShareOneLoadBetweenConcurrentRequests() {
+        blockLoadsUntilReleased();
+        var firstRequest = projectCache.getProjectAsync(projectId);
+        var secondRequest = projectCache.getProjectAsync(projectId);
+        loadLatch.countDown();
+        assertThat(firstRequest.join(), is(project));
+        assertThat(secondRequest.join(), is(project));
+        verify(projectComponentFactory, times(1)).createProjectComponent(projectId);
+    }
+
+    @Test
+    public void shouldRetryLoadAfterLoadFails() {
+        when(projectComponentFactory.createProjectComponent(projectId))
+                .thenThrow(new IllegalStateException("Load failed"))
+                .thenReturn(projectComponent);
+        try {
+            projectCache.getProjectAsync(projectId).join();
+            fail("Expected the load to fail");
+        } catch(CompletionException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+        }
+        assertThat(projectCache.isActive(projectId), is(false));
+        assertThat(projectCache.getProjectAsync(projectId).join(), is(project));
+        assertThat(projectCache.isActive(projectId), is(true));
+    }
+
+    @Test
+    public void shouldDisposeProjectThatIsPurgedWhilstLoading() {
+        blockLoadsUntilReleased();
+        var request = projectCache.getProjectAsync(projectId);
+        projectCache.purge(projectId);
+        loadLatch.countDown();
+        request.join();
+        verify(projectDisposablesManager, timeout(5000).times(1)).dispose();
+        assertThat(projectCache.isActive(projectId), is(false));
+    }
+
+    @Test
+    public void shouldNotLoadProjectThatIsNotActive() {
+        assertThat(projectCache.getProjectIfActive(projectId), is(Optional.empty()));
+        verify(projectComponentFactory, never()).createProjectComponent(projectId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldRecordAccessWhenActiveProjectIsPolled() throws InterruptedException {
+        when(projectComponentFactory.createProjectComponent(projectId)).thenReturn(projectComponent);
+        projectCache.getProjectAsync(projectId).join();
+        Thread.sleep(20);
+        var pollTime = System.currentTimeMillis();
+        assertThat(projectCache.getProjectIfActive(projectId), is(Optional.of(project)));
+        projectCache.purgeDormantProjects();
+        ArgumentCaptor<List<LoadedProjectInfo>> loadedProjectsCaptor = ArgumentCaptor.forClass((Class) List.class);
+        verify(evictionPolicy, atLeastOnce()).selectProjectsToEvict(loadedProjectsCaptor.capture(), anyLong());
+        var loadedProjects = loadedProjectsCaptor.getValue();
+        assertThat(loadedProjects.size(), is(1));
+        assertThat(loadedProjects.get(0).getLastAccessTime(), is(greaterThanOrEqualTo(pollTime)));
+    }
+}
@@ -0,0 +1,172 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * 2026-10-17
+ * <p>
+ * A load test that measures the latency of reads whilst changes are being applied concurrently.  Writers mimic
+ * the phases of {@link ChangeManager#applyChanges}: they generate changes, publish them by updating the
+ * ontology and then the indexes that are derived from it, and then write them to disk.  Readers read the
+ * ontology and an index and check that they are consistent with each other.
+ * </p>
+ */
+public class ProjectChangeLockReadLatency_IT {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectChangeLockReadLatency_IT.class);
+
+    private static final int READERS = 8;
+
+    private static final int WRITERS = 2;
+
+    private static final long RUN_TIME_MS = 2_000;
+
+    private static final long GENERATION_TIME_NS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final long INDEX_UPDATE_TIME_NS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private static final long DISK_WRITE_TIME_NS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final long READ_TIME_NS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    @Test
+    public void shouldMeasureReadLatencyWithoutLockedReads() throws Exception {
+        var result = runWorkload(false);
+        assertThat(result.getRevisions(), is(greaterThan(0L)));
+    }
+
+    @Test
+    public void shouldOnlySeeCommittedRevisionsWithLockedReads() throws Exception {
+        var result = runWorkload(true);
+        assertThat(result.getRevisions(), is(greaterThan(0L)));
+        assertThat(result.getInconsistentReads(), is(0));
+    }
+
+    private WorkloadResult runWorkload(boolean lockedReads) throws Exception {
+        var revision = new AtomicLong();
+        var revisionManager = mock(RevisionManager.class);
+        when(revisionManager.getCurrentRevision()).thenAnswer(invocation -> RevisionNumber.getRevisionNumber(revision.get()));
+        var lock = new ProjectChangeLock(ReadIsolationSettings.get(lockedReads), revisionManager);
+        // Stands in for the ontology and an index that is derived from it, such as the class hierarchy
+        var ontologyRevision = new AtomicLong();
+        var indexRevision = new AtomicLong();
+        var changeProcessingLock = new Object();
+        var inconsistentReads = new AtomicInteger();
+        var latencies = Collections.synchronizedList(new ArrayList<Long>());
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_TIME_MS);
+        var executor = Executors.newFixedThreadPool(READERS + WRITERS);
+        var tasks = new ArrayList<Future<?>>();
+        for(int i = 0; i < WRITERS; i++) {
+            tasks.add(executor.submit(() -> {
+                while(System.nanoTime() < deadline) {
+                    lock.read(() -> spin(GENERATION_TIME_NS));
+                    synchronized(changeProcessingLock) {
+                        lock.publish(() -> {
+                            ontologyRevision.incrementAndGet();
+                            spin(INDEX_UPDATE_TIME_NS);
+                            indexRevision.incrementAndGet();
+                            return revision.incrementAndGet();
+                        });
+                        spin(DISK_WRITE_TIME_NS);
+                    }
+                }
+            }));
+        }
+        for(int i = 0; i < READERS; i++) {
+            tasks.add(executor.submit(() -> {
+                var readerLatencies = new ArrayList<Long>();
+                while(System.nanoTime() < deadline) {
+                    var start = System.nanoTime();
+                    var consistent = lock.read(() -> {
+                        var ontology = ontologyRevision.get();
+                        spin(READ_TIME_NS);
+                        return ontology == indexRevision.get();
+                    });
+                    readerLatencies.add(System.nanoTime() - start);
+                    if(!consistent) {
+                        inconsistentReads.incrementAndGet();
+                    }
+                    LockSupport.parkNanos(READ_TIME_NS);
+                }
+                latencies.addAll(readerLatencies);
+            }));
+        }
+        for(var task : tasks) {
+            task.get(RUN_TIME_MS * 10, TimeUnit.MILLISECONDS);
+        }
+        executor.shutdown();
+        var result = new WorkloadResult(revision.get(), inconsistentReads.get(), latencies);
+        logger.info("Locked reads: {}.  Revisions: {}.  Reads: {} ({} inconsistent).  " +
+                            "Read latency p50: {} us, p99: {} us, max: {} us",
+                    lockedReads,
+                    result.getRevisions(),
+                    latencies.size(),
+                    result.getInconsistentReads(),
+                    result.getPercentile(50),
+                    result.getPercentile(99),
+                    result.getPercentile(100));
+        return result;
+    }
+
+    private static Void spin(long nanos) {
+        var end = System.nanoTime() + nanos;
+        while(System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+        return null;
+    }
+
+    private static class WorkloadResult {
+
+        private final long revisions;
+
+        private final int inconsistentReads;
+
+        private final List<Long> sortedLatencies;
+
+        private WorkloadResult(long revisions, int inconsistentReads, List<Long> latencies) {
+            this.revisions = revisions;
+            this.inconsistentReads = inconsistentReads;
+            this.sortedLatencies = new ArrayList<>(latencies);
+            Collections.sort(sortedLatencies);
+        }
+
+        public long getRevisions() {
+            return revisions;
+        }
+
+        public int getInconsistentReads() {
+            return inconsistentReads;
+        }
+
+        /**
+         * Gets the specified percentile of read latency in microseconds
+         */
+        public long getPercentile(int percentile) {
+            if(sortedLatencies.isEmpty()) {
+                return 0;
+            }
+            var index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.size()) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(sortedLatencies.get(Math.max(0, index)));
+        }
+    }
+}
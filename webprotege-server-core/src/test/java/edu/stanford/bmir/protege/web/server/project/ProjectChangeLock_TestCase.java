@@ -0,0 +1,126 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.server.revision.RevisionManager;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class ProjectChangeLock_TestCase {
+
+    private RevisionManager revisionManager;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        revisionManager = mock(RevisionManager.class);
+        when(revisionManager.getCurrentRevision()).thenReturn(RevisionNumber.getRevisionNumber(3));
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ProjectChangeLock createLock(boolean lockedReads) {
+        return new ProjectChangeLock(ReadIsolationSettings.get(lockedReads), revisionManager);
+    }
+
+    /**
+     * Starts publishing in the background and waits until the publisher is inside of the publication window.
+     * The publisher leaves the window when the returned latch is counted down.
+     */
+    private CountDownLatch startPublishing(ProjectChangeLock lock) throws InterruptedException {
+        var inWindow = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        executor.submit(() -> lock.publish(() -> {
+            inWindow.countDown();
+            try {
+                release.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertThat(inWindow.await(10, TimeUnit.SECONDS), is(true));
+        return release;
+    }
+
+    @Test
+    public void shouldNotBlockReadsWhilstPublishingIfLockedReadsAreDisabled() throws Exception {
+        var lock = createLock(false);
+        var release = startPublishing(lock);
+        var read = executor.submit(() -> lock.read(() -> "read"));
+        assertThat(read.get(10, TimeUnit.SECONDS), is("read"));
+        release.countDown();
+    }
+
+    @Test
+    public void shouldBlockLockedReadsWhilstPublishing() throws Exception {
+        var lock = createLock(true);
+        var release = startPublishing(lock);
+        var read = executor.submit(() -> lock.read(() -> "read"));
+        Thread.sleep(100);
+        assertThat(read.isDone(), is(false));
+        release.countDown();
+        assertThat(read.get(10, TimeUnit.SECONDS), is("read"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowPublishingFromWithinRead() {
+        var lock = createLock(true);
+        lock.read(() -> lock.publish(() -> null));
+    }
+
+    @Test
+    public void shouldAllowPublishingOutsideOfRead() {
+        var lock = createLock(true);
+        var result = lock.read(() -> lock.outsideOfRead(() -> lock.publish(() -> "published")));
+        assertThat(result, is("published"));
+        // The read lock must have been released
+        lock.publish(() -> null);
+    }
+
+    @Test
+    public void shouldBeUnpublishedSinceStampIfNothingIsPublished() {
+        var lock = createLock(false);
+        var stamp = lock.getPublicationStamp();
+        assertThat(lock.isUnpublishedSince(stamp), is(true));
+    }
+
+    @Test
+    public void shouldNotBeUnpublishedSinceStampIfChangesArePublished() {
+        var lock = createLock(false);
+        var stamp = lock.getPublicationStamp();
+        lock.publish(() -> null);
+        assertThat(lock.isUnpublishedSince(stamp), is(false));
+    }
+
+    @Test
+    public void shouldNotBeUnpublishedSinceStampObtainedWhilstPublishing() throws Exception {
+        var lock = createLock(false);
+        var release = startPublishing(lock);
+        var stamp = lock.getPublicationStamp();
+        assertThat(lock.isUnpublishedSince(stamp), is(false));
+        release.countDown();
+    }
+
+    @Test
+    public void shouldGetCommittedRevision() {
+        var lock = createLock(true);
+        assertThat(lock.getCommittedRevision(), is(RevisionNumber.getRevisionNumber(3)));
+    }
+}
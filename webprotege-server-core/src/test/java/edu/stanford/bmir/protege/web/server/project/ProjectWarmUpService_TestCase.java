@@ -0,0 +1,149 @@
+package edu.stanford.bmir.protege.web.server.project;
+
+import edu.stanford.bmir.protege.web.server.app.ApplicationDisposablesManager;
+import edu.stanford.bmir.protege.web.server.user.UserActivityManager;
+import edu.stanford.bmir.protege.web.shared.project.ProjectDetails;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.project.UnknownProjectException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProjectWarmUpService_TestCase {
+
+    private final ProjectId projectA = ProjectId.get(UUID.randomUUID().toString());
+
+    private final ProjectId projectB = ProjectId.get(UUID.randomUUID().toString());
+
+    private final ProjectId projectC = ProjectId.get(UUID.randomUUID().toString());
+
+    @Mock
+    private ProjectCache projectCache;
+
+    @Mock
+    private UserActivityManager userActivityManager;
+
+    @Mock
+    private ProjectDetailsManager projectDetailsManager;
+
+    @Mock
+    private ApplicationDisposablesManager disposablesManager;
+
+    private ProjectWarmUpService service;
+
+    @Before
+    public void setUp() {
+        service = createService(2);
+        projectDetails(projectA, 0, false);
+        projectDetails(projectB, 0, false);
+        projectDetails(projectC, 0, false);
+    }
+
+    @After
+    public void tearDown() {
+        service.dispose();
+    }
+
+    private ProjectWarmUpService createService(int maxProjects) {
+        return new ProjectWarmUpService(projectCache,
+                                        userActivityManager,
+                                        projectDetailsManager,
+                                        ProjectWarmUpSettings.get(maxProjects, 1, 1000),
+                                        disposablesManager);
+    }
+
+    private void projectDetails(ProjectId projectId, long lastModified, boolean inTrash) {
+        var projectDetails = mock(ProjectDetails.class);
+        when(projectDetails.getLastModifiedAt()).thenReturn(lastModified);
+        when(projectDetails.isInTrash()).thenReturn(inTrash);
+        when(projectDetailsManager.getProjectDetails(projectId)).thenReturn(projectDetails);
+    }
+
+    private void recentProjects(RecentProjectRecord... records) {
+        when(userActivityManager.getAllRecentProjects()).thenReturn(List.of(records));
+    }
+
+    @Test
+    public void shouldSelectMostRecentlyOpenedProjects() {
+        recentProjects(new RecentProjectRecord(projectA, 10),
+                       new RecentProjectRecord(projectB, 30),
+                       new RecentProjectRecord(projectC, 20));
+        assertThat(service.selectProjectsToWarmUp(), contains(projectB, projectC));
+    }
+
+    @Test
+    public void shouldTakeLastModifiedTimeIntoAccount() {
+        projectDetails(projectA, 40, false);
+        recentProjects(new RecentProjectRecord(projectA, 10),
+                       new RecentProjectRecord(projectB, 30),
+                       new RecentProjectRecord(projectC, 20));
+        assertThat(service.selectProjectsToWarmUp(), contains(projectA, projectB));
+    }
+
+    @Test
+    public void shouldPreferProjectsOpenedByMoreUsersIfEquallyRecent() {
+        recentProjects(new RecentProjectRecord(projectA, 30),
+                       new RecentProjectRecord(projectB, 30),
+                       new RecentProjectRecord(projectB, 10),
+                       new RecentProjectRecord(projectC, 20));
+        assertThat(service.selectProjectsToWarmUp(), contains(projectB, projectA));
+    }
+
+    @Test
+    public void shouldNotSelectProjectsInTrash() {
+        projectDetails(projectB, 0, true);
+        recentProjects(new RecentProjectRecord(projectA, 10),
+                       new RecentProjectRecord(projectB, 30),
+                       new RecentProjectRecord(projectC, 20));
+        assertThat(service.selectProjectsToWarmUp(), contains(projectC, projectA));
+    }
+
+    @Test
+    public void shouldNotSelectDeletedProjects() {
+        when(projectDetailsManager.getProjectDetails(projectB)).thenThrow(new UnknownProjectException(projectB));
+        recentProjects(new RecentProjectRecord(projectA, 10),
+                       new RecentProjectRecord(projectB, 30),
+                       new RecentProjectRecord(projectC, 20));
+        assertThat(service.selectProjectsToWarmUp(), contains(projectC, projectA));
+    }
+
+    @Test
+    public void shouldLeaveOneLoadingThreadFreeForUsers() {
+        assertThat(ProjectWarmUpService.getWarmUpThreads(2, 2), is(1));
+        assertThat(ProjectWarmUpService.getWarmUpThreads(4, 4), is(3));
+    }
+
+    @Test
+    public void shouldUseRequestedThreadsIfThereAreEnoughLoadingThreads() {
+        assertThat(ProjectWarmUpService.getWarmUpThreads(2, 8), is(2));
+    }
+
+    @Test
+    public void shouldUseAtLeastOneThread() {
+        assertThat(ProjectWarmUpService.getWarmUpThreads(2, 1), is(1));
+    }
+
+    @Test
+    public void shouldNotLoadProjectsIfDisabled() {
+        service = createService(0);
+        service.start();
+        assertThat(service.getProgress().get().isComplete(), is(true));
+        verify(projectCache, never()).warmUpProject(any(ProjectId.class), anyLong());
+    }
+}
@@ -0,0 +1,99 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.binaryowl.change.OntologyChangeRecordList;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.change.AddAxiomData;
+import org.semanticweb.owlapi.change.OWLOntologyChangeRecord;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializationVocabulary.DESCRIPTION_META_DATA_ATTRIBUTE;
+import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializationVocabulary.REVISION_META_DATA_ATTRIBUTE;
+import static edu.stanford.bmir.protege.web.server.revision.RevisionSerializationVocabulary.USERNAME_METADATA_ATTRIBUTE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class ChangeHistoryLoader_IT {
+
+    private static final int REVISION_COUNT = 1000;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ProjectId projectId = ProjectId.get(UUID.randomUUID().toString());
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://stuff.com/ont"));
+
+    private final List<Revision> expectedRevisions = new ArrayList<>();
+
+    private OWLDataFactory dataFactory;
+
+    private File changeHistoryFile;
+
+    private ForkJoinPool forkJoinPool;
+
+    @Before
+    public void setUp() throws Exception {
+        dataFactory = OWLManager.getOWLDataFactory();
+        changeHistoryFile = new File(temporaryFolder.newFolder("change-data"), "change-data.binary");
+        forkJoinPool = new ForkJoinPool(4);
+        for(int i = 1; i <= REVISION_COUNT; i++) {
+            var cls = dataFactory.getOWLClass(IRI.create("http://stuff.com/A" + i));
+            var record = new OWLOntologyChangeRecord(ontologyId, new AddAxiomData(dataFactory.getOWLDeclarationAxiom(cls)));
+            var revision = new Revision(UserId.getUserId("MH"),
+                                        RevisionNumber.getRevisionNumber(i),
+                                        ImmutableList.of(record),
+                                        i,
+                                        "Revision " + i);
+            expectedRevisions.add(revision);
+            new RevisionSerializationTask(changeHistoryFile, revision).call();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    public void shouldLoadRevisionsInOrder() throws Exception {
+        var loader = new ChangeHistoryLoader(projectId, changeHistoryFile, dataFactory, forkJoinPool);
+        var loadedRevisions = new ArrayList<Revision>();
+        var timings = loader.load(ChangeHistoryLoader_IT::toRevision, loadedRevisions::add);
+        assertThat(loadedRevisions, is(expectedRevisions));
+        assertThat(timings.getChunkCount(), is(greaterThan(1)));
+    }
+
+    private static Revision toRevision(OntologyChangeRecordList changeRecordList) {
+        var metadata = changeRecordList.getMetadata();
+        var userName = metadata.getStringAttribute(USERNAME_METADATA_ATTRIBUTE.getVocabularyName(), "");
+        var revisionNumber = metadata.getLongAttribute(REVISION_META_DATA_ATTRIBUTE.getVocabularyName(), 0L);
+        var description = metadata.getStringAttribute(DESCRIPTION_META_DATA_ATTRIBUTE.getVocabularyName(), "");
+        return new Revision(UserId.getUserId(userName),
+                            RevisionNumber.getRevisionNumber(revisionNumber),
+                            ImmutableList.copyOf(changeRecordList.getChangeRecords()),
+                            changeRecordList.getTimestamp(),
+                            description);
+    }
+}
@@ -0,0 +1,98 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.RandomAccess;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class ChunkedAppendList_TestCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedAppendList_TestCase.class);
+
+    private static final int APPEND_COUNT = 100_000;
+
+    private ChunkedAppendList<Integer> list;
+
+    @Before
+    public void setUp() {
+        list = new ChunkedAppendList<>();
+    }
+
+    @Test
+    public void shouldBeEmpty() {
+        assertThat(list.isEmpty(), is(true));
+        assertThat(list.snapshot(), is(empty()));
+    }
+
+    @Test
+    public void shouldAppendElements() {
+        for(int i = 0; i < APPEND_COUNT; i++) {
+            list.append(i);
+        }
+        var snapshot = list.snapshot();
+        assertThat(snapshot.size(), is(APPEND_COUNT));
+        for(int i = 0; i < APPEND_COUNT; i++) {
+            assertThat(snapshot.get(i), is(i));
+        }
+    }
+
+    @Test
+    public void shouldNotChangeSnapshotAfterAppend() {
+        for(int i = 0; i < 3000; i++) {
+            list.append(i);
+        }
+        var snapshot = list.snapshot();
+        for(int i = 3000; i < 10_000; i++) {
+            list.append(i);
+        }
+        assertThat(snapshot.size(), is(3000));
+        assertThat(snapshot.get(2999), is(2999));
+        assertThat(list.snapshot().size(), is(10_000));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldThrowIndexOutOfBoundsException() {
+        list.append(1);
+        list.snapshot().get(1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowModificationOfSnapshot() {
+        list.snapshot().add(1);
+    }
+
+    @Test
+    public void shouldProvideRandomAccessSnapshot() {
+        assertThat(list.snapshot(), is(instanceOf(RandomAccess.class)));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowNullPointerExceptionIfElementIsNull() {
+        list.append(null);
+    }
+
+    @Test
+    public void shouldAppendInLinearTime() {
+        var stopwatch = Stopwatch.createStarted();
+        for(int i = 0; i < APPEND_COUNT; i++) {
+            list.append(i);
+            list.snapshot();
+        }
+        stopwatch.stop();
+        logger.info("Appended {} elements (taking a snapshot after each append) in {} ms",
+                    APPEND_COUNT,
+                    stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        assertThat(list.size(), is(APPEND_COUNT));
+    }
+}
@@ -0,0 +1,172 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.change.AddAxiomData;
+import org.semanticweb.owlapi.change.OWLOntologyChangeRecord;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class GroupCommitRevisionWriter_IT {
+
+    private static final int REVISION_COUNT = 500;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ProjectId projectId = ProjectId.get(UUID.randomUUID().toString());
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://stuff.com/ont"));
+
+    private OWLDataFactory dataFactory;
+
+    private File changeHistoryFile;
+
+    private GroupCommitRevisionWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        dataFactory = OWLManager.getOWLDataFactory();
+        changeHistoryFile = new File(temporaryFolder.newFolder("change-data"), "change-data.binary");
+        writer = new GroupCommitRevisionWriter(projectId, changeHistoryFile, RevisionWriterSettings.get(5, 64, false));
+    }
+
+    @After
+    public void tearDown() {
+        writer.dispose();
+    }
+
+    private Revision createRevision(int i) {
+        var cls = dataFactory.getOWLClass(IRI.create("http://stuff.com/A" + i));
+        var record = new OWLOntologyChangeRecord(ontologyId, new AddAxiomData(dataFactory.getOWLDeclarationAxiom(cls)));
+        return new Revision(UserId.getUserId("MH"),
+                            RevisionNumber.getRevisionNumber(i),
+                            ImmutableList.of(record),
+                            i,
+                            "Revision " + i);
+    }
+
+    @Test
+    public void shouldWriteRevisionsThatCanBeReadBack() {
+        var expected = new ArrayList<Revision>();
+        var futures = new ArrayList<CompletableFuture<ChangeHistoryRegion>>();
+        for(int i = 1; i <= REVISION_COUNT; i++) {
+            var revision = createRevision(i);
+            expected.add(revision);
+            futures.add(writer.submit(revision));
+        }
+        writer.whenDurable(RevisionNumber.getHeadRevisionNumber()).join();
+        futures.forEach(future -> assertThat(future.isDone(), is(true)));
+        var store = new RevisionStoreImpl(projectId, changeHistoryFile, dataFactory, RevisionWriterSettings.get(0, 1, false), ForkJoinPool.commonPool());
+        store.load();
+        assertThat(store.getRevisions(), is(expected));
+        store.dispose();
+    }
+
+    @Test
+    public void shouldReportContiguousRegions() {
+        var first = writer.submit(createRevision(1)).join();
+        var second = writer.submit(createRevision(2)).join();
+        assertThat(first.getOffset(), is(greaterThan(0L)));
+        assertThat(second.getOffset(), is(first.getOffset() + first.getLength()));
+        assertThat(changeHistoryFile.length(), is(second.getOffset() + second.getLength()));
+    }
+
+    @Test
+    public void shouldGroupRevisionsIntoBatches() {
+        for(int i = 1; i <= REVISION_COUNT; i++) {
+            writer.submit(createRevision(i));
+        }
+        writer.whenDurable(RevisionNumber.getRevisionNumber(REVISION_COUNT)).join();
+        var metrics = writer.getMetrics();
+        assertThat(metrics.getRevisionCount(), is((long) REVISION_COUNT));
+        assertThat(metrics.getBatchCount(), is(lessThan((long) REVISION_COUNT)));
+        assertThat(metrics.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void shouldAppendToExistingChangeHistory() throws Exception {
+        var first = createRevision(1);
+        new RevisionSerializationTask(changeHistoryFile, first).call();
+        var lengthAfterFirst = changeHistoryFile.length();
+        var second = createRevision(2);
+        var region = writer.submit(second).join();
+        assertThat(region.getOffset(), is(lengthAfterFirst));
+        assertThat(changeHistoryFile.length(), is(region.getOffset() + region.getLength()));
+        var store = new RevisionStoreImpl(projectId, changeHistoryFile, dataFactory, RevisionWriterSettings.get(0, 1, false), ForkJoinPool.commonPool());
+        store.load();
+        assertThat(store.getRevisions(), is(Arrays.asList(first, second)));
+        store.dispose();
+    }
+
+    @Test
+    public void shouldBeDurableIfNothingIsPending() {
+        assertThat(writer.whenDurable(RevisionNumber.getRevisionNumber(3)).isDone(), is(true));
+    }
+
+    @Test
+    public void shouldDiscardPartiallyWrittenBatch() {
+        writer.dispose();
+        var failing = new boolean[]{false};
+        writer = new GroupCommitRevisionWriter(projectId, changeHistoryFile, RevisionWriterSettings.get(5, 64, false)) {
+            @Override
+            int write(@Nonnull ByteBuffer source,
+                      @Nonnull FileChannel target) throws IOException {
+                if(!failing[0]) {
+                    return super.write(source, target);
+                }
+                // Write half of the batch and then fail
+                var half = source.duplicate();
+                half.limit(half.position() + half.remaining() / 2);
+                super.write(half, target);
+                throw new IOException("Failure injected as part of test");
+            }
+        };
+        var first = createRevision(1);
+        var second = createRevision(2);
+        writer.submit(first).join();
+        var lengthAfterFirst = changeHistoryFile.length();
+        failing[0] = true;
+        try {
+            writer.submit(second).join();
+            throw new AssertionError("Expected the batch to fail");
+        } catch(CompletionException e) {
+            assertThat(e.getCause(), is(instanceOf(IOException.class)));
+        }
+        assertThat(changeHistoryFile.length(), is(lengthAfterFirst));
+        failing[0] = false;
+        writer.submit(second).join();
+        var store = new RevisionStoreImpl(projectId, changeHistoryFile, dataFactory, RevisionWriterSettings.get(0, 1, false), ForkJoinPool.commonPool());
+        store.load();
+        assertThat(store.getRevisions(), is(Arrays.asList(first, second)));
+        store.dispose();
+    }
+}
@@ -0,0 +1,115 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.change.AddAxiomData;
+import org.semanticweb.owlapi.change.OWLOntologyChangeRecord;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntologyID;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class LazyRevisionStoreImpl_IT {
+
+    private static final int REVISION_COUNT = 50;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ProjectId projectId = ProjectId.get(UUID.randomUUID().toString());
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://stuff.com/ont"));
+
+    private File changeHistoryFile;
+
+    private OWLDataFactory dataFactory;
+
+    private RevisionStoreImpl eagerStore;
+
+    private LazyRevisionStoreImpl lazyStore;
+
+    @Before
+    public void setUp() throws Exception {
+        changeHistoryFile = new File(temporaryFolder.newFolder("change-data"), "change-data.binary");
+        dataFactory = OWLManager.getOWLDataFactory();
+        for(int i = 1; i <= REVISION_COUNT; i++) {
+            var cls = dataFactory.getOWLClass(IRI.create("http://stuff.com/A" + i));
+            var record = new OWLOntologyChangeRecord(ontologyId,
+                                                     new AddAxiomData(dataFactory.getOWLDeclarationAxiom(cls)));
+            var revision = new Revision(UserId.getUserId("MH"),
+                                        RevisionNumber.getRevisionNumber(i),
+                                        ImmutableList.of(record),
+                                        i,
+                                        "Revision " + i);
+            new RevisionSerializationTask(changeHistoryFile, revision).call();
+        }
+        eagerStore = new RevisionStoreImpl(projectId, changeHistoryFile, dataFactory, RevisionWriterSettings.get(0, 256, false), ForkJoinPool.commonPool());
+        eagerStore.load();
+        lazyStore = new LazyRevisionStoreImpl(projectId,
+                                              changeHistoryFile,
+                                              dataFactory,
+                                              RevisionStoreSettings.get(true, 8),
+                                              RevisionWriterSettings.get(0, 256, false));
+        lazyStore.load();
+    }
+
+    @After
+    public void tearDown() {
+        eagerStore.dispose();
+        lazyStore.dispose();
+    }
+
+    @Test
+    public void shouldHaveSameCurrentRevisionNumber() {
+        assertThat(lazyStore.getCurrentRevisionNumber(), is(eagerStore.getCurrentRevisionNumber()));
+    }
+
+    @Test
+    public void shouldDecodeSameRevisions() {
+        assertThat(lazyStore.getRevisions(), is(eagerStore.getRevisions()));
+    }
+
+    @Test
+    public void shouldGetSameRevisionSummaries() {
+        assertThat(lazyStore.getRevisionSummaries(), is(eagerStore.getRevisionSummaries()));
+    }
+
+    @Test
+    public void shouldGetRevisionByNumber() {
+        var revisionNumber = RevisionNumber.getRevisionNumber(REVISION_COUNT / 2);
+        assertThat(lazyStore.getRevision(revisionNumber), is(eagerStore.getRevision(revisionNumber)));
+    }
+
+    @Test
+    public void shouldAppendRevision() throws Exception {
+        var revisionNumber = RevisionNumber.getRevisionNumber(REVISION_COUNT + 1);
+        var cls = dataFactory.getOWLClass(IRI.create("http://stuff.com/B"));
+        var revision = new Revision(UserId.getUserId("MH"),
+                                    revisionNumber,
+                                    ImmutableList.of(new OWLOntologyChangeRecord(ontologyId,
+                                                                                 new AddAxiomData(dataFactory.getOWLDeclarationAxiom(cls)))),
+                                    REVISION_COUNT + 1,
+                                    "Appended");
+        lazyStore.addRevision(revision);
+        assertThat(lazyStore.getRevision(revisionNumber), is(java.util.Optional.of(revision)));
+        assertThat(lazyStore.getRevisions().size(), is(REVISION_COUNT + 1));
+    }
+}
@@ -36,6 +36,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
 
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.Matchers.greaterThan;
@@ -65,6 +66,9 @@ public class ProjectChangesManager_IT {
     @Mock
     private ProjectDetailsRepository repo;
 
+    @Mock
+    private DictionarySnapshotManager dictionarySnapshotManager;
+
     @Before
     public void setUp() throws Exception {
         changeHistoryFile = temporaryFolder.newFile();
@@ -74,7 +78,13 @@ public class ProjectChangesManager_IT {
         RevisionManager revisionManager = new RevisionManagerImpl(new RevisionStoreImpl(
                 projectId,
                 changeHistoryFile,
-                dataFactory
+                dataFactory,
+                RevisionWriterSettings.get(10, 256, false),
+                ForkJoinPool.commonPool()
+        ), new RevisionSnapshotStore(
+                projectId,
+                changeHistoryFile,
+                RevisionSnapshotSettings.get(1000, Long.MAX_VALUE, 2)
         ));
         when(repo.findOne(projectId)).thenReturn(Optional.empty());
         when(repo.getDisplayNameLanguages(projectId)).thenReturn(ImmutableList.of());
@@ -111,7 +121,7 @@ public class ProjectChangesManager_IT {
         LanguageManager languageManager = new LanguageManager(projectId, new ActiveLanguagesManager(projectId,
                                                                                                     rootOntology), repo);
         RenderingManager renderingManager = new RenderingManager(
-                new DictionaryManager(languageManager, new MultiLingualDictionaryImpl(projectId, new DictionaryBuilder(projectId, rootOntology), new DictionaryUpdater(rootOntology)),
+                new DictionaryManager(languageManager, new MultiLingualDictionaryImpl(projectId, new DictionaryBuilder(projectId, rootOntology, ForkJoinPool.commonPool()), new DictionaryUpdater(rootOntology), dictionarySnapshotManager, ForkJoinPool.commonPool()),
                                       new BuiltInShortFormDictionary(new ShortFormCache(), dataFactory)),
                 new DeprecatedEntityCheckerImpl(rootOntology),
                 new ManchesterSyntaxObjectRenderer(
@@ -0,0 +1,215 @@
+package edu.stanford.bmir.protege.web.server.revision;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.change.AddAxiomData;
+import org.semanticweb.owlapi.change.OWLOntologyChangeRecord;
+import org.semanticweb.owlapi.change.RemoveAxiomData;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Compares reconstructing revisions by replaying the whole change history with reconstructing
+ * them from a snapshot plus the tail of the change history.
+ */
+public class RevisionSnapshotStore_IT {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevisionSnapshotStore_IT.class);
+
+    private static final int REVISION_COUNT = 2000;
+
+    private static final int CHANGES_PER_REVISION = 20;
+
+    private static final int SNAPSHOT_INTERVAL = 500;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ProjectId projectId = ProjectId.get(UUID.randomUUID().toString());
+
+    private final OWLOntologyID ontologyId = new OWLOntologyID(IRI.create("http://stuff.com/ont"));
+
+    private File changeHistoryFile;
+
+    private RevisionStoreImpl revisionStore;
+
+    private OWLDataFactory dataFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        changeHistoryFile = new File(temporaryFolder.newFolder("change-data"), "change-data.binary");
+        dataFactory = OWLManager.getOWLDataFactory();
+        revisionStore = new RevisionStoreImpl(projectId, changeHistoryFile, dataFactory, RevisionWriterSettings.get(10, 256, false), ForkJoinPool.commonPool());
+        for(int i = 1; i <= REVISION_COUNT; i++) {
+            List<OWLOntologyChangeRecord> records = new ArrayList<>();
+            for(int j = 0; j < CHANGES_PER_REVISION; j++) {
+                OWLClass cls = dataFactory.getOWLClass(IRI.create("http://stuff.com/A" + i + "_" + j));
+                OWLClass superCls = dataFactory.getOWLClass(IRI.create("http://stuff.com/B" + j));
+                records.add(new OWLOntologyChangeRecord(ontologyId,
+                                                        new AddAxiomData(dataFactory.getOWLSubClassOfAxiom(cls, superCls))));
+            }
+            if(i > 1) {
+                // Remove something that was added in the previous revision
+                OWLClass cls = dataFactory.getOWLClass(IRI.create("http://stuff.com/A" + (i - 1) + "_0"));
+                OWLClass superCls = dataFactory.getOWLClass(IRI.create("http://stuff.com/B0"));
+                records.add(new OWLOntologyChangeRecord(ontologyId,
+                                                        new RemoveAxiomData(dataFactory.getOWLSubClassOfAxiom(cls, superCls))));
+            }
+            revisionStore.addRevision(new Revision(UserId.getUserId("MH"),
+                                                   RevisionNumber.getRevisionNumber(i),
+                                                   ImmutableList.copyOf(records),
+                                                   i,
+                                                   "Revision " + i));
+        }
+    }
+
+    private RevisionSnapshotStore createSnapshotStore() {
+        return new RevisionSnapshotStore(projectId,
+                                         changeHistoryFile,
+                                         RevisionSnapshotSettings.get(SNAPSHOT_INTERVAL,
+                                                                      Long.MAX_VALUE,
+                                                                      REVISION_COUNT / SNAPSHOT_INTERVAL));
+    }
+
+    private RevisionManagerImpl createReplayingRevisionManager() throws IOException {
+        return new RevisionManagerImpl(revisionStore,
+                                       new RevisionSnapshotStore(projectId,
+                                                                 temporaryFolder.newFile(),
+                                                                 RevisionSnapshotSettings.get(1, 1, 1)));
+    }
+
+    @Test
+    public void shouldReconstructSameOntologiesFromSnapshots() throws Exception {
+        var snapshotStore = createSnapshotStore();
+        var revisionManager = new RevisionManagerImpl(revisionStore, snapshotStore);
+        for(int i = SNAPSHOT_INTERVAL; i <= REVISION_COUNT; i += SNAPSHOT_INTERVAL) {
+            var revisionNumber = RevisionNumber.getRevisionNumber(i);
+            snapshotStore.writeSnapshot(revisionNumber, revisionManager.getOntologyManagerForRevision(revisionNumber));
+        }
+        var replayingRevisionManager = createReplayingRevisionManager();
+        for(var revision : new long[]{1, SNAPSHOT_INTERVAL - 1, SNAPSHOT_INTERVAL, SNAPSHOT_INTERVAL + 7, REVISION_COUNT}) {
+            var revisionNumber = RevisionNumber.getRevisionNumber(revision);
+            var expected = getAxioms(replayingRevisionManager.getOntologyManagerForRevision(revisionNumber));
+            var actual = getAxioms(revisionManager.getOntologyManagerForRevision(revisionNumber));
+            assertThat(actual, is(expected));
+        }
+    }
+
+    @Test
+    public void shouldFindNearestSnapshot() throws Exception {
+        var snapshotStore = createSnapshotStore();
+        var revisionManager = new RevisionManagerImpl(revisionStore, snapshotStore);
+        var snapshotRevision = RevisionNumber.getRevisionNumber(SNAPSHOT_INTERVAL);
+        snapshotStore.writeSnapshot(snapshotRevision, revisionManager.getOntologyManagerForRevision(snapshotRevision));
+        assertThat(snapshotStore.getNearestSnapshot(RevisionNumber.getRevisionNumber(SNAPSHOT_INTERVAL - 1)), is(Optional.empty()));
+        assertThat(snapshotStore.getNearestSnapshot(RevisionNumber.getRevisionNumber(SNAPSHOT_INTERVAL + 1)), is(Optional.of(snapshotRevision)));
+        assertThat(createSnapshotStore().getNearestSnapshot(RevisionNumber.getHeadRevisionNumber()), is(Optional.of(snapshotRevision)));
+    }
+
+    @Test
+    public void shouldReplayFasterFromSnapshot() throws Exception {
+        var snapshotStore = createSnapshotStore();
+        var revisionManager = new RevisionManagerImpl(revisionStore, snapshotStore);
+        var head = RevisionNumber.getRevisionNumber(REVISION_COUNT);
+        var replayStopwatch = Stopwatch.createStarted();
+        revisionManager.getOntologyManagerForRevision(head);
+        replayStopwatch.stop();
+        snapshotStore.writeSnapshot(head, revisionManager.getOntologyManagerForRevision(head));
+        var snapshotStopwatch = Stopwatch.createStarted();
+        revisionManager.getOntologyManagerForRevision(head);
+        snapshotStopwatch.stop();
+        logger.info("Reconstructed revision {} by full replay in {} ms and from a snapshot in {} ms",
+                    REVISION_COUNT,
+                    replayStopwatch.elapsed(TimeUnit.MILLISECONDS),
+                    snapshotStopwatch.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldReplayAllRevisionsIfSnapshotIsUnreadable() throws Exception {
+        var snapshotStore = createSnapshotStore();
+        var revisionManager = new RevisionManagerImpl(revisionStore, snapshotStore);
+        var head = RevisionNumber.getRevisionNumber(REVISION_COUNT);
+        var expected = getAxioms(revisionManager.getOntologyManagerForRevision(head));
+        var snapshotRevision = RevisionNumber.getRevisionNumber(SNAPSHOT_INTERVAL);
+        snapshotStore.writeSnapshot(snapshotRevision, revisionManager.getOntologyManagerForRevision(snapshotRevision));
+        var snapshotDocuments = new File(changeHistoryFile.getParentFile(), "snapshots/revision-" + SNAPSHOT_INTERVAL)
+                .listFiles();
+        assertThat(snapshotDocuments.length, is(1));
+        Files.write(snapshotDocuments[0].toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        var actual = getAxioms(revisionManager.getOntologyManagerForRevision(head));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void shouldReplayAllRevisionsIfSnapshotOntologyCannotBeCreated() throws Exception {
+        var snapshotRevision = RevisionNumber.getRevisionNumber(SNAPSHOT_INTERVAL);
+        var snapshotStore = new RevisionSnapshotStore(projectId,
+                                                      changeHistoryFile,
+                                                      RevisionSnapshotSettings.get(SNAPSHOT_INTERVAL, Long.MAX_VALUE, 1)) {
+            @Override
+            public Optional<RevisionNumber> getNearestSnapshot(RevisionNumber revisionNumber) {
+                return Optional.of(snapshotRevision);
+            }
+
+            @Override
+            public void loadSnapshot(RevisionNumber revisionNumber,
+                                     OWLOntologyManager manager,
+                                     OWLOntologyID anonymousOntologyId) throws OWLOntologyCreationException {
+                manager.createOntology(ontologyId);
+                throw new OWLOntologyCreationException("Unreadable snapshot");
+            }
+        };
+        var head = RevisionNumber.getRevisionNumber(REVISION_COUNT);
+        var expected = getAxioms(createReplayingRevisionManager().getOntologyManagerForRevision(head));
+        var actual = getAxioms(new RevisionManagerImpl(revisionStore, snapshotStore).getOntologyManagerForRevision(head));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void shouldKeepOnlyTheMostRecentSnapshots() throws Exception {
+        var snapshotStore = new RevisionSnapshotStore(projectId,
+                                                      changeHistoryFile,
+                                                      RevisionSnapshotSettings.get(SNAPSHOT_INTERVAL, Long.MAX_VALUE, 2));
+        var revisionManager = new RevisionManagerImpl(revisionStore, snapshotStore);
+        for(int i = SNAPSHOT_INTERVAL; i <= REVISION_COUNT; i += SNAPSHOT_INTERVAL) {
+            var revisionNumber = RevisionNumber.getRevisionNumber(i);
+            snapshotStore.writeSnapshot(revisionNumber, revisionManager.getOntologyManagerForRevision(revisionNumber));
+        }
+        var snapshotDirectoryNames = new File(changeHistoryFile.getParentFile(), "snapshots").list();
+        assertThat(snapshotDirectoryNames, is(arrayContainingInAnyOrder("revision-" + (REVISION_COUNT - SNAPSHOT_INTERVAL),
+                                                                        "revision-" + REVISION_COUNT)));
+        assertThat(snapshotStore.getNearestSnapshot(RevisionNumber.getRevisionNumber(REVISION_COUNT - SNAPSHOT_INTERVAL - 1)),
+                   is(Optional.empty()));
+    }
+
+    private static Set<OWLAxiom> getAxioms(OWLOntologyManager manager) {
+        return manager.getOntologies().iterator().next().getAxioms();
+    }
+}
@@ -0,0 +1,126 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class CompactShortFormStore_TestCase {
+
+    private CompactShortFormStore store;
+
+    private OWLDataFactory dataFactory;
+
+    private OWLClass clsA, clsB;
+
+    @Before
+    public void setUp() {
+        store = new CompactShortFormStore(10);
+        dataFactory = OWLManager.getOWLDataFactory();
+        clsA = getClass("A");
+        clsB = getClass("B");
+    }
+
+    private OWLClass getClass(String name) {
+        return dataFactory.getOWLClass(IRI.create("http://example.org/" + name));
+    }
+
+    @Test
+    public void shouldGetShortForm() {
+        store.put(clsA, "Heart");
+        assertThat(store.get(clsA), is("Heart"));
+        assertThat(store.size(), is(1));
+    }
+
+    @Test
+    public void shouldReturnNullForUnknownEntity() {
+        assertThat(store.get(clsA), is(nullValue()));
+    }
+
+    @Test
+    public void shouldReturnPreviousShortFormOnReplace() {
+        assertThat(store.put(clsA, "Heart"), is(nullValue()));
+        assertThat(store.put(clsA, "Lung"), is("Heart"));
+        assertThat(store.get(clsA), is("Lung"));
+        assertThat(store.size(), is(1));
+    }
+
+    @Test
+    public void shouldStoreNonLatin1ShortForms() {
+        store.put(clsA, "Сердце");
+        store.put(clsB, "心臓");
+        assertThat(store.get(clsA), is("Сердце"));
+        assertThat(store.get(clsB), is("心臓"));
+    }
+
+    @Test
+    public void shouldRemoveShortForm() {
+        store.put(clsA, "Heart");
+        assertThat(store.remove(clsA), is("Heart"));
+        assertThat(store.get(clsA), is(nullValue()));
+        assertThat(store.size(), is(0));
+        assertThat(store.getEntities("Heart"), is(empty()));
+    }
+
+    @Test
+    public void shouldGetEntitiesWithSameShortForm() {
+        store.put(clsA, "Heart");
+        store.put(clsB, "Heart");
+        assertThat(store.getEntities("Heart"), containsInAnyOrder(clsA, clsB));
+        assertThat(store.getEntities("heart"), is(empty()));
+    }
+
+    @Test
+    public void shouldMatchUsingViewOfShortForm() {
+        store.put(clsA, "Heart");
+        String match = store.match(clsA, (entity, shortForm) -> shortForm.toString());
+        assertThat(match, is("Heart"));
+    }
+
+    @Test
+    public void shouldLowerCaseCharByChar() {
+        assertThat(CompactShortFormStore.toLowerCase("HeArT Сердце"), is("heart сердце"));
+    }
+
+    @Test
+    public void shouldHandleManyEntitiesAndChanges() {
+        List<OWLEntity> entities = new ArrayList<>();
+        for(int i = 0; i < 10_000; i++) {
+            OWLClass cls = getClass("C" + i);
+            entities.add(cls);
+            store.put(cls, "Class " + i);
+        }
+        // Rename every entity many times so that the arena is compacted
+        for(int round = 0; round < 5; round++) {
+            for(int i = 0; i < entities.size(); i++) {
+                store.put(entities.get(i), "Renamed class " + i + " " + round);
+            }
+        }
+        for(int i = 0; i < entities.size(); i += 2) {
+            store.remove(entities.get(i));
+        }
+        assertThat(store.size(), is(5_000));
+        assertThat(store.get(entities.get(0)), is(nullValue()));
+        assertThat(store.get(entities.get(1)), is("Renamed class 1 4"));
+        assertThat(store.getEntities("Renamed class 9999 4"), contains(entities.get(9999)));
+        assertThat(store.getEntities("Class 9999"), is(empty()));
+        int matchCount = 0;
+        for(int shard = 0; shard < CompactShortFormStore.getShardCount(); shard++) {
+            matchCount += store.matchAll(shard, entity -> true, (entity, shortForm) -> entity).size();
+        }
+        assertThat(matchCount, is(5_000));
+    }
+}
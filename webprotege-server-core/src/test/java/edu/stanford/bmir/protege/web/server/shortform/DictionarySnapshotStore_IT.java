@@ -0,0 +1,123 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class DictionarySnapshotStore_IT {
+
+    private static final DictionaryLanguage ENGLISH = DictionaryLanguage.rdfsLabel("en");
+
+    private static final DictionaryLanguage LOCAL_NAME = DictionaryLanguage.localName();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private DictionarySnapshotStore store;
+
+    private File snapshotsDirectory;
+
+    private OWLClass heart;
+
+    private OWLNamedIndividual patient;
+
+    private Dictionary englishDictionary;
+
+    private Dictionary localNameDictionary;
+
+    @Before
+    public void setUp() throws Exception {
+        var changeHistoryFile = new File(temporaryFolder.newFolder("change-data"), "change-data.binary");
+        snapshotsDirectory = new File(changeHistoryFile.getParentFile(), "dictionaries");
+        OWLDataFactory dataFactory = OWLManager.getOWLDataFactory();
+        store = new DictionarySnapshotStore(ProjectId.get(UUID.randomUUID().toString()), changeHistoryFile, dataFactory);
+        heart = dataFactory.getOWLClass(IRI.create("http://example.org/Heart"));
+        patient = dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/Patient"));
+        englishDictionary = Dictionary.create(ENGLISH);
+        englishDictionary.put(heart, "Heart");
+        englishDictionary.put(patient, "Пациент");
+        localNameDictionary = Dictionary.create(LOCAL_NAME);
+        localNameDictionary.put(heart, "Heart");
+    }
+
+    private static RevisionNumber revision(long value) {
+        return RevisionNumber.getRevisionNumber(value);
+    }
+
+    @Test
+    public void shouldReturnEmptyIfThereIsNoSnapshot() {
+        assertThat(store.readSnapshot(revision(10)).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldReadWrittenSnapshot() throws Exception {
+        store.writeSnapshot(revision(3), List.of(englishDictionary, localNameDictionary));
+        var snapshot = store.readSnapshot(revision(10)).orElseThrow();
+        assertThat(snapshot.getRevisionNumber(), is(revision(3)));
+        assertThat(snapshot.getDictionaries().keySet(), containsInAnyOrder(ENGLISH, LOCAL_NAME));
+        var readEnglishDictionary = snapshot.getDictionaries().get(ENGLISH);
+        assertThat(readEnglishDictionary.size(), is(2));
+        assertThat(readEnglishDictionary.getShortForm(heart, ""), is("Heart"));
+        assertThat(readEnglishDictionary.getShortForm(patient, ""), is("Пациент"));
+        assertThat(snapshot.getDictionaries().get(LOCAL_NAME).getShortForm(heart, ""), is("Heart"));
+    }
+
+    @Test
+    public void shouldIgnoreSnapshotsThatAreAheadOfTheSpecifiedRevision() throws Exception {
+        store.writeSnapshot(revision(3), List.of(englishDictionary));
+        assertThat(store.readSnapshot(revision(2)).isPresent(), is(false));
+    }
+
+    @Test
+    public void shouldOnlyKeepLatestSnapshot() throws Exception {
+        store.writeSnapshot(revision(3), List.of(englishDictionary));
+        store.writeSnapshot(revision(5), List.of(englishDictionary, localNameDictionary));
+        assertThat(snapshotsDirectory.list(), arrayContaining("dictionaries-5.bin"));
+        assertThat(store.readSnapshot(revision(5)).orElseThrow().getDictionaries().size(), is(2));
+    }
+
+    @Test
+    public void shouldDiscardCorruptSnapshot() throws Exception {
+        store.writeSnapshot(revision(3), List.of(englishDictionary));
+        var snapshotFile = new File(snapshotsDirectory, "dictionaries-3.bin");
+        try(var file = new RandomAccessFile(snapshotFile, "rw")) {
+            file.seek(file.length() / 2);
+            var b = file.read();
+            file.seek(file.length() / 2);
+            file.write(b ^ 0xFF);
+        }
+        assertThat(store.readSnapshot(revision(3)).isPresent(), is(false));
+        assertThat(snapshotFile.exists(), is(false));
+    }
+
+    @Test
+    public void shouldDiscardTruncatedSnapshot() throws Exception {
+        store.writeSnapshot(revision(3), List.of(englishDictionary));
+        var snapshotFile = new File(snapshotsDirectory, "dictionaries-3.bin");
+        try(var file = new RandomAccessFile(snapshotFile, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        assertThat(store.readSnapshot(revision(3)).isPresent(), is(false));
+    }
+}
@@ -0,0 +1,275 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableMap;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.revision.RevisionNumber;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class MultiLingualDictionaryImpl_TestCase {
+
+    private static final DictionaryLanguage ENGLISH = DictionaryLanguage.rdfsLabel("en");
+
+    private static final DictionaryLanguage GERMAN = DictionaryLanguage.rdfsLabel("de");
+
+    private OWLOntologyManager manager;
+
+    private OWLOntology ontology;
+
+    private OWLDataFactory dataFactory;
+
+    private OWLClass heart;
+
+    private List<Runnable> warmUpTasks;
+
+    private DictionarySnapshotManager snapshotManager;
+
+    private MultiLingualDictionaryImpl dictionary;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = OWLManager.createOWLOntologyManager();
+        dataFactory = manager.getOWLDataFactory();
+        ontology = manager.createOntology(IRI.create("http://example.org/ont"));
+        heart = dataFactory.getOWLClass(IRI.create("http://example.org/Heart"));
+        manager.applyChange(new AddAxiom(ontology, dataFactory.getOWLDeclarationAxiom(heart)));
+        addLabel(heart, "Heart", "en");
+        addLabel(heart, "Herz", "de");
+        var projectId = ProjectId.get(UUID.randomUUID().toString());
+        warmUpTasks = new ArrayList<>();
+        snapshotManager = mock(DictionarySnapshotManager.class);
+        when(snapshotManager.getCurrentRevision()).thenReturn(RevisionNumber.getRevisionNumber(0));
+        when(snapshotManager.readSnapshot()).thenReturn(Optional.empty());
+        dictionary = new MultiLingualDictionaryImpl(projectId,
+                                                    new DictionaryBuilder(projectId, ontology, new ForkJoinPool(2)),
+                                                    new DictionaryUpdater(ontology),
+                                                    snapshotManager,
+                                                    warmUpTasks::add);
+    }
+
+    private void addLabel(OWLEntity entity, String label, String lang) {
+        var ax = dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+                                                            entity.getIRI(),
+                                                            dataFactory.getOWLLiteral(label, lang));
+        manager.applyChange(new AddAxiom(ontology, ax));
+    }
+
+    private void runWarmUp() {
+        warmUpTasks.forEach(Runnable::run);
+        warmUpTasks.clear();
+    }
+
+    @Test
+    public void shouldBuildDictionariesForAllLanguagesOnDemand() {
+        assertThat(dictionary.getShortForm(heart, List.of(GERMAN), ""), is("Herz"));
+        assertThat(dictionary.getShortForm(heart, List.of(ENGLISH, GERMAN), ""), is("Heart"));
+    }
+
+    @Test
+    public void shouldNotFallBackToLocalNameOnceWarmedUp() {
+        dictionary.loadLanguages(List.of(ENGLISH));
+        runWarmUp();
+        var lung = dataFactory.getOWLClass(IRI.create("http://example.org/Lung"));
+        manager.applyChange(new AddAxiom(ontology, dataFactory.getOWLDeclarationAxiom(lung)));
+        assertThat(dictionary.getShortForm(lung, List.of(ENGLISH), "default"), is("default"));
+    }
+
+    @Test
+    public void shouldServeLocalNamesUntilWarmUpCompletes() {
+        var lung = dataFactory.getOWLClass(IRI.create("http://example.org/Lung"));
+        addLabel(lung, "Lung organ", "en");
+        dictionary.loadLanguages(List.of(ENGLISH));
+        assertThat(dictionary.getShortForm(lung, List.of(ENGLISH), ""), is("Lung"));
+        runWarmUp();
+        assertThat(dictionary.getShortForm(lung, List.of(ENGLISH), ""), is("Lung organ"));
+    }
+
+    @Test
+    public void shouldReplayUpdatesMadeWhilstWarmingUp() {
+        var projectId = ProjectId.get(UUID.randomUUID().toString());
+        var lung = dataFactory.getOWLClass(IRI.create("http://example.org/Lung"));
+        var builder = new DictionaryBuilder(projectId, ontology, new ForkJoinPool(2)) {
+            @Override
+            public void buildAll(List<Dictionary> dictionaries) {
+                super.buildAll(dictionaries);
+                // An edit that is made after the ontology has been scanned
+                addLabel(lung, "Lung organ", "en");
+                dictionary.update(List.of(lung), List.of(ENGLISH));
+            }
+        };
+        dictionary = new MultiLingualDictionaryImpl(projectId, builder, new DictionaryUpdater(ontology), snapshotManager, warmUpTasks::add);
+        dictionary.loadLanguages(List.of(ENGLISH));
+        runWarmUp();
+        assertThat(dictionary.getShortForm(lung, List.of(ENGLISH), ""), is("Lung organ"));
+    }
+
+    @Test
+    public void shouldWriteSnapshotOnceWarmedUp() {
+        dictionary.loadLanguages(List.of(ENGLISH));
+        runWarmUp();
+        verify(snapshotManager, times(1)).writeSnapshot(eq(RevisionNumber.getRevisionNumber(0)),
+                                                        anyCollectionOf(Dictionary.class));
+    }
+
+    @Test
+    public void shouldRestoreDictionariesFromSnapshotAndReplayLaterRevisions() {
+        var projectId = ProjectId.get(UUID.randomUUID().toString());
+        var buildCount = new AtomicInteger();
+        var builder = new DictionaryBuilder(projectId, ontology, new ForkJoinPool(2)) {
+            @Override
+            public void buildAll(List<Dictionary> dictionaries) {
+                buildCount.incrementAndGet();
+                super.buildAll(dictionaries);
+            }
+        };
+        var snapshotDictionary = Dictionary.create(ENGLISH);
+        snapshotDictionary.put(heart, "Heart");
+        var snapshotRevision = RevisionNumber.getRevisionNumber(1);
+        when(snapshotManager.readSnapshot()).thenReturn(Optional.of(DictionarySnapshot.get(snapshotRevision,
+                                                                                            ImmutableMap.of(ENGLISH, snapshotDictionary))));
+        when(snapshotManager.getCurrentRevision()).thenReturn(RevisionNumber.getRevisionNumber(2));
+        // Revision 2, which is after the snapshot, adds a label to Lung.  Replaying it updates the dictionaries
+        // via the dictionary manager.
+        var lung = dataFactory.getOWLClass(IRI.create("http://example.org/Lung"));
+        addLabel(lung, "Lung organ", "en");
+        when(snapshotManager.replayRevisionsAfter(snapshotRevision)).thenAnswer(invocation -> {
+            dictionary.update(List.of(lung), List.of(ENGLISH));
+            return 1L;
+        });
+        dictionary = new MultiLingualDictionaryImpl(projectId, builder, new DictionaryUpdater(ontology), snapshotManager, warmUpTasks::add);
+        dictionary.loadLanguages(List.of(ENGLISH));
+        runWarmUp();
+        assertThat(dictionary.getShortForm(heart, List.of(ENGLISH), ""), is("Heart"));
+        assertThat(dictionary.getShortForm(lung, List.of(ENGLISH), ""), is("Lung organ"));
+        assertThat(buildCount.get(), is(0));
+        verify(snapshotManager, times(1)).writeSnapshot(eq(RevisionNumber.getRevisionNumber(2)),
+                                                        anyCollectionOf(Dictionary.class));
+    }
+
+    @Test
+    public void shouldRebuildDictionariesIfRevisionsCannotBeReplayed() {
+        var snapshotDictionary = Dictionary.create(ENGLISH);
+        snapshotDictionary.put(heart, "Stale heart");
+        var snapshotRevision = RevisionNumber.getRevisionNumber(1);
+        when(snapshotManager.readSnapshot()).thenReturn(Optional.of(DictionarySnapshot.get(snapshotRevision,
+                                                                                            ImmutableMap.of(ENGLISH, snapshotDictionary))));
+        when(snapshotManager.replayRevisionsAfter(snapshotRevision)).thenThrow(new IllegalStateException("Missing revision"));
+        dictionary.loadLanguages(List.of(ENGLISH));
+        runWarmUp();
+        assertThat(dictionary.getShortForm(heart, List.of(ENGLISH), ""), is("Heart"));
+    }
+
+    private DictionaryBuilder createBuilderThatFailsOnce(ProjectId projectId) {
+        var failed = new AtomicBoolean();
+        return new DictionaryBuilder(projectId, ontology, new ForkJoinPool(2)) {
+            @Override
+            public void buildAll(List<Dictionary> dictionaries) {
+                if(failed.compareAndSet(false, true)) {
+                    throw new IllegalStateException("Build failed");
+                }
+                super.buildAll(dictionaries);
+            }
+        };
+    }
+
+    @Test
+    public void shouldRetryBuildingDictionariesAfterWarmUpFails() {
+        var projectId = ProjectId.get(UUID.randomUUID().toString());
+        var lung = dataFactory.getOWLClass(IRI.create("http://example.org/Lung"));
+        addLabel(lung, "Lung organ", "en");
+        dictionary = new MultiLingualDictionaryImpl(projectId, createBuilderThatFailsOnce(projectId), new DictionaryUpdater(ontology), snapshotManager, warmUpTasks::add);
+        dictionary.loadLanguages(List.of(ENGLISH));
+        // The failure is logged by the warm up task
+        runWarmUp();
+        assertThat(dictionary.getShortForm(lung, List.of(ENGLISH), ""), is("Lung organ"));
+    }
+
+    @Test
+    public void shouldNotPublishDictionariesIfBuildFails() {
+        var projectId = ProjectId.get(UUID.randomUUID().toString());
+        dictionary = new MultiLingualDictionaryImpl(projectId, createBuilderThatFailsOnce(projectId), new DictionaryUpdater(ontology), snapshotManager, warmUpTasks::add);
+        try {
+            dictionary.getShortForm(heart, List.of(ENGLISH), "");
+        } catch(IllegalStateException e) {
+            // Expected
+        }
+        assertThat(dictionary.getShortForm(heart, List.of(ENGLISH), ""), is("Heart"));
+    }
+
+    @Test
+    public void shouldWaitForWarmUpBeforeLookingUpEntities() throws Exception {
+        dictionary.loadLanguages(List.of(ENGLISH));
+        var lookupExecutor = Executors.newSingleThreadExecutor();
+        try {
+            var lookup = lookupExecutor.submit(() -> dictionary.getEntities("Heart", List.of(ENGLISH)).collect(toList()));
+            Thread.sleep(200);
+            assertThat(lookup.isDone(), is(false));
+            runWarmUp();
+            assertThat(lookup.get(10, TimeUnit.SECONDS), Matchers.<OWLEntity>contains(heart));
+        } finally {
+            lookupExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldBuildDictionariesOnDemandIfWarmUpCannotBeScheduled() {
+        var projectId = ProjectId.get(UUID.randomUUID().toString());
+        dictionary = new MultiLingualDictionaryImpl(projectId,
+                                                    new DictionaryBuilder(projectId, ontology, new ForkJoinPool(2)),
+                                                    new DictionaryUpdater(ontology),
+                                                    snapshotManager,
+                                                    task -> {
+                                                        throw new RejectedExecutionException();
+                                                    });
+        dictionary.loadLanguages(List.of(ENGLISH));
+        assertThat(dictionary.getEntities("Heart", List.of(ENGLISH)).collect(toList()), Matchers.<OWLEntity>contains(heart));
+    }
+
+    @Test
+    public void shouldNotHaveLoadedStampWhilstWarmingUp() {
+        dictionary.loadLanguages(List.of(ENGLISH));
+        assertThat(dictionary.getLoadedStamp(), is(-1L));
+        runWarmUp();
+        assertThat(dictionary.getLoadedStamp(), is(1L));
+    }
+
+    @Test
+    public void shouldChangeLoadedStampWhenDictionaryIsBuilt() {
+        dictionary.getShortForm(heart, List.of(ENGLISH), "");
+        var loadedStamp = dictionary.getLoadedStamp();
+        dictionary.getShortForm(heart, List.of(GERMAN), "");
+        assertThat(dictionary.getLoadedStamp(), is(loadedStamp + 1));
+    }
+
+    @Test
+    public void shouldNotWriteSnapshotOnDisposeIfUpToDate() {
+        dictionary.loadLanguages(List.of(ENGLISH));
+        runWarmUp();
+        dictionary.dispose();
+        verify(snapshotManager, times(1)).writeSnapshot(any(RevisionNumber.class), anyCollectionOf(Dictionary.class));
+    }
+}
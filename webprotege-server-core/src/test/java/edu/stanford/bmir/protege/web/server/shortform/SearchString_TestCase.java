@@ -0,0 +1,56 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class SearchString_TestCase {
+
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        // In the Turkish locale "I".toLowerCase() is a dotless i (U+0131)
+        Locale.setDefault(new Locale("tr", "TR"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void shouldLowerCaseSearchStringIndependentlyOfDefaultLocale() {
+        SearchString searchString = SearchString.parseSearchString("ISO");
+        assertThat(searchString.getSearchString(), is(CompactShortFormStore.toLowerCase("ISO")));
+    }
+
+    @Test
+    public void shouldMatchShortFormIgnoringCaseIndependentlyOfDefaultLocale() {
+        SearchString searchString = SearchString.parseSearchString("ISO");
+        assertThat(searchString.matchesIgnoreCase("ISO", 0), is(true));
+    }
+
+    @Test
+    public void shouldMatchLowerCasedShortFormIndependentlyOfDefaultLocale() {
+        SearchString searchString = SearchString.parseSearchString("Iso");
+        assertThat(searchString.matches(CompactShortFormStore.toLowerCase("ISO"), 0), is(true));
+    }
+
+    @Test
+    public void shouldStripWildCard() {
+        SearchString searchString = SearchString.parseSearchString("*Abc");
+        assertThat(searchString.isWildCard(), is(true));
+        assertThat(searchString.getSearchString(), is("abc"));
+    }
+}
@@ -0,0 +1,158 @@
+package edu.stanford.bmir.protege.web.server.shortform;
+
+import com.google.common.collect.ImmutableSet;
+import edu.stanford.bmir.protege.web.shared.shortform.DictionaryLanguage;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+
+import java.util.List;
+import java.util.Set;
+
+import static edu.stanford.bmir.protege.web.MockingUtils.mockOWLClass;
+import static edu.stanford.bmir.protege.web.MockingUtils.mockOWLObjectProperty;
+import static edu.stanford.bmir.protege.web.server.shortform.SearchString.parseMultiWordSearchString;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class ShortFormCache_TestCase {
+
+    private static final Set<EntityType<?>> ALL_TYPES = ImmutableSet.copyOf(EntityType.values());
+
+    private ShortFormCache cache;
+
+    private OWLClass heartDisease, heartValve, lungDisease;
+
+    private OWLObjectProperty hasPart;
+
+    @Before
+    public void setUp() {
+        cache = ShortFormCache.create();
+        heartDisease = mockOWLClass();
+        heartValve = mockOWLClass();
+        lungDisease = mockOWLClass();
+        hasPart = mockOWLObjectProperty();
+        cache.put(heartDisease, "HeartDisease");
+        cache.put(heartValve, "Heart valve");
+        cache.put(lungDisease, "Lung disease");
+        cache.put(hasPart, "has part");
+    }
+
+    private List<ShortFormMatch> search(String query, Set<EntityType<?>> entityTypes) {
+        return cache.getShortFormsContaining(parseMultiWordSearchString(query),
+                                             entityTypes,
+                                             (entity, shortForm, matchCount, matchPositions) ->
+                                                     new ShortFormMatch(entity,
+                                                                        shortForm,
+                                                                        DictionaryLanguage.localName(),
+                                                                        matchCount,
+                                                                        matchPositions))
+                    .collect(toList());
+    }
+
+    private List<OWLEntity> searchEntities(String query) {
+        return search(query, ALL_TYPES).stream()
+                                       .map(ShortFormMatch::getEntity)
+                                       .collect(toList());
+    }
+
+    @Test
+    public void shouldFindEntitiesContainingSearchString() {
+        assertThat(searchEntities("heart"), containsInAnyOrder(heartDisease, heartValve));
+    }
+
+    @Test
+    public void shouldFindEntitiesContainingAllSearchStrings() {
+        assertThat(searchEntities("heart dis"), contains(heartDisease));
+    }
+
+    @Test
+    public void shouldFindEntitiesForShortSearchStrings() {
+        assertThat(searchEntities("ha"), contains(hasPart));
+    }
+
+    @Test
+    public void shouldNotFindEntitiesForUnknownSearchString() {
+        assertThat(searchEntities("kidney"), is(empty()));
+    }
+
+    @Test
+    public void shouldOnlyMatchAtWordBoundariesForNonWildcardSearchStrings() {
+        assertThat(searchEntities("eart"), is(empty()));
+    }
+
+    @Test
+    public void shouldMatchAnywhereForWildcardSearchStrings() {
+        assertThat(searchEntities("*eart"), containsInAnyOrder(heartDisease, heartValve));
+    }
+
+    @Test
+    public void shouldPreserveMatchPositions() {
+        var matches = search("dis", ALL_TYPES);
+        var heartDiseaseMatch = matches.stream()
+                                       .filter(m -> m.getEntity().equals(heartDisease))
+                                       .findFirst()
+                                       .orElseThrow();
+        assertThat(heartDiseaseMatch.getMatchPositions().get(0), is(5));
+        var lungDiseaseMatch = matches.stream()
+                                      .filter(m -> m.getEntity().equals(lungDisease))
+                                      .findFirst()
+                                      .orElseThrow();
+        assertThat(lungDiseaseMatch.getMatchPositions().get(0), is(5));
+    }
+
+    @Test
+    public void shouldFilterByEntityType() {
+        var matches = search("part", ImmutableSet.of(EntityType.CLASS));
+        assertThat(matches, is(empty()));
+    }
+
+    @Test
+    public void shouldNotFindRemovedEntity() {
+        cache.remove(heartValve);
+        assertThat(searchEntities("heart"), contains(heartDisease));
+        assertThat(cache.getEntities("Heart valve").collect(toList()), is(empty()));
+    }
+
+    @Test
+    public void shouldFindEntityByNewShortFormAfterChange() {
+        cache.put(heartValve, "Mitral valve");
+        assertThat(searchEntities("heart"), contains(heartDisease));
+        assertThat(searchEntities("mitral"), contains(heartValve));
+        assertThat(cache.getEntities("Heart valve").collect(toList()), is(empty()));
+        assertThat(cache.getEntities("Mitral valve").collect(toList()), contains(heartValve));
+    }
+
+    @Test
+    public void shouldNotFindEntitiesAfterClear() {
+        cache.clear();
+        assertThat(searchEntities("heart"), is(empty()));
+    }
+
+    @Test
+    public void shouldFindEntitiesAfterManyRenames() {
+        for(int i = 0; i < 100; i++) {
+            cache.put(lungDisease, "Lung disease " + i);
+            cache.put(heartValve, "Valve " + i);
+        }
+        assertThat(searchEntities("disease"), containsInAnyOrder(heartDisease, lungDisease));
+        assertThat(searchEntities("heart"), contains(heartDisease));
+        assertThat(searchEntities("valve"), contains(heartValve));
+    }
+
+    @Test
+    public void shouldFindNonLatin1ShortFormsIgnoringCase() {
+        var heartDiseaseRu = mockOWLClass();
+        cache.put(heartDiseaseRu, "Болезнь Сердца");
+        assertThat(searchEntities("сердца"), contains(heartDiseaseRu));
+        assertThat(cache.getShortFormOrElse(heartDiseaseRu, null), is("Болезнь Сердца"));
+    }
+}
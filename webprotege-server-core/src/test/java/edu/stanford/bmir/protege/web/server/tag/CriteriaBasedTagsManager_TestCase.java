@@ -0,0 +1,234 @@
+package edu.stanford.bmir.protege.web.server.tag;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.bmir.protege.web.server.change.HasGetChangeSubjects;
+import edu.stanford.bmir.protege.web.server.hierarchy.ClassHierarchyProvider;
+import edu.stanford.bmir.protege.web.server.match.Matcher;
+import edu.stanford.bmir.protege.web.server.match.MatchingEngine;
+import edu.stanford.bmir.protege.web.shared.color.Color;
+import edu.stanford.bmir.protege.web.shared.match.criteria.EntityIsDeprecatedCriteria;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.tag.Tag;
+import edu.stanford.bmir.protege.web.shared.tag.TagId;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class CriteriaBasedTagsManager_TestCase {
+
+    private OWLOntologyManager manager;
+
+    private OWLOntology ontology;
+
+    private OWLDataFactory dataFactory;
+
+    private OWLClass heart;
+
+    private OWLClass lung;
+
+    private TagId tagId;
+
+    private TagRepository tagRepository;
+
+    private ClassHierarchyProvider classHierarchyProvider;
+
+    private Set<OWLEntity> matchingEntities;
+
+    private AtomicInteger evaluations;
+
+    private CriteriaBasedTagsManager tagsManager;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = OWLManager.createOWLOntologyManager();
+        dataFactory = manager.getOWLDataFactory();
+        ontology = manager.createOntology(IRI.create("http://example.org/ont"));
+        heart = dataFactory.getOWLClass(IRI.create("http://example.org/Heart"));
+        lung = dataFactory.getOWLClass(IRI.create("http://example.org/Lung"));
+        manager.addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(heart));
+        manager.addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(lung));
+        tagId = TagId.createTagId();
+        tagRepository = mock(TagRepository.class);
+        when(tagRepository.findTags()).thenReturn(List.of(createTag(tagId)));
+        matchingEntities = new HashSet<>();
+        matchingEntities.add(heart);
+        evaluations = new AtomicInteger();
+        Matcher<OWLEntity> matcher = entity -> {
+            evaluations.incrementAndGet();
+            return matchingEntities.contains(entity);
+        };
+        var matchingEngine = mock(MatchingEngine.class);
+        when(matchingEngine.getMatcherForAny(any(ImmutableList.class))).thenReturn(matcher);
+        var changeSubjectsProvider = mock(HasGetChangeSubjects.class);
+        when(changeSubjectsProvider.getChangeSubjects(any(OWLOntologyChange.class))).thenReturn(Set.of());
+        classHierarchyProvider = mock(ClassHierarchyProvider.class);
+        when(classHierarchyProvider.getDescendants(any(OWLClass.class))).thenReturn(new HashSet<>());
+        tagsManager = new CriteriaBasedTagsManager(tagRepository,
+                                                   matchingEngine,
+                                                   ontology,
+                                                   changeSubjectsProvider,
+                                                   classHierarchyProvider);
+    }
+
+    private static Tag createTag(TagId tagId) {
+        return Tag.get(tagId,
+                       ProjectId.get("12345678-1234-1234-1234-123456789abc"),
+                       "Deprecated",
+                       "",
+                       Color.getRGB(10, 20, 30),
+                       Color.getRGB(200, 210, 220),
+                       ImmutableList.of(EntityIsDeprecatedCriteria.get()));
+    }
+
+    private List<OWLOntologyChange> applyAxiom(OWLAxiom axiom) {
+        var changes = List.<OWLOntologyChange>of(new AddAxiom(ontology, axiom));
+        manager.applyChanges(changes);
+        return changes;
+    }
+
+    @Test
+    public void shouldGetTagsForMatchingEntity() {
+        assertThat(tagsManager.getTagsForEntity(heart).collect(toList()), contains(tagId));
+        assertThat(tagsManager.getTagsForEntity(lung).collect(toList()), is(empty()));
+    }
+
+    @Test
+    public void shouldGetTaggedEntities() {
+        assertThat(tagsManager.getTaggedEntities(tagId).collect(toList()), contains(heart));
+    }
+
+    @Test
+    public void shouldGetTagsForEntities() {
+        var tags = tagsManager.getTagsForEntities(List.of(heart, lung));
+        assertThat(tags.get(heart), contains(tagId));
+        assertThat(tags.get(lung), is(empty()));
+    }
+
+    @Test
+    public void shouldNotReevaluateCriteriaOnLookup() {
+        tagsManager.getTagsForEntity(heart);
+        var evaluationsAfterBuild = evaluations.get();
+        tagsManager.getTagsForEntity(heart);
+        tagsManager.getTagsForEntity(lung);
+        tagsManager.getTaggedEntities(tagId);
+        assertThat(evaluations.get(), is(evaluationsAfterBuild));
+    }
+
+    @Test
+    public void shouldOnlyReevaluateAffectedEntitiesOnChange() {
+        tagsManager.getTagsForEntity(heart);
+        var evaluationsAfterBuild = evaluations.get();
+        matchingEntities.add(lung);
+        var changes = applyAxiom(dataFactory.getOWLDeclarationAxiom(lung));
+        tagsManager.handleChanges(changes);
+        assertThat(evaluations.get(), is(evaluationsAfterBuild + 1));
+        assertThat(tagsManager.getTagsForEntity(lung).collect(toList()), contains(tagId));
+        assertThat(tagsManager.getTaggedEntities(tagId).collect(toList()), containsInAnyOrder(heart, lung));
+    }
+
+    @Test
+    public void shouldRemoveTagsFromEntitiesThatNoLongerMatch() {
+        tagsManager.getTagsForEntity(heart);
+        matchingEntities.remove(heart);
+        var changes = applyAxiom(dataFactory.getOWLDeclarationAxiom(heart));
+        tagsManager.handleChanges(changes);
+        assertThat(tagsManager.getTagsForEntity(heart).collect(toList()), is(empty()));
+        assertThat(tagsManager.getTaggedEntities(tagId).collect(toList()), is(empty()));
+    }
+
+    @Test
+    public void shouldReevaluateDescendantsOfMovedClasses() {
+        tagsManager.getTagsForEntity(heart);
+        var anatomicalEntity = dataFactory.getOWLClass(IRI.create("http://example.org/AnatomicalEntity"));
+        var material = dataFactory.getOWLClass(IRI.create("http://example.org/Material"));
+        when(classHierarchyProvider.getDescendants(anatomicalEntity)).thenReturn(new HashSet<>(Set.of(lung)));
+        matchingEntities.add(lung);
+        var changes = applyAxiom(dataFactory.getOWLSubClassOfAxiom(anatomicalEntity, material));
+        tagsManager.handleChanges(changes);
+        assertThat(tagsManager.getTagsForEntity(lung).collect(toList()), contains(tagId));
+        verify(classHierarchyProvider, never()).getDescendants(material);
+    }
+
+    @Test
+    public void shouldReevaluateDescendantsOfEquivalentClasses() {
+        tagsManager.getTagsForEntity(heart);
+        var anatomicalEntity = dataFactory.getOWLClass(IRI.create("http://example.org/AnatomicalEntity"));
+        var bodyPart = dataFactory.getOWLClass(IRI.create("http://example.org/BodyPart"));
+        when(classHierarchyProvider.getDescendants(anatomicalEntity)).thenReturn(new HashSet<>(Set.of(lung)));
+        matchingEntities.add(lung);
+        var changes = applyAxiom(dataFactory.getOWLEquivalentClassesAxiom(anatomicalEntity, bodyPart));
+        tagsManager.handleChanges(changes);
+        assertThat(tagsManager.getTagsForEntity(lung).collect(toList()), contains(tagId));
+    }
+
+    @Test
+    public void shouldReevaluateInstancesOfMovedClasses() {
+        var individual = dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/i"));
+        manager.addAxiom(ontology, dataFactory.getOWLClassAssertionAxiom(lung, individual));
+        tagsManager.getTagsForEntity(heart);
+        matchingEntities.add(individual);
+        var changes = applyAxiom(dataFactory.getOWLSubClassOfAxiom(lung, heart));
+        tagsManager.handleChanges(changes);
+        assertThat(tagsManager.getTagsForEntity(individual).collect(toList()), contains(tagId));
+    }
+
+    @Test
+    public void shouldNotExpandClassesForChangesThatDoNotMoveThem() {
+        tagsManager.getTagsForEntity(heart);
+        var changes = applyAxiom(dataFactory.getOWLDisjointClassesAxiom(heart, lung));
+        tagsManager.handleChanges(changes);
+        verify(classHierarchyProvider, never()).getDescendants(any(OWLClass.class));
+    }
+
+    @Test
+    public void shouldOnlyReevaluateAssertedIndividualForClassAssertion() {
+        var first = dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/first"));
+        var second = dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/second"));
+        manager.addAxiom(ontology, dataFactory.getOWLClassAssertionAxiom(heart, first));
+        tagsManager.getTagsForEntity(heart);
+        var evaluationsAfterBuild = evaluations.get();
+        var changes = applyAxiom(dataFactory.getOWLClassAssertionAxiom(heart, second));
+        tagsManager.handleChanges(changes);
+        // Heart and the second individual, but not the first individual
+        assertThat(evaluations.get(), is(evaluationsAfterBuild + 2));
+        verify(classHierarchyProvider, never()).getDescendants(any(OWLClass.class));
+    }
+
+    @Test
+    public void shouldNotComputeAffectedEntitiesIfThereAreNoCriteria() {
+        when(tagRepository.findTags()).thenReturn(List.of());
+        tagsManager.handleProjectTagsChanged();
+        tagsManager.getTagsForEntity(heart);
+        var changes = applyAxiom(dataFactory.getOWLSubClassOfAxiom(lung, heart));
+        tagsManager.handleChanges(changes);
+        verify(classHierarchyProvider, never()).getDescendants(any(OWLClass.class));
+        assertThat(evaluations.get(), is(0));
+    }
+
+    @Test
+    public void shouldRebuildIndexWhenProjectTagsChange() {
+        tagsManager.getTagsForEntity(heart);
+        var otherTagId = TagId.createTagId();
+        when(tagRepository.findTags()).thenReturn(List.of(createTag(otherTagId)));
+        tagsManager.handleProjectTagsChanged();
+        assertThat(tagsManager.getTagsForEntity(heart).collect(toList()), contains(otherTagId));
+        assertThat(tagsManager.getTaggedEntities(tagId).collect(toList()), is(empty()));
+    }
+}
@@ -14,6 +14,7 @@ import uk.ac.manchester.cs.owl.owlapi.OWLClassImpl;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static edu.stanford.bmir.protege.web.server.persistence.MongoTestUtils.createMongoClient;
@@ -79,6 +80,19 @@ public class EntityTagsRepositoryImpl_TestCase {
         assertThat(repository.findByTagId(tagIdA), hasItem(entityTags));
     }
 
+    @Test
+    public void shouldFindByEntities() {
+        repository.save(entityTags);
+        OWLEntity otherEntity = new OWLClassImpl(IRI.create("http://stuff.com/entities/B"));
+        OWLEntity untaggedEntity = new OWLClassImpl(IRI.create("http://stuff.com/entities/C"));
+        EntityTags otherEntityTags = new EntityTags(projectId, otherEntity, Arrays.asList(tagIdB));
+        repository.save(otherEntityTags);
+        Map<OWLEntity, EntityTags> tagsByEntity = repository.findByEntities(Arrays.asList(entity, otherEntity, untaggedEntity));
+        assertThat(tagsByEntity.size(), is(2));
+        assertThat(tagsByEntity.get(entity), is(entityTags));
+        assertThat(tagsByEntity.get(otherEntity), is(otherEntityTags));
+    }
+
     @Test
     public void shouldAddTag() {
         repository.save(entityTags);
@@ -0,0 +1,131 @@
+package edu.stanford.bmir.protege.web.server.usage;
+
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class AnnotationAxiomReferenceIndex_TestCase {
+
+    private AnnotationAxiomReferenceIndex index;
+
+    private OWLOntologyManager manager;
+
+    private OWLOntology ontology;
+
+    private OWLDataFactory dataFactory;
+
+    private OWLClass clsA;
+
+    private OWLAnnotationProperty property;
+
+    private OWLAnnotationAssertionAxiom subjectAxiom, valueAxiom;
+
+    private OWLAnnotationPropertyRangeAxiom rangeAxiom;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = OWLManager.createOWLOntologyManager();
+        dataFactory = manager.getOWLDataFactory();
+        ontology = manager.createOntology(IRI.create("http://example.org/ont"));
+        clsA = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+        property = dataFactory.getOWLAnnotationProperty(IRI.create("http://example.org/prop"));
+        var otherIri = IRI.create("http://example.org/other");
+        subjectAxiom = dataFactory.getOWLAnnotationAssertionAxiom(property, clsA.getIRI(), dataFactory.getOWLLiteral("x"));
+        valueAxiom = dataFactory.getOWLAnnotationAssertionAxiom(property, otherIri, clsA.getIRI());
+        rangeAxiom = dataFactory.getOWLAnnotationPropertyRangeAxiom(property, clsA.getIRI());
+        manager.addAxiom(ontology, subjectAxiom);
+        manager.addAxiom(ontology, valueAxiom);
+        manager.addAxiom(ontology, rangeAxiom);
+        index = new AnnotationAxiomReferenceIndex(ProjectId.get(UUID.randomUUID().toString()), ontology);
+    }
+
+    private List<OWLOntologyChange> applyChange(OWLOntologyChange change) {
+        manager.applyChange(change);
+        return List.of(change);
+    }
+
+    @Test
+    public void shouldFindAxiomsReferencingEntityIri() {
+        List<OWLAxiom> axioms = index.getReferencingAxioms(clsA);
+        assertThat(axioms, containsInAnyOrder(subjectAxiom, valueAxiom, rangeAxiom));
+    }
+
+    @Test
+    public void shouldFindAxiomsReferencingAnnotationProperty() {
+        List<OWLAxiom> axioms = index.getReferencingAxioms(property);
+        assertThat(axioms, containsInAnyOrder(subjectAxiom, valueAxiom, rangeAxiom));
+    }
+
+    @Test
+    public void shouldNotFindPropertyPositionReferencesForPunnedEntity() {
+        var punnedClass = dataFactory.getOWLClass(property.getIRI());
+        assertThat(index.getReferencingAxioms(punnedClass), is(empty()));
+    }
+
+    @Test
+    public void shouldIncludeAddedAxioms() {
+        index.getReferencingAxioms(clsA);
+        var domainAxiom = dataFactory.getOWLAnnotationPropertyDomainAxiom(property, clsA.getIRI());
+        index.handleChanges(applyChange(new AddAxiom(ontology, domainAxiom)));
+        assertThat(index.getReferencingAxioms(clsA), hasItem(domainAxiom));
+    }
+
+    @Test
+    public void shouldExcludeRemovedAxioms() {
+        index.getReferencingAxioms(clsA);
+        index.handleChanges(applyChange(new RemoveAxiom(ontology, valueAxiom)));
+        assertThat(index.getReferencingAxioms(clsA), containsInAnyOrder(subjectAxiom, rangeAxiom));
+    }
+
+    @Test
+    public void shouldListAxiomOnceForEachReferencingPosition() {
+        var selfAxiom = dataFactory.getOWLAnnotationAssertionAxiom(property, clsA.getIRI(), clsA.getIRI());
+        index.handleChanges(applyChange(new AddAxiom(ontology, selfAxiom)));
+        List<OWLAxiom> axioms = index.getReferencingAxioms(clsA);
+        assertThat(axioms.stream().filter(selfAxiom::equals).count(), is(2L));
+    }
+
+    @Test
+    public void shouldNotIndexChangesTwiceIfBuiltWhilstChangesAreApplied() throws Exception {
+        var selfAxiom = dataFactory.getOWLAnnotationAssertionAxiom(property, clsA.getIRI(), clsA.getIRI());
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var lookup = new AtomicReference<Future<List<OWLAxiom>>>();
+            index.applyChanges(List.of(new AddAxiom(ontology, selfAxiom)), () -> {
+                manager.addAxiom(ontology, selfAxiom);
+                // Look up, and so build, the index from another thread after the changes have been applied
+                lookup.set(executor.submit(() -> index.getReferencingAxioms(clsA)));
+                try {
+                    lookup.get().get(200, MILLISECONDS);
+                } catch(TimeoutException e) {
+                    // Expected, because the lookup waits until the changes have been handled
+                } catch(InterruptedException | ExecutionException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            var axioms = lookup.get().get();
+            assertThat(axioms.stream().filter(selfAxiom::equals).count(), is(2L));
+            assertThat(index.getReferencingAxioms(clsA).stream().filter(selfAxiom::equals).count(), is(2L));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
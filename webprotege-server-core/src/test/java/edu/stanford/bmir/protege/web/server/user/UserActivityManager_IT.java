@@ -105,5 +105,15 @@ public class UserActivityManager_IT {
                                                                                                timestamp)));
     }
 
+    @Test
+    public void shouldGetRecentProjectsOfAllUsers() {
+        repository.save(record);
+        var otherUserId = UserId.getUserId("Jane Smith");
+        repository.addRecentProject(otherUserId, projectId, RECENT_PROJECT_TIMESTAMP);
+        assertThat(repository.getAllRecentProjects(),
+                   Matchers.containsInAnyOrder(new RecentProjectRecord(projectId, 55L),
+                                               new RecentProjectRecord(projectId, RECENT_PROJECT_TIMESTAMP)));
+    }
+
 
 }
@@ -0,0 +1,91 @@
+package edu.stanford.bmir.protege.web.server.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class TopKSelector_TestCase {
+
+    private TopKSelector<Integer> selector;
+
+    @Before
+    public void setUp() {
+        selector = new TopKSelector<>(3, Comparator.naturalOrder());
+    }
+
+    @Test
+    public void shouldBeEmptyInitially() {
+        assertThat(selector.size(), is(0));
+        assertThat(selector.isFull(), is(false));
+        assertThat(selector.getSortedElements(), is(empty()));
+    }
+
+    @Test
+    public void shouldAcceptElementsUntilFull() {
+        assertThat(selector.offer(5), is(true));
+        assertThat(selector.offer(9), is(true));
+        assertThat(selector.offer(7), is(true));
+        assertThat(selector.isFull(), is(true));
+        assertThat(selector.getSortedElements(), contains(5, 7, 9));
+    }
+
+    @Test
+    public void shouldRejectElementsWorseThanTheWorstWhenFull() {
+        selector.offer(5);
+        selector.offer(9);
+        selector.offer(7);
+        assertThat(selector.offer(10), is(false));
+        assertThat(selector.offer(9), is(false));
+        assertThat(selector.getSortedElements(), contains(5, 7, 9));
+    }
+
+    @Test
+    public void shouldReplaceTheWorstElementWhenFull() {
+        selector.offer(5);
+        selector.offer(9);
+        selector.offer(7);
+        assertThat(selector.offer(1), is(true));
+        assertThat(selector.getWorst().orElseThrow(), is(7));
+        assertThat(selector.getSortedElements(), contains(1, 5, 7));
+    }
+
+    @Test
+    public void shouldNotAcceptElementsIfKIsZero() {
+        var emptySelector = new TopKSelector<Integer>(0, Comparator.naturalOrder());
+        assertThat(emptySelector.offer(1), is(false));
+        assertThat(emptySelector.getSortedElements(), is(empty()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowIllegalArgumentExceptionIfKIsNegative() {
+        new TopKSelector<Integer>(-1, Comparator.naturalOrder());
+    }
+
+    @Test
+    public void shouldSelectSameElementsAsSortingAndLimiting() {
+        var random = new Random(7);
+        var elements = new ArrayList<Integer>();
+        for(int i = 0; i < 10_000; i++) {
+            elements.add(random.nextInt(1_000));
+        }
+        var topSelector = new TopKSelector<Integer>(50, Comparator.naturalOrder());
+        elements.forEach(topSelector::offer);
+        List<Integer> expected = elements.stream()
+                                         .sorted()
+                                         .limit(50)
+                                         .collect(Collectors.toList());
+        assertThat(topSelector.getSortedElements(), is(expected));
+    }
+}
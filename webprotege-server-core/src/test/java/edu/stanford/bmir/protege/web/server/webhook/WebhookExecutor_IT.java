@@ -0,0 +1,198 @@
+package edu.stanford.bmir.protege.web.server.webhook;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.apache.http.entity.ContentType.APPLICATION_JSON;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-17
+ *
+ * Delivers webhook payloads to a local stub HTTP server.
+ */
+public class WebhookExecutor_IT {
+
+    private static final long TIMEOUT_MILLIS = 500;
+
+    private static final long AWAIT_MILLIS = 10000;
+
+    private HttpServer server;
+
+    private ExecutorService serverExecutor;
+
+    private WebhookExecutor webhookExecutor;
+
+    private final List<String> receivedPayloads = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch releaseSlowEndpoint = new CountDownLatch(1);
+
+    private final AtomicInteger failingEndpointRequestCount = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/ok", respondWith(200));
+        server.createContext("/slow", exchange -> {
+            try {
+                releaseSlowEndpoint.await(AWAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respondWith(200).handle(exchange);
+        });
+        server.createContext("/failing", exchange -> {
+            // Fails twice and then succeeds
+            int status = failingEndpointRequestCount.incrementAndGet() <= 2 ? 503 : 200;
+            respondWith(status).handle(exchange);
+        });
+        server.createContext("/not-found", respondWith(404));
+        server.start();
+        webhookExecutor = new WebhookExecutor(WebhookExecutorSettings.get(1, 100, TIMEOUT_MILLIS, 3, 10));
+    }
+
+    @After
+    public void tearDown() {
+        releaseSlowEndpoint.countDown();
+        webhookExecutor.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private HttpHandler respondWith(int status) {
+        return exchange -> {
+            receivedPayloads.add(exchange.getRequestURI().getPath() + " " + readBody(exchange));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        };
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try(InputStream inputStream = exchange.getRequestBody()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private String url(String path) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+    }
+
+    private void submit(String path, String payload) {
+        webhookExecutor.submit(new WebhookInvocation(UUID.randomUUID().toString(),
+                                                     url(path),
+                                                     payload,
+                                                     APPLICATION_JSON));
+    }
+
+    private void submitCoalesced(String path, String payload, String coalescingKey) {
+        webhookExecutor.submit(new WebhookInvocation(UUID.randomUUID().toString(),
+                                                     url(path),
+                                                     payload,
+                                                     APPLICATION_JSON,
+                                                     coalescingKey));
+    }
+
+    private WebhookExecutorMetrics awaitMetrics(Predicate<WebhookExecutorMetrics> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        WebhookExecutorMetrics metrics = webhookExecutor.getMetrics();
+        while(!condition.test(metrics) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            metrics = webhookExecutor.getMetrics();
+        }
+        return metrics;
+    }
+
+    @Test
+    public void shouldDeliverPayloadsInOrder() throws Exception {
+        submit("/ok", "A");
+        submit("/ok", "B");
+        submit("/ok", "C");
+        WebhookExecutorMetrics metrics = awaitMetrics(m -> m.getDeliveredCount() == 3);
+        assertThat(metrics.getDeliveredCount(), is(3L));
+        assertThat(receivedPayloads, contains("/ok A", "/ok B", "/ok C"));
+        assertThat(metrics.getMaxDeliveryLatencyMillis(), is(greaterThanOrEqualTo(metrics.getLastDeliveryLatencyMillis())));
+        assertThat(metrics.getQueuedCount(), is(0));
+        assertThat(metrics.getInFlightCount(), is(0));
+    }
+
+    @Test
+    public void shouldRetryServerErrors() throws Exception {
+        submit("/failing", "A");
+        WebhookExecutorMetrics metrics = awaitMetrics(m -> m.getDeliveredCount() == 1);
+        assertThat(metrics.getDeliveredCount(), is(1L));
+        assertThat(metrics.getRetryCount(), is(2L));
+        assertThat(failingEndpointRequestCount.get(), is(3));
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() throws Exception {
+        submit("/not-found", "A");
+        WebhookExecutorMetrics metrics = awaitMetrics(m -> m.getFailedCount() == 1);
+        assertThat(metrics.getFailedCount(), is(1L));
+        assertThat(metrics.getRetryCount(), is(0L));
+    }
+
+    @Test
+    public void shouldNotDelayOtherEndpointsBehindSlowEndpoint() throws Exception {
+        submit("/slow", "A");
+        submit("/ok", "B");
+        WebhookExecutorMetrics metrics = awaitMetrics(m -> m.getDeliveredCount() == 1);
+        assertThat(metrics.getDeliveredCount(), is(1L));
+        assertThat(receivedPayloads, contains("/ok B"));
+    }
+
+    @Test
+    public void shouldGiveUpOnEndpointThatTimesOut() throws Exception {
+        submit("/slow", "A");
+        WebhookExecutorMetrics metrics = awaitMetrics(m -> m.getFailedCount() == 1);
+        assertThat(metrics.getFailedCount(), is(1L));
+        assertThat(metrics.getRetryCount(), is(2L));
+    }
+
+    @Test
+    public void shouldCoalesceQueuedPayloadsWithSameKey() throws Exception {
+        submit("/slow", "A");
+        submitCoalesced("/slow", "B", "K");
+        submitCoalesced("/slow", "C", "K");
+        submitCoalesced("/slow", "D", "L");
+        assertThat(webhookExecutor.getMetrics().getCoalescedCount(), is(1L));
+        assertThat(webhookExecutor.getMetrics().getQueuedCount(), is(2));
+        releaseSlowEndpoint.countDown();
+        // The first payload may have timed out and been retried while the endpoint was slow
+        awaitMetrics(m -> m.getQueuedCount() == 0 && m.getInFlightCount() == 0);
+        assertThat(receivedPayloads, hasItems("/slow C", "/slow D"));
+        assertThat(receivedPayloads, not(hasItem("/slow B")));
+    }
+
+    @Test
+    public void shouldDropPayloadsWhenQueueIsFull() throws Exception {
+        webhookExecutor.shutdown();
+        webhookExecutor = new WebhookExecutor(WebhookExecutorSettings.get(1, 1, AWAIT_MILLIS, 1, 10));
+        submit("/slow", "A");
+        submit("/slow", "B");
+        submit("/slow", "C");
+        WebhookExecutorMetrics metrics = webhookExecutor.getMetrics();
+        assertThat(metrics.getInFlightCount(), is(1));
+        assertThat(metrics.getQueuedCount(), is(1));
+        assertThat(metrics.getDroppedCount(), is(1L));
+    }
+}
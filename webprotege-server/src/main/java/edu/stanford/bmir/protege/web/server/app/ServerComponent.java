@@ -5,10 +5,12 @@ import edu.stanford.bmir.protege.web.server.access.AccessManager;
 import edu.stanford.bmir.protege.web.server.api.ApiModule;
 import edu.stanford.bmir.protege.web.server.dispatch.DispatchServlet;
 import edu.stanford.bmir.protege.web.server.download.ProjectDownloadServlet;
+import edu.stanford.bmir.protege.web.server.events.ProjectEventsServlet;
 import edu.stanford.bmir.protege.web.server.inject.*;
 import edu.stanford.bmir.protege.web.server.inject.project.ProjectModule;
 import edu.stanford.bmir.protege.web.server.project.ProjectCacheManager;
 import edu.stanford.bmir.protege.web.server.project.ProjectDisposablesManager;
+import edu.stanford.bmir.protege.web.server.project.ProjectWarmUpService;
 import edu.stanford.bmir.protege.web.server.upload.FileUploadServlet;
 import edu.stanford.bmir.protege.web.server.user.UserDetailsManager;
 import edu.stanford.bmir.protege.web.server.util.DisposableObjectManager;
@@ -51,6 +53,8 @@ public interface ServerComponent {
 
     DispatchServlet getDispatchServlet();
 
+    ProjectEventsServlet getProjectEventsServlet();
+
     WebProtegeSessionListener getSessionListener();
 
     WebProtegeConfigurationChecker getWebProtegeConfigurationChecker();
@@ -61,4 +65,6 @@ public interface ServerComponent {
 
     ProjectCacheManager getProjectCacheManager();
 
+    ProjectWarmUpService getProjectWarmUpService();
+
 }
@@ -43,12 +43,18 @@ public class WebProtegeServletContextListener implements ServletContextListener
             servletContext.addServlet("FileUploadServlet", serverComponent.getFileUploadServlet())
                           .addMapping("/webprotege/submitfile");
 
+            var projectEventsServlet = servletContext.addServlet("ProjectEventsServlet",
+                                                                 serverComponent.getProjectEventsServlet());
+            projectEventsServlet.setAsyncSupported(true);
+            projectEventsServlet.addMapping("/webprotege/events");
+
             servletContext.addServlet("JerseyContainerServlet", serverComponent.getJerseyServletContainer())
                           .addMapping("/data/*");
 
             servletContext.addListener(serverComponent.getSessionListener());
             serverComponent.getWebProtegeConfigurationChecker().performConfiguration();
             serverComponent.getProjectCacheManager().start();
+            serverComponent.getProjectWarmUpService().start();
 
             Runtime runtime = Runtime.getRuntime();
             logger.info("Max  Memory: {} MB", (runtime.maxMemory() / (1024 * 1024)));
@@ -0,0 +1,190 @@
+package edu.stanford.bmir.protege.web.server.events;
+
+import edu.stanford.bmir.protege.web.server.access.AccessManager;
+import edu.stanford.bmir.protege.web.server.access.ProjectResource;
+import edu.stanford.bmir.protege.web.server.access.Subject;
+import edu.stanford.bmir.protege.web.server.project.Project;
+import edu.stanford.bmir.protege.web.server.project.ProjectManager;
+import edu.stanford.bmir.protege.web.server.session.WebProtegeSession;
+import edu.stanford.bmir.protege.web.server.session.WebProtegeSessionImpl;
+import edu.stanford.bmir.protege.web.shared.access.BuiltInAction;
+import edu.stanford.bmir.protege.web.shared.event.EventTag;
+import edu.stanford.bmir.protege.web.shared.inject.ApplicationSingleton;
+import edu.stanford.bmir.protege.web.shared.project.ProjectId;
+import edu.stanford.bmir.protege.web.shared.project.ProjectIdFormatException;
+import edu.stanford.bmir.protege.web.shared.user.UserId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * A long-poll endpoint that lets clients wait for project events to be posted.  A request specifies a project
+ * (with the {@code projectId} parameter) and the tag from which events are wanted (with the {@code since}
+ * parameter).  The request is parked, without holding a container thread, until events with a tag greater or equal
+ * to the specified tag have been posted, at which point the response is the ordinal of the current event tag.
+ * The events themselves are then retrieved with a {@link edu.stanford.bmir.protege.web.shared.event.GetProjectEventsAction}.
+ * If no events are posted within the long-poll timeout, or the project is not active, the response has no content.
+ */
+@ApplicationSingleton
+public class ProjectEventsServlet extends HttpServlet {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectEventsServlet.class);
+
+    public static final String PROJECT_ID_PARAMETER = "projectId";
+
+    public static final String SINCE_PARAMETER = "since";
+
+    private static final long LONG_POLL_TIMEOUT_MS = 25_000;
+
+    /**
+     * A margin that allows the long-poll timeout to fire before the container times out the request
+     */
+    private static final long ASYNC_TIMEOUT_MARGIN_MS = 5_000;
+
+    @Nonnull
+    private final AccessManager accessManager;
+
+    @Nonnull
+    private final ProjectManager projectManager;
+
+    @Inject
+    public ProjectEventsServlet(@Nonnull AccessManager accessManager,
+                                @Nonnull ProjectManager projectManager) {
+        this.accessManager = checkNotNull(accessManager);
+        this.projectManager = checkNotNull(projectManager);
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        WebProtegeSession webProtegeSession = new WebProtegeSessionImpl(req.getSession());
+        UserId userId = webProtegeSession.getUserInSession();
+        ProjectId projectId = parseProjectId(req.getParameter(PROJECT_ID_PARAMETER));
+        EventTag sinceTag = parseEventTag(req.getParameter(SINCE_PARAMETER));
+        if(projectId == null || sinceTag == null) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if(!accessManager.hasPermission(Subject.forUser(userId),
+                                        new ProjectResource(projectId),
+                                        BuiltInAction.VIEW_PROJECT)) {
+            resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        Optional<Project> project = projectManager.getProjectIfActive(projectId);
+        if(!project.isPresent()) {
+            resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+        CompletableFuture<EventTag> events = project.get()
+                                                    .getEventManager()
+                                                    .awaitEventsFromTag(sinceTag);
+        if(events.isDone()) {
+            writeResponse(resp, events);
+            return;
+        }
+        AsyncContext asyncContext = req.startAsync();
+        asyncContext.setTimeout(LONG_POLL_TIMEOUT_MS + ASYNC_TIMEOUT_MARGIN_MS);
+        AtomicBoolean responded = new AtomicBoolean();
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                events.cancel(false);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                events.cancel(false);
+                if(responded.compareAndSet(false, true)) {
+                    ((HttpServletResponse) event.getAsyncContext().getResponse()).setStatus(HttpServletResponse.SC_NO_CONTENT);
+                    event.getAsyncContext().complete();
+                }
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                events.cancel(false);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        events.orTimeout(LONG_POLL_TIMEOUT_MS, MILLISECONDS)
+              .whenComplete((tag, error) -> {
+                  if(responded.get()) {
+                      // The request has already been completed by the container
+                      return;
+                  }
+                  // Don't write the response on the thread that posted the events
+                  asyncContext.start(() -> {
+                      if(!responded.compareAndSet(false, true)) {
+                          return;
+                      }
+                      try {
+                          writeResponse((HttpServletResponse) asyncContext.getResponse(), events);
+                      } catch(IOException e) {
+                          logger.debug("Could not write project events response: {}", e.getMessage());
+                      } finally {
+                          asyncContext.complete();
+                      }
+                  });
+              });
+    }
+
+    private static void writeResponse(@Nonnull HttpServletResponse resp,
+                                      @Nonnull CompletableFuture<EventTag> events) throws IOException {
+        EventTag currentTag = events.isCompletedExceptionally() ? null : events.getNow(null);
+        if(currentTag == null) {
+            // Timed out or cancelled
+            resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("text/plain");
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.getWriter().print(currentTag.getOrdinal());
+    }
+
+    @Nullable
+    private static ProjectId parseProjectId(@Nullable String projectId) {
+        if(projectId == null) {
+            return null;
+        }
+        try {
+            return ProjectId.get(projectId);
+        } catch(ProjectIdFormatException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static EventTag parseEventTag(@Nullable String since) {
+        if(since == null) {
+            return null;
+        }
+        try {
+            return EventTag.get(Integer.parseInt(since));
+        } catch(NumberFormatException e) {
+            return null;
+        }
+    }
+}
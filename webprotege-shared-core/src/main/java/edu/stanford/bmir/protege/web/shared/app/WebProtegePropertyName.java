@@ -36,7 +36,73 @@ public enum WebProtegePropertyName {
     MONGO_DB_HOST("mongodb.host", PropertyValue.ofString("localhost")),
 
     @WebProtegePropertiesDocumentation(description = "The port number of the mongodb server", example = "27017")
-    MONGO_DB_PORT("mongodb.port", PropertyValue.ofInteger(27017));
+    MONGO_DB_PORT("mongodb.port", PropertyValue.ofInteger(27017)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of revisions after which a snapshot of a project's ontologies is written next to its change history", example = "1000")
+    REVISION_SNAPSHOT_INTERVAL("revision.snapshot.interval", PropertyValue.ofInteger(1000)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of bytes of change history after which a snapshot of a project's ontologies is written next to its change history", example = "33554432")
+    REVISION_SNAPSHOT_BYTES("revision.snapshot.bytes", PropertyValue.ofInteger(32 * 1024 * 1024)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of the most recent snapshots of a project's ontologies that are kept.  Older snapshots are deleted", example = "2")
+    REVISION_SNAPSHOT_RETAINED("revision.snapshot.retained", PropertyValue.ofInteger(2)),
+
+    @WebProtegePropertiesDocumentation(description = "Whether the change records of revisions are decoded on demand from the change history rather than being held in memory", example = "false")
+    REVISION_STORE_LAZY_LOADING("revision.store.lazy", PropertyValue.ofBoolean(false)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of decoded revisions that are cached per project when revisions are decoded on demand", example = "256")
+    REVISION_STORE_CACHE_SIZE("revision.store.cache.size", PropertyValue.ofInteger(256)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum time, in milliseconds, that a revision waits to be grouped with other revisions before the group is written to the change history", example = "10")
+    REVISION_WRITER_MAX_LATENCY("revision.writer.maxLatency", PropertyValue.ofInteger(10)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of revisions that are written to the change history in one group", example = "256")
+    REVISION_WRITER_MAX_BATCH_SIZE("revision.writer.maxBatchSize", PropertyValue.ofInteger(256)),
+
+    @WebProtegePropertiesDocumentation(description = "Whether changes wait for their revision to be written to disk before they complete", example = "false")
+    REVISION_WRITER_AWAIT_DURABILITY("revision.writer.awaitDurability", PropertyValue.ofBoolean(false)),
+
+    @WebProtegePropertiesDocumentation(description = "The time, in milliseconds, after the last access of a loaded project after which the project is evicted from memory", example = "180000")
+    PROJECT_CACHE_IDLE_TIMEOUT("project.cache.idleTimeout", PropertyValue.ofInteger(3 * 60 * 1000)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of projects that are kept loaded in memory.  Zero means no limit", example = "0")
+    PROJECT_CACHE_MAX_PROJECTS("project.cache.maxProjects", PropertyValue.ofInteger(0)),
+
+    @WebProtegePropertiesDocumentation(description = "The estimated heap, in megabytes, that loaded projects may occupy before the least recently used projects are evicted.  Zero means no limit", example = "0")
+    PROJECT_CACHE_HEAP_BUDGET_MB("project.cache.heapBudgetMb", PropertyValue.ofInteger(0)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum time, in milliseconds, that a request to load a project waits for the project to be loaded before the client is told that the project is still loading", example = "2000")
+    PROJECT_CACHE_LOAD_WAIT("project.cache.loadWait", PropertyValue.ofInteger(2000)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of recently used projects that are loaded in the background when the server starts.  Zero disables warm-up", example = "10")
+    PROJECT_WARM_UP_MAX_PROJECTS("project.warmUp.maxProjects", PropertyValue.ofInteger(0)),
+
+    @WebProtegePropertiesDocumentation(description = "The number of projects that are loaded concurrently when the server starts.  This is capped at one less than the number of project loading threads", example = "2")
+    PROJECT_WARM_UP_THREADS("project.warmUp.threads", PropertyValue.ofInteger(2)),
+
+    @WebProtegePropertiesDocumentation(description = "The time, in milliseconds, that projects that are loaded when the server starts are kept loaded even if they are not accessed", example = "3600000")
+    PROJECT_WARM_UP_RETAIN_TIME("project.warmUp.retainTime", PropertyValue.ofInteger(60 * 60 * 1000)),
+
+    @WebProtegePropertiesDocumentation(description = "Whether read actions hold the project read lock, so that they only see the state of a project as of its last committed revision.  Reads wait for changes to be published and publication waits for reads", example = "false")
+    PROJECT_LOCKED_READS("project.lockedReads", PropertyValue.ofBoolean(false)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of webhook payloads that are concurrently being delivered to one payload URL", example = "1")
+    WEBHOOK_MAX_IN_FLIGHT("webhook.maxInFlight", PropertyValue.ofInteger(1)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of webhook payloads that wait to be delivered to one payload URL.  Further payloads are dropped", example = "1000")
+    WEBHOOK_MAX_QUEUED("webhook.maxQueued", PropertyValue.ofInteger(1000)),
+
+    @WebProtegePropertiesDocumentation(description = "The time, in milliseconds, after which connecting to a webhook payload URL, or waiting for its response, fails", example = "10000")
+    WEBHOOK_TIMEOUT("webhook.timeout", PropertyValue.ofInteger(10000)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of attempts that are made to deliver a webhook payload", example = "5")
+    WEBHOOK_MAX_ATTEMPTS("webhook.maxAttempts", PropertyValue.ofInteger(5)),
+
+    @WebProtegePropertiesDocumentation(description = "The delay, in milliseconds, before the first retry of a failed webhook delivery.  The delay doubles for each subsequent retry", example = "1000")
+    WEBHOOK_RETRY_DELAY("webhook.retryDelay", PropertyValue.ofInteger(1000)),
+
+    @WebProtegePropertiesDocumentation(description = "The maximum number of results of read-only project actions that are cached on the server.  A value of 0 disables the cache", example = "10000")
+    DISPATCH_RESULT_CACHE_MAX_SIZE("dispatch.resultCache.maxSize", PropertyValue.ofInteger(10000));
 
     private static class PropertyValue {
 
@@ -37,7 +37,7 @@ public class GetClassFrameAction implements ProjectAction<GetClassFrameResult>,
 
     @Override
     public int hashCode() {
-        return "GetClassFrameAction".hashCode() + super.hashCode();
+        return "GetClassFrameAction".hashCode() + projectId.hashCode() + subject.hashCode();
     }
 
     /**
@@ -55,7 +55,7 @@ public class GetNamedIndividualFrameAction implements ProjectAction<GetNamedIndi
 
     @Override
     public int hashCode() {
-        return "GetNamedIndividualFrameAction".hashCode() + super.hashCode();
+        return "GetNamedIndividualFrameAction".hashCode() + projectId.hashCode() + subject.hashCode();
     }
 
     @Override
@@ -67,6 +67,6 @@ public class GetNamedIndividualFrameAction implements ProjectAction<GetNamedIndi
             return false;
         }
         GetNamedIndividualFrameAction other = (GetNamedIndividualFrameAction) obj;
-        return super.equals(other);
+        return this.projectId.equals(other.projectId) && this.subject.equals(other.subject);
     }
 }
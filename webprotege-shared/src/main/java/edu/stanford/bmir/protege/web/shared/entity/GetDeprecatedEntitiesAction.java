@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.shared.entity;
 
+import com.google.common.base.Objects;
 import edu.stanford.bmir.protege.web.shared.annotations.GwtSerializationConstructor;
 import edu.stanford.bmir.protege.web.shared.dispatch.ProjectAction;
 import edu.stanford.bmir.protege.web.shared.pagination.PageRequest;
@@ -51,4 +52,23 @@ public class GetDeprecatedEntitiesAction implements ProjectAction<GetDeprecatedE
     public Set<EntityType<?>> getEntityTypes() {
         return new HashSet<>(entityTypes);
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(projectId, pageRequest, entityTypes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof GetDeprecatedEntitiesAction)) {
+            return false;
+        }
+        GetDeprecatedEntitiesAction other = (GetDeprecatedEntitiesAction) obj;
+        return this.projectId.equals(other.projectId)
+                && this.pageRequest.equals(other.pageRequest)
+                && this.entityTypes.equals(other.entityTypes);
+    }
 }
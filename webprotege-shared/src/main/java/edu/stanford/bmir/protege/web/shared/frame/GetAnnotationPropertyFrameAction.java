@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.shared.frame;
 
+import com.google.common.base.Objects;
 import edu.stanford.bmir.protege.web.shared.dispatch.ProjectAction;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
@@ -34,4 +35,22 @@ public class GetAnnotationPropertyFrameAction implements ProjectAction<GetAnnota
     public ProjectId getProjectId() {
         return projectId;
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(projectId, subject);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof GetAnnotationPropertyFrameAction)) {
+            return false;
+        }
+        GetAnnotationPropertyFrameAction other = (GetAnnotationPropertyFrameAction) obj;
+        return this.projectId.equals(other.projectId)
+                && this.subject.equals(other.subject);
+    }
 }
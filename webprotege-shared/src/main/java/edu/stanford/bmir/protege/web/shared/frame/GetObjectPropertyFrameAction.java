@@ -1,5 +1,6 @@
 package edu.stanford.bmir.protege.web.shared.frame;
 
+import com.google.common.base.Objects;
 import edu.stanford.bmir.protege.web.shared.HasSubject;
 import edu.stanford.bmir.protege.web.shared.dispatch.ProjectAction;
 import edu.stanford.bmir.protege.web.shared.project.ProjectId;
@@ -39,4 +40,22 @@ public class GetObjectPropertyFrameAction implements ProjectAction<GetObjectProp
     public OWLObjectProperty getSubject() {
         return subject;
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(projectId, subject);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof GetObjectPropertyFrameAction)) {
+            return false;
+        }
+        GetObjectPropertyFrameAction other = (GetObjectPropertyFrameAction) obj;
+        return this.projectId.equals(other.projectId)
+                && this.subject.equals(other.subject);
+    }
 }
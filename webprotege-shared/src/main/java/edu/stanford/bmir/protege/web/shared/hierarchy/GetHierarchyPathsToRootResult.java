@@ -6,25 +6,134 @@ import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
 import edu.stanford.protege.gwt.graphtree.shared.Path;
 import edu.stanford.protege.gwt.graphtree.shared.graph.GraphNode;
 
+import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static edu.stanford.protege.gwt.graphtree.shared.PathCollector.toPath;
 
 /**
  * Matthew Horridge Stanford Center for Biomedical Informatics Research 28 Nov 2017
+ *
+ * The paths to the root of a hierarchy are represented by the sub-graph of ancestors of the target node.  The
+ * number of paths in this graph can be exponential in the number of nodes, so paths are only expanded, up to a
+ * limit, when they are requested.
  */
 public class GetHierarchyPathsToRootResult implements Result {
 
-    private Collection<Path<GraphNode<EntityNode>>> paths;
+    /**
+     * The maximum number of paths that are expanded from the ancestor graph
+     */
+    public static final int MAX_PATHS = 1000;
+
+    private static final int[] NO_PARENTS = new int[0];
+
+    /**
+     * The nodes in the ancestor graph.  The first node is the target node.
+     */
+    private ArrayList<GraphNode<EntityNode>> nodes;
+
+    /**
+     * For each node, the indexes of its direct parents in the nodes list.  Roots do not have any parents.
+     */
+    private ArrayList<int[]> parentIndexes;
 
-    public GetHierarchyPathsToRootResult(Collection<Path<GraphNode<EntityNode>>> paths) {
-        this.paths = new ArrayList<>(paths);
+    /**
+     * Creates a result from the ancestor graph of the target node.
+     * @param nodes The nodes in the graph.  If the graph is not empty then the first node must be the target node.
+     * @param parentIndexes For each node, the indexes of the direct parents of the node.
+     */
+    public GetHierarchyPathsToRootResult(@Nonnull List<GraphNode<EntityNode>> nodes,
+                                         @Nonnull List<int[]> parentIndexes) {
+        checkArgument(nodes.size() == parentIndexes.size(), "Each node must have parent indexes");
+        this.nodes = new ArrayList<>(checkNotNull(nodes));
+        this.parentIndexes = new ArrayList<>(parentIndexes);
     }
 
     @GwtSerializationConstructor
     private GetHierarchyPathsToRootResult() {
     }
 
+    public static GetHierarchyPathsToRootResult empty() {
+        return new GetHierarchyPathsToRootResult(Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Gets the nodes in the ancestor graph.  The first node is the target node.
+     */
+    @Nonnull
+    public List<GraphNode<EntityNode>> getNodes() {
+        return new ArrayList<>(nodes);
+    }
+
+    /**
+     * Gets the indexes of the direct parents of the node at the specified index.
+     */
+    @Nonnull
+    public int[] getParentIndexes(int nodeIndex) {
+        int[] parents = parentIndexes.get(nodeIndex);
+        return parents == null ? NO_PARENTS : Arrays.copyOf(parents, parents.length);
+    }
+
+    /**
+     * Gets the direct parents of the target node.  These are read from the ancestor graph, so, unlike the
+     * predecessors of the expanded paths, they are complete even if the number of paths exceeds {@link #MAX_PATHS}.
+     */
+    @Nonnull
+    public List<GraphNode<EntityNode>> getDirectParents() {
+        if(nodes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int[] parents = getParentIndexes(0);
+        List<GraphNode<EntityNode>> result = new ArrayList<>(parents.length);
+        for(int parent : parents) {
+            result.add(nodes.get(parent));
+        }
+        return result;
+    }
+
+    /**
+     * Expands the paths to the root from the ancestor graph.  At most {@link #MAX_PATHS} paths are expanded.
+     * @return The paths.  Each path starts at a root and ends at the target node.
+     */
     public Collection<Path<GraphNode<EntityNode>>> getPaths() {
-        return new ArrayList<>(paths);
+        return getPaths(MAX_PATHS);
+    }
+
+    /**
+     * Expands the paths to the root from the ancestor graph.
+     * @param maxPaths The maximum number of paths to expand.
+     * @return The paths.  Each path starts at a root and ends at the target node.
+     */
+    public Collection<Path<GraphNode<EntityNode>>> getPaths(int maxPaths) {
+        if(nodes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        PathToRootIterator<Integer> iterator = new PathToRootIterator<>(0, this::getParentIndexList);
+        List<Path<GraphNode<EntityNode>>> paths = new ArrayList<>();
+        while(paths.size() < maxPaths && iterator.hasNext()) {
+            List<Integer> path = iterator.next();
+            paths.add(path.stream()
+                          .map(nodes::get)
+                          .collect(toPath()));
+        }
+        return paths;
+    }
+
+    private List<Integer> getParentIndexList(Integer nodeIndex) {
+        int[] parents = parentIndexes.get(nodeIndex);
+        if(parents == null || parents.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Integer> result = new ArrayList<>(parents.length);
+        for(int parent : parents) {
+            result.add(parent);
+        }
+        return result;
     }
 }
@@ -0,0 +1,133 @@
+package edu.stanford.bmir.protege.web.shared.hierarchy;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * agent
+ * 2026-10-16
+ *
+ * Lazily enumerates the paths from the roots of a hierarchy to a node, using a depth first traversal of the
+ * parents of the node.  Unless a root predicate is specified, a root is a node that has no parents.  Each path
+ * starts with a root and ends with the node.  Only one path is held in memory at a time, so callers that need a bounded number of paths from a
+ * hierarchy with many paths (for example, a hierarchy with repeated diamonds) can stop iterating once they
+ * have enough.  Nodes that would form a cycle on the current path are skipped.
+ */
+public class PathToRootIterator<N> implements Iterator<List<N>> {
+
+    @Nonnull
+    private final Function<N, ? extends Collection<N>> parentsFunction;
+
+    @Nullable
+    private final Predicate<N> rootPredicate;
+
+    /**
+     * The nodes on the current path, ordered from the start node to the current node
+     */
+    private final List<N> path = new ArrayList<>();
+
+    /**
+     * The remaining parents to explore for each node on the current path.  The entry for a root is null.
+     */
+    private final List<Iterator<N>> remainingParents = new ArrayList<>();
+
+    private final Set<N> nodesOnPath = new HashSet<>();
+
+    private List<N> nextPath = null;
+
+    /**
+     * Creates an iterator over the paths to the specified node from the nodes that have no parents.
+     * @param node The node.
+     * @param parentsFunction A function that supplies the direct parents of a node.
+     */
+    public PathToRootIterator(@Nonnull N node,
+                              @Nonnull Function<N, ? extends Collection<N>> parentsFunction) {
+        this.parentsFunction = checkNotNull(parentsFunction);
+        this.rootPredicate = null;
+        push(checkNotNull(node));
+    }
+
+    /**
+     * Creates an iterator over the paths to the specified node from the nodes that satisfy the specified root
+     * predicate.  Paths that end at a node that has no parents, but that is not a root, are not included.
+     * @param node The node.
+     * @param parentsFunction A function that supplies the direct parents of a node.
+     * @param rootPredicate A predicate that determines whether a node is a root.
+     */
+    public PathToRootIterator(@Nonnull N node,
+                              @Nonnull Function<N, ? extends Collection<N>> parentsFunction,
+                              @Nonnull Predicate<N> rootPredicate) {
+        this.parentsFunction = checkNotNull(parentsFunction);
+        this.rootPredicate = checkNotNull(rootPredicate);
+        push(checkNotNull(node));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(nextPath == null) {
+            nextPath = computeNextPath();
+        }
+        return nextPath != null;
+    }
+
+    @Override
+    public List<N> next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<N> result = nextPath;
+        nextPath = null;
+        return result;
+    }
+
+    private List<N> computeNextPath() {
+        while(!path.isEmpty()) {
+            int top = path.size() - 1;
+            Iterator<N> parents = remainingParents.get(top);
+            if(parents == null) {
+                // The top node is a root
+                List<N> result = new ArrayList<>(path);
+                Collections.reverse(result);
+                pop();
+                return result;
+            }
+            if(parents.hasNext()) {
+                N parent = parents.next();
+                if(!nodesOnPath.contains(parent)) {
+                    push(parent);
+                }
+            }
+            else {
+                pop();
+            }
+        }
+        return null;
+    }
+
+    private void push(N node) {
+        path.add(node);
+        nodesOnPath.add(node);
+        if(rootPredicate != null && rootPredicate.test(node)) {
+            remainingParents.add(null);
+            return;
+        }
+        Collection<N> parents = parentsFunction.apply(node);
+        if(parents == null || parents.isEmpty()) {
+            remainingParents.add(rootPredicate == null ? null : Collections.<N>emptyIterator());
+        }
+        else {
+            remainingParents.add(parents.iterator());
+        }
+    }
+
+    private void pop() {
+        int top = path.size() - 1;
+        nodesOnPath.remove(path.remove(top));
+        remainingParents.remove(top);
+    }
+}
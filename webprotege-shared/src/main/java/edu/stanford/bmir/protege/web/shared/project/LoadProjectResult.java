@@ -29,7 +29,21 @@ public abstract class LoadProjectResult implements Result, HasUserId, HasProject
                                         @Nonnull ProjectDetails projectDetails) {
         return new AutoValue_LoadProjectResult(projectId,
                                                loadedBy,
-                                               projectDetails);
+                                               projectDetails,
+                                               true);
+    }
+
+    /**
+     * Creates a result for a project that is still being loaded.  The client should request the project
+     * again after a short delay.
+     */
+    public static LoadProjectResult loading(@Nonnull ProjectId projectId,
+                                            @Nonnull UserId loadedBy,
+                                            @Nonnull ProjectDetails projectDetails) {
+        return new AutoValue_LoadProjectResult(projectId,
+                                               loadedBy,
+                                               projectDetails,
+                                               false);
     }
 
     @Nonnull
@@ -40,4 +54,9 @@ public abstract class LoadProjectResult implements Result, HasUserId, HasProject
 
     @Nonnull
     public abstract ProjectDetails getProjectDetails();
+
+    /**
+     * Determines whether the project has been loaded or whether it is still being loaded.
+     */
+    public abstract boolean isLoaded();
 }
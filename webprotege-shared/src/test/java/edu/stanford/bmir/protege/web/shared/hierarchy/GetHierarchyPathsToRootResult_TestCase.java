@@ -0,0 +1,84 @@
+package edu.stanford.bmir.protege.web.shared.hierarchy;
+
+import edu.stanford.bmir.protege.web.shared.entity.EntityNode;
+import edu.stanford.protege.gwt.graphtree.shared.graph.GraphNode;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * agent
+ * 2026-10-17
+ */
+public class GetHierarchyPathsToRootResult_TestCase {
+
+    private static GraphNode<EntityNode> node() {
+        return new GraphNode<>(mock(EntityNode.class));
+    }
+
+    @Test
+    public void shouldGetNoDirectParentsForEmptyResult() {
+        assertThat(GetHierarchyPathsToRootResult.empty().getDirectParents(), is(empty()));
+    }
+
+    @Test
+    public void shouldGetDirectParentsFromGraph() {
+        GraphNode<EntityNode> target = node();
+        GraphNode<EntityNode> parentA = node();
+        GraphNode<EntityNode> parentB = node();
+        GraphNode<EntityNode> root = node();
+        List<GraphNode<EntityNode>> nodes = new ArrayList<>();
+        nodes.add(target);
+        nodes.add(parentA);
+        nodes.add(parentB);
+        nodes.add(root);
+        List<int[]> parentIndexes = new ArrayList<>();
+        parentIndexes.add(new int[]{1, 2});
+        parentIndexes.add(new int[]{3});
+        parentIndexes.add(new int[]{3});
+        parentIndexes.add(new int[0]);
+        GetHierarchyPathsToRootResult result = new GetHierarchyPathsToRootResult(nodes, parentIndexes);
+        assertThat(result.getDirectParents(), contains(parentA, parentB));
+    }
+
+    @Test
+    public void shouldGetAllDirectParentsWhenPathsAreCapped() {
+        // Each parent sits above a chain of diamonds, so the paths through the first parent alone exceed MAX_PATHS
+        List<GraphNode<EntityNode>> nodes = new ArrayList<>();
+        List<int[]> parentIndexes = new ArrayList<>();
+        GraphNode<EntityNode> target = node();
+        nodes.add(target);
+        parentIndexes.add(null);
+        int diamonds = 12;
+        List<GraphNode<EntityNode>> directParents = new ArrayList<>();
+        for(int parent = 0; parent < 2; parent++) {
+            GraphNode<EntityNode> parentNode = node();
+            directParents.add(parentNode);
+            int below = nodes.size();
+            nodes.add(parentNode);
+            parentIndexes.add(null);
+            for(int i = 0; i < diamonds; i++) {
+                int left = nodes.size();
+                int right = left + 1;
+                int top = left + 2;
+                nodes.add(node());
+                nodes.add(node());
+                nodes.add(node());
+                parentIndexes.set(below, new int[]{left, right});
+                parentIndexes.add(new int[]{top});
+                parentIndexes.add(new int[]{top});
+                parentIndexes.add(new int[0]);
+                below = top;
+            }
+        }
+        parentIndexes.set(0, new int[]{1, 1 + 1 + 3 * diamonds});
+        GetHierarchyPathsToRootResult result = new GetHierarchyPathsToRootResult(nodes, parentIndexes);
+        assertThat(result.getPaths().size(), is(GetHierarchyPathsToRootResult.MAX_PATHS));
+        assertThat(result.getDirectParents(), is(directParents));
+    }
+}
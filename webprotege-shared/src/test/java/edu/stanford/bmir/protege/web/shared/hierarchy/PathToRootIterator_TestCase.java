@@ -0,0 +1,140 @@
+package edu.stanford.bmir.protege.web.shared.hierarchy;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * agent
+ * 2026-10-16
+ */
+public class PathToRootIterator_TestCase {
+
+    /**
+     * The number of stacked diamonds in the diamond hierarchy.  There are 2^DIAMONDS paths to the bottom node.
+     */
+    private static final int DIAMONDS = 30;
+
+    private SetMultimap<String, String> parents;
+
+    @Before
+    public void setUp() {
+        parents = HashMultimap.create();
+    }
+
+    private PathToRootIterator<String> iterate(String node) {
+        return new PathToRootIterator<>(node, parents::get);
+    }
+
+    private static List<List<String>> toList(Iterator<List<String>> iterator) {
+        List<List<String>> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    public void shouldReturnSinglePathForRoot() {
+        assertThat(toList(iterate("A")), contains(asList("A")));
+    }
+
+    @Test
+    public void shouldReturnPathsStartingWithRoot() {
+        parents.put("B", "A");
+        parents.put("C", "B");
+        assertThat(toList(iterate("C")), contains(asList("A", "B", "C")));
+    }
+
+    @Test
+    public void shouldReturnAllPathsThroughDiamond() {
+        parents.put("B", "A");
+        parents.put("C", "A");
+        parents.put("D", "B");
+        parents.put("D", "C");
+        assertThat(toList(iterate("D")), containsInAnyOrder(asList("A", "B", "D"),
+                                                            asList("A", "C", "D")));
+    }
+
+    @Test
+    public void shouldReturnPathsToMultipleRoots() {
+        parents.put("C", "A");
+        parents.put("C", "B");
+        assertThat(toList(iterate("C")), containsInAnyOrder(asList("A", "C"),
+                                                            asList("B", "C")));
+    }
+
+    @Test
+    public void shouldNotFollowCycles() {
+        parents.put("B", "A");
+        parents.put("B", "C");
+        parents.put("C", "B");
+        assertThat(toList(iterate("B")), contains(asList("A", "B")));
+    }
+
+    @Test
+    public void shouldStopAtNodesThatSatisfyRootPredicate() {
+        parents.put("B", "A");
+        parents.put("C", "B");
+        PathToRootIterator<String> iterator = new PathToRootIterator<>("C", parents::get, "B"::equals);
+        assertThat(toList(iterator), contains(asList("B", "C")));
+    }
+
+    @Test
+    public void shouldNotReturnPathsToDeadEndsWhenRootPredicateIsSpecified() {
+        parents.put("C", "A");
+        parents.put("C", "B");
+        PathToRootIterator<String> iterator = new PathToRootIterator<>("C", parents::get, "A"::equals);
+        assertThat(toList(iterator), contains(asList("A", "C")));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void shouldThrowNoSuchElementExceptionWhenExhausted() {
+        PathToRootIterator<String> iterator = iterate("A");
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test
+    public void shouldLazilyEnumeratePathsInDiamondHeavyHierarchy() {
+        String bottom = createDiamonds(DIAMONDS);
+        PathToRootIterator<String> iterator = iterate(bottom);
+        Set<List<String>> paths = new HashSet<>();
+        for(int i = 0; i < 1000; i++) {
+            assertThat(iterator.hasNext(), is(true));
+            List<String> path = iterator.next();
+            assertThat(path.size(), is(2 * DIAMONDS + 1));
+            assertThat(path.get(0), is("N0"));
+            assertThat(path.get(path.size() - 1), is(bottom));
+            paths.add(path);
+        }
+        assertThat(paths.size(), is(1000));
+        assertThat(iterator.hasNext(), is(true));
+    }
+
+    @Test
+    public void shouldEnumerateAllPathsInSmallDiamondHierarchy() {
+        String bottom = createDiamonds(4);
+        assertThat(new HashSet<>(toList(iterate(bottom))).size(), is(16));
+    }
+
+    /**
+     * Creates a stack of diamonds, N0 -> {L1, R1} -> N1 -> {L2, R2} -> N2 ...
+     * @return The bottom node
+     */
+    private String createDiamonds(int count) {
+        for(int i = 1; i <= count; i++) {
+            String top = "N" + (i - 1);
+            parents.put("L" + i, top);
+            parents.put("R" + i, top);
+            parents.put("N" + i, "L" + i);
+            parents.put("N" + i, "R" + i);
+        }
+        return "N" + count;
+    }
+}
@@ -106,6 +106,25 @@ public class LoadProjectResult_TestCase {
         MatcherAssert.assertThat(loadProjectResult.toString(), Matchers.startsWith("LoadProjectResult"));
     }
 
+    @Test
+    public void shouldBeLoaded() {
+        MatcherAssert.assertThat(loadProjectResult.isLoaded(), Matchers.is(true));
+    }
+
+    @Test
+    public void shouldNotBeLoadedIfLoading() {
+        MatcherAssert.assertThat(LoadProjectResult.loading(projectId, loadedBy, projectDetails).isLoaded(),
+                                 Matchers.is(false));
+    }
+
+    @Test
+    public void shouldNotBeEqualToOtherThatIsLoading() {
+        MatcherAssert.assertThat(loadProjectResult,
+                                 Matchers.is(Matchers.not(LoadProjectResult.loading(projectId,
+                                                                                    loadedBy,
+                                                                                    projectDetails))));
+    }
+
     @Test
     public void should_getUserId() {
         MatcherAssert.assertThat(loadProjectResult.getUserId(), Matchers.is(loadedBy));